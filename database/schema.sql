@@ -145,6 +145,30 @@ INSERT INTO `department` VALUES (1,'Software Engineering','2025-03-12 18:58:35')
 /*!40000 ALTER TABLE `department` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `gparepair`
+--
+
+DROP TABLE IF EXISTS `gparepair`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `gparepair` (
+  `student_id` int NOT NULL,
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`student_id`),
+  CONSTRAINT `gparepair_ibfk_1` FOREIGN KEY (`student_id`) REFERENCES `student` (`student_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `gparepair`
+--
+
+LOCK TABLES `gparepair` WRITE;
+/*!40000 ALTER TABLE `gparepair` DISABLE KEYS */;
+/*!40000 ALTER TABLE `gparepair` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `grade`
 --
@@ -173,6 +197,68 @@ LOCK TABLES `grade` WRITE;
 /*!40000 ALTER TABLE `grade` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `id_sequence`
+--
+
+DROP TABLE IF EXISTS `id_sequence`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `id_sequence` (
+  `name` varchar(150) NOT NULL,
+  `next_value` int NOT NULL,
+  PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `id_sequence`
+--
+
+LOCK TABLES `id_sequence` WRITE;
+/*!40000 ALTER TABLE `id_sequence` DISABLE KEYS */;
+/*!40000 ALTER TABLE `id_sequence` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `offeringanalytics`
+--
+
+DROP TABLE IF EXISTS `offeringanalytics`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `offeringanalytics` (
+  `offering_id` int NOT NULL,
+  `enrollment_count` int NOT NULL DEFAULT '0',
+  `graded_count` int NOT NULL DEFAULT '0',
+  `count_a_plus` int NOT NULL DEFAULT '0',
+  `count_a` int NOT NULL DEFAULT '0',
+  `count_a_minus` int NOT NULL DEFAULT '0',
+  `count_b_plus` int NOT NULL DEFAULT '0',
+  `count_b` int NOT NULL DEFAULT '0',
+  `count_b_minus` int NOT NULL DEFAULT '0',
+  `count_c_plus` int NOT NULL DEFAULT '0',
+  `count_c` int NOT NULL DEFAULT '0',
+  `count_c_minus` int NOT NULL DEFAULT '0',
+  `count_d` int NOT NULL DEFAULT '0',
+  `count_f` int NOT NULL DEFAULT '0',
+  `grade_point_total` decimal(10,2) NOT NULL DEFAULT '0.00',
+  `teacher_count` int NOT NULL DEFAULT '0',
+  `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`offering_id`),
+  CONSTRAINT `offeringanalytics_ibfk_1` FOREIGN KEY (`offering_id`) REFERENCES `courseoffering` (`offering_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `offeringanalytics`
+--
+
+LOCK TABLES `offeringanalytics` WRITE;
+/*!40000 ALTER TABLE `offeringanalytics` DISABLE KEYS */;
+/*!40000 ALTER TABLE `offeringanalytics` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `program`
 --
@@ -313,6 +399,7 @@ CREATE TABLE `studentacademicrecord` (
   `year` int NOT NULL,
   `semester` int NOT NULL,
   `total_credits` int NOT NULL,
+  `quality_points` decimal(8,2) NOT NULL DEFAULT '0.00',
   `sgpa` decimal(3,2) DEFAULT NULL,
   `cgpa` decimal(3,2) DEFAULT NULL,
   `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
@@ -363,6 +450,32 @@ LOCK TABLES `studentcourse` WRITE;
 /*!40000 ALTER TABLE `studentcourse` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `studentgpatotals`
+--
+
+DROP TABLE IF EXISTS `studentgpatotals`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `studentgpatotals` (
+  `student_id` int NOT NULL,
+  `total_credits` int NOT NULL DEFAULT '0',
+  `quality_points` decimal(9,2) NOT NULL DEFAULT '0.00',
+  `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`student_id`),
+  CONSTRAINT `studentgpatotals_ibfk_1` FOREIGN KEY (`student_id`) REFERENCES `student` (`student_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `studentgpatotals`
+--
+
+LOCK TABLES `studentgpatotals` WRITE;
+/*!40000 ALTER TABLE `studentgpatotals` DISABLE KEYS */;
+/*!40000 ALTER TABLE `studentgpatotals` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `teacher`
 --
@@ -0,0 +1,135 @@
+-- Upgrades a STIMS database created from an earlier schema.sql to the
+-- current schema. Every step checks what is already there, so the script can
+-- be run again safely.
+--
+--   mysql -u root -p STIMS_DBA < database/upgrade.sql
+--
+-- Tables that the application fills on its own are only created here:
+-- `id_sequence` seeds each sequence from the IDs and usernames in use, and
+-- `offeringanalytics` is rebuilt on first use when offerings have no row.
+
+--
+-- Running GPA totals per term
+--
+
+SET @sql = (SELECT IF(COUNT(*) = 0,
+    'ALTER TABLE `studentacademicrecord` ADD COLUMN `quality_points` decimal(8,2) NOT NULL DEFAULT ''0.00'' AFTER `total_credits`',
+    'DO 0')
+    FROM information_schema.COLUMNS
+    WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'studentacademicrecord' AND COLUMN_NAME = 'quality_points');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+--
+-- Running GPA totals per student
+--
+
+CREATE TABLE IF NOT EXISTS `studentgpatotals` (
+  `student_id` int NOT NULL,
+  `total_credits` int NOT NULL DEFAULT '0',
+  `quality_points` decimal(9,2) NOT NULL DEFAULT '0.00',
+  `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`student_id`),
+  CONSTRAINT `studentgpatotals_ibfk_1` FOREIGN KEY (`student_id`) REFERENCES `student` (`student_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+-- Earlier versions of this script created the foreign key without ON DELETE
+-- CASCADE, which stopped students with running totals from being deleted
+
+SET @sql = (SELECT IF(COUNT(*) = 1,
+    'ALTER TABLE `studentgpatotals` DROP FOREIGN KEY `studentgpatotals_ibfk_1`, ADD CONSTRAINT `studentgpatotals_ibfk_1` FOREIGN KEY (`student_id`) REFERENCES `student` (`student_id`) ON DELETE CASCADE',
+    'DO 0')
+    FROM information_schema.REFERENTIAL_CONSTRAINTS
+    WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'studentgpatotals'
+        AND CONSTRAINT_NAME = 'studentgpatotals_ibfk_1' AND DELETE_RULE <> 'CASCADE');
+PREPARE stmt FROM @sql;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+--
+-- Students whose running totals must be rebuilt
+--
+
+CREATE TABLE IF NOT EXISTS `gparepair` (
+  `student_id` int NOT NULL,
+  `created_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP,
+  PRIMARY KEY (`student_id`),
+  CONSTRAINT `gparepair_ibfk_1` FOREIGN KEY (`student_id`) REFERENCES `student` (`student_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+--
+-- ID and username sequences
+--
+
+CREATE TABLE IF NOT EXISTS `id_sequence` (
+  `name` varchar(150) NOT NULL,
+  `next_value` int NOT NULL,
+  PRIMARY KEY (`name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+--
+-- Per-offering summary
+--
+
+CREATE TABLE IF NOT EXISTS `offeringanalytics` (
+  `offering_id` int NOT NULL,
+  `enrollment_count` int NOT NULL DEFAULT '0',
+  `graded_count` int NOT NULL DEFAULT '0',
+  `count_a_plus` int NOT NULL DEFAULT '0',
+  `count_a` int NOT NULL DEFAULT '0',
+  `count_a_minus` int NOT NULL DEFAULT '0',
+  `count_b_plus` int NOT NULL DEFAULT '0',
+  `count_b` int NOT NULL DEFAULT '0',
+  `count_b_minus` int NOT NULL DEFAULT '0',
+  `count_c_plus` int NOT NULL DEFAULT '0',
+  `count_c` int NOT NULL DEFAULT '0',
+  `count_c_minus` int NOT NULL DEFAULT '0',
+  `count_d` int NOT NULL DEFAULT '0',
+  `count_f` int NOT NULL DEFAULT '0',
+  `grade_point_total` decimal(10,2) NOT NULL DEFAULT '0.00',
+  `teacher_count` int NOT NULL DEFAULT '0',
+  `updated_at` timestamp NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+  PRIMARY KEY (`offering_id`),
+  CONSTRAINT `offeringanalytics_ibfk_1` FOREIGN KEY (`offering_id`) REFERENCES `courseoffering` (`offering_id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+
+--
+-- Fill the running totals from the current enrollments and grades. Grade
+-- points match GpaEngine; ungraded courses count towards neither credits nor
+-- quality points.
+--
+
+DROP TEMPORARY TABLE IF EXISTS `upgrade_term_totals`;
+CREATE TEMPORARY TABLE `upgrade_term_totals` AS
+SELECT sc.student_id, co.academic_year, co.year, co.semester,
+       SUM(IF(g.grade IS NULL, 0, c.credits)) AS total_credits,
+       SUM(c.credits * CASE g.grade
+           WHEN 'A+' THEN 4.00 WHEN 'A' THEN 4.00 WHEN 'A-' THEN 3.70
+           WHEN 'B+' THEN 3.50 WHEN 'B' THEN 3.00 WHEN 'B-' THEN 2.70
+           WHEN 'C+' THEN 2.50 WHEN 'C' THEN 2.00 WHEN 'C-' THEN 1.75
+           WHEN 'D' THEN 1.00 ELSE 0.00 END) AS quality_points
+FROM studentcourse sc
+JOIN courseoffering co ON sc.offering_id = co.offering_id
+JOIN course c ON co.course_id = c.course_id
+LEFT JOIN grade g ON sc.student_course_id = g.student_course_id
+GROUP BY sc.student_id, co.academic_year, co.year, co.semester;
+
+UPDATE studentacademicrecord sar
+JOIN upgrade_term_totals t ON sar.student_id = t.student_id AND sar.academic_year = t.academic_year
+    AND sar.year = t.year AND sar.semester = t.semester
+SET sar.total_credits = t.total_credits,
+    sar.quality_points = t.quality_points,
+    sar.sgpa = COALESCE(ROUND(t.quality_points / NULLIF(t.total_credits, 0), 2), 0);
+
+INSERT INTO studentgpatotals (student_id, total_credits, quality_points)
+SELECT student_id, SUM(total_credits), SUM(quality_points)
+FROM upgrade_term_totals
+GROUP BY student_id
+ON DUPLICATE KEY UPDATE total_credits = VALUES(total_credits), quality_points = VALUES(quality_points);
+
+UPDATE studentacademicrecord sar
+JOIN studentgpatotals t ON sar.student_id = t.student_id
+SET sar.cgpa = COALESCE(ROUND(t.quality_points / NULLIF(t.total_credits, 0), 2), 0);
+
+DROP TEMPORARY TABLE `upgrade_term_totals`;
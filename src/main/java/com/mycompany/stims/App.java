@@ -1,6 +1,12 @@
 package com.mycompany.stims;
 
+import com.mycompany.stims.database.DatabaseConnection;
+import com.mycompany.stims.database.GradeChangeQueue;
+import com.mycompany.stims.utils.BackgroundTasks;
+import com.mycompany.stims.utils.PasswordUtils;
+import java.util.function.Consumer;
 import javafx.application.Application;
+import javafx.concurrent.Task;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -26,10 +32,24 @@ public class App extends Application {
     @Override
     public void start(Stage stage) throws IOException {
         setRoot(stage, "fxml/Login"); // Start with the login screen
+        BackgroundTasks.execute(PasswordUtils::getTargetCost); // Resolve the bcrypt cost (calibrating if not fixed) before the first login
+        GradeChangeQueue.start(); // Rebuild academic records left pending by an earlier run
         stage.setTitle("STIMS");
         stage.show();
     }
 
+    /**
+     * Called when the application exits. Stops background UI work, rebuilds
+     * the academic records of pending grade changes and closes the pooled
+     * database connections.
+     */
+    @Override
+    public void stop() {
+        BackgroundTasks.shutdown();
+        GradeChangeQueue.shutdown();
+        DatabaseConnection.shutdown();
+    }
+
     /**
      * Sets the root node of the scene for the given stage by loading the
      * specified FXML file. This method is used to switch between different
@@ -46,6 +66,23 @@ public class App extends Application {
         stage.setScene(scene);
     }
 
+    /**
+     * Sets the root node of the scene for the given stage like
+     * {@link #setRoot(Stage, String)}, but loads the FXML file off the JavaFX
+     * application thread so the window stays responsive while the view and
+     * its data load. The scene is replaced once loading has finished.
+     *
+     * @param stage The stage (window) to set the scene for.
+     * @param fxmlPath The path to the FXML file (without the `.fxml`
+     * extension).
+     * @param onFailure Called with the exception if the view cannot be loaded.
+     * @return The loading task, for cancellation and progress display.
+     */
+    public static Task<Parent> setRootAsync(Stage stage, String fxmlPath, Consumer<Throwable> onFailure) {
+        return BackgroundTasks.loadFXML(App.class.getResource("/com/mycompany/stims/" + fxmlPath + ".fxml"), null,
+                root -> stage.setScene(new Scene(root, 1280, 720)), onFailure);
+    }
+
     /**
      * Loads an FXML file and returns the root node of the FXML hierarchy.
      *
@@ -1,23 +1,28 @@
 package com.mycompany.stims.controller;
 
 import com.mycompany.stims.App;
-import com.mycompany.stims.database.AdminDAO;
-import com.mycompany.stims.database.TeacherDAO;
-import com.mycompany.stims.database.StudentDAO;
 import com.mycompany.stims.database.DatabaseConnection;
+import com.mycompany.stims.database.IdentityDAO;
+import com.mycompany.stims.utils.BackgroundTasks;
+import com.mycompany.stims.utils.Principal;
 import com.mycompany.stims.utils.Session;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
+import javafx.scene.Parent;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
 import javafx.scene.control.PasswordField;
+import javafx.scene.control.ProgressIndicator;
 import javafx.scene.control.TextField;
 import javafx.stage.Stage;
-import java.io.IOException;
 import java.sql.Connection;
+import java.sql.SQLException;
 
 /**
  * The LoginController class handles the login functionality for the
  * application. It authenticates users (teachers, admins, and students) and
- * navigates them to their respective dashboards.
+ * navigates them to their respective dashboards. Authentication and dashboard
+ * loading run in the background while a progress indicator is shown.
  */
 public class LoginController {
 
@@ -25,34 +30,16 @@ public class LoginController {
     private TextField emailField;       // TextField for entering email or username
     @FXML
     private PasswordField passwordField; // PasswordField for entering password
-
-    private TeacherDAO teacherDAO;      // DAO for teacher-related database operations
-    private AdminDAO adminDAO;          // DAO for admin-related database operations
-    private StudentDAO studentDAO;      // DAO for student-related database operations
+    @FXML
+    private Button loginButton;         // Button that starts the login
+    @FXML
+    private ProgressIndicator loginProgress; // Shown while logging in
 
     private static final String TEACHER_DASHBOARD = "fxml/dashboard/teacher/Teacher_Dashboard"; // Path to teacher dashboard
     private static final String SUPER_ADMIN_DASHBOARD = "fxml/dashboard/super_admin/SuperAdmin_Dashboard"; // Path to super admin dashboard
     private static final String REGULAR_ADMIN_DASHBOARD = "fxml/dashboard/admin/Admin_Dashboard"; // Path to regular admin dashboard
     private static final String STUDENT_DASHBOARD = "fxml/dashboard/student/Student_Dashboard"; // Path to student dashboard
 
-    /**
-     * Default constructor for the LoginController class. Initializes the DAOs
-     * using a database connection.
-     */
-    public LoginController() {
-        // Use the DatabaseConnection class to get a connection
-        Connection connection = DatabaseConnection.getConnection();
-
-        if (connection != null) {
-            teacherDAO = new TeacherDAO(connection);
-            adminDAO = new AdminDAO(connection);
-            studentDAO = new StudentDAO(connection);
-        } else {
-            System.err.println("Failed to initialize DAOs due to a database connection issue.");
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Unable to connect to the database.");
-        }
-    }
-
     /**
      * Handles the login process when the login button is clicked. Authenticates
      * the user based on the provided email/username and password.
@@ -67,71 +54,88 @@ public class LoginController {
             return;
         }
 
-        try {
-            // Authenticate as Teacher
-            if (teacherDAO != null && teacherDAO.authenticateTeacher(emailOrUsername, password) != null) {
-                // Store the logged-in teacher's email or username in the Session
-                Session.setLoggedInTeacherEmailOrUsername(emailOrUsername);
-
-                showAlert(Alert.AlertType.INFORMATION, "Login Successful", "Welcome, Teacher!");
-                navigateToDashboard(TEACHER_DASHBOARD);
-                return;
-            }
+        // Find the account and verify the password off the FX thread
+        Task<Principal> loginTask = BackgroundTasks.run(loginButton,
+                () -> authenticate(emailOrUsername, password),
+                this::completeLogin,
+                e -> showAlert(Alert.AlertType.ERROR, "Login Error", "An error occurred during login. Please try again."));
+        showProgress(loginTask);
+    }
 
-            // Authenticate as Admin
-            if (adminDAO != null) {
-                com.mycompany.stims.model.Admin admin = adminDAO.authenticateAdmin(emailOrUsername, password);
-                if (admin != null) {
-                    // Store the logged-in admin's email or username in the Session
-                    Session.setLoggedInAdminEmailOrUsername(emailOrUsername);
+    /**
+     * Authenticates the user with a connection borrowed for this attempt only.
+     * Runs in the background.
+     *
+     * @param emailOrUsername the email or username entered
+     * @param password the password entered
+     * @return the principal of the user, or null if the credentials are wrong
+     * @throws SQLException if no database connection is available
+     */
+    private Principal authenticate(String emailOrUsername, String password) throws SQLException {
+        try (Connection connection = DatabaseConnection.borrow()) {
+            // Find the account in one query and verify the password once
+            return new IdentityDAO(connection).authenticate(emailOrUsername, password);
+        }
+    }
 
-                    // Check the role of the admin
-                    int roleId = admin.getRoleId();
-                    if (roleId == 1) { // Super Admin
-                        showAlert(Alert.AlertType.INFORMATION, "Login Successful", "Welcome, Super Admin!");
-                        navigateToDashboard(SUPER_ADMIN_DASHBOARD);
-                    } else if (roleId == 2) { // Regular Admin
-                        showAlert(Alert.AlertType.INFORMATION, "Login Successful", "Welcome, Admin!");
-                        navigateToDashboard(REGULAR_ADMIN_DASHBOARD);
-                    } else {
-                        showAlert(Alert.AlertType.ERROR, "Login Failed", "Unknown role!");
-                    }
-                    return;
-                }
-            }
+    /**
+     * Stores the authenticated user in the Session and opens their dashboard.
+     *
+     * @param principal the authenticated user, or null if the credentials
+     * were wrong
+     */
+    private void completeLogin(Principal principal) {
+        if (principal == null) {
+            showAlert(Alert.AlertType.ERROR, "Login Failed", "Invalid email/username or password!");
+            return;
+        }
 
-            // Authenticate as Student
-            if (studentDAO != null && studentDAO.authenticateStudent(emailOrUsername, password) != null) {
-                // Store the logged-in student's email or username in the Session
-                Session.setLoggedInStudentEmailOrUsername(emailOrUsername);
+        // Store the logged-in user in the Session
+        Session.setPrincipal(principal);
 
+        switch (principal.getRole()) {
+            case TEACHER:
+                showAlert(Alert.AlertType.INFORMATION, "Login Successful", "Welcome, Teacher!");
+                navigateToDashboard(TEACHER_DASHBOARD);
+                break;
+            case SUPER_ADMIN:
+                showAlert(Alert.AlertType.INFORMATION, "Login Successful", "Welcome, Super Admin!");
+                navigateToDashboard(SUPER_ADMIN_DASHBOARD);
+                break;
+            case ADMIN:
+                showAlert(Alert.AlertType.INFORMATION, "Login Successful", "Welcome, Admin!");
+                navigateToDashboard(REGULAR_ADMIN_DASHBOARD);
+                break;
+            default:
                 showAlert(Alert.AlertType.INFORMATION, "Login Successful", "Welcome, Student!");
                 navigateToDashboard(STUDENT_DASHBOARD);
-                return;
-            }
-
-            // If none of the above authentications succeed, show an error
-            showAlert(Alert.AlertType.ERROR, "Login Failed", "Invalid email/username or password!");
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            showAlert(Alert.AlertType.ERROR, "Login Error", "An error occurred during login. Please try again.");
+                break;
         }
     }
 
     /**
-     * Navigates the user to the specified dashboard.
+     * Shows the progress indicator while a task runs.
+     *
+     * @param task the running task
+     */
+    private void showProgress(Task<?> task) {
+        loginProgress.visibleProperty().bind(task.runningProperty());
+    }
+
+    /**
+     * Navigates the user to the specified dashboard. The dashboard is loaded
+     * in the background.
      *
      * @param dashboardPath the path to the dashboard FXML file
      */
     private void navigateToDashboard(String dashboardPath) {
-        try {
-            Stage currentStage = (Stage) emailField.getScene().getWindow();
-            App.setRoot(currentStage, dashboardPath);
-        } catch (IOException e) {
+        Stage currentStage = (Stage) emailField.getScene().getWindow();
+        Task<Parent> loadTask = App.setRootAsync(currentStage, dashboardPath, e -> {
             e.printStackTrace();
             showAlert(Alert.AlertType.ERROR, "Navigation Error", "Could not load the dashboard.");
-        }
+        });
+        BackgroundTasks.showBusy(loginButton, loadTask);
+        showProgress(loadTask);
     }
 
     /**
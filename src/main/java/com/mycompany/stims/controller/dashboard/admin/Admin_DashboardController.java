@@ -1,15 +1,18 @@
 package com.mycompany.stims.controller.dashboard.admin;
 
+import com.mycompany.stims.utils.BackgroundTasks;
 import com.mycompany.stims.utils.Session;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ResourceBundle;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import javafx.fxml.Initializable;
@@ -29,6 +32,8 @@ public class Admin_DashboardController implements Initializable {
     @FXML
     private StackPane dynamicContentContainer;
 
+    private Task<Parent> pendingView; // View currently being loaded, if any
+
     /**
      * Initializes the controller after its root element has been completely
      * processed. This method loads the default "Home" view when the dashboard
@@ -98,25 +103,23 @@ public class Admin_DashboardController implements Initializable {
     }
 
     /**
-     * Loads the specified FXML file and updates the dynamic content area with
-     * the new view.
+     * Loads the specified FXML file in the background and updates the dynamic
+     * content area with the new view once it is ready.
      *
      * @param fxmlPath The path to the FXML file to load.
      */
     private void loadUI(String fxmlPath) {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent newContent = loader.load();
+        // Abandon a view that is still loading from an earlier click
+        BackgroundTasks.cancel(pendingView);
 
+        // Load the view off the FX thread, showing progress over the current one
+        pendingView = BackgroundTasks.loadFXML(getClass().getResource(fxmlPath), dynamicContentContainer, newContent -> {
             // Clear the previous content
             dynamicContentContainer.getChildren().clear();
 
             // Add the new content
             dynamicContentContainer.getChildren().add(newContent);
-        } catch (IOException e) {
-            e.printStackTrace();
-            // Handle loading errors
-        }
+        }, e -> new Alert(Alert.AlertType.ERROR, "Could not load this page.").show()); // Handle loading errors
     }
 
     /**
@@ -78,12 +78,12 @@ public class CourseOfferingsController implements Initializable {
     @FXML
     private TableColumn<CourseOffering, Integer> semesterColumn;
 
-    private CourseOfferingDAO courseOfferingDAO;
     private ObservableList<CourseOffering> courseOfferingList;
     private Map<String, Integer> courseCodeMap;
 
     /**
-     * Initializes the controller and sets up the UI components.
+     * Initializes the controller and sets up the UI components. Database work
+     * borrows a pooled connection per operation.
      *
      * @param url the location used to resolve relative paths for the root
      * object
@@ -91,43 +91,40 @@ public class CourseOfferingsController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
+        // Set up table columns
+        offeringIdColumn.setCellValueFactory(new PropertyValueFactory<>("offeringId"));
+        courseIdColumn.setCellValueFactory(new PropertyValueFactory<>("courseId"));
+        courseCodeColumn.setCellValueFactory(new PropertyValueFactory<>("courseCode"));
+        academicYearColumn.setCellValueFactory(new PropertyValueFactory<>("academicYear"));
+        yearColumn.setCellValueFactory(new PropertyValueFactory<>("year"));
+        semesterColumn.setCellValueFactory(new PropertyValueFactory<>("semester"));
+
+        // Load course offerings and initialize filters
+        loadCourseOfferings();
+        initializeCourseCodeFilter();
 
-        Connection connection = DatabaseConnection.getConnection();
-        if (connection != null) {
-            courseOfferingDAO = new CourseOfferingDAO(connection);
-
-            // Set up table columns
-            offeringIdColumn.setCellValueFactory(new PropertyValueFactory<>("offeringId"));
-            courseIdColumn.setCellValueFactory(new PropertyValueFactory<>("courseId"));
-            courseCodeColumn.setCellValueFactory(new PropertyValueFactory<>("courseCode"));
-            academicYearColumn.setCellValueFactory(new PropertyValueFactory<>("academicYear"));
-            yearColumn.setCellValueFactory(new PropertyValueFactory<>("year"));
-            semesterColumn.setCellValueFactory(new PropertyValueFactory<>("semester"));
-
-            // Load course offerings and initialize filters
-            loadCourseOfferings();
-            initializeCourseCodeFilter();
-
-            // Initialize year and semester ComboBoxes
-            yearComboBox.getItems().addAll("1", "2", "3", "4", "5", "6", "7", "8", "9", "10");
-            semesterComboBox.getItems().addAll("1", "2");
-
-            // Add listener for table row selection
-            courseOfferingTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
-                if (newSelection != null) {
-                    prefillUpdateFields(newSelection);
-                }
-            });
-        } else {
-            System.err.println("Failed to initialize controller due to database connection error.");
-        }
+        // Initialize year and semester ComboBoxes
+        yearComboBox.getItems().addAll("1", "2", "3", "4", "5", "6", "7", "8", "9", "10");
+        semesterComboBox.getItems().addAll("1", "2");
+
+        // Add listener for table row selection
+        courseOfferingTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
+            if (newSelection != null) {
+                prefillUpdateFields(newSelection);
+            }
+        });
     }
 
     /**
      * Loads all course offerings from the database and populates the table.
      */
     private void loadCourseOfferings() {
-        courseOfferingList = FXCollections.observableArrayList(courseOfferingDAO.getAllCourseOfferings());
+        try (Connection connection = DatabaseConnection.borrow()) {
+            courseOfferingList = FXCollections.observableArrayList(new CourseOfferingDAO(connection).getAllCourseOfferings());
+        } catch (SQLException e) {
+            System.err.println("Error loading course offerings: " + e.getMessage());
+            return;
+        }
         courseOfferingTable.setItems(courseOfferingList);
     }
 
@@ -138,7 +135,7 @@ public class CourseOfferingsController implements Initializable {
     private void initializeCourseCodeFilter() {
         courseCodeMap = new HashMap<>();
         String sql = "SELECT course_id, course_code FROM Course";
-        try (Connection connection = DatabaseConnection.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
+        try (Connection connection = DatabaseConnection.borrow(); PreparedStatement pstmt = connection.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
 
             while (rs.next()) {
                 int courseId = rs.getInt("course_id");
@@ -178,7 +175,12 @@ public class CourseOfferingsController implements Initializable {
                     CourseOffering newOffering = new CourseOffering(courseId, academicYear, year, semester);
                     newOffering.setCreatedAt(new Timestamp(System.currentTimeMillis()));
                     newOffering.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
-                    courseOfferingDAO.addCourseOffering(newOffering);
+                    try (Connection connection = DatabaseConnection.borrow()) {
+                        new CourseOfferingDAO(connection).addCourseOffering(newOffering);
+                    } catch (SQLException e) {
+                        showErrorDialog("Database Error", "Failed to add the course offering: " + e.getMessage());
+                        return;
+                    }
 
                     loadCourseOfferings();
                     clearInputFields();
@@ -198,9 +200,15 @@ public class CourseOfferingsController implements Initializable {
         String selectedCourseCode = courseCodeFilterComboBox.getSelectionModel().getSelectedItem();
         if (selectedCourseCode != null) {
             int courseId = courseCodeMap.get(selectedCourseCode);
-            List<CourseOffering> filteredOfferings = courseOfferingDAO.getAllCourseOfferings().stream()
-                    .filter(offering -> offering.getCourseId() == courseId)
-                    .collect(Collectors.toList());
+            List<CourseOffering> filteredOfferings;
+            try (Connection connection = DatabaseConnection.borrow()) {
+                filteredOfferings = new CourseOfferingDAO(connection).getAllCourseOfferings().stream()
+                        .filter(offering -> offering.getCourseId() == courseId)
+                        .collect(Collectors.toList());
+            } catch (SQLException e) {
+                showErrorDialog("Database Error", "Failed to filter course offerings: " + e.getMessage());
+                return;
+            }
             courseOfferingList = FXCollections.observableArrayList(filteredOfferings);
             courseOfferingTable.setItems(courseOfferingList);
         }
@@ -248,7 +256,12 @@ public class CourseOfferingsController implements Initializable {
                         selectedOffering.setSemester(semester);
                         selectedOffering.setUpdatedAt(new Timestamp(System.currentTimeMillis()));
 
-                        courseOfferingDAO.updateCourseOffering(selectedOffering);
+                        try (Connection connection = DatabaseConnection.borrow()) {
+                            new CourseOfferingDAO(connection).updateCourseOffering(selectedOffering);
+                        } catch (SQLException e) {
+                            showErrorDialog("Database Error", "Failed to update the course offering: " + e.getMessage());
+                            return;
+                        }
 
                         loadCourseOfferings();
                         clearInputFields();
@@ -276,7 +289,13 @@ public class CourseOfferingsController implements Initializable {
             confirmation.setContentText("Are you sure you want to delete this course offering?");
             confirmation.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
-                    boolean isDeleted = courseOfferingDAO.deleteCourseOffering(selectedOffering.getOfferingId());
+                    boolean isDeleted;
+                    try (Connection connection = DatabaseConnection.borrow()) {
+                        isDeleted = new CourseOfferingDAO(connection).deleteCourseOffering(selectedOffering.getOfferingId());
+                    } catch (SQLException e) {
+                        showErrorDialog("Database Error", "Failed to delete the course offering: " + e.getMessage());
+                        return;
+                    }
 
                     if (isDeleted) {
                         loadCourseOfferings();
@@ -3,6 +3,11 @@ package com.mycompany.stims.controller.dashboard.admin.course_management;
 import com.mycompany.stims.model.Course;
 import com.mycompany.stims.database.CourseDAO;
 import com.mycompany.stims.database.DatabaseConnection;
+import com.mycompany.stims.database.Page;
+import com.mycompany.stims.database.PageRequest;
+import com.mycompany.stims.database.ReferenceDataCache;
+import com.mycompany.stims.utils.InfiniteScroll;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -82,14 +87,15 @@ public class CoursesController implements Initializable {
     @FXML
     private TableColumn<Course, String> departmentNameColumn;
 
-    private CourseDAO courseDAO;
     private ObservableList<Course> courseList;
+    private PageRequest nextPage; // Request for the next page of courses, or null when all are loaded
+    private static final int PAGE_SIZE = 100; // Courses fetched per page
     private Map<String, Integer> departmentMap; // Maps department names to IDs
-    private Connection connection;
 
     /**
-     * Initializes the controller class. Sets up the database connection,
-     * initializes UI components, and loads course data into the table.
+     * Initializes the controller class. Initializes UI components and loads
+     * course data into the table. Database work borrows a pooled connection
+     * per operation.
      *
      * @param url the location used to resolve relative paths for the root
      * object
@@ -97,46 +103,40 @@ public class CoursesController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        connection = DatabaseConnection.getConnection();
-        if (connection != null) {
-            courseDAO = new CourseDAO(connection);
+        // Initialize table columns
+        courseIdColumn.setCellValueFactory(new PropertyValueFactory<>("courseId"));
+        courseCodeColumn.setCellValueFactory(new PropertyValueFactory<>("courseCode"));
+        courseNameColumn.setCellValueFactory(new PropertyValueFactory<>("courseName"));
+        creditsColumn.setCellValueFactory(new PropertyValueFactory<>("credits"));
+        courseLevelColumn.setCellValueFactory(new PropertyValueFactory<>("courseLevel"));
+        yearColumn.setCellValueFactory(new PropertyValueFactory<>("year"));
+        semesterColumn.setCellValueFactory(new PropertyValueFactory<>("semester"));
 
-            // Initialize table columns
-            courseIdColumn.setCellValueFactory(new PropertyValueFactory<>("courseId"));
-            courseCodeColumn.setCellValueFactory(new PropertyValueFactory<>("courseCode"));
-            courseNameColumn.setCellValueFactory(new PropertyValueFactory<>("courseName"));
-            creditsColumn.setCellValueFactory(new PropertyValueFactory<>("credits"));
-            courseLevelColumn.setCellValueFactory(new PropertyValueFactory<>("courseLevel"));
-            yearColumn.setCellValueFactory(new PropertyValueFactory<>("year"));
-            semesterColumn.setCellValueFactory(new PropertyValueFactory<>("semester"));
-
-            departmentNameColumn.setCellValueFactory(new Callback<TableColumn.CellDataFeatures<Course, String>, ObservableValue<String>>() {
-                @Override
-                public ObservableValue<String> call(TableColumn.CellDataFeatures<Course, String> param) {
-                    int departmentId = param.getValue().getDepartmentId();
-                    String departmentName = getDepartmentNameById(departmentId);
-                    return new javafx.beans.property.SimpleStringProperty(departmentName);
-                }
-            });
+        departmentNameColumn.setCellValueFactory(new Callback<TableColumn.CellDataFeatures<Course, String>, ObservableValue<String>>() {
+            @Override
+            public ObservableValue<String> call(TableColumn.CellDataFeatures<Course, String> param) {
+                int departmentId = param.getValue().getDepartmentId();
+                String departmentName = getDepartmentNameById(departmentId);
+                return new javafx.beans.property.SimpleStringProperty(departmentName);
+            }
+        });
 
-            // Load all courses
-            loadCourses();
+        // Load the first page of courses and fetch more as the user scrolls
+        loadCourses();
+        InfiniteScroll.install(courseTable, this::loadNextPage);
 
-            // Initialize ComboBoxes
-            initializeComboBoxes();
+        // Initialize ComboBoxes
+        initializeComboBoxes();
 
-            // Initialize department filter
-            initializeDepartmentFilter();
+        // Initialize department filter
+        initializeDepartmentFilter();
 
-            // Add listener for table selection
-            courseTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
-                if (newSelection != null) {
-                    prefillUpdateFields(newSelection);
-                }
-            });
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to connect to the database.");
-        }
+        // Add listener for table selection
+        courseTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
+            if (newSelection != null) {
+                prefillUpdateFields(newSelection);
+            }
+        });
     }
 
     /**
@@ -159,7 +159,7 @@ public class CoursesController implements Initializable {
         // Populate department ComboBox
         departmentMap = new HashMap<>();
         String sql = "SELECT department_id, department_name FROM Department";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
+        try (Connection connection = DatabaseConnection.borrow(); PreparedStatement pstmt = connection.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
                 int departmentId = rs.getInt("department_id");
                 String departmentName = rs.getString("department_name");
@@ -167,16 +167,41 @@ public class CoursesController implements Initializable {
                 departmentComboBox.getItems().add(departmentName);
             }
         } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load departments: " + e.getMessage());
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load departments: " + e.getMessage()));
         }
     }
 
     /**
-     * Loads all courses from the database and populates the table.
+     * Loads the first page of courses into the table. Further pages are
+     * appended as the user scrolls.
      */
     private void loadCourses() {
-        courseList = FXCollections.observableArrayList(courseDAO.getAllCourses());
+        courseList = FXCollections.observableArrayList();
         courseTable.setItems(courseList);
+        nextPage = PageRequest.first(PAGE_SIZE, "courseCode", true, null);
+        loadNextPage();
+    }
+
+    /**
+     * Appends the next page of courses to the table, if there is one.
+     *
+     * @return true if courses were appended
+     */
+    private boolean loadNextPage() {
+        if (nextPage == null) {
+            return false;
+        }
+        Page<Course> page;
+        try (Connection connection = DatabaseConnection.borrow()) {
+            page = new CourseDAO(connection).getCoursesPage(nextPage);
+        } catch (SQLException e) {
+            // Also reached from initialize, which must not open dialogs itself
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load courses: " + e.getMessage()));
+            return false;
+        }
+        nextPage = page.getNextRequest();
+        courseList.addAll(page.getItems());
+        return !page.getItems().isEmpty();
     }
 
     /**
@@ -209,7 +234,12 @@ public class CoursesController implements Initializable {
             confirmation.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
                     Course newCourse = new Course(courseName, courseDescription, credits, courseLevel, year, semester, departmentId);
-                    courseDAO.addCourse(newCourse);
+                    try (Connection connection = DatabaseConnection.borrow()) {
+                        new CourseDAO(connection).addCourse(newCourse);
+                    } catch (SQLException e) {
+                        showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to add course: " + e.getMessage());
+                        return;
+                    }
                     loadCourses();
                     clearInputFields();
                 }
@@ -228,7 +258,14 @@ public class CoursesController implements Initializable {
         String selectedDepartment = departmentFilterComboBox.getValue();
         if (selectedDepartment != null) {
             int departmentId = departmentMap.get(selectedDepartment);
-            List<Course> filteredCourses = courseDAO.getCoursesByDepartment(departmentId);
+            List<Course> filteredCourses;
+            try (Connection connection = DatabaseConnection.borrow()) {
+                filteredCourses = new CourseDAO(connection).getCoursesByDepartment(departmentId);
+            } catch (SQLException e) {
+                showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to filter courses: " + e.getMessage());
+                return;
+            }
+            nextPage = null; // The filtered list is complete; stop paging in unfiltered courses
             courseList = FXCollections.observableArrayList(filteredCourses);
             courseTable.setItems(courseList);
         }
@@ -276,7 +313,12 @@ public class CoursesController implements Initializable {
                         selectedCourse.setSemester(semester);
                         selectedCourse.setDepartmentId(departmentId);
 
-                        courseDAO.updateCourse(selectedCourse.getCourseId(), selectedCourse);
+                        try (Connection connection = DatabaseConnection.borrow()) {
+                            new CourseDAO(connection).updateCourse(selectedCourse.getCourseId(), selectedCourse);
+                        } catch (SQLException e) {
+                            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to update course: " + e.getMessage());
+                            return;
+                        }
                         loadCourses();
                         clearInputFields();
                     }
@@ -303,7 +345,12 @@ public class CoursesController implements Initializable {
             confirmation.setContentText("Are you sure you want to delete this course?");
             confirmation.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
-                    courseDAO.deleteCourse(selectedCourse.getCourseId());
+                    try (Connection connection = DatabaseConnection.borrow()) {
+                        new CourseDAO(connection).deleteCourse(selectedCourse.getCourseId());
+                    } catch (SQLException e) {
+                        showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to delete course: " + e.getMessage());
+                        return;
+                    }
                     loadCourses();
                     clearInputFields();
                 }
@@ -365,17 +412,7 @@ public class CoursesController implements Initializable {
      * @return the department name, or null if not found
      */
     private String getDepartmentNameById(int departmentId) {
-        String sql = "SELECT department_name FROM Department WHERE department_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, departmentId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getString("department_name");
-            }
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to fetch department name: " + e.getMessage());
-        }
-        return null;
+        return ReferenceDataCache.getDepartmentName(departmentId);
     }
 
     /**
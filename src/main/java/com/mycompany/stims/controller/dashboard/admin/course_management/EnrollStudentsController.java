@@ -4,7 +4,10 @@ import com.mycompany.stims.model.StudentCourse;
 import com.mycompany.stims.database.StudentCourseDAO;
 import com.mycompany.stims.database.CourseOfferingDAO;
 import com.mycompany.stims.database.DatabaseConnection;
+import com.mycompany.stims.database.Page;
+import com.mycompany.stims.database.PageRequest;
 import com.mycompany.stims.model.CourseOffering;
+import com.mycompany.stims.utils.InfiniteScroll;
 import java.io.IOException;
 import java.net.URL;
 import java.sql.Connection;
@@ -12,6 +15,7 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.ResourceBundle;
 import javafx.collections.FXCollections;
@@ -83,15 +87,15 @@ public class EnrollStudentsController implements Initializable {
     @FXML
     private VBox contentArea; // Container for the content area
 
-    private StudentCourseDAO studentCourseDAO; // DAO for student-course enrollments
-    private CourseOfferingDAO courseOfferingDAO; // DAO for course offerings
-
     private ObservableList<StudentCourse> studentCourseList; // List of student-course enrollments
     private ObservableList<CourseOffering> courseOfferingList; // List of course offerings
 
+    private static final int PAGE_SIZE = 200; // Enrollments fetched per page
+    private PageRequest nextEnrollmentPage; // Request for the next page, or null when all are loaded
+
     /**
      * Initializes the controller class. Sets up the table columns and loads
-     * initial data.
+     * initial data. Database work borrows a pooled connection per operation.
      *
      * @param url The location used to resolve relative paths for the root
      * object, or null if unknown.
@@ -100,49 +104,43 @@ public class EnrollStudentsController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        Connection connection = DatabaseConnection.getConnection();
-        if (connection != null) {
-            // Initialize the StudentCourseDAO with the database connection
-            studentCourseDAO = new StudentCourseDAO(connection);
-            courseOfferingDAO = new CourseOfferingDAO(connection);
-
-            // Initialize Course Offerings table columns
-            courseOfferingIdColumn.setCellValueFactory(new PropertyValueFactory<>("offeringId"));
-            courseCodeColumn.setCellValueFactory(new PropertyValueFactory<>("courseCode"));
-            academicYearColumn.setCellValueFactory(new PropertyValueFactory<>("academicYear"));
-            semesterColumn.setCellValueFactory(new PropertyValueFactory<>("semester"));
-
-            // Initialize the table columns
-            studentCourseIdColumn.setCellValueFactory(new PropertyValueFactory<>("studentCourseId"));
-            studentIdColumn.setCellValueFactory(new PropertyValueFactory<>("studentId"));
-            offeringIdColumn.setCellValueFactory(new PropertyValueFactory<>("offeringId"));
-            enrollmentDateColumn.setCellValueFactory(new PropertyValueFactory<>("enrollmentDate"));
-
-            // Load all student-course enrollments into the table
-            loadStudentCourses();
-
-            // Add listener to pre-fill fields when an enrollment is selected for update
-            studentCourseTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
-                if (newSelection != null) {
-                    prefillUpdateFields(newSelection);
-                }
-            });
-        } else {
-            System.err.println("Failed to initialize controller due to database connection error.");
-        }
+        // Initialize Course Offerings table columns
+        courseOfferingIdColumn.setCellValueFactory(new PropertyValueFactory<>("offeringId"));
+        courseCodeColumn.setCellValueFactory(new PropertyValueFactory<>("courseCode"));
+        academicYearColumn.setCellValueFactory(new PropertyValueFactory<>("academicYear"));
+        semesterColumn.setCellValueFactory(new PropertyValueFactory<>("semester"));
+
+        // Initialize the table columns
+        studentCourseIdColumn.setCellValueFactory(new PropertyValueFactory<>("studentCourseId"));
+        studentIdColumn.setCellValueFactory(new PropertyValueFactory<>("studentId"));
+        offeringIdColumn.setCellValueFactory(new PropertyValueFactory<>("offeringId"));
+        enrollmentDateColumn.setCellValueFactory(new PropertyValueFactory<>("enrollmentDate"));
+
+        // Load the first page of enrollments and fetch more as the user scrolls
+        loadStudentCourses();
+        InfiniteScroll.install(studentCourseTable, this::loadNextEnrollmentPage);
+
+        // Add listener to pre-fill fields when an enrollment is selected for update
+        studentCourseTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
+            if (newSelection != null) {
+                prefillUpdateFields(newSelection);
+            }
+        });
     }
 
     /**
-     * Loads all student-course enrollments and course offerings into the
-     * respective tables.
+     * Loads the first page of student-course enrollments and all course
+     * offerings into the respective tables.
      */
     private void loadStudentCourses() {
-        studentCourseList = FXCollections.observableArrayList(studentCourseDAO.getAllStudentCourses());
+        studentCourseList = FXCollections.observableArrayList();
         studentCourseTable.setItems(studentCourseList);
+        nextEnrollmentPage = PageRequest.first(PAGE_SIZE);
+        loadNextEnrollmentPage();
 
         // Refresh Course Offerings table
-        try {
-            List<CourseOffering> courseOfferings = courseOfferingDAO.getAllCourseOfferings();
+        try (Connection connection = DatabaseConnection.borrow()) {
+            List<CourseOffering> courseOfferings = new CourseOfferingDAO(connection).getAllCourseOfferings();
             courseOfferingList = FXCollections.observableArrayList(courseOfferings);
             courseOfferingTable.setItems(courseOfferingList);
         } catch (Exception e) {
@@ -150,6 +148,27 @@ public class EnrollStudentsController implements Initializable {
         }
     }
 
+    /**
+     * Appends the next page of enrollments to the table, if there is one.
+     *
+     * @return true if enrollments were appended
+     */
+    private boolean loadNextEnrollmentPage() {
+        if (nextEnrollmentPage == null) {
+            return false;
+        }
+        Page<StudentCourse> page;
+        try (Connection connection = DatabaseConnection.borrow()) {
+            page = new StudentCourseDAO(connection).getStudentCoursesPage(nextEnrollmentPage);
+        } catch (SQLException e) {
+            System.err.println("Failed to load enrollments: " + e.getMessage());
+            return false;
+        }
+        nextEnrollmentPage = page.getNextRequest();
+        studentCourseList.addAll(page.getItems());
+        return !page.getItems().isEmpty();
+    }
+
     /**
      * Pre-fills the input fields with the details of the selected enrollment
      * for updating.
@@ -173,16 +192,27 @@ public class EnrollStudentsController implements Initializable {
     }
 
     /**
-     * Handles the action when the enroll button is clicked. Enrolls a student
-     * into a course offering.
+     * Handles the action when the enroll button is clicked. Enrolls one or
+     * more students, separated by commas, into a course offering. Several
+     * students are enrolled together in one transaction.
      */
     @FXML
     private void handleEnrollButton() {
         try {
-            String studentIdNo = studentIdNoField.getText();
-            int studentId = getStudentId(studentIdNo);
-            if (studentId == -1) {
-                showErrorDialog("Invalid Student ID No", "The entered student ID number does not exist.");
+            List<Integer> studentIds = new ArrayList<>();
+            for (String studentIdNo : studentIdNoField.getText().split(",")) {
+                if (studentIdNo.isBlank()) {
+                    continue;
+                }
+                int studentId = getStudentId(studentIdNo.trim());
+                if (studentId == -1) {
+                    showErrorDialog("Invalid Student ID No", "The student ID number " + studentIdNo.trim() + " does not exist.");
+                    return;
+                }
+                studentIds.add(studentId);
+            }
+            if (studentIds.isEmpty()) {
+                showErrorDialog("Invalid Student ID No", "Please enter at least one student ID number.");
                 return;
             }
 
@@ -192,12 +222,25 @@ public class EnrollStudentsController implements Initializable {
             // Confirmation dialog before enrolling
             Alert confirmation = new Alert(AlertType.CONFIRMATION);
             confirmation.setTitle("Confirm Enrollment");
-            confirmation.setHeaderText("Enroll Student in Course Offering");
-            confirmation.setContentText("Are you sure you want to enroll this student?");
+            confirmation.setHeaderText("Enroll Students in Course Offering");
+            confirmation.setContentText(studentIds.size() == 1
+                    ? "Are you sure you want to enroll this student?"
+                    : "Are you sure you want to enroll these " + studentIds.size() + " students?");
             confirmation.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
-                    StudentCourse newEnrollment = new StudentCourse(studentId, offeringId, enrollmentDate);
-                    studentCourseDAO.addStudentCourse(newEnrollment);
+                    List<StudentCourse> newEnrollments = new ArrayList<>();
+                    for (int studentId : studentIds) {
+                        newEnrollments.add(new StudentCourse(studentId, offeringId, enrollmentDate));
+                    }
+                    try (Connection connection = DatabaseConnection.borrow()) {
+                        if (!new StudentCourseDAO(connection).addStudentCourses(newEnrollments)) {
+                            showErrorDialog("Enrollment Failed", "The students could not be enrolled. No enrollment was saved.");
+                            return;
+                        }
+                    } catch (SQLException e) {
+                        showErrorDialog("Database Error", "Failed to enroll the students: " + e.getMessage());
+                        return;
+                    }
 
                     // Refresh the table
                     loadStudentCourses();
@@ -243,7 +286,12 @@ public class EnrollStudentsController implements Initializable {
                         selectedEnrollment.setOfferingId(offeringId);
                         selectedEnrollment.setEnrollmentDate(enrollmentDate);
 
-                        studentCourseDAO.updateStudentCourse(selectedEnrollment);
+                        try (Connection connection = DatabaseConnection.borrow()) {
+                            new StudentCourseDAO(connection).updateStudentCourse(selectedEnrollment);
+                        } catch (SQLException e) {
+                            showErrorDialog("Database Error", "Failed to update the enrollment: " + e.getMessage());
+                            return;
+                        }
 
                         // Refresh the table
                         loadStudentCourses();
@@ -278,7 +326,13 @@ public class EnrollStudentsController implements Initializable {
             confirmation.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
                     // Attempt to delete the enrollment
-                    boolean isDeleted = studentCourseDAO.deleteStudentCourse(selectedEnrollment.getStudentCourseId());
+                    boolean isDeleted;
+                    try (Connection connection = DatabaseConnection.borrow()) {
+                        isDeleted = new StudentCourseDAO(connection).deleteStudentCourse(selectedEnrollment.getStudentCourseId());
+                    } catch (SQLException e) {
+                        showErrorDialog("Database Error", "Failed to delete the enrollment: " + e.getMessage());
+                        return;
+                    }
 
                     if (isDeleted) {
                         // Refresh the table
@@ -353,7 +407,7 @@ public class EnrollStudentsController implements Initializable {
      */
     private int getStudentId(String studentIdNo) {
         String sql = "SELECT student_id FROM Student WHERE studentId_No = ?";
-        try (Connection connection = DatabaseConnection.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.borrow(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setString(1, studentIdNo);
             ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
@@ -373,7 +427,7 @@ public class EnrollStudentsController implements Initializable {
      */
     private String getStudentIdNo(int studentId) {
         String sql = "SELECT studentId_No FROM Student WHERE student_id = ?";
-        try (Connection connection = DatabaseConnection.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.borrow(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
             pstmt.setInt(1, studentId);
             ResultSet rs = pstmt.executeQuery();
             if (rs.next()) {
@@ -1,9 +1,15 @@
 package com.mycompany.stims.controller.dashboard.admin.report_management;
 
+import com.mycompany.stims.database.DatabaseConnection;
+import com.mycompany.stims.report.BatchReportJob;
 import com.mycompany.stims.report.Transcript_Generator;
+import com.mycompany.stims.utils.BackgroundTasks;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.VBox;
 import javafx.scene.Parent;
@@ -12,6 +18,7 @@ import javafx.scene.layout.StackPane;
 
 import java.io.IOException;
 import java.net.URL;
+import java.sql.Connection;
 import java.util.ResourceBundle;
 
 /**
@@ -34,6 +41,32 @@ public class AcademicTranscriptController implements Initializable {
     @FXML
     private TextField studentIdNoField;
 
+    /**
+     * ComboBox for selecting the year of the cohort to generate transcripts
+     * for.
+     */
+    @FXML
+    private ComboBox<String> yearComboBox;
+
+    /**
+     * ComboBox for selecting the semester of the cohort to generate
+     * transcripts for.
+     */
+    @FXML
+    private ComboBox<String> semesterComboBox;
+
+    /**
+     * Button for generating the transcripts of a whole cohort.
+     */
+    @FXML
+    private Button generateAllButton;
+
+    /**
+     * Root container, shows the progress of a batch run.
+     */
+    @FXML
+    private StackPane dynamicContentContainer;
+
     /**
      * Initializes the controller class.
      *
@@ -44,7 +77,8 @@ public class AcademicTranscriptController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        // Initialization logic (if needed)
+        yearComboBox.getItems().addAll("1", "2", "3", "4", "5", "6", "7", "8", "9", "10");
+        semesterComboBox.getItems().addAll("1", "2");
     }
 
     /**
@@ -74,6 +108,57 @@ public class AcademicTranscriptController implements Initializable {
         }
     }
 
+    /**
+     * Handles the action for generating the transcripts of every student with
+     * a record for the selected year and semester. The transcripts are
+     * generated in the background; if an earlier run for the same year and
+     * semester was interrupted, the students it finished are skipped.
+     */
+    @FXML
+    private void generateAllTranscripts() {
+        String yearInput = yearComboBox.getValue();
+        String semesterInput = semesterComboBox.getValue();
+        if (yearInput == null || semesterInput == null) {
+            showAlert(Alert.AlertType.WARNING, "Input Error", "Please select the year and semester of the students.");
+            return;
+        }
+        BatchReportJob.Cohort cohort = new BatchReportJob.Cohort(Integer.parseInt(yearInput), Integer.parseInt(semesterInput), null, null);
+
+        Task<BatchReportJob.BatchResult> batchTask = new Task<>() {
+            @Override
+            protected BatchReportJob.BatchResult call() throws Exception {
+                try (Connection batchConnection = DatabaseConnection.borrow()) {
+                    return new BatchReportJob(batchConnection, BatchReportJob.Kind.TRANSCRIPTS, cohort).run((processed, total) -> {
+                        updateProgress(processed, total);
+                        updateMessage(processed + " of " + total + " students");
+                    });
+                }
+            }
+        };
+        // Show the running count on the button while the job runs
+        String buttonText = generateAllButton.getText();
+        batchTask.messageProperty().addListener((observable, oldMessage, newMessage) -> generateAllButton.setText(newMessage));
+        batchTask.setOnSucceeded(event -> {
+            generateAllButton.setText(buttonText);
+            BatchReportJob.BatchResult result = batchTask.getValue();
+            String message = result.getGeneratedCount() + " transcripts generated, " + result.getSkippedCount()
+                    + " already done, " + result.getFailedCount() + " failed.";
+            if (!result.getErrors().isEmpty()) {
+                message += "\n" + String.join("\n", result.getErrors().subList(0, Math.min(10, result.getErrors().size())));
+            }
+            showAlert(result.getFailedCount() == 0 ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING,
+                    "Academic Transcripts Generated", message);
+        });
+        batchTask.setOnFailed(event -> {
+            generateAllButton.setText(buttonText);
+            showAlert(Alert.AlertType.ERROR, "Transcript Generation Failed", "Failed to generate transcripts: " + batchTask.getException().getMessage());
+        });
+
+        BackgroundTasks.showBusy(contentArea, batchTask);
+        BackgroundTasks.showProgress(dynamicContentContainer, batchTask);
+        BackgroundTasks.submit(batchTask);
+    }
+
     /**
      * Handles the action for navigating back to the Report Management screen.
      * Loads the Report Management FXML file and updates the UI.
@@ -2,15 +2,18 @@ package com.mycompany.stims.controller.dashboard.admin.report_management;
 
 import java.net.URL;
 import java.util.ResourceBundle;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
+import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import com.mycompany.stims.database.DatabaseConnection;
-import java.io.IOException;
+import com.mycompany.stims.database.OfferingAnalyticsDAO;
+import com.mycompany.stims.utils.BackgroundTasks;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.layout.StackPane;
@@ -28,12 +31,16 @@ public class Report_ManagementController implements Initializable {
     private Label totalTeachers;
     @FXML
     private Label totalCourses;
+    @FXML
+    private Button rebuildAnalyticsButton;
 
     @FXML
     private AnchorPane contentArea;
     @FXML
     private StackPane dynamicContentContainer;
 
+    private Task<Parent> pendingView; // View currently being loaded, if any
+
     /**
      * Initializes the controller class. Loads the total number of students,
      * teachers, and courses from the database and displays them in the UI.
@@ -55,7 +62,7 @@ public class Report_ManagementController implements Initializable {
     private void loadTotalTeachers() {
         String sql = "SELECT COUNT(*) AS total FROM teacher"; // Adjust the table name if necessary
 
-        try (Connection connection = DatabaseConnection.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
+        try (Connection connection = DatabaseConnection.borrow(); PreparedStatement pstmt = connection.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
 
             if (rs.next()) {
                 int total = rs.getInt("total");
@@ -76,7 +83,7 @@ public class Report_ManagementController implements Initializable {
     private void loadTotalCourses() {
         String sql = "SELECT COUNT(*) AS total FROM course";
 
-        try (Connection connection = DatabaseConnection.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
+        try (Connection connection = DatabaseConnection.borrow(); PreparedStatement pstmt = connection.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
 
             if (rs.next()) {
                 int total = rs.getInt("total");
@@ -97,7 +104,7 @@ public class Report_ManagementController implements Initializable {
     private void loadTotalStudents() {
         String sql = "SELECT COUNT(*) AS total FROM student"; // Adjust the table name if necessary
 
-        try (Connection connection = DatabaseConnection.getConnection(); PreparedStatement pstmt = connection.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
+        try (Connection connection = DatabaseConnection.borrow(); PreparedStatement pstmt = connection.prepareStatement(sql); ResultSet rs = pstmt.executeQuery()) {
 
             if (rs.next()) {
                 int total = rs.getInt("total");
@@ -144,24 +151,38 @@ public class Report_ManagementController implements Initializable {
         loadUI("/com/mycompany/stims/fxml/dashboard/admin/report_management/Academic_Transcript.fxml");
     }
 
+    /**
+     * Recomputes the per-offering analytics summary that the course reports
+     * read, e.g. after enrollments or grades were changed directly in the
+     * database.
+     */
+    @FXML
+    public void rebuildAnalytics() {
+        BackgroundTasks.run(rebuildAnalyticsButton, () -> {
+            try (Connection connection = DatabaseConnection.borrow()) {
+                new OfferingAnalyticsDAO(connection).rebuild();
+            }
+            return null;
+        }, result -> new Alert(Alert.AlertType.INFORMATION, "Course analytics have been rebuilt.").show(),
+                e -> new Alert(Alert.AlertType.ERROR, "Failed to rebuild course analytics: " + e.getMessage()).show());
+    }
+
     /**
      * Loads a new UI screen into the dynamic content container.
      *
      * @param fxmlPath the path to the FXML file for the new UI screen
      */
     private void loadUI(String fxmlPath) {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent newContent = loader.load();
+        // Abandon a view that is still loading from an earlier click
+        BackgroundTasks.cancel(pendingView);
 
+        // Load the view off the FX thread, showing progress over the current one
+        pendingView = BackgroundTasks.loadFXML(getClass().getResource(fxmlPath), dynamicContentContainer, newContent -> {
             // Clear the previous content
             dynamicContentContainer.getChildren().clear();
 
             // Add the new content
             dynamicContentContainer.getChildren().add(newContent);
-        } catch (IOException e) {
-            e.printStackTrace();
-            // Handle loading errors
-        }
+        }, e -> new Alert(Alert.AlertType.ERROR, "Could not load this page.").show()); // Handle loading errors
     }
 }
@@ -1,18 +1,24 @@
 package com.mycompany.stims.controller.dashboard.admin.report_management;
 
+import com.mycompany.stims.database.DatabaseConnection;
+import com.mycompany.stims.report.BatchReportJob;
+import com.mycompany.stims.report.ReportCardGenerator;
+import com.mycompany.stims.utils.BackgroundTasks;
 import java.io.IOException;
 import java.net.URL;
+import java.sql.Connection;
 import java.util.ResourceBundle;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Parent;
 import javafx.scene.control.Alert;
+import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
-import javafx.scene.layout.VBox;
-import com.mycompany.stims.report.ReportCardGenerator;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
 
 /**
  * The SemesterReportCardController class handles the generation of semester
@@ -29,6 +35,10 @@ public class SemesterReportCardController implements Initializable {
     private ComboBox<String> yearComboBox; // ComboBox for selecting the academic year
     @FXML
     private ComboBox<String> semesterComboBox; // ComboBox for selecting the semester
+    @FXML
+    private Button generateAllButton; // Button for generating the report cards of a whole cohort
+    @FXML
+    private StackPane dynamicContentContainer; // Root container, shows the batch progress
 
     /**
      * Initializes the controller class. Sets up the ComboBoxes with predefined
@@ -88,6 +98,58 @@ public class SemesterReportCardController implements Initializable {
         }
     }
 
+    /**
+     * Handles the action when the generate for all students button is clicked.
+     * Generates the report cards of every student with a record for the
+     * selected year and semester in the background. If an earlier run for the
+     * same year and semester was interrupted, the students it finished are
+     * skipped.
+     */
+    @FXML
+    private void generateAllReportCards() {
+        String yearInput = yearComboBox.getValue();
+        String semesterInput = semesterComboBox.getValue();
+        if (yearInput == null || semesterInput == null) {
+            showAlert(Alert.AlertType.ERROR, "Invalid Input", "Please select a year and semester.");
+            return;
+        }
+        BatchReportJob.Cohort cohort = new BatchReportJob.Cohort(Integer.parseInt(yearInput), Integer.parseInt(semesterInput), null, null);
+
+        Task<BatchReportJob.BatchResult> batchTask = new Task<>() {
+            @Override
+            protected BatchReportJob.BatchResult call() throws Exception {
+                try (Connection batchConnection = DatabaseConnection.borrow()) {
+                    return new BatchReportJob(batchConnection, BatchReportJob.Kind.REPORT_CARDS, cohort).run((processed, total) -> {
+                        updateProgress(processed, total);
+                        updateMessage(processed + " of " + total + " students");
+                    });
+                }
+            }
+        };
+        // Show the running count on the button while the job runs
+        String buttonText = generateAllButton.getText();
+        batchTask.messageProperty().addListener((observable, oldMessage, newMessage) -> generateAllButton.setText(newMessage));
+        batchTask.setOnSucceeded(event -> {
+            generateAllButton.setText(buttonText);
+            BatchReportJob.BatchResult result = batchTask.getValue();
+            String message = result.getGeneratedCount() + " report cards generated, " + result.getSkippedCount()
+                    + " already done, " + result.getFailedCount() + " failed.";
+            if (!result.getErrors().isEmpty()) {
+                message += "\n" + String.join("\n", result.getErrors().subList(0, Math.min(10, result.getErrors().size())));
+            }
+            showAlert(result.getFailedCount() == 0 ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING,
+                    "Report Cards Generated", message);
+        });
+        batchTask.setOnFailed(event -> {
+            generateAllButton.setText(buttonText);
+            showAlert(Alert.AlertType.ERROR, "Report Generation Failed", "Failed to generate report cards: " + batchTask.getException().getMessage());
+        });
+
+        BackgroundTasks.showBusy(contentArea, batchTask);
+        BackgroundTasks.showProgress(dynamicContentContainer, batchTask);
+        BackgroundTasks.submit(batchTask);
+    }
+
     /**
      * Handles the action when the back button is clicked. Navigates back to the
      * Report Management screen.
@@ -3,6 +3,7 @@ package com.mycompany.stims.controller.dashboard.admin.student_management;
 import com.mycompany.stims.database.DatabaseConnection;
 import com.mycompany.stims.database.StudentDAO;
 import com.mycompany.stims.model.Student;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -54,16 +55,6 @@ public class EditRegistrationController implements Initializable {
     @FXML
     private AnchorPane contentArea;
 
-    /**
-     * Database connection instance.
-     */
-    private Connection connection;
-
-    /**
-     * Data Access Object (DAO) for student-related database operations.
-     */
-    private StudentDAO studentDAO;
-
     /**
      * The currently selected student for editing.
      */
@@ -80,8 +71,9 @@ public class EditRegistrationController implements Initializable {
     private Map<String, Integer> departmentMap = new HashMap<>();
 
     /**
-     * Initializes the controller class. Sets up the database connection, loads
-     * program and department data, and configures event handlers for buttons.
+     * Initializes the controller class. Loads program and department data and
+     * configures event handlers for buttons. Database work borrows a pooled
+     * connection per operation.
      *
      * @param url the location used to resolve relative paths for the root
      * object, or null if the location is not known
@@ -90,14 +82,8 @@ public class EditRegistrationController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        connection = DatabaseConnection.getConnection();
-        if (connection != null) {
-            studentDAO = new StudentDAO(connection);
-            loadPrograms();
-            loadDepartments();
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Unable to connect to the database.");
-        }
+        loadPrograms();
+        loadDepartments();
 
         // Set up event handlers
         searchButton.setOnAction(event -> searchStudent());
@@ -109,7 +95,7 @@ public class EditRegistrationController implements Initializable {
      */
     private void loadPrograms() {
         String sql = "SELECT program_id, program_name FROM Program";
-        try (var pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.borrow(); var pstmt = connection.prepareStatement(sql)) {
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
                 int programId = rs.getInt("program_id");
@@ -117,7 +103,7 @@ public class EditRegistrationController implements Initializable {
                 programMap.put(programName, programId);
             }
         } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load programs: " + e.getMessage());
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load programs: " + e.getMessage()));
         }
     }
 
@@ -126,7 +112,7 @@ public class EditRegistrationController implements Initializable {
      */
     private void loadDepartments() {
         String sql = "SELECT department_id, department_name FROM Department";
-        try (var pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.borrow(); var pstmt = connection.prepareStatement(sql)) {
             ResultSet rs = pstmt.executeQuery();
             while (rs.next()) {
                 int departmentId = rs.getInt("department_id");
@@ -134,7 +120,7 @@ public class EditRegistrationController implements Initializable {
                 departmentMap.put(departmentName, departmentId);
             }
         } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load departments: " + e.getMessage());
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load departments: " + e.getMessage()));
         }
     }
 
@@ -151,8 +137,17 @@ public class EditRegistrationController implements Initializable {
         }
 
         try {
-            // Fetch the student from the database
-            currentStudent = studentDAO.getStudentByIdNo(studentIdNo);
+            // Fetch the student from the database; the connection is not held while the dialog is open
+            String programName = null;
+            String departmentName = null;
+            try (Connection connection = DatabaseConnection.borrow()) {
+                StudentDAO studentDAO = new StudentDAO(connection);
+                currentStudent = studentDAO.getStudentByIdNo(studentIdNo);
+                if (currentStudent != null) {
+                    programName = studentDAO.getProgramNameById(currentStudent.getProgramId());
+                    departmentName = studentDAO.getDepartmentNameById(currentStudent.getDepartmentId());
+                }
+            }
             if (currentStudent == null) {
                 showAlert(Alert.AlertType.WARNING, "Not Found", "No student found with the given ID.");
                 return;
@@ -190,11 +185,11 @@ public class EditRegistrationController implements Initializable {
 
             ComboBox<String> programComboBox = new ComboBox<>();
             programComboBox.getItems().addAll(programMap.keySet());
-            programComboBox.setValue(studentDAO.getProgramNameById(currentStudent.getProgramId()));
+            programComboBox.setValue(programName);
 
             ComboBox<String> departmentComboBox = new ComboBox<>();
             departmentComboBox.getItems().addAll(departmentMap.keySet());
-            departmentComboBox.setValue(studentDAO.getDepartmentNameById(currentStudent.getDepartmentId()));
+            departmentComboBox.setValue(departmentName);
 
             DatePicker enrollmentDatePicker = new DatePicker(currentStudent.getEnrollmentDate());
 
@@ -243,16 +238,16 @@ public class EditRegistrationController implements Initializable {
                     currentStudent.setEnrollmentDate(enrollmentDatePicker.getValue());
 
                     // Save the updated student to the database
-                    try {
-                        studentDAO.updateStudent(currentStudent);
+                    try (Connection connection = DatabaseConnection.borrow()) {
+                        new StudentDAO(connection).updateStudent(currentStudent);
                         showAlert(Alert.AlertType.INFORMATION, "Success", "Student details updated successfully.");
                     } catch (Exception e) {
                         showAlert(Alert.AlertType.ERROR, "Error", "Failed to update student: " + e.getMessage());
                     }
                 } else if (response.getButtonData() == ButtonBar.ButtonData.OTHER) {
                     // Handle the "Delete" button click
-                    try {
-                        studentDAO.deleteStudent(currentStudent.getStudentIdNo());
+                    try (Connection connection = DatabaseConnection.borrow()) {
+                        new StudentDAO(connection).deleteStudent(currentStudent.getStudentIdNo());
                         showAlert(Alert.AlertType.INFORMATION, "Success", "Student deleted successfully.");
                     } catch (Exception e) {
                         showAlert(Alert.AlertType.ERROR, "Error", "Failed to delete student: " + e.getMessage());
@@ -2,9 +2,15 @@ package com.mycompany.stims.controller.dashboard.admin.student_management;
 
 import com.mycompany.stims.database.DatabaseConnection;
 import com.mycompany.stims.database.StudentDAO;
+import com.mycompany.stims.database.StudentRegistrationPipeline;
 import com.mycompany.stims.model.Student;
+import com.mycompany.stims.utils.BackgroundTasks;
+import com.mycompany.stims.utils.Config;
+import com.mycompany.stims.utils.FilePathUtils;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -12,7 +18,9 @@ import javafx.scene.control.*;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.Parent;
 import javafx.scene.layout.StackPane;
+import javafx.stage.FileChooser;
 import java.io.BufferedWriter;
+import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -23,6 +31,8 @@ import java.net.URL;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.ResourceBundle;
@@ -31,7 +41,8 @@ import java.util.ResourceBundle;
  * The `RegisterStudentController` class manages the functionality for
  * registering new students in the admin dashboard. It allows admins to input
  * student details, select programs and departments, and generate temporary
- * passwords for new students.
+ * passwords for new students. A whole intake can also be imported from an
+ * admissions spreadsheet.
  */
 public class RegisterStudentController implements Initializable {
 
@@ -72,15 +83,17 @@ public class RegisterStudentController implements Initializable {
     @FXML
     private Button registerButton;
 
+    @FXML
+    private Button importButton;
+
     @FXML
     private Button backButton;
 
     @FXML
     private AnchorPane contentArea;
 
-    // Database connection and DAO
-    private Connection connection;
-    private StudentDAO studentDAO;
+    @FXML
+    private StackPane dynamicContentContainer;
 
     private Map<String, Integer> programMap = new HashMap<>();
     private Map<String, Integer> departmentMap = new HashMap<>();
@@ -90,8 +103,9 @@ public class RegisterStudentController implements Initializable {
 
     /**
      * Initializes the controller after its root element has been completely
-     * processed. This method sets up the database connection, loads program and
-     * department options, and configures button actions.
+     * processed. This method loads program and department options and
+     * configures button actions. Database work borrows a pooled connection per
+     * operation.
      *
      * @param url The location used to resolve relative paths for the root
      * object, or `null` if the location is not known.
@@ -100,19 +114,16 @@ public class RegisterStudentController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        connection = DatabaseConnection.getConnection();
-        if (connection != null) {
-            studentDAO = new StudentDAO(connection);
-            loadPrograms();
-            loadDepartments();
-            loadSexOptions();
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Unable to connect to the database.");
-        }
+        loadPrograms();
+        loadDepartments();
+        loadSexOptions();
 
         // Set up register button action
         registerButton.setOnAction(event -> registerStudent());
 
+        // Set up import button action
+        importButton.setOnAction(event -> importStudents());
+
         // Set up back button action
         backButton.setOnAction(event -> handleBackButton());
     }
@@ -131,7 +142,7 @@ public class RegisterStudentController implements Initializable {
      */
     private void loadPrograms() {
         String sql = "SELECT program_id, program_name FROM Program";
-        try (var pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.borrow(); var pstmt = connection.prepareStatement(sql)) {
             ResultSet rs = pstmt.executeQuery();
             ObservableList<String> programNames = FXCollections.observableArrayList();
             while (rs.next()) {
@@ -142,7 +153,7 @@ public class RegisterStudentController implements Initializable {
             }
             programComboBox.setItems(programNames);
         } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load programs: " + e.getMessage());
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load programs: " + e.getMessage()));
         }
     }
 
@@ -152,7 +163,7 @@ public class RegisterStudentController implements Initializable {
      */
     private void loadDepartments() {
         String sql = "SELECT department_id, department_name FROM Department";
-        try (var pstmt = connection.prepareStatement(sql)) {
+        try (Connection connection = DatabaseConnection.borrow(); var pstmt = connection.prepareStatement(sql)) {
             ResultSet rs = pstmt.executeQuery();
             ObservableList<String> departmentNames = FXCollections.observableArrayList();
             while (rs.next()) {
@@ -163,7 +174,7 @@ public class RegisterStudentController implements Initializable {
             }
             departmentComboBox.setItems(departmentNames);
         } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load departments: " + e.getMessage());
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load departments: " + e.getMessage()));
         }
     }
 
@@ -206,8 +217,8 @@ public class RegisterStudentController implements Initializable {
         );
 
         // Add the student to the database
-        try {
-            String temporaryPassword = studentDAO.addStudent(student);
+        try (Connection connection = DatabaseConnection.borrow()) {
+            String temporaryPassword = new StudentDAO(connection).addStudent(student);
             saveTemporaryPasswordToFile(student.getStudentIdNo(), temporaryPassword);
             showAlert(Alert.AlertType.INFORMATION, "Success",
                     "Student registered successfully!\nTemporary Password: " + temporaryPassword);
@@ -216,6 +227,55 @@ public class RegisterStudentController implements Initializable {
         }
     }
 
+    /**
+     * Handles the "Import Students" button action. Registers every student in
+     * an Excel or CSV admissions spreadsheet on a background thread, then
+     * reports how many were registered and where the results file with their
+     * temporary passwords and the rejected rows was written.
+     */
+    private void importStudents() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Students");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Spreadsheets", "*.xlsx", "*.csv"),
+                new FileChooser.ExtensionFilter("All Files", "*.*"));
+        File file = fileChooser.showOpenDialog(importButton.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        Task<StudentRegistrationPipeline.RegistrationResult> importTask = new Task<>() {
+            @Override
+            protected StudentRegistrationPipeline.RegistrationResult call() throws Exception {
+                String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss"));
+                File resultsFile = new File(FilePathUtils.getRegistrationResultsFilePath(timestamp));
+                try (Connection importConnection = DatabaseConnection.borrow()) {
+                    return new StudentRegistrationPipeline(importConnection, Config.getRegistrationChunkSize())
+                            .register(file, resultsFile, (processed, registered) -> updateMessage(registered + " of " + processed + " rows registered"));
+                }
+            }
+        };
+        // Show the running count on the button while the import runs
+        String importText = importButton.getText();
+        importTask.messageProperty().addListener((observable, oldMessage, newMessage) -> importButton.setText(newMessage));
+        importTask.setOnSucceeded(event -> {
+            importButton.setText(importText);
+            StudentRegistrationPipeline.RegistrationResult result = importTask.getValue();
+            String message = result.getRegisteredCount() + " students registered, " + result.getRejectedCount()
+                    + " rows rejected.\nCredentials and errors were saved to:\n" + result.getResultsFile().getAbsolutePath();
+            showAlert(result.getRejectedCount() == 0 ? Alert.AlertType.INFORMATION : Alert.AlertType.WARNING,
+                    "Import Completed", message);
+        });
+        importTask.setOnFailed(event -> {
+            importButton.setText(importText);
+            showAlert(Alert.AlertType.ERROR, "Import Error", "Failed to import students: " + importTask.getException().getMessage());
+        });
+
+        BackgroundTasks.showBusy(importButton, importTask);
+        BackgroundTasks.showProgress(dynamicContentContainer, importTask);
+        BackgroundTasks.submit(importTask);
+    }
+
     /**
      * Saves the temporary password for a student to a file.
      *
@@ -1,8 +1,13 @@
 package com.mycompany.stims.controller.dashboard.admin.student_management;
 
+import com.mycompany.stims.database.ClassRanking;
 import com.mycompany.stims.database.DatabaseConnection;
 import com.mycompany.stims.database.StudentAcademicRecordsDAO;
+import com.mycompany.stims.database.TermGpaRecalculator;
 import com.mycompany.stims.model.StudentAcademicRecord;
+import com.mycompany.stims.utils.BackgroundTasks;
+import com.mycompany.stims.utils.Config;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -58,13 +63,16 @@ public class StudentAcademicRecordsController implements Initializable {
     @FXML
     private Button updateRecordButton; // Button to update an existing academic record
     @FXML
+    private Button recalculateTermButton; // Button to recalculate every record of a term
+    @FXML
+    private Button deansListButton; // Button to show the dean's list of a term
+    @FXML
     private Button backButton; // Button to navigate back
 
-    private StudentAcademicRecordsDAO academicRecordsDAO; // DAO for student academic records
-
     /**
      * Initializes the controller class. Sets up the table columns, ComboBoxes,
-     * and event handlers.
+     * and event handlers. Database work borrows a pooled connection per
+     * operation.
      *
      * @param url The location used to resolve relative paths for the root
      * object, or null if unknown.
@@ -73,10 +81,6 @@ public class StudentAcademicRecordsController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        // Initialize DAO with database connection
-        Connection connection = DatabaseConnection.getConnection();
-        academicRecordsDAO = new StudentAcademicRecordsDAO(connection);
-
         // Set up table columns
         academicYearColumn.setCellValueFactory(new PropertyValueFactory<>("academicYear"));
         yearColumn.setCellValueFactory(new PropertyValueFactory<>("year"));
@@ -92,6 +96,8 @@ public class StudentAcademicRecordsController implements Initializable {
         loadRecordsButton.setOnAction(event -> loadRecords());
         addRecordButton.setOnAction(event -> addRecord());
         updateRecordButton.setOnAction(event -> updateRecord());
+        recalculateTermButton.setOnAction(event -> recalculateTerm());
+        deansListButton.setOnAction(event -> showDeansList());
         backButton.setOnAction(event -> handleBackButton());
     }
 
@@ -106,27 +112,31 @@ public class StudentAcademicRecordsController implements Initializable {
             return;
         }
 
-        try {
+        List<StudentAcademicRecord> records;
+        double cgpa;
+        try (Connection connection = DatabaseConnection.borrow()) {
+            StudentAcademicRecordsDAO academicRecordsDAO = new StudentAcademicRecordsDAO(connection);
+
             // Fetch student_id from studentId_No
             int studentId = academicRecordsDAO.getStudentIdByStudentIdNo(studentIdNo);
 
-            // Fetch records from the database
-            List<StudentAcademicRecord> records = academicRecordsDAO.getAcademicRecordsByStudentId(studentId);
-
-            // Clear the table and populate it with the fetched records
-            academicRecordsTable.getItems().clear();
-            academicRecordsTable.getItems().addAll(records);
+            // Fetch records and CGPA from the database
+            records = academicRecordsDAO.getAcademicRecordsByStudentId(studentId);
+            cgpa = academicRecordsDAO.calculateCGPA(studentId);
+        } catch (SQLException e) {
+            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load academic records: " + e.getMessage());
+            return;
+        }
 
-            // Display CGPA
-            double cgpa = academicRecordsDAO.calculateCGPA(studentId);
-            cgpaLabel.setText(String.format("%.2f", cgpa));
+        // Clear the table and populate it with the fetched records
+        academicRecordsTable.getItems().clear();
+        academicRecordsTable.getItems().addAll(records);
 
-            if (records.isEmpty()) {
-                showAlert(Alert.AlertType.INFORMATION, "No Records", "No academic records found for the given Student ID No.");
-            }
+        // Display CGPA
+        cgpaLabel.setText(String.format("%.2f", cgpa));
 
-        } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load academic records: " + e.getMessage());
+        if (records.isEmpty()) {
+            showAlert(Alert.AlertType.INFORMATION, "No Records", "No academic records found for the given Student ID No.");
         }
     }
 
@@ -138,50 +148,57 @@ public class StudentAcademicRecordsController implements Initializable {
             return;
         }
 
-        try {
-            String studentIdNo = studentIdNoField.getText().trim();
+        String studentIdNo = studentIdNoField.getText().trim();
+        int academicYear = Integer.parseInt(academicYearField.getText().trim()); // Checked by validateInputs
+        int year = yearField.getValue();
+        int semester = semesterField.getValue();
+
+        boolean recordExists;
+        boolean recordAdded = false;
+        try (Connection connection = DatabaseConnection.borrow()) {
+            StudentAcademicRecordsDAO academicRecordsDAO = new StudentAcademicRecordsDAO(connection);
             int studentId = academicRecordsDAO.getStudentIdByStudentIdNo(studentIdNo);
 
-            int academicYear = Integer.parseInt(academicYearField.getText().trim());
-            int year = yearField.getValue();
-            int semester = semesterField.getValue();
-
             // Check if the student already has a record for the given academic year, year, and semester
-            List<StudentAcademicRecord> records = academicRecordsDAO.getAcademicRecordsByStudentId(studentId);
-            boolean recordExists = records.stream()
-                    .anyMatch(record -> record.getAcademicYear() == academicYear
-                    && record.getYear() == year
-                    && record.getSemester() == semester);
-
-            if (recordExists) {
-                showAlert(Alert.AlertType.WARNING, "Record Exists", "A record already exists for the given academic year, year, and semester.");
-                return;
-            }
-
-            // Add the record using the DAO
-            academicRecordsDAO.updateStudentAcademicRecord(studentId, academicYear, year, semester);
-
-            // Check if the record was actually added
-            records = academicRecordsDAO.getAcademicRecordsByStudentId(studentId);
-            recordExists = records.stream()
-                    .anyMatch(record -> record.getAcademicYear() == academicYear
-                    && record.getYear() == year
-                    && record.getSemester() == semester);
-
-            if (recordExists) {
-                showAlert(Alert.AlertType.INFORMATION, "Success", "Academic record added successfully. SGPA and CGPA have been calculated.");
-            } else {
-                showAlert(Alert.AlertType.WARNING, "No Courses Found", "No courses found for the given academic year, year, and semester. No record was added.");
+            recordExists = hasRecord(academicRecordsDAO.getAcademicRecordsByStudentId(studentId), academicYear, year, semester);
+            if (!recordExists) {
+                // Add the record using the DAO, then check if it was actually added
+                academicRecordsDAO.updateStudentAcademicRecord(studentId, academicYear, year, semester);
+                recordAdded = hasRecord(academicRecordsDAO.getAcademicRecordsByStudentId(studentId), academicYear, year, semester);
             }
-
-            // Refresh the table
-            loadRecords();
-
-        } catch (NumberFormatException e) {
-            showAlert(Alert.AlertType.ERROR, "Invalid Input", "Please enter valid numeric values.");
         } catch (SQLException e) {
             showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to add academic record: " + e.getMessage());
+            return;
+        }
+
+        if (recordExists) {
+            showAlert(Alert.AlertType.WARNING, "Record Exists", "A record already exists for the given academic year, year, and semester.");
+            return;
+        }
+        if (recordAdded) {
+            showAlert(Alert.AlertType.INFORMATION, "Success", "Academic record added successfully. SGPA and CGPA have been calculated.");
+        } else {
+            showAlert(Alert.AlertType.WARNING, "No Graded Courses Found", "No graded courses found for the given academic year, year, and semester. No record was added.");
         }
+
+        // Refresh the table
+        loadRecords();
+    }
+
+    /**
+     * Checks whether a list of records contains one for the given term.
+     *
+     * @param records the records of a student
+     * @param academicYear the academic year of the term
+     * @param year the year of study
+     * @param semester the semester
+     * @return true if a record for the term is in the list
+     */
+    private static boolean hasRecord(List<StudentAcademicRecord> records, int academicYear, int year, int semester) {
+        return records.stream()
+                .anyMatch(record -> record.getAcademicYear() == academicYear
+                && record.getYear() == year
+                && record.getSemester() == semester);
     }
 
     /**
@@ -194,22 +211,150 @@ public class StudentAcademicRecordsController implements Initializable {
             return;
         }
 
-        try {
-            int studentId = selectedRecord.getStudentId();
-            int academicYear = selectedRecord.getAcademicYear();
-            int year = selectedRecord.getYear();
-            int semester = selectedRecord.getSemester();
-
+        try (Connection connection = DatabaseConnection.borrow()) {
             // Update the record using the DAO
-            academicRecordsDAO.updateStudentAcademicRecord(studentId, academicYear, year, semester);
-            showAlert(Alert.AlertType.INFORMATION, "Success", "Academic record updated successfully. SGPA and CGPA have been recalculated.");
-
-            // Refresh the table
-            loadRecords();
-
+            new StudentAcademicRecordsDAO(connection).updateStudentAcademicRecord(selectedRecord.getStudentId(),
+                    selectedRecord.getAcademicYear(), selectedRecord.getYear(), selectedRecord.getSemester());
         } catch (SQLException e) {
             showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to update academic record: " + e.getMessage());
+            return;
         }
+        showAlert(Alert.AlertType.INFORMATION, "Success", "Academic record updated successfully. SGPA and CGPA have been recalculated.");
+
+        // Refresh the table
+        loadRecords();
+    }
+
+    /**
+     * Recalculates the academic records of every student enrolled in the
+     * selected term. Runs on a background thread with its own connection and
+     * shows progress on the button while it runs.
+     */
+    private void recalculateTerm() {
+        if (academicYearField.getText().trim().isEmpty() || yearField.getValue() == null || semesterField.getValue() == null) {
+            showAlert(Alert.AlertType.WARNING, "Input Error", "Please enter the academic year, year, and semester.");
+            return;
+        }
+
+        int academicYear;
+        try {
+            academicYear = Integer.parseInt(academicYearField.getText().trim());
+        } catch (NumberFormatException e) {
+            showAlert(Alert.AlertType.ERROR, "Invalid Input", "Please enter valid numeric values.");
+            return;
+        }
+        int year = yearField.getValue();
+        int semester = semesterField.getValue();
+
+        Task<Integer> recalculateTask = new Task<>() {
+            @Override
+            protected Integer call() throws Exception {
+                updateMessage("Recalculating...");
+                try (Connection connection = DatabaseConnection.borrow()) {
+                    TermGpaRecalculator recalculator = new TermGpaRecalculator(connection);
+                    return recalculator.recalculateTerm(academicYear, year, semester, (processed, total) -> {
+                        updateProgress(processed, total);
+                        updateMessage("Recalculating " + processed + "/" + total);
+                    });
+                }
+            }
+        };
+
+        String buttonText = recalculateTermButton.getText();
+        long start = System.currentTimeMillis();
+        recalculateTermButton.setDisable(true);
+        recalculateTermButton.textProperty().bind(recalculateTask.messageProperty());
+        recalculateTask.setOnSucceeded(event -> {
+            recalculateTermButton.textProperty().unbind();
+            recalculateTermButton.setText(buttonText);
+            recalculateTermButton.setDisable(false);
+            int count = recalculateTask.getValue();
+            double seconds = (System.currentTimeMillis() - start) / 1000.0;
+            showAlert(Alert.AlertType.INFORMATION, "Success",
+                    String.format("Recalculated %d academic records in %.1f seconds.", count, seconds));
+            if (!studentIdNoField.getText().trim().isEmpty()) {
+                loadRecords();
+            }
+        });
+        recalculateTask.setOnFailed(event -> {
+            recalculateTermButton.textProperty().unbind();
+            recalculateTermButton.setText(buttonText);
+            recalculateTermButton.setDisable(false);
+            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to recalculate term: " + recalculateTask.getException().getMessage());
+        });
+
+        BackgroundTasks.submit(recalculateTask);
+    }
+
+    /**
+     * Shows the dean's list of the selected term: every student whose SGPA is
+     * at least the configured minimum, best first. The ranking is read on a
+     * background thread.
+     */
+    private void showDeansList() {
+        if (academicYearField.getText().trim().isEmpty() || yearField.getValue() == null || semesterField.getValue() == null) {
+            showAlert(Alert.AlertType.WARNING, "Input Error", "Please enter the academic year, year, and semester.");
+            return;
+        }
+
+        int academicYear;
+        try {
+            academicYear = Integer.parseInt(academicYearField.getText().trim());
+        } catch (NumberFormatException e) {
+            showAlert(Alert.AlertType.ERROR, "Invalid Input", "Please enter valid numeric values.");
+            return;
+        }
+        int year = yearField.getValue();
+        int semester = semesterField.getValue();
+        double minimum = Config.getDeansListMinimumGpa();
+
+        Task<List<ClassRanking.RankedStudent>> rankingTask = new Task<>() {
+            @Override
+            protected List<ClassRanking.RankedStudent> call() throws Exception {
+                try (Connection connection = DatabaseConnection.borrow()) {
+                    ClassRanking.Scope term = new ClassRanking.Scope(null, null, academicYear, year, semester);
+                    return new ClassRanking(connection).getDeansList(term, ClassRanking.Metric.SGPA, minimum, 0);
+                }
+            }
+        };
+
+        deansListButton.setDisable(true);
+        rankingTask.setOnSucceeded(event -> {
+            deansListButton.setDisable(false);
+            List<ClassRanking.RankedStudent> deansList = rankingTask.getValue();
+            if (deansList.isEmpty()) {
+                showAlert(Alert.AlertType.INFORMATION, "Dean's List",
+                        String.format("No student has an SGPA of %.2f or higher in this term.", minimum));
+                return;
+            }
+            TableView<ClassRanking.RankedStudent> table = new TableView<>();
+            TableColumn<ClassRanking.RankedStudent, Integer> rankColumn = new TableColumn<>("Rank");
+            rankColumn.setCellValueFactory(new PropertyValueFactory<>("rank"));
+            TableColumn<ClassRanking.RankedStudent, String> idColumn = new TableColumn<>("Student ID No");
+            idColumn.setCellValueFactory(new PropertyValueFactory<>("studentIdNo"));
+            TableColumn<ClassRanking.RankedStudent, String> nameColumn = new TableColumn<>("Name");
+            nameColumn.setCellValueFactory(new PropertyValueFactory<>("fullName"));
+            TableColumn<ClassRanking.RankedStudent, Double> sgpaColumn = new TableColumn<>("SGPA");
+            sgpaColumn.setCellValueFactory(new PropertyValueFactory<>("value"));
+            table.getColumns().addAll(List.of(rankColumn, idColumn, nameColumn, sgpaColumn));
+            table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+            table.getItems().addAll(deansList);
+            table.setPrefSize(600, 400);
+
+            Alert alert = new Alert(Alert.AlertType.INFORMATION);
+            alert.setTitle("Dean's List");
+            alert.setHeaderText(String.format("%d students with an SGPA of %.2f or higher in %d, year %d, semester %d",
+                    deansList.size(), minimum, academicYear, year, semester));
+            alert.getDialogPane().setContent(table);
+            alert.setResizable(true);
+            alert.showAndWait();
+        });
+        rankingTask.setOnFailed(event -> {
+            deansListButton.setDisable(false);
+            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load the dean's list: " + rankingTask.getException().getMessage());
+        });
+
+        BackgroundTasks.submit(rankingTask);
     }
 
     /**
@@ -1,8 +1,11 @@
 package com.mycompany.stims.controller.dashboard.admin.student_management;
 
 import com.mycompany.stims.database.DatabaseConnection;
+import com.mycompany.stims.database.Page;
+import com.mycompany.stims.database.PageRequest;
 import com.mycompany.stims.database.StudentDAO;
 import com.mycompany.stims.model.Student;
+import com.mycompany.stims.utils.InfiniteScroll;
 import java.io.IOException;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -17,7 +20,7 @@ import javafx.scene.control.ListCell;
 
 import java.net.URL;
 import java.sql.Connection;
-import java.util.List;
+import java.sql.SQLException;
 import java.util.ResourceBundle;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.layout.StackPane;
@@ -68,10 +71,12 @@ public class ViewStudentProfilesController implements Initializable {
     @FXML
     private AnchorPane contentArea;
 
-    private StudentDAO studentDAO;
+    private static final int PAGE_SIZE = 100; // Students fetched per page
+    private PageRequest nextPage; // Request for the next page, or null when all are loaded
 
     /**
-     * Initializes the controller and sets up the UI components.
+     * Initializes the controller and sets up the UI components. Database work
+     * borrows a pooled connection per operation.
      *
      * @param url the location used to resolve relative paths for the root
      * object
@@ -79,16 +84,9 @@ public class ViewStudentProfilesController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        // Initialize database connection
-        Connection connection = DatabaseConnection.getConnection();
-        if (connection != null) {
-            studentDAO = new StudentDAO(connection);
-        } else {
-            System.out.println("Failed to connect to the database.");
-        }
-
-        // Load all students into the ListView
+        // Load the first page of students and fetch more as the user scrolls
         loadStudents();
+        InfiniteScroll.install(studentListView, this::loadNextPage);
 
         // Add event listener for ListView selection
         studentListView.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
@@ -112,16 +110,44 @@ public class ViewStudentProfilesController implements Initializable {
     }
 
     /**
-     * Loads all students from the database and populates the ListView.
+     * Loads the first page of students into the ListView.
      */
     private void loadStudents() {
-        try {
-            List<Student> students = studentDAO.getAllStudents();
-            studentListView.getItems().clear();
-            studentListView.getItems().addAll(students);
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load students: " + e.getMessage());
+        loadStudents(null);
+    }
+
+    /**
+     * Clears the ListView and loads the first page of students matching the
+     * search term.
+     *
+     * @param searchTerm matched against the student ID number, first name and
+     * last name, or null for all students
+     */
+    private void loadStudents(String searchTerm) {
+        studentListView.getItems().clear();
+        nextPage = PageRequest.first(PAGE_SIZE, null, true, searchTerm);
+        loadNextPage();
+    }
+
+    /**
+     * Appends the next page of students to the ListView, if there is one.
+     *
+     * @return true if students were appended
+     */
+    private boolean loadNextPage() {
+        if (nextPage == null) {
+            return false;
         }
+        Page<Student> page;
+        try (Connection connection = DatabaseConnection.borrow()) {
+            page = new StudentDAO(connection).getStudentsPage(nextPage);
+        } catch (SQLException e) {
+            System.err.println("Failed to load students: " + e.getMessage());
+            return false;
+        }
+        nextPage = page.getNextRequest();
+        studentListView.getItems().addAll(page.getItems());
+        return !page.getItems().isEmpty();
     }
 
     /**
@@ -131,8 +157,17 @@ public class ViewStudentProfilesController implements Initializable {
      */
     private void displayStudentDetails(Student student) {
         // Fetch program and department names
-        String programName = studentDAO.getProgramNameById(student.getProgramId());
-        String departmentName = studentDAO.getDepartmentNameById(student.getDepartmentId());
+        String programName;
+        String departmentName;
+        try (Connection connection = DatabaseConnection.borrow()) {
+            StudentDAO studentDAO = new StudentDAO(connection);
+            programName = studentDAO.getProgramNameById(student.getProgramId());
+            departmentName = studentDAO.getDepartmentNameById(student.getDepartmentId());
+        } catch (SQLException e) {
+            System.err.println("Failed to load program and department names: " + e.getMessage());
+            programName = null;
+            departmentName = null;
+        }
 
         // Build the full name including middle name
         StringBuilder fullName = new StringBuilder();
@@ -156,35 +191,13 @@ public class ViewStudentProfilesController implements Initializable {
 
     /**
      * Handles the search functionality for students. Filters the ListView based
-     * on the search term entered in the search field.
+     * on the search term entered in the search field; the matching is done by
+     * the database (case-insensitive) and results are paged like the full list.
      */
     @FXML
     private void searchStudent() {
-        String searchTerm = searchField.getText().trim().toLowerCase(); // Convert to lowercase for case-insensitive search
-        if (searchTerm.isEmpty()) {
-            loadStudents(); // Reload all students if the search term is empty
-            return;
-        }
-
-        try {
-            // Fetch all students from the database
-            List<Student> allStudents = studentDAO.getAllStudents();
-
-            // Filter students based on the search term
-            List<Student> filteredStudents = allStudents.stream()
-                    .filter(student
-                            -> (student.getStudentIdNo() != null && student.getStudentIdNo().toLowerCase().contains(searchTerm))
-                    || (student.getFirstName() != null && student.getFirstName().toLowerCase().contains(searchTerm))
-                    || (student.getLastName() != null && student.getLastName().toLowerCase().contains(searchTerm))
-                    )
-                    .collect(java.util.stream.Collectors.toList());
-
-            // Update the ListView with the filtered students
-            studentListView.getItems().clear();
-            studentListView.getItems().addAll(filteredStudents);
-        } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Search Error", "Failed to search students: " + e.getMessage());
-        }
+        String searchTerm = searchField.getText().trim();
+        loadStudents(searchTerm.isEmpty() ? null : searchTerm); // Reload all students if the search term is empty
     }
 
     /**
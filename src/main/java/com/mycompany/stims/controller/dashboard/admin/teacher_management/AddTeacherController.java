@@ -3,6 +3,7 @@ package com.mycompany.stims.controller.dashboard.admin.teacher_management;
 import com.mycompany.stims.database.DatabaseConnection;
 import com.mycompany.stims.database.TeacherDAO;
 import com.mycompany.stims.model.Teacher;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -59,9 +60,6 @@ public class AddTeacherController implements Initializable {
     @FXML
     private AnchorPane contentArea;
 
-    private Connection connection;
-    private TeacherDAO teacherDAO;
-
     // File to store temporary passwords
     private static final String TEMP_PASSWORD_FILE = "temporary_passwords_teachers.txt";
 
@@ -74,14 +72,6 @@ public class AddTeacherController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        // Initialize database connection using DatabaseConnection
-        connection = DatabaseConnection.getConnection();
-        if (connection != null) {
-            teacherDAO = new TeacherDAO(connection);
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Unable to connect to the database.");
-        }
-
         // Initialize sex ComboBox
         ObservableList<String> sexOptions = FXCollections.observableArrayList("Male", "Female");
         sexComboBox.setItems(sexOptions);
@@ -100,9 +90,8 @@ public class AddTeacherController implements Initializable {
      * the database.
      */
     private void initializeDepartmentComboBox() {
-        try {
-            String sql = "SELECT department_id, department_name FROM Department";
-            PreparedStatement pstmt = connection.prepareStatement(sql);
+        String sql = "SELECT department_id, department_name FROM Department";
+        try (Connection connection = DatabaseConnection.borrow(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
             ResultSet rs = pstmt.executeQuery();
             ObservableList<String> departmentOptions = FXCollections.observableArrayList();
             while (rs.next()) {
@@ -112,7 +101,7 @@ public class AddTeacherController implements Initializable {
             }
             departmentComboBox.setItems(departmentOptions);
         } catch (SQLException e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load departments: " + e.getMessage());
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load departments: " + e.getMessage()));
         }
     }
 
@@ -147,8 +136,8 @@ public class AddTeacherController implements Initializable {
         teacher.setDepartmentId(departmentId);
 
         // Add the teacher to the database
-        try {
-            String temporaryPassword = teacherDAO.addTeacher(teacher);
+        try (Connection connection = DatabaseConnection.borrow()) {
+            String temporaryPassword = new TeacherDAO(connection).addTeacher(teacher);
             saveTemporaryPasswordToFile(teacher.getTeacherId(), temporaryPassword); // Save to file
             showAlert(Alert.AlertType.INFORMATION, "Success",
                     "Teacher registered successfully!\nTemporary Password: " + temporaryPassword);
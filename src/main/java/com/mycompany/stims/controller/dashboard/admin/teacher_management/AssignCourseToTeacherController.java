@@ -12,6 +12,7 @@ import java.sql.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
@@ -78,14 +79,13 @@ public class AssignCourseToTeacherController implements Initializable {
     @FXML
     private TableColumn<CourseOffering, Integer> semesterColumn;
 
-    private TeacherCourseDAO teacherCourseDAO;
-    private CourseOfferingDAO courseOfferingDAO;
     private ObservableList<TeacherCourse> teacherCourseList;
     private ObservableList<CourseOffering> courseOfferingList;
 
     /**
-     * Initializes the controller class. Sets up database connections,
-     * initializes table columns, and refreshes the tables.
+     * Initializes the controller class. Initializes table columns and
+     * refreshes the tables. Database work borrows a pooled connection per
+     * operation.
      *
      * @param url the location used to resolve relative paths for the root
      * object
@@ -93,14 +93,6 @@ public class AssignCourseToTeacherController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        Connection connection = DatabaseConnection.getConnection();
-        if (connection != null) {
-            teacherCourseDAO = new TeacherCourseDAO(connection);
-            courseOfferingDAO = new CourseOfferingDAO(connection);
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to connect to the database.");
-        }
-
         initializeTableColumns();
         refreshTables();
 
@@ -161,12 +153,13 @@ public class AssignCourseToTeacherController implements Initializable {
      * database.
      */
     private void refreshTeacherCourseTable() {
-        try {
-            List<TeacherCourse> teacherCourses = teacherCourseDAO.getAllTeacherCourses();
+        try (Connection connection = DatabaseConnection.borrow()) {
+            List<TeacherCourse> teacherCourses = new TeacherCourseDAO(connection).getAllTeacherCourses();
             teacherCourseList = FXCollections.observableArrayList(teacherCourses);
             teacherCourseTable.setItems(teacherCourseList);
         } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load teacher-course assignments: " + e.getMessage());
+            // Also reached from initialize, which must not open dialogs itself
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load teacher-course assignments: " + e.getMessage()));
         }
     }
 
@@ -174,12 +167,12 @@ public class AssignCourseToTeacherController implements Initializable {
      * Refreshes the course offerings table by fetching data from the database.
      */
     private void refreshCourseOfferingTable() {
-        try {
-            List<CourseOffering> courseOfferings = courseOfferingDAO.getAllCourseOfferings();
+        try (Connection connection = DatabaseConnection.borrow()) {
+            List<CourseOffering> courseOfferings = new CourseOfferingDAO(connection).getAllCourseOfferings();
             courseOfferingList = FXCollections.observableArrayList(courseOfferings);
             courseOfferingTable.setItems(courseOfferingList);
         } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load course offerings: " + e.getMessage());
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load course offerings: " + e.getMessage()));
         }
     }
 
@@ -231,7 +224,9 @@ public class AssignCourseToTeacherController implements Initializable {
             Optional<ButtonType> result = confirmationAlert.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
                 TeacherCourse teacherCourse = new TeacherCourse(0, teacherId, offeringId, assignedDate);
-                teacherCourseDAO.addTeacherCourse(teacherCourse);
+                try (Connection connection = DatabaseConnection.borrow()) {
+                    new TeacherCourseDAO(connection).addTeacherCourse(teacherCourse);
+                }
                 refreshTeacherCourseTable();
                 clearFields();
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Teacher-course assignment added successfully.");
@@ -277,7 +272,9 @@ public class AssignCourseToTeacherController implements Initializable {
                 selectedTeacherCourse.setOfferingId(offeringId);
                 selectedTeacherCourse.setAssignedDate(assignedDate);
 
-                teacherCourseDAO.updateTeacherCourse(selectedTeacherCourse);
+                try (Connection connection = DatabaseConnection.borrow()) {
+                    new TeacherCourseDAO(connection).updateTeacherCourse(selectedTeacherCourse);
+                }
                 refreshTables();
                 clearFields();
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Teacher-course assignment updated successfully.");
@@ -312,7 +309,9 @@ public class AssignCourseToTeacherController implements Initializable {
 
             Optional<ButtonType> result = confirmationAlert.showAndWait();
             if (result.isPresent() && result.get() == ButtonType.OK) {
-                teacherCourseDAO.deleteTeacherCourse(selectedTeacherCourse.getTeacherCourseId());
+                try (Connection connection = DatabaseConnection.borrow()) {
+                    new TeacherCourseDAO(connection).deleteTeacherCourse(selectedTeacherCourse.getTeacherCourseId());
+                }
                 refreshTeacherCourseTable();
                 clearFields();
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Teacher-course assignment deleted successfully.");
@@ -41,13 +41,11 @@ public class EditTeacherController implements Initializable {
     @FXML
     private AnchorPane contentArea; // Container for the content area
 
-    private TeacherDAO teacherDAO; // DAO for teacher-related database operations
     private Teacher currentTeacher; // Current teacher being edited
-    private Connection connection; // Database connection
 
     /**
-     * Initializes the controller class. Sets up the database connection and
-     * event handlers.
+     * Initializes the controller class. Sets up the event handlers; database
+     * work borrows a pooled connection per operation.
      *
      * @param url The location used to resolve relative paths for the root
      * object, or null if unknown.
@@ -56,13 +54,6 @@ public class EditTeacherController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        connection = DatabaseConnection.getConnection();
-        if (connection != null) {
-            teacherDAO = new TeacherDAO(connection);
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Unable to connect to the database.");
-        }
-
         // Set up event handlers
         searchButton.setOnAction(event -> searchTeacher());
         backButton.setOnAction(event -> handleBackButton());
@@ -82,8 +73,15 @@ public class EditTeacherController implements Initializable {
 
         try {
             int teacherId = Integer.parseInt(teacherIdStr);
-            // Fetch the teacher from the database
-            currentTeacher = teacherDAO.getTeacher(teacherId);
+            // Fetch the teacher from the database; the connection is not held while the dialog is open
+            String departmentName = null;
+            try (Connection connection = DatabaseConnection.borrow()) {
+                TeacherDAO teacherDAO = new TeacherDAO(connection);
+                currentTeacher = teacherDAO.getTeacher(teacherId);
+                if (currentTeacher != null) {
+                    departmentName = teacherDAO.getDepartmentNameById(currentTeacher.getDepartmentId());
+                }
+            }
             if (currentTeacher == null) {
                 showAlert(Alert.AlertType.WARNING, "Not Found", "No teacher found with the given ID.");
                 return;
@@ -124,7 +122,7 @@ public class EditTeacherController implements Initializable {
 
             ComboBox<String> departmentComboBox = new ComboBox<>();
             initializeDepartmentComboBox(departmentComboBox);
-            departmentComboBox.setValue(currentTeacher.getDepartmentId() + " - " + teacherDAO.getDepartmentNameById(currentTeacher.getDepartmentId()));
+            departmentComboBox.setValue(currentTeacher.getDepartmentId() + " - " + departmentName);
 
             grid.add(new Label("Username:"), 0, 0);
             grid.add(userNameField, 1, 0);
@@ -165,16 +163,16 @@ public class EditTeacherController implements Initializable {
                     currentTeacher.setDepartmentId(Integer.parseInt(departmentComboBox.getValue().split(" - ")[0]));
 
                     // Save the updated teacher to the database
-                    try {
-                        teacherDAO.updateTeacher(currentTeacher);
+                    try (Connection connection = DatabaseConnection.borrow()) {
+                        new TeacherDAO(connection).updateTeacher(currentTeacher);
                         showAlert(Alert.AlertType.INFORMATION, "Success", "Teacher details updated successfully.");
                     } catch (Exception e) {
                         showAlert(Alert.AlertType.ERROR, "Error", "Failed to update teacher: " + e.getMessage());
                     }
                 } else if (response.getButtonData() == ButtonBar.ButtonData.OTHER) {
                     // Handle the Delete
-                    try {
-                        teacherDAO.deleteTeacher(currentTeacher.getTeacherId());
+                    try (Connection connection = DatabaseConnection.borrow()) {
+                        new TeacherDAO(connection).deleteTeacher(currentTeacher.getTeacherId());
                         showAlert(Alert.AlertType.INFORMATION, "Success", "Teacher deleted successfully.");
                     } catch (Exception e) {
                         showAlert(Alert.AlertType.ERROR, "Error", "Failed to delete teacher: " + e.getMessage());
@@ -194,9 +192,8 @@ public class EditTeacherController implements Initializable {
      * @param departmentComboBox the ComboBox to initialize
      */
     private void initializeDepartmentComboBox(ComboBox<String> departmentComboBox) {
-        try {
-            String sql = "SELECT department_id, department_name FROM Department";
-            PreparedStatement pstmt = connection.prepareStatement(sql); // Use the connection object
+        String sql = "SELECT department_id, department_name FROM Department";
+        try (Connection connection = DatabaseConnection.borrow(); PreparedStatement pstmt = connection.prepareStatement(sql)) {
             ResultSet rs = pstmt.executeQuery();
             ObservableList<String> departmentOptions = FXCollections.observableArrayList();
             while (rs.next()) {
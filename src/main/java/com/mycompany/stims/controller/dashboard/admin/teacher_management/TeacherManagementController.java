@@ -1,11 +1,12 @@
 package com.mycompany.stims.controller.dashboard.admin.teacher_management;
 
-import java.io.IOException;
+import com.mycompany.stims.utils.BackgroundTasks;
 import java.net.URL;
 import java.util.ResourceBundle;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.layout.AnchorPane;
 import javafx.scene.Parent;
@@ -38,6 +39,8 @@ public class TeacherManagementController implements Initializable {
     @FXML
     private StackPane dynamicContentContainer;
 
+    private Task<Parent> pendingView; // View currently being loaded, if any
+
     /**
      * Initializes the controller and sets up button actions.
      *
@@ -92,17 +95,16 @@ public class TeacherManagementController implements Initializable {
      * @param fxmlPath the path to the FXML file to load
      */
     private void loadUI(String fxmlPath) {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent newContent = loader.load();
+        // Abandon a view that is still loading from an earlier click
+        BackgroundTasks.cancel(pendingView);
 
+        // Load the view off the FX thread, showing progress over the current one
+        pendingView = BackgroundTasks.loadFXML(getClass().getResource(fxmlPath), dynamicContentContainer, newContent -> {
             // Clear the previous content
             dynamicContentContainer.getChildren().clear();
 
             // Add the new content
             dynamicContentContainer.getChildren().add(newContent);
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+        }, e -> new Alert(Alert.AlertType.ERROR, "Could not load this page.").show()); // Handle loading errors
     }
 }
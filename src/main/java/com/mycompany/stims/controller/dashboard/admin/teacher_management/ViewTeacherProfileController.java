@@ -4,6 +4,7 @@ import com.mycompany.stims.database.DatabaseConnection;
 import com.mycompany.stims.database.TeacherDAO;
 import com.mycompany.stims.model.Teacher;
 import java.io.IOException;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Label;
@@ -17,6 +18,7 @@ import javafx.scene.control.ListCell;
 
 import java.net.URL;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.ResourceBundle;
 import javafx.fxml.FXMLLoader;
@@ -63,12 +65,11 @@ public class ViewTeacherProfileController implements Initializable {
     @FXML
     private AnchorPane contentArea;
 
-    private TeacherDAO teacherDAO;
-
     /**
      * Initializes the controller class. This method is automatically called
-     * after the FXML file has been loaded. It sets up the database connection,
-     * loads all teachers into the ListView, and configures event listeners.
+     * after the FXML file has been loaded. It loads all teachers into the
+     * ListView and configures event listeners. Database work borrows a pooled
+     * connection per operation.
      *
      * @param url The location used to resolve relative paths for the root
      * object, or null if unknown.
@@ -77,14 +78,6 @@ public class ViewTeacherProfileController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        // Initialize database connection
-        Connection connection = DatabaseConnection.getConnection();
-        if (connection != null) {
-            teacherDAO = new TeacherDAO(connection);
-        } else {
-            System.out.println("Failed to connect to the database.");
-        }
-
         // Load all teachers into the ListView
         loadTeachers();
 
@@ -114,12 +107,13 @@ public class ViewTeacherProfileController implements Initializable {
      * error occurs, an alert is shown to the user.
      */
     private void loadTeachers() {
-        try {
-            List<Teacher> teachers = teacherDAO.getAllTeachers();
+        try (Connection connection = DatabaseConnection.borrow()) {
+            List<Teacher> teachers = new TeacherDAO(connection).getAllTeachers();
             teacherListView.getItems().clear();
             teacherListView.getItems().addAll(teachers);
         } catch (Exception e) {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load teachers: " + e.getMessage());
+            // Also reached from initialize, which must not open dialogs itself
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load teachers: " + e.getMessage()));
         }
     }
 
@@ -130,7 +124,13 @@ public class ViewTeacherProfileController implements Initializable {
      */
     private void displayTeacherDetails(Teacher teacher) {
         // Fetch department name
-        String departmentName = teacherDAO.getDepartmentNameById(teacher.getDepartmentId());
+        String departmentName;
+        try (Connection connection = DatabaseConnection.borrow()) {
+            departmentName = new TeacherDAO(connection).getDepartmentNameById(teacher.getDepartmentId());
+        } catch (SQLException e) {
+            System.err.println("Failed to load department name: " + e.getMessage());
+            departmentName = null;
+        }
 
         // Build the full name including middle name (if available)
         StringBuilder fullName = new StringBuilder();
@@ -164,9 +164,9 @@ public class ViewTeacherProfileController implements Initializable {
             return;
         }
 
-        try {
+        try (Connection connection = DatabaseConnection.borrow()) {
             // Fetch all teachers from the database
-            List<Teacher> allTeachers = teacherDAO.getAllTeachers();
+            List<Teacher> allTeachers = new TeacherDAO(connection).getAllTeachers();
 
             // Filter teachers based on the search term
             List<Teacher> filteredTeachers = allTeachers.stream()
@@ -3,6 +3,7 @@ package com.mycompany.stims.controller.dashboard.student;
 import java.io.IOException;
 import java.net.URL;
 import java.util.ResourceBundle;
+import javafx.concurrent.Task;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
@@ -13,6 +14,7 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.layout.StackPane;
 import javafx.stage.Stage;
+import com.mycompany.stims.utils.BackgroundTasks;
 import com.mycompany.stims.utils.Session;
 
 /**
@@ -26,6 +28,8 @@ public class Student_DashboardController implements Initializable {
     @FXML
     private StackPane dynamicContentContainer;
 
+    private Task<Parent> pendingView; // View currently being loaded, if any
+
     /**
      * Initializes the controller class. Loads the Home view by default when the
      * dashboard is initialized.
@@ -119,23 +123,22 @@ public class Student_DashboardController implements Initializable {
     }
 
     /**
-     * Loads a new UI screen into the dynamic content container.
+     * Loads a new UI screen into the dynamic content container in the
+     * background.
      *
      * @param fxmlPath the path to the FXML file for the new UI screen
      */
     private void loadUI(String fxmlPath) {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent newContent = loader.load();
+        // Abandon a view that is still loading from an earlier click
+        BackgroundTasks.cancel(pendingView);
 
+        // Load the view off the FX thread, showing progress over the current one
+        pendingView = BackgroundTasks.loadFXML(getClass().getResource(fxmlPath), dynamicContentContainer, newContent -> {
             // Clear the previous content
             dynamicContentContainer.getChildren().clear();
 
             // Add the new content
             dynamicContentContainer.getChildren().add(newContent);
-        } catch (IOException e) {
-            e.printStackTrace();
-            // Handle loading errors
-        }
+        }, e -> new Alert(Alert.AlertType.ERROR, "Could not load this page.").show()); // Handle loading errors
     }
 }
@@ -1,8 +1,8 @@
 package com.mycompany.stims.controller.dashboard.student.academic_records;
 
 import com.mycompany.stims.database.DatabaseConnection;
+import com.mycompany.stims.utils.BackgroundTasks;
 import com.mycompany.stims.utils.Session;
-import java.io.IOException;
 import java.net.URL;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -11,10 +11,11 @@ import java.sql.SQLException;
 import java.util.ResourceBundle;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Parent;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
@@ -45,6 +46,8 @@ public class AcademicRecordsController implements Initializable {
     @FXML
     private StackPane dynamicContentContainer; // Container for dynamic content
 
+    private Task<Parent> pendingView; // View currently being loaded, if any
+
     private ObservableList<AcademicRecord> academicRecordsList = FXCollections.observableArrayList(); // List of academic records
 
     /**
@@ -73,40 +76,20 @@ public class AcademicRecordsController implements Initializable {
      * Fetches the academic records for the logged-in student from the database.
      */
     private void fetchAcademicRecords() {
-        // Get the logged-in student's username or email
-        String loggedInStudent = Session.getLoggedInStudentEmailOrUsername();
-        if (loggedInStudent == null) {
+        // Get the logged-in student's ID
+        int studentId = Session.getLoggedInStudentId();
+        if (studentId == -1) {
             System.out.println("No student is logged in.");
             return;
         }
 
-        // Query to fetch the student ID
-        String studentIdQuery = "SELECT student_id FROM student WHERE username = ? OR email = ?";
-        int studentId = -1;
-
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement pstmt = conn.prepareStatement(studentIdQuery)) {
-            pstmt.setString(1, loggedInStudent);
-            pstmt.setString(2, loggedInStudent);
-
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                studentId = rs.getInt("student_id");
-            } else {
-                System.out.println("Student not found.");
-                return;
-            }
-        } catch (SQLException e) {
-            System.err.println("Error fetching student ID: " + e.getMessage());
-            return;
-        }
-
         // Query to fetch academic records and CGPA
         String academicRecordsQuery = "SELECT academic_year, year, semester, total_credits, sgpa, cgpa "
                 + "FROM studentacademicrecord "
                 + "WHERE student_id = ? "
                 + "ORDER BY academic_year ASC, year ASC, semester ASC";
 
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement pstmt = conn.prepareStatement(academicRecordsQuery)) {
+        try (Connection conn = DatabaseConnection.borrow(); PreparedStatement pstmt = conn.prepareStatement(academicRecordsQuery)) {
             pstmt.setInt(1, studentId);
 
             ResultSet rs = pstmt.executeQuery();
@@ -150,19 +133,17 @@ public class AcademicRecordsController implements Initializable {
      * @param fxmlPath the path to the FXML file
      */
     private void loadUI(String fxmlPath) {
-        try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource(fxmlPath));
-            Parent newContent = loader.load();
+        // Abandon a view that is still loading from an earlier click
+        BackgroundTasks.cancel(pendingView);
 
+        // Load the view off the FX thread, showing progress over the current one
+        pendingView = BackgroundTasks.loadFXML(getClass().getResource(fxmlPath), dynamicContentContainer, newContent -> {
             // Clear the previous content
             dynamicContentContainer.getChildren().clear();
 
             // Add the new content
             dynamicContentContainer.getChildren().add(newContent);
-        } catch (IOException e) {
-            e.printStackTrace();
-            // Handle loading errors
-        }
+        }, e -> new Alert(Alert.AlertType.ERROR, "Could not load this page.").show()); // Handle loading errors
     }
 
     /**
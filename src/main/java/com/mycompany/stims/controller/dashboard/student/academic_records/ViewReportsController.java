@@ -1,7 +1,9 @@
 package com.mycompany.stims.controller.dashboard.student.academic_records;
 
 import com.mycompany.stims.database.DatabaseConnection;
+import com.mycompany.stims.database.StudentReportDAO;
 import com.mycompany.stims.utils.Session;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -12,16 +14,17 @@ import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.StackPane;
 import javafx.scene.layout.VBox;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.PDFRenderer;
 
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ResourceBundle;
 import javafx.embed.swing.SwingFXUtils;
@@ -29,7 +32,9 @@ import javafx.embed.swing.SwingFXUtils;
 /**
  * The `ViewReportsController` class manages the functionality for viewing
  * academic reports in the student dashboard. It allows students to view their
- * latest academic report in PDF format.
+ * latest academic report in PDF format. The report is streamed from the
+ * database to a temporary file and rendered from there, so the PDF is never
+ * held in memory as a whole.
  */
 public class ViewReportsController implements Initializable {
 
@@ -44,7 +49,7 @@ public class ViewReportsController implements Initializable {
 
     /**
      * Initializes the controller after its root element has been completely
-     * processed. This method fetches the logged-in student's ID, retrieves the
+     * processed. This method takes the logged-in student's ID, retrieves the
      * latest PDF report from the database, and renders the PDF pages in the UI.
      *
      * @param url The location used to resolve relative paths for the root
@@ -54,30 +59,23 @@ public class ViewReportsController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        // Get the logged-in student's email or username
-        String loggedInStudentEmailOrUsername = Session.getLoggedInStudentEmailOrUsername();
-
-        if (loggedInStudentEmailOrUsername == null) {
-            showAlert(Alert.AlertType.ERROR, "Error", "No student is currently logged in.");
-            return;
-        }
-
-        int studentId = getStudentIdFromDatabase(loggedInStudentEmailOrUsername);
+        // Get the logged-in student's ID
+        int studentId = Session.getLoggedInStudentId();
 
         if (studentId == -1) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to fetch student ID from the database.");
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Error", "No student is currently logged in."));
             return;
         }
 
         // Fetch the PDF content from the database for the logged-in student
-        byte[] pdfContent = getPdfContentFromDatabase(studentId);
+        Path pdfFile = getPdfContentFromDatabase(studentId);
 
-        if (pdfContent == null) {
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to fetch PDF content from the database.");
+        if (pdfFile == null) {
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to fetch PDF content from the database."));
             return;
         }
 
-        try (PDDocument document = PDDocument.load(new ByteArrayInputStream(pdfContent))) {
+        try (PDDocument document = PDDocument.load(pdfFile.toFile(), MemoryUsageSetting.setupTempFileOnly())) {
             // Create a PDFRenderer to render the PDF pages
             PDFRenderer pdfRenderer = new PDFRenderer(document);
 
@@ -99,7 +97,9 @@ public class ViewReportsController implements Initializable {
             }
         } catch (IOException e) {
             e.printStackTrace();
-            showAlert(Alert.AlertType.ERROR, "Error", "Failed to render PDF: " + e.getMessage());
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Error", "Failed to render PDF: " + e.getMessage()));
+        } finally {
+            deleteTempFile(pdfFile);
         }
     }
 
@@ -123,51 +123,50 @@ public class ViewReportsController implements Initializable {
     }
 
     /**
-     * Fetches the student ID from the database using the logged-in email or
-     * username.
+     * Fetches the latest PDF report of a specific student from the database
+     * into a temporary file. The newest report is found from the metadata
+     * alone; only its content is then streamed.
      *
-     * @param emailOrUsername The email or username of the logged-in student.
-     * @return The student ID, or -1 if not found.
+     * @param studentId The ID of the student.
+     * @return The temporary file holding the PDF, or null if not found. The
+     * caller deletes it.
      */
-    private int getStudentIdFromDatabase(String emailOrUsername) {
-        String query = "SELECT student_id FROM student WHERE email = ? OR username = ?";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, emailOrUsername);
-            stmt.setString(2, emailOrUsername);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt("student_id");
+    private Path getPdfContentFromDatabase(int studentId) {
+        Path pdfFile = null;
+        try (Connection conn = DatabaseConnection.borrow()) {
+            StudentReportDAO reportDAO = new StudentReportDAO(conn);
+            StudentReportDAO.ReportInfo report = reportDAO.getLatestReport(studentId);
+            if (report == null) {
+                return null;
+            }
+            pdfFile = Files.createTempFile("stims-report-", ".pdf");
+            try (OutputStream out = Files.newOutputStream(pdfFile)) {
+                if (reportDAO.copyContent(report.getReportId(), out)) {
+                    return pdfFile;
                 }
             }
-        } catch (SQLException e) {
+        } catch (SQLException | IOException e) {
             e.printStackTrace();
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to fetch student ID: " + e.getMessage());
+            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to fetch PDF content: " + e.getMessage());
         }
-        return -1;
+        deleteTempFile(pdfFile);
+        return null;
     }
 
     /**
-     * Fetches the PDF content from the database for a specific student.
+     * Deletes a temporary report file, if there is one.
      *
-     * @param studentId The ID of the student.
-     * @return The PDF content as a byte array, or null if not found.
+     * @param file The file to delete, or null.
      */
-    private byte[] getPdfContentFromDatabase(int studentId) {
-        String query = "SELECT report_content FROM student_reports WHERE student_id = ? ORDER BY report_id DESC LIMIT 1";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setInt(1, studentId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getBytes("report_content");
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to fetch PDF content: " + e.getMessage());
+    private void deleteTempFile(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Error deleting temporary report file: " + e.getMessage());
         }
-        return null;
     }
 
     /**
@@ -4,6 +4,7 @@ import com.mycompany.stims.database.DatabaseConnection;
 import com.mycompany.stims.database.StudentDAO;
 import com.mycompany.stims.model.Student;
 import com.mycompany.stims.utils.Session;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -14,6 +15,7 @@ import javafx.geometry.Pos;
 
 import java.net.URL;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.ResourceBundle;
 
 /**
@@ -23,19 +25,14 @@ import java.util.ResourceBundle;
  */
 public class ProfileController implements Initializable {
 
-    /**
-     * Data Access Object (DAO) for student-related database operations.
-     */
-    private StudentDAO studentDAO;
-
     /**
      * The currently logged-in student.
      */
     private Student currentStudent;
 
     /**
-     * Initializes the controller class. Sets up the database connection and
-     * loads the student profile.
+     * Initializes the controller class. Loads the student profile; database
+     * work borrows a pooled connection per operation.
      *
      * @param url the location used to resolve relative paths for the root
      * object, or null if the location is not known
@@ -44,12 +41,6 @@ public class ProfileController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        Connection connection = DatabaseConnection.getConnection();
-        if (connection != null) {
-            studentDAO = new StudentDAO(connection);
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Unable to connect to the database.");
-        }
         loadStudentProfile();
     }
 
@@ -57,17 +48,23 @@ public class ProfileController implements Initializable {
      * Loads the profile of the currently logged-in student.
      */
     private void loadStudentProfile() {
-        String loggedInEmailOrUsername = Session.getLoggedInStudentEmailOrUsername();
+        int studentId = Session.getLoggedInStudentId();
 
-        if (loggedInEmailOrUsername == null || loggedInEmailOrUsername.isEmpty()) {
+        if (studentId == -1) {
             showAlert(Alert.AlertType.ERROR, "Error", "No student is currently logged in.");
             return;
         }
 
-        currentStudent = studentDAO.getStudentByEmailOrUsername(loggedInEmailOrUsername);
+        try (Connection connection = DatabaseConnection.borrow()) {
+            currentStudent = new StudentDAO(connection).getStudentById(studentId);
+        } catch (SQLException e) {
+            // Reached from initialize, which must not open dialogs itself
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Database Error", "Unable to load the profile: " + e.getMessage()));
+            return;
+        }
 
         if (currentStudent == null) {
-            showAlert(Alert.AlertType.WARNING, "Not Found", "No student found with the given email/username.");
+            showAlert(Alert.AlertType.WARNING, "Not Found", "No student found for the logged-in account.");
         }
     }
 
@@ -82,16 +79,29 @@ public class ProfileController implements Initializable {
             return;
         }
 
-        Dialog<ButtonType> dialog = createProfileDialog();
+        String departmentName;
+        String programName;
+        try (Connection connection = DatabaseConnection.borrow()) {
+            StudentDAO studentDAO = new StudentDAO(connection);
+            departmentName = studentDAO.getDepartmentNameById(currentStudent.getDepartmentId());
+            programName = studentDAO.getProgramNameById(currentStudent.getProgramId());
+        } catch (SQLException e) {
+            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load the profile: " + e.getMessage());
+            return;
+        }
+
+        Dialog<ButtonType> dialog = createProfileDialog(departmentName, programName);
         dialog.showAndWait();
     }
 
     /**
      * Creates a dialog to display the student's profile information.
      *
+     * @param departmentName the name of the student's department
+     * @param programName the name of the student's program
      * @return the configured dialog
      */
-    private Dialog<ButtonType> createProfileDialog() {
+    private Dialog<ButtonType> createProfileDialog(String departmentName, String programName) {
         Dialog<ButtonType> dialog = new Dialog<>();
         dialog.setTitle("Student Profile");
         dialog.setHeaderText("View Student Information");
@@ -114,8 +124,8 @@ public class ProfileController implements Initializable {
         addLabelAndValue(grid, "Sex:", currentStudent.getSex(), 5);
         addLabelAndValue(grid, "Date of Birth:", currentStudent.getDateOfBirth().toString(), 6);
         addLabelAndValue(grid, "Email:", currentStudent.getEmail(), 7);
-        addLabelAndValue(grid, "Department:", studentDAO.getDepartmentNameById(currentStudent.getDepartmentId()), 8);
-        addLabelAndValue(grid, "Program:", studentDAO.getProgramNameById(currentStudent.getProgramId()), 9);
+        addLabelAndValue(grid, "Department:", departmentName, 8);
+        addLabelAndValue(grid, "Program:", programName, 9);
         addLabelAndValue(grid, "Enrollment Date:", currentStudent.getEnrollmentDate().toString(), 10);
 
         dialogPane.setContent(grid);
@@ -150,12 +160,13 @@ public class ProfileController implements Initializable {
         dialog.showAndWait().ifPresent(newUsername -> {
             if (newUsername != null && !newUsername.isEmpty()) {
                 currentStudent.setUsername(newUsername);
-                try {
-                    studentDAO.updateStudent(currentStudent);
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Username updated successfully.");
+                try (Connection connection = DatabaseConnection.borrow()) {
+                    new StudentDAO(connection).updateStudent(currentStudent);
                 } catch (Exception e) {
                     showAlert(Alert.AlertType.ERROR, "Error", "Failed to update username: " + e.getMessage());
+                    return;
                 }
+                showAlert(Alert.AlertType.INFORMATION, "Success", "Username updated successfully.");
             } else {
                 showAlert(Alert.AlertType.ERROR, "Error", "Username cannot be empty.");
             }
@@ -174,12 +185,13 @@ public class ProfileController implements Initializable {
                 Dialog<String> confirmPasswordDialog = createPasswordDialog("Confirm your new password:", "Confirm Password:");
                 confirmPasswordDialog.showAndWait().ifPresent(confirmPassword -> {
                     if (newPassword.equals(confirmPassword)) {
-                        try {
-                            studentDAO.changePassword(currentStudent.getStudentIdNo(), newPassword);
-                            showAlert(Alert.AlertType.INFORMATION, "Success", "Password updated successfully.");
+                        try (Connection connection = DatabaseConnection.borrow()) {
+                            new StudentDAO(connection).changePassword(currentStudent.getStudentIdNo(), newPassword);
                         } catch (Exception e) {
                             showAlert(Alert.AlertType.ERROR, "Error", "Failed to update password: " + e.getMessage());
+                            return;
                         }
+                        showAlert(Alert.AlertType.INFORMATION, "Success", "Password updated successfully.");
                     } else {
                         showAlert(Alert.AlertType.ERROR, "Error", "Passwords do not match. Please try again.");
                     }
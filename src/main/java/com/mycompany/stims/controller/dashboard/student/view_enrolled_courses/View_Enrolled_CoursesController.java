@@ -1,11 +1,13 @@
 package com.mycompany.stims.controller.dashboard.student.view_enrolled_courses;
 
 import com.mycompany.stims.database.DatabaseConnection;
+import com.mycompany.stims.utils.BackgroundTasks;
 import com.mycompany.stims.utils.Session;
 import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.collections.transformation.FilteredList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Alert;
@@ -14,7 +16,6 @@ import javafx.scene.control.ComboBox;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.concurrent.Task;
 
 import java.net.URL;
 import java.sql.Connection;
@@ -100,20 +101,13 @@ public class View_Enrolled_CoursesController implements Initializable {
         Task<Void> fetchTask = new Task<Void>() {
             @Override
             protected Void call() throws Exception {
-                String loggedInStudent = Session.getLoggedInStudentEmailOrUsername();
-                if (loggedInStudent == null) {
+                int studentId = Session.getLoggedInStudentId();
+                if (studentId == -1) {
                     Platform.runLater(() -> showErrorAlert("No student is logged in."));
                     return null;
                 }
 
-                try (Connection conn = DatabaseConnection.getConnection()) {
-
-                    int studentId = fetchStudentId(conn, loggedInStudent);
-                    if (studentId == -1) {
-                        Platform.runLater(() -> showErrorAlert("Student not found."));
-                        return null;
-                    }
-
+                try (Connection conn = DatabaseConnection.borrow()) {
                     // Fetch enrolled courses
                     ObservableList<EnrolledCourse> courses = fetchCourses(conn, studentId);
 
@@ -129,25 +123,7 @@ public class View_Enrolled_CoursesController implements Initializable {
             }
         };
 
-        new Thread(fetchTask).start();
-    }
-
-    /**
-     * Fetches the student ID for the logged-in student.
-     *
-     * @param conn the database connection
-     * @param loggedInStudent the username or email of the logged-in student
-     * @return the student ID, or -1 if not found
-     * @throws SQLException if a database error occurs
-     */
-    private int fetchStudentId(Connection conn, String loggedInStudent) throws SQLException {
-        String studentIdQuery = "SELECT student_id FROM student WHERE username = ? OR email = ?";
-        try (PreparedStatement pstmt = conn.prepareStatement(studentIdQuery)) {
-            pstmt.setString(1, loggedInStudent);
-            pstmt.setString(2, loggedInStudent);
-            ResultSet rs = pstmt.executeQuery();
-            return rs.next() ? rs.getInt("student_id") : -1;
-        }
+        BackgroundTasks.submit(fetchTask);
     }
 
     /**
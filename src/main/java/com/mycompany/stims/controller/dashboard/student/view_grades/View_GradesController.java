@@ -112,33 +112,13 @@ public class View_GradesController implements Initializable {
      * populates the table.
      */
     private void fetchGrades() {
-        // Get the logged-in student's username or email
-        String loggedInStudent = Session.getLoggedInStudentEmailOrUsername();
-        if (loggedInStudent == null) {
+        // Get the logged-in student's ID
+        int studentId = Session.getLoggedInStudentId();
+        if (studentId == -1) {
             System.out.println("No student is logged in.");
             return;
         }
 
-        String studentIdQuery = "SELECT student_id FROM student WHERE username = ? OR email = ?";
-        int studentId = -1;
-
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement pstmt = conn.prepareStatement(studentIdQuery)) {
-
-            pstmt.setString(1, loggedInStudent);
-            pstmt.setString(2, loggedInStudent);
-
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                studentId = rs.getInt("student_id");
-            } else {
-                System.out.println("Student not found.");
-                return;
-            }
-        } catch (SQLException e) {
-            System.err.println("Error fetching student ID: " + e.getMessage());
-            return;
-        }
-
         String gradesQuery = "SELECT c.course_code, c.course_name, c.credits, "
                 + "CONCAT(t.first_name, ' ', t.last_name) AS instructor, g.grade, "
                 + "co.academic_year, co.semester "
@@ -151,7 +131,7 @@ public class View_GradesController implements Initializable {
                 + "WHERE sc.student_id = ? "
                 + "ORDER BY co.academic_year ASC, co.semester ASC";
 
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement pstmt = conn.prepareStatement(gradesQuery)) {
+        try (Connection conn = DatabaseConnection.borrow(); PreparedStatement pstmt = conn.prepareStatement(gradesQuery)) {
 
             pstmt.setInt(1, studentId);
 
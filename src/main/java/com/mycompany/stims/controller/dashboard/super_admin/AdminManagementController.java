@@ -1,6 +1,7 @@
 package com.mycompany.stims.controller.dashboard.super_admin;
 
 import com.mycompany.stims.database.AdminDAO;
+import com.mycompany.stims.database.DatabaseConnection;
 import com.mycompany.stims.model.Admin;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -21,6 +22,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.Date;
@@ -76,7 +78,6 @@ public class AdminManagementController {
     @FXML
     private TableColumn<Admin, Integer> roleColumn; // Column for role
 
-    private AdminDAO adminDAO; // DAO for admin-related database operations
     private ObservableList<Admin> adminList; // List of admins
 
     private final Map<String, String> sexMap = Map.of(
@@ -93,13 +94,11 @@ public class AdminManagementController {
 
     /**
      * Initializes the controller class. Sets up the table columns, ComboBoxes,
-     * and loads admin data.
+     * and loads admin data. Database work borrows a pooled connection per
+     * operation.
      */
     @FXML
     public void initialize() {
-        Connection connection = com.mycompany.stims.database.DatabaseConnection.getConnection();
-        adminDAO = new AdminDAO(connection);
-
         // Initialize ComboBoxes
         sexField.setItems(FXCollections.observableArrayList(sexMap.keySet()));
         roleField.setItems(FXCollections.observableArrayList(roleMap.keySet()));
@@ -150,8 +149,12 @@ public class AdminManagementController {
      */
     private void loadAdmins() {
         adminList = FXCollections.observableArrayList();
-        List<Admin> admins = adminDAO.getAllAdmins();
-        adminList.addAll(admins);
+        try (Connection connection = DatabaseConnection.borrow()) {
+            List<Admin> admins = new AdminDAO(connection).getAllAdmins();
+            adminList.addAll(admins);
+        } catch (SQLException e) {
+            System.err.println("Error loading admins: " + e.getMessage());
+        }
         adminTable.setItems(adminList);
     }
 
@@ -185,7 +188,10 @@ public class AdminManagementController {
         );
 
         try {
-            String temporaryPassword = adminDAO.addAdmin(admin);
+            String temporaryPassword;
+            try (Connection connection = DatabaseConnection.borrow()) {
+                temporaryPassword = new AdminDAO(connection).addAdmin(admin);
+            }
             saveTemporaryPasswordToFile(admin.getAdminIdNo(), temporaryPassword);
             showAlert(Alert.AlertType.INFORMATION, "Success",
                     "Admin added successfully!\nTemporary Password: " + temporaryPassword);
@@ -341,7 +347,9 @@ public class AdminManagementController {
 
                     // Save the updated admin to the database
                     try {
-                        adminDAO.updateAdmin(admin);
+                        try (Connection connection = DatabaseConnection.borrow()) {
+                            new AdminDAO(connection).updateAdmin(admin);
+                        }
                         showAlert(Alert.AlertType.INFORMATION, "Success", "Admin details updated successfully.");
                         loadAdmins(); // Refresh the table
                     } catch (Exception e) {
@@ -367,7 +375,9 @@ public class AdminManagementController {
         Optional<ButtonType> confirmationResult = confirmationAlert.showAndWait();
         if (confirmationResult.isPresent() && confirmationResult.get() == ButtonType.OK) {
             try {
-                adminDAO.deleteAdmin(admin.getAdminIdNo());
+                try (Connection connection = DatabaseConnection.borrow()) {
+                    new AdminDAO(connection).deleteAdmin(admin.getAdminIdNo());
+                }
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Admin deleted successfully.");
                 loadAdmins();
             } catch (Exception e) {
@@ -4,6 +4,7 @@ import com.mycompany.stims.database.DatabaseConnection;
 import com.mycompany.stims.database.AdminDAO;
 import com.mycompany.stims.model.Admin;
 import com.mycompany.stims.utils.Session;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -14,6 +15,7 @@ import javafx.geometry.Pos;
 
 import java.net.URL;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.ResourceBundle;
 
 /**
@@ -33,13 +35,12 @@ public class ProfileController implements Initializable {
     @FXML
     private Button changePasswordButton;
 
-    private AdminDAO adminDAO;
     private Admin currentAdmin;
 
     /**
      * Initializes the controller after its root element has been completely
-     * processed. This method sets up the database connection, loads the admin
-     * profile, and configures button actions.
+     * processed. This method loads the admin profile and configures button
+     * actions. Database work borrows a pooled connection per operation.
      *
      * @param url The location used to resolve relative paths for the root
      * object, or `null` if the location is not known.
@@ -48,13 +49,6 @@ public class ProfileController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        Connection connection = DatabaseConnection.getConnection();
-        if (connection != null) {
-            adminDAO = new AdminDAO(connection);
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Unable to connect to the database.");
-        }
-
         loadAdminProfile();
 
         viewProfileButton.setOnAction(event -> handleViewProfile());
@@ -67,17 +61,23 @@ public class ProfileController implements Initializable {
      * data. If no admin is logged in, an error alert is shown.
      */
     private void loadAdminProfile() {
-        String loggedInEmailOrUsername = Session.getLoggedInAdminEmailOrUsername();
+        int adminId = Session.getLoggedInAdminId();
 
-        if (loggedInEmailOrUsername == null || loggedInEmailOrUsername.isEmpty()) {
+        if (adminId == -1) {
             showAlert(Alert.AlertType.ERROR, "Error", "No admin is currently logged in.");
             return;
         }
 
-        currentAdmin = adminDAO.getAdminByEmailOrUsername(loggedInEmailOrUsername);
+        try (Connection connection = DatabaseConnection.borrow()) {
+            currentAdmin = new AdminDAO(connection).getAdminById(adminId);
+        } catch (SQLException e) {
+            // Reached from initialize, which must not open dialogs itself
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Database Error", "Unable to load the profile: " + e.getMessage()));
+            return;
+        }
 
         if (currentAdmin == null) {
-            showAlert(Alert.AlertType.WARNING, "Not Found", "No admin found with the given email/username.");
+            showAlert(Alert.AlertType.WARNING, "Not Found", "No admin found for the logged-in account.");
         }
     }
 
@@ -91,6 +91,14 @@ public class ProfileController implements Initializable {
             return;
         }
 
+        String roleName;
+        try (Connection connection = DatabaseConnection.borrow()) {
+            roleName = new AdminDAO(connection).getRoleNameById(currentAdmin.getRoleId());
+        } catch (SQLException e) {
+            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load the profile: " + e.getMessage());
+            return;
+        }
+
         Dialog<ButtonType> dialog = new Dialog<>();
         dialog.setTitle("Admin Profile");
         dialog.setHeaderText("View Admin Information");
@@ -117,7 +125,7 @@ public class ProfileController implements Initializable {
         addLabelAndValue(grid, "Email:", currentAdmin.getEmail(), 7);
         addLabelAndValue(grid, "Phone Number:", currentAdmin.getPhoneNumber(), 8);
         addLabelAndValue(grid, "Address:", currentAdmin.getAddress(), 9);
-        addLabelAndValue(grid, "Role:", adminDAO.getRoleNameById(currentAdmin.getRoleId()), 10);
+        addLabelAndValue(grid, "Role:", roleName, 10);
 
         dialogPane.setContent(grid);
 
@@ -153,12 +161,13 @@ public class ProfileController implements Initializable {
         dialog.showAndWait().ifPresent(newUsername -> {
             if (newUsername != null && !newUsername.isEmpty()) {
                 currentAdmin.setUsername(newUsername);
-                try {
-                    adminDAO.updateAdmin(currentAdmin);
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Username updated successfully.");
+                try (Connection connection = DatabaseConnection.borrow()) {
+                    new AdminDAO(connection).updateAdmin(currentAdmin);
                 } catch (Exception e) {
                     showAlert(Alert.AlertType.ERROR, "Error", "Failed to update username: " + e.getMessage());
+                    return;
                 }
+                showAlert(Alert.AlertType.INFORMATION, "Success", "Username updated successfully.");
             } else {
                 showAlert(Alert.AlertType.ERROR, "Error", "Username cannot be empty.");
             }
@@ -179,12 +188,13 @@ public class ProfileController implements Initializable {
                 Dialog<String> confirmPasswordDialog = createPasswordDialog("Confirm your new password:", "Confirm Password:");
                 confirmPasswordDialog.showAndWait().ifPresent(confirmPassword -> {
                     if (newPassword.equals(confirmPassword)) {
-                        try {
-                            adminDAO.changePassword(currentAdmin.getAdminIdNo(), newPassword);
-                            showAlert(Alert.AlertType.INFORMATION, "Success", "Password updated successfully.");
+                        try (Connection connection = DatabaseConnection.borrow()) {
+                            new AdminDAO(connection).changePassword(currentAdmin.getAdminIdNo(), newPassword);
                         } catch (Exception e) {
                             showAlert(Alert.AlertType.ERROR, "Error", "Failed to update password: " + e.getMessage());
+                            return;
                         }
+                        showAlert(Alert.AlertType.INFORMATION, "Success", "Password updated successfully.");
                     } else {
                         showAlert(Alert.AlertType.ERROR, "Error", "Passwords do not match. Please try again.");
                     }
@@ -66,20 +66,18 @@ public class AssignedCoursesController implements Initializable {
      */
     private void loadAssignedCourses() {
         ObservableList<AssignedCourse> assignedCourses = FXCollections.observableArrayList();
-        String loggedInTeacherEmailOrUsername = Session.getLoggedInTeacherEmailOrUsername();
+        int teacherId = Session.getLoggedInTeacherId();
 
-        if (loggedInTeacherEmailOrUsername != null) {
+        if (teacherId != -1) {
             String query = "SELECT c.course_code, c.course_name, c.credits, co.academic_year, co.semester, tc.assigned_date "
                     + "FROM teachercourse tc "
                     + "JOIN courseoffering co ON tc.offering_id = co.offering_id "
                     + "JOIN course c ON co.course_id = c.course_id "
-                    + "JOIN teacher t ON tc.teacher_id = t.teacher_id "
-                    + "WHERE t.email = ? OR t.username = ?";
+                    + "WHERE tc.teacher_id = ?";
 
-            try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement pstmt = conn.prepareStatement(query)) {
+            try (Connection conn = DatabaseConnection.borrow(); PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-                pstmt.setString(1, loggedInTeacherEmailOrUsername);
-                pstmt.setString(2, loggedInTeacherEmailOrUsername);
+                pstmt.setInt(1, teacherId);
                 ResultSet rs = pstmt.executeQuery();
 
                 while (rs.next()) {
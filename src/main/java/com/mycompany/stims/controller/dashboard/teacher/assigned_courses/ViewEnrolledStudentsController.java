@@ -1,12 +1,19 @@
 package com.mycompany.stims.controller.dashboard.teacher.assigned_courses;
 
 import com.mycompany.stims.database.DatabaseConnection;
+import com.mycompany.stims.database.GpaEngine;
+import com.mycompany.stims.database.OfferingAnalyticsDAO;
+import com.mycompany.stims.model.OfferingAnalytics;
 import com.mycompany.stims.utils.Session;
 import java.net.URL;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
@@ -15,6 +22,7 @@ import javafx.fxml.Initializable;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
@@ -22,7 +30,10 @@ import javafx.scene.control.cell.PropertyValueFactory;
 /**
  * The ViewEnrolledStudentsController class handles the display of students
  * enrolled in courses assigned to the logged-in teacher. It allows filtering by
- * course and refreshing the table.
+ * course and refreshing the table. Each student's grade is shown with its
+ * percentile rank within the student's offering, and the grade distribution of
+ * the course is shown below the table; both come from the offering summary
+ * maintained by {@link OfferingAnalyticsDAO}.
  */
 public class ViewEnrolledStudentsController implements Initializable {
 
@@ -39,6 +50,12 @@ public class ViewEnrolledStudentsController implements Initializable {
     @FXML
     private TableColumn<EnrolledStudent, String> courseNameColumn; // Column for course name
     @FXML
+    private TableColumn<EnrolledStudent, String> gradeColumn; // Column for the student's grade
+    @FXML
+    private TableColumn<EnrolledStudent, String> percentileColumn; // Column for the grade's percentile rank
+    @FXML
+    private Label distributionLabel; // Grade distribution of the selected course
+    @FXML
     private Button searchButton; // Button to search for enrolled students
     @FXML
     private Button refreshButton; // Button to refresh the table
@@ -59,6 +76,8 @@ public class ViewEnrolledStudentsController implements Initializable {
         fullNameColumn.setCellValueFactory(new PropertyValueFactory<>("fullName"));
         emailColumn.setCellValueFactory(new PropertyValueFactory<>("email"));
         courseNameColumn.setCellValueFactory(new PropertyValueFactory<>("courseName"));
+        gradeColumn.setCellValueFactory(new PropertyValueFactory<>("grade"));
+        percentileColumn.setCellValueFactory(new PropertyValueFactory<>("percentileRank"));
 
         // Populate the course filter ComboBox
         populateCourseFilter();
@@ -74,20 +93,18 @@ public class ViewEnrolledStudentsController implements Initializable {
      */
     private void populateCourseFilter() {
         ObservableList<String> courses = FXCollections.observableArrayList();
-        String loggedInTeacherEmailOrUsername = Session.getLoggedInTeacherEmailOrUsername();
+        int teacherId = Session.getLoggedInTeacherId();
 
-        if (loggedInTeacherEmailOrUsername != null) {
+        if (teacherId != -1) {
             String query = "SELECT c.course_name "
                     + "FROM teachercourse tc "
                     + "JOIN courseoffering co ON tc.offering_id = co.offering_id "
                     + "JOIN course c ON co.course_id = c.course_id "
-                    + "JOIN teacher t ON tc.teacher_id = t.teacher_id "
-                    + "WHERE t.email = ? OR t.username = ?";
+                    + "WHERE tc.teacher_id = ?";
 
-            try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement pstmt = conn.prepareStatement(query)) {
+            try (Connection conn = DatabaseConnection.borrow(); PreparedStatement pstmt = conn.prepareStatement(query)) {
 
-                pstmt.setString(1, loggedInTeacherEmailOrUsername);
-                pstmt.setString(2, loggedInTeacherEmailOrUsername);
+                pstmt.setInt(1, teacherId);
                 ResultSet rs = pstmt.executeQuery();
 
                 while (rs.next()) {
@@ -110,28 +127,46 @@ public class ViewEnrolledStudentsController implements Initializable {
 
         if (selectedCourse != null) {
             ObservableList<EnrolledStudent> enrolledStudents = FXCollections.observableArrayList();
-            String query = "SELECT s.studentId_No, CONCAT(s.first_name, ' ', s.last_name) AS full_name, s.email, c.course_name "
+            String query = "SELECT s.studentId_No, CONCAT(s.first_name, ' ', s.last_name) AS full_name, s.email, c.course_name, "
+                    + "sc.offering_id, g.grade "
                     + "FROM studentcourse sc "
                     + "JOIN student s ON sc.student_id = s.student_id "
                     + "JOIN courseoffering co ON sc.offering_id = co.offering_id "
                     + "JOIN course c ON co.course_id = c.course_id "
+                    + "LEFT JOIN grade g ON sc.student_course_id = g.student_course_id "
                     + "WHERE c.course_name = ?";
 
-            try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement pstmt = conn.prepareStatement(query)) {
+            try (Connection conn = DatabaseConnection.borrow(); PreparedStatement pstmt = conn.prepareStatement(query)) {
 
                 pstmt.setString(1, selectedCourse);
                 ResultSet rs = pstmt.executeQuery();
 
+                List<Integer> offeringIds = new ArrayList<>();
+                List<String> grades = new ArrayList<>();
+                List<String[]> rows = new ArrayList<>();
                 while (rs.next()) {
-                    enrolledStudents.add(new EnrolledStudent(
-                            rs.getString("studentId_No"),
-                            rs.getString("full_name"),
-                            rs.getString("email"),
-                            rs.getString("course_name")
-                    ));
+                    rows.add(new String[]{
+                        rs.getString("studentId_No"),
+                        rs.getString("full_name"),
+                        rs.getString("email"),
+                        rs.getString("course_name")
+                    });
+                    offeringIds.add(rs.getInt("offering_id"));
+                    grades.add(rs.getString("grade"));
+                }
+
+                // Percentile ranks are read off each offering's grade distribution
+                Map<Integer, OfferingAnalytics> analytics = new OfferingAnalyticsDAO(conn).getOfferingAnalytics(new HashSet<>(offeringIds));
+                for (int i = 0; i < rows.size(); i++) {
+                    String[] row = rows.get(i);
+                    String grade = grades.get(i);
+                    enrolledStudents.add(new EnrolledStudent(row[0], row[1], row[2], row[3],
+                            grade == null ? "-" : grade,
+                            formatPercentileRank(analytics.get(offeringIds.get(i)), grade)));
                 }
 
                 studentsTable.setItems(enrolledStudents);
+                distributionLabel.setText(formatDistribution(analytics));
 
             } catch (SQLException e) {
                 e.printStackTrace();
@@ -139,6 +174,46 @@ public class ViewEnrolledStudentsController implements Initializable {
         }
     }
 
+    /**
+     * Formats the percentile rank of a grade within an offering.
+     *
+     * @param analytics the summary of the offering, or null if there is none
+     * @param grade the grade, or null if not graded yet
+     * @return the percentile rank, or "-" if the grade is off the letter scale
+     */
+    private static String formatPercentileRank(OfferingAnalytics analytics, String grade) {
+        int index = GpaEngine.GRADES.indexOf(grade);
+        if (analytics == null || index < 0 || analytics.getLetterGradeCount() == 0) {
+            return "-";
+        }
+        return String.format("%.1f", analytics.getPercentileRank(index));
+    }
+
+    /**
+     * Formats the grade distribution of the shown offerings, added together.
+     *
+     * @param analytics the summaries of the offerings
+     * @return a one-line histogram with the average grade point
+     */
+    private static String formatDistribution(Map<Integer, OfferingAnalytics> analytics) {
+        if (analytics.isEmpty()) {
+            return "";
+        }
+        OfferingAnalytics total = OfferingAnalytics.combine(analytics.values());
+        if (total.getLetterGradeCount() == 0) {
+            return "No grades yet.";
+        }
+        StringBuilder text = new StringBuilder("Grade distribution:");
+        for (int i = 0; i < GpaEngine.GRADES.size(); i++) {
+            if (total.getGradeCount(i) > 0) {
+                text.append("  ").append(GpaEngine.GRADES.get(i)).append(": ").append(total.getGradeCount(i));
+            }
+        }
+        text.append(String.format("   |   Average grade point: %.2f   |   Median: %s",
+                total.getMeanGradePoint(), GpaEngine.GRADES.get(total.getMedianGradeIndex())));
+        return text.toString();
+    }
+
     /**
      * Refreshes the table by reloading the enrolled students.
      */
@@ -168,6 +243,8 @@ public class ViewEnrolledStudentsController implements Initializable {
         private final String fullName; // Student full name
         private final String email; // Student email
         private final String courseName; // Course name
+        private final String grade; // Grade, or "-" if not graded yet
+        private final String percentileRank; // Percentile rank of the grade within the offering
 
         /**
          * Constructs an EnrolledStudent object.
@@ -176,12 +253,16 @@ public class ViewEnrolledStudentsController implements Initializable {
          * @param fullName the student's full name
          * @param email the student's email
          * @param courseName the course name
+         * @param grade the student's grade
+         * @param percentileRank the percentile rank of the grade
          */
-        public EnrolledStudent(String studentIdNo, String fullName, String email, String courseName) {
+        public EnrolledStudent(String studentIdNo, String fullName, String email, String courseName, String grade, String percentileRank) {
             this.studentIdNo = studentIdNo;
             this.fullName = fullName;
             this.email = email;
             this.courseName = courseName;
+            this.grade = grade;
+            this.percentileRank = percentileRank;
         }
 
         // Getters
@@ -217,5 +298,21 @@ public class ViewEnrolledStudentsController implements Initializable {
         public String getCourseName() {
             return courseName;
         }
+
+        /**
+         *
+         * @return
+         */
+        public String getGrade() {
+            return grade;
+        }
+
+        /**
+         *
+         * @return
+         */
+        public String getPercentileRank() {
+            return percentileRank;
+        }
     }
 }
@@ -3,15 +3,23 @@ package com.mycompany.stims.controller.dashboard.teacher.manage_grades;
 import com.mycompany.stims.database.DatabaseConnection;
 import com.mycompany.stims.database.GradeDAO;
 import com.mycompany.stims.model.Grade;
+import com.mycompany.stims.utils.BackgroundTasks;
+import com.mycompany.stims.utils.GradeSheetReader;
 import com.mycompany.stims.utils.Session;
+import java.io.File;
 import java.net.URL;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.function.IntFunction;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Button;
@@ -22,6 +30,7 @@ import javafx.scene.control.TextField;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
+import javafx.stage.FileChooser;
 
 /**
  * The `ManageGradesController` class manages the functionality for teachers to
@@ -67,13 +76,17 @@ public class ManageGradesController implements Initializable {
     @FXML
     private Button updateButton;
 
-    private GradeDAO gradeDAO;
+    @FXML
+    private Button importButton;
+
+    // Offering IDs by the label shown in the course ComboBox
+    private final Map<String, Integer> offeringIds = new LinkedHashMap<>();
 
     /**
      * Initializes the controller after its root element has been completely
-     * processed. This method sets up the database connection, initializes UI
-     * components, and configures event handlers for buttons and table
-     * selection.
+     * processed. This method initializes UI components and configures event
+     * handlers for buttons and table selection. Database work borrows a pooled
+     * connection per operation.
      *
      * @param url The location used to resolve relative paths for the root
      * object, or `null` if the location is not known.
@@ -82,10 +95,6 @@ public class ManageGradesController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        // Initialize GradeDAO
-        Connection connection = DatabaseConnection.getConnection();
-        gradeDAO = new GradeDAO(connection);
-
         // Initialize grade ComboBoxes
         ObservableList<String> grades = FXCollections.observableArrayList(
                 "A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D", "F"
@@ -106,6 +115,7 @@ public class ManageGradesController implements Initializable {
         courseComboBox.setOnAction(event -> loadEnrolledStudents());
         submitButton.setOnAction(event -> addGrade());
         updateButton.setOnAction(event -> updateGrade());
+        importButton.setOnAction(event -> importGrades());
 
         // Add listener for table row selection
         studentsTable.getSelectionModel().selectedItemProperty().addListener((obs, oldSelection, newSelection) -> {
@@ -126,29 +136,33 @@ public class ManageGradesController implements Initializable {
     }
 
     /**
-     * Populates the course filter ComboBox with courses taught by the logged-in
-     * teacher.
+     * Populates the course filter ComboBox with the course offerings taught by
+     * the logged-in teacher. Each offering is labelled with its course name and
+     * term, so a course taught in several terms can be told apart.
      */
     private void populateCourseFilter() {
         ObservableList<String> courses = FXCollections.observableArrayList();
-        String loggedInTeacherEmailOrUsername = Session.getLoggedInTeacherEmailOrUsername();
+        int teacherId = Session.getLoggedInTeacherId();
 
-        if (loggedInTeacherEmailOrUsername != null) {
-            String query = "SELECT c.course_name "
+        if (teacherId != -1) {
+            String query = "SELECT co.offering_id, c.course_name, co.academic_year, co.year, co.semester "
                     + "FROM teachercourse tc "
                     + "JOIN courseoffering co ON tc.offering_id = co.offering_id "
                     + "JOIN course c ON co.course_id = c.course_id "
-                    + "JOIN teacher t ON tc.teacher_id = t.teacher_id "
-                    + "WHERE t.email = ? OR t.username = ?";
+                    + "WHERE tc.teacher_id = ? "
+                    + "ORDER BY c.course_name, co.academic_year, co.year, co.semester";
 
-            try (PreparedStatement pstmt = DatabaseConnection.getConnection().prepareStatement(query)) {
-                pstmt.setString(1, loggedInTeacherEmailOrUsername);
-                pstmt.setString(2, loggedInTeacherEmailOrUsername);
+            try (Connection connection = DatabaseConnection.borrow(); PreparedStatement pstmt = connection.prepareStatement(query)) {
+                pstmt.setInt(1, teacherId);
                 ResultSet rs = pstmt.executeQuery();
 
+                offeringIds.clear();
                 while (rs.next()) {
-                    courses.add(rs.getString("course_name"));
+                    String label = rs.getString("course_name") + " (" + rs.getInt("academic_year")
+                            + ", Year " + rs.getInt("year") + ", Semester " + rs.getInt("semester") + ")";
+                    offeringIds.put(label, rs.getInt("offering_id"));
                 }
+                courses.addAll(offeringIds.keySet());
 
                 courseComboBox.setItems(courses);
 
@@ -158,13 +172,23 @@ public class ManageGradesController implements Initializable {
         }
     }
 
+    /**
+     * Returns the offering selected in the course ComboBox.
+     *
+     * @return the offering ID, or null if no course is selected
+     */
+    private Integer getSelectedOfferingId() {
+        String selectedCourse = courseComboBox.getSelectionModel().getSelectedItem();
+        return selectedCourse == null ? null : offeringIds.get(selectedCourse);
+    }
+
     /**
      * Loads the enrolled students for the selected course into the TableView.
      */
     private void loadEnrolledStudents() {
-        String selectedCourse = courseComboBox.getSelectionModel().getSelectedItem();
+        Integer offeringId = getSelectedOfferingId();
 
-        if (selectedCourse != null) {
+        if (offeringId != null) {
             ObservableList<EnrolledStudent> enrolledStudents = FXCollections.observableArrayList();
             String query = "SELECT s.studentId_No, CONCAT(s.first_name, ' ', s.last_name) AS full_name, s.email, g.grade "
                     + "FROM studentcourse sc "
@@ -172,10 +196,10 @@ public class ManageGradesController implements Initializable {
                     + "JOIN courseoffering co ON sc.offering_id = co.offering_id "
                     + "JOIN course c ON co.course_id = c.course_id "
                     + "LEFT JOIN Grade g ON sc.student_course_id = g.student_course_id "
-                    + "WHERE c.course_name = ?";
+                    + "WHERE sc.offering_id = ?";
 
-            try (PreparedStatement pstmt = DatabaseConnection.getConnection().prepareStatement(query)) {
-                pstmt.setString(1, selectedCourse);
+            try (Connection connection = DatabaseConnection.borrow(); PreparedStatement pstmt = connection.prepareStatement(query)) {
+                pstmt.setInt(1, offeringId);
                 ResultSet rs = pstmt.executeQuery();
 
                 while (rs.next()) {
@@ -202,35 +226,13 @@ public class ManageGradesController implements Initializable {
     private void addGrade() {
         String studentId = inputStudentId.getText();
         String grade = inputGradeComboBox.getSelectionModel().getSelectedItem();
+        Integer offeringId = getSelectedOfferingId();
 
-        if (studentId != null && !studentId.isEmpty() && grade != null) {
-            // Fetch student_course_id for the given student and course
-            String query = "SELECT sc.student_course_id "
-                    + "FROM studentcourse sc "
-                    + "JOIN student s ON sc.student_id = s.student_id "
-                    + "JOIN courseoffering co ON sc.offering_id = co.offering_id "
-                    + "JOIN course c ON co.course_id = c.course_id "
-                    + "WHERE s.studentId_No = ? AND c.course_name = ?";
-
-            try (PreparedStatement pstmt = DatabaseConnection.getConnection().prepareStatement(query)) {
-                pstmt.setString(1, studentId);
-                pstmt.setString(2, courseComboBox.getSelectionModel().getSelectedItem());
-                ResultSet rs = pstmt.executeQuery();
-
-                if (rs.next()) {
-                    int studentCourseId = rs.getInt("student_course_id");
-                    Grade newGrade = new Grade(0, studentCourseId, grade, null, null);
-                    gradeDAO.addGrade(newGrade);
-                    showAlert(AlertType.INFORMATION, "Success", "Grade added successfully.");
-                    loadEnrolledStudents();
-                    clearFields();
-                } else {
-                    showAlert(AlertType.ERROR, "Error", "Student or course not found.");
-                }
-
-            } catch (SQLException e) {
-                showAlert(AlertType.ERROR, "Database Error", "Failed to add grade: " + e.getMessage());
-            }
+        if (studentId != null && !studentId.isEmpty() && grade != null && offeringId != null) {
+            BackgroundTasks.run(submitButton,
+                    () -> saveGrade(studentId, offeringId, studentCourseId -> new Grade(0, studentCourseId, grade, null, null)),
+                    saved -> showSaveResult(saved, "Grade added successfully.", "Failed to add grade."),
+                    e -> showAlert(AlertType.ERROR, "Database Error", "Failed to add grade: " + e.getMessage()));
         } else {
             showAlert(AlertType.ERROR, "Error", "Please fill in all fields.");
         }
@@ -243,43 +245,132 @@ public class ManageGradesController implements Initializable {
     private void updateGrade() {
         String studentId = editStudentId.getText();
         String grade = editGradeComboBox.getSelectionModel().getSelectedItem();
+        Integer offeringId = getSelectedOfferingId();
 
-        if (studentId != null && !studentId.isEmpty() && grade != null) {
-            // Fetch student_course_id for the given student and course
-            String query = "SELECT sc.student_course_id "
-                    + "FROM studentcourse sc "
-                    + "JOIN student s ON sc.student_id = s.student_id "
-                    + "JOIN courseoffering co ON sc.offering_id = co.offering_id "
-                    + "JOIN course c ON co.course_id = c.course_id "
-                    + "WHERE s.studentId_No = ? AND c.course_name = ?";
-
-            try (PreparedStatement pstmt = DatabaseConnection.getConnection().prepareStatement(query)) {
-                pstmt.setString(1, studentId);
-                pstmt.setString(2, courseComboBox.getSelectionModel().getSelectedItem());
-                ResultSet rs = pstmt.executeQuery();
+        if (studentId != null && !studentId.isEmpty() && grade != null && offeringId != null) {
+            BackgroundTasks.run(updateButton,
+                    () -> saveGrade(studentId, offeringId, studentCourseId -> new Grade(studentCourseId, grade)),
+                    saved -> showSaveResult(saved, "Grade updated successfully.", "Failed to update grade."),
+                    e -> showAlert(AlertType.ERROR, "Database Error", "Failed to update grade: " + e.getMessage()));
+        } else {
+            showAlert(AlertType.ERROR, "Error", "Please fill in all fields.");
+        }
+    }
 
-                if (rs.next()) {
-                    int studentCourseId = rs.getInt("student_course_id");
-                    Grade existingGrade = gradeDAO.getGradeByStudentCourseId(studentCourseId);
-                    if (existingGrade != null) {
-                        existingGrade.setGrade(grade);
-                        gradeDAO.updateGrade(existingGrade);
-                        showAlert(AlertType.INFORMATION, "Success", "Grade updated successfully.");
-                        loadEnrolledStudents();
-                        clearFields();
-                    } else {
-                        showAlert(AlertType.ERROR, "Error", "Grade not found for the selected student.");
-                    }
-                } else {
-                    showAlert(AlertType.ERROR, "Error", "Student or course not found.");
+    /**
+     * Saves a grade for a student's enrollment in an offering. Runs on a
+     * background thread; the connection is returned before the caller shows
+     * any result.
+     *
+     * @param studentId the student ID number
+     * @param offeringId the ID of the course offering
+     * @param gradeFor builds the grade to save from the enrollment's
+     * student_course_id
+     * @return true if the grade was saved, false if saving failed, or null if
+     * the student is not enrolled in the offering
+     * @throws SQLException if a database access error occurs
+     */
+    private static Boolean saveGrade(String studentId, int offeringId, IntFunction<Grade> gradeFor) throws SQLException {
+        // Fetch student_course_id for the given student and course
+        String query = "SELECT sc.student_course_id "
+                + "FROM studentcourse sc "
+                + "JOIN student s ON sc.student_id = s.student_id "
+                + "WHERE s.studentId_No = ? AND sc.offering_id = ?";
+
+        try (Connection connection = DatabaseConnection.borrow(); PreparedStatement pstmt = connection.prepareStatement(query)) {
+            pstmt.setString(1, studentId);
+            pstmt.setInt(2, offeringId);
+            int studentCourseId;
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    return null;
                 }
-
-            } catch (SQLException e) {
-                showAlert(AlertType.ERROR, "Database Error", "Failed to update grade: " + e.getMessage());
+                studentCourseId = rs.getInt("student_course_id");
             }
+            return new GradeDAO(connection).saveGrade(gradeFor.apply(studentCourseId));
+        }
+    }
+
+    /**
+     * Reports the result of {@link #saveGrade} and reloads the roster after a
+     * successful save.
+     *
+     * @param saved the result of the save
+     * @param successMessage the message shown if the grade was saved
+     * @param failureMessage the message shown if saving failed
+     */
+    private void showSaveResult(Boolean saved, String successMessage, String failureMessage) {
+        if (saved == null) {
+            showAlert(AlertType.ERROR, "Error", "Student or course not found.");
+        } else if (saved) {
+            showAlert(AlertType.INFORMATION, "Success", successMessage);
+            loadEnrolledStudents();
+            clearFields();
         } else {
-            showAlert(AlertType.ERROR, "Error", "Please fill in all fields.");
+            showAlert(AlertType.ERROR, "Database Error", failureMessage);
+        }
+    }
+
+    /**
+     * Handles the "Import Grades" button action. Reads the grades of the
+     * selected course from an Excel or CSV file and saves them in one batch on
+     * a background thread, then reports the rows that could not be saved.
+     */
+    private void importGrades() {
+        String selectedCourse = courseComboBox.getSelectionModel().getSelectedItem();
+        Integer offeringId = getSelectedOfferingId();
+        if (offeringId == null) {
+            showAlert(AlertType.ERROR, "Error", "Please select a course first.");
+            return;
+        }
+
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Import Grades for " + selectedCourse);
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Spreadsheets", "*.xlsx", "*.xls", "*.csv"),
+                new FileChooser.ExtensionFilter("All Files", "*.*"));
+        File file = fileChooser.showOpenDialog(importButton.getScene().getWindow());
+        if (file == null) {
+            return;
         }
+
+        Task<GradeDAO.GradeBatchResult> importTask = new Task<>() {
+            @Override
+            protected GradeDAO.GradeBatchResult call() throws Exception {
+                List<GradeDAO.GradeSubmission> submissions = GradeSheetReader.read(file);
+                try (Connection importConnection = DatabaseConnection.borrow()) {
+                    return new GradeDAO(importConnection).submitGrades(offeringId, selectedCourse, submissions);
+                }
+            }
+        };
+
+        importButton.setDisable(true);
+        importTask.setOnSucceeded(event -> {
+            importButton.setDisable(false);
+            GradeDAO.GradeBatchResult result = importTask.getValue();
+            List<String> errors = result.getErrors();
+            if (errors.isEmpty()) {
+                showAlert(AlertType.INFORMATION, "Success", result.getSavedCount() + " grades imported successfully.");
+            } else {
+                // Keep the dialog readable for large files
+                int shown = Math.min(errors.size(), 20);
+                StringBuilder message = new StringBuilder();
+                message.append(result.getSavedCount()).append(" grades imported, ")
+                        .append(errors.size()).append(" rows rejected:\n");
+                errors.subList(0, shown).forEach(error -> message.append(error).append('\n'));
+                if (errors.size() > shown) {
+                    message.append("... and ").append(errors.size() - shown).append(" more.");
+                }
+                showAlert(AlertType.WARNING, "Import Completed With Errors", message.toString());
+            }
+            loadEnrolledStudents();
+        });
+        importTask.setOnFailed(event -> {
+            importButton.setDisable(false);
+            showAlert(AlertType.ERROR, "Import Error", "Failed to import grades: " + importTask.getException().getMessage());
+        });
+
+        BackgroundTasks.submit(importTask);
     }
 
     /**
@@ -3,7 +3,9 @@ package com.mycompany.stims.controller.dashboard.teacher.profile;
 import com.mycompany.stims.database.DatabaseConnection;
 import com.mycompany.stims.database.TeacherDAO;
 import com.mycompany.stims.model.Teacher;
+import com.mycompany.stims.utils.Principal;
 import com.mycompany.stims.utils.Session;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.*;
@@ -14,6 +16,7 @@ import javafx.geometry.Pos;
 
 import java.net.URL;
 import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.ResourceBundle;
 
 /**
@@ -23,19 +26,14 @@ import java.util.ResourceBundle;
  */
 public class ProfileController implements Initializable {
 
-    /**
-     * Data Access Object (DAO) for teacher-related database operations.
-     */
-    private TeacherDAO teacherDAO;
-
     /**
      * The currently logged-in teacher.
      */
     private Teacher currentTeacher;
 
     /**
-     * Initializes the controller class. Sets up the database connection and
-     * loads the teacher profile.
+     * Initializes the controller class. Loads the teacher profile; database
+     * work borrows a pooled connection per operation.
      *
      * @param url the location used to resolve relative paths for the root
      * object, or null if the location is not known
@@ -44,13 +42,6 @@ public class ProfileController implements Initializable {
      */
     @Override
     public void initialize(URL url, ResourceBundle rb) {
-        Connection connection = DatabaseConnection.getConnection();
-        if (connection != null) {
-            teacherDAO = new TeacherDAO(connection);
-        } else {
-            showAlert(Alert.AlertType.ERROR, "Database Error", "Unable to connect to the database.");
-        }
-
         loadTeacherProfile();
     }
 
@@ -58,17 +49,23 @@ public class ProfileController implements Initializable {
      * Loads the profile of the currently logged-in teacher.
      */
     private void loadTeacherProfile() {
-        String loggedInEmailOrUsername = Session.getLoggedInTeacherEmailOrUsername();
+        int teacherId = Session.getLoggedInTeacherId();
 
-        if (loggedInEmailOrUsername == null || loggedInEmailOrUsername.isEmpty()) {
+        if (teacherId == -1) {
             showAlert(Alert.AlertType.ERROR, "Error", "No teacher is currently logged in.");
             return;
         }
 
-        currentTeacher = teacherDAO.getTeacherByEmailOrUsername(loggedInEmailOrUsername);
+        try (Connection connection = DatabaseConnection.borrow()) {
+            currentTeacher = new TeacherDAO(connection).getTeacher(teacherId);
+        } catch (SQLException e) {
+            // Reached from initialize, which must not open dialogs itself
+            Platform.runLater(() -> showAlert(Alert.AlertType.ERROR, "Database Error", "Unable to load the profile: " + e.getMessage()));
+            return;
+        }
 
         if (currentTeacher == null) {
-            showAlert(Alert.AlertType.WARNING, "Not Found", "No teacher found with the given email/username.");
+            showAlert(Alert.AlertType.WARNING, "Not Found", "No teacher found for the logged-in account.");
         }
     }
 
@@ -83,6 +80,14 @@ public class ProfileController implements Initializable {
             return;
         }
 
+        String departmentName;
+        try (Connection connection = DatabaseConnection.borrow()) {
+            departmentName = new TeacherDAO(connection).getDepartmentNameById(currentTeacher.getDepartmentId());
+        } catch (SQLException e) {
+            showAlert(Alert.AlertType.ERROR, "Database Error", "Failed to load the profile: " + e.getMessage());
+            return;
+        }
+
         Dialog<ButtonType> dialog = new Dialog<>();
         dialog.setTitle("Teacher Profile");
         dialog.setHeaderText("View Teacher Information");
@@ -109,7 +114,7 @@ public class ProfileController implements Initializable {
         addLabelAndValue(grid, "Email:", currentTeacher.getEmail(), 7);
         addLabelAndValue(grid, "Phone Number:", currentTeacher.getPhoneNumber(), 8);
         addLabelAndValue(grid, "Address:", currentTeacher.getAddress(), 9);
-        addLabelAndValue(grid, "Department:", teacherDAO.getDepartmentNameById(currentTeacher.getDepartmentId()), 10);
+        addLabelAndValue(grid, "Department:", departmentName, 10);
         addLabelAndValue(grid, "Last Login:", currentTeacher.getLastLogin() != null ? currentTeacher.getLastLogin().toString() : "Never", 11);
 
         dialogPane.setContent(grid);
@@ -145,13 +150,14 @@ public class ProfileController implements Initializable {
         dialog.showAndWait().ifPresent(newUsername -> {
             if (newUsername != null && !newUsername.isEmpty()) {
                 currentTeacher.setUsername(newUsername);
-                try {
-                    teacherDAO.updateTeacher(currentTeacher);
-                    Session.setLoggedInTeacherEmailOrUsername(newUsername); // Update session
-                    showAlert(Alert.AlertType.INFORMATION, "Success", "Username updated successfully.");
+                try (Connection connection = DatabaseConnection.borrow()) {
+                    new TeacherDAO(connection).updateTeacher(currentTeacher);
                 } catch (Exception e) {
                     showAlert(Alert.AlertType.ERROR, "Error", "Failed to update username: " + e.getMessage());
+                    return;
                 }
+                Session.setPrincipal(Principal.of(currentTeacher)); // Update session
+                showAlert(Alert.AlertType.INFORMATION, "Success", "Username updated successfully.");
             } else {
                 showAlert(Alert.AlertType.ERROR, "Error", "Username cannot be empty.");
             }
@@ -172,12 +178,13 @@ public class ProfileController implements Initializable {
                 Dialog<String> confirmPasswordDialog = createPasswordDialog("Confirm your new password:", "Confirm Password:");
                 confirmPasswordDialog.showAndWait().ifPresent(confirmPassword -> {
                     if (newPassword.equals(confirmPassword)) {
-                        try {
-                            teacherDAO.changePassword(currentTeacher.getTeacherId(), newPassword);
-                            showAlert(Alert.AlertType.INFORMATION, "Success", "Password updated successfully.");
+                        try (Connection connection = DatabaseConnection.borrow()) {
+                            new TeacherDAO(connection).changePassword(currentTeacher.getTeacherId(), newPassword);
                         } catch (Exception e) {
                             showAlert(Alert.AlertType.ERROR, "Error", "Failed to update password: " + e.getMessage());
+                            return;
                         }
+                        showAlert(Alert.AlertType.INFORMATION, "Success", "Password updated successfully.");
                     } else {
                         showAlert(Alert.AlertType.ERROR, "Error", "Passwords do not match. Please try again.");
                     }
@@ -13,6 +13,7 @@ import java.security.SecureRandom;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The `AdminDAO` class provides data access operations for the `Admin` entity.
@@ -23,6 +24,15 @@ import java.util.List;
 public class AdminDAO {
 
     private Connection connection;
+
+    // Sort keys accepted by getAdminsPage, mapped to non-null column expressions
+    private static final Map<String, String> ADMIN_SORT_COLUMNS = Map.of(
+            "adminIdNo", "adminId_No",
+            "username", "username",
+            "firstName", "first_name",
+            "lastName", "last_name");
+    private static final List<String> ADMIN_SEARCH_PREDICATES = List.of(
+            "adminId_No LIKE ?", "username LIKE ?", "first_name LIKE ?", "last_name LIKE ?");
     private static final String TEMP_PASSWORD_FILE = "temporary_passwords_admins.txt";
 
     /**
@@ -35,24 +45,18 @@ public class AdminDAO {
     }
 
     /**
-     * Generates a unique admin ID number in the format "ID/ADM/XXX". The ID is
-     * generated by incrementing the last used admin ID number.
+     * Generates a unique admin ID number in the format "ID/ADM/XXX". The
+     * number is taken from the admin ID sequence.
      *
      * @return A unique admin ID number as a String.
      */
     private String generateAdminIdNo() {
         String prefix = "ID/ADM/";
-        String sql = "SELECT adminId_No FROM Admin ORDER BY adminId_No DESC LIMIT 1";
-        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
-            if (rs.next()) {
-                String lastAdminIdNo = rs.getString("adminId_No");
-                int newIdNum = Integer.parseInt(lastAdminIdNo.split("/")[2]) + 1;
-                return prefix + String.format("%03d", newIdNum);
-            }
+        try {
+            return prefix + String.format("%03d", IdAllocator.allocateNumbers(prefix, 1, "Admin", "adminId_No"));
         } catch (SQLException e) {
-            System.err.println("Error generating adminId_No: " + e.getMessage());
+            throw new RuntimeException("Error generating adminId_No: " + e.getMessage(), e);
         }
-        return prefix + "001";
     }
 
     /**
@@ -66,35 +70,11 @@ public class AdminDAO {
      */
     private String generateUsername(String firstName, String lastName) {
         String baseUsername = firstName.toLowerCase() + "." + lastName.toLowerCase();
-        String username = baseUsername;
-        int count = 1;
-
-        // Check if the username already exists
-        while (usernameExists(username)) {
-            username = baseUsername + count;
-            count++;
-        }
-        return username;
-    }
-
-    /**
-     * Checks if a username already exists in the database.
-     *
-     * @param username The username to check.
-     * @return `true` if the username exists, `false` otherwise.
-     */
-    private boolean usernameExists(String username) {
-        String sql = "SELECT COUNT(*) AS count FROM Admin WHERE username = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
-            }
+        try {
+            return IdAllocator.allocateUsername(baseUsername, "Admin");
         } catch (SQLException e) {
-            System.err.println("Error checking username: " + e.getMessage());
+            throw new RuntimeException("Error generating username: " + e.getMessage(), e);
         }
-        return false;
     }
 
     /**
@@ -235,6 +215,27 @@ public class AdminDAO {
         return null;
     }
 
+    /**
+     * Retrieves an admin by their admin ID.
+     *
+     * @param adminId The primary key of the admin.
+     * @return The `Admin` object, or `null` if not found.
+     */
+    public Admin getAdminById(int adminId) {
+        String sql = "SELECT * FROM Admin WHERE admin_id = ?";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, adminId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return mapRowToAdmin(rs);
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("Error fetching admin by ID: " + e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * Retrieves an admin by their email or username.
      *
@@ -263,22 +264,7 @@ public class AdminDAO {
      * @return The role name as a String, or `null` if not found.
      */
     public String getRoleNameById(int roleId) {
-        String roleName = null;
-        String query = "SELECT role_name FROM role WHERE role_id = ?";
-
-        try (PreparedStatement preparedStatement = connection.prepareStatement(query)) {
-            preparedStatement.setInt(1, roleId);
-            ResultSet resultSet = preparedStatement.executeQuery();
-
-            if (resultSet.next()) {
-                roleName = resultSet.getString("role_name");
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-            // Handle the exception (e.g., log it or show an error message)
-        }
-
-        return roleName;
+        return ReferenceDataCache.getRoleName(roleId);
     }
 
     /**
@@ -299,6 +285,25 @@ public class AdminDAO {
         return admins;
     }
 
+    /**
+     * Retrieves one page of admins. Sort keys: adminIdNo, username,
+     * firstName, lastName; the filter matches the admin ID number, username,
+     * first name or last name.
+     *
+     * @param request the page to retrieve
+     * @return the admins of the page and the request for the next page, or an
+     * empty page if an error occurs
+     */
+    public Page<Admin> getAdminsPage(PageRequest request) {
+        try {
+            return KeysetPager.fetch(connection, "Admin", "admin_id", ADMIN_SORT_COLUMNS,
+                    ADMIN_SEARCH_PREDICATES, request, this::mapRowToAdmin);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving admins: " + e.getMessage());
+            return Page.empty();
+        }
+    }
+
     /**
      * Updates the details of an existing admin in the database.
      *
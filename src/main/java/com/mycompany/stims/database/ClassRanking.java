@@ -0,0 +1,421 @@
+package com.mycompany.stims.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Ranks students by SGPA or CGPA within a program, a department and/or a term,
+ * and draws up dean's lists. The academic records of the scope are streamed
+ * from `studentacademicrecord` through a heap bounded by the number of places
+ * asked for, so a ranking costs one pass over the records and O(n log k) time
+ * without sorting or holding the whole scope. Students tied with the last
+ * place are all included, and tied students share a rank (1, 2, 2, 4).
+ *
+ * Results are cached until the next GPA change: {@link GpaEngine},
+ * {@link GradeChangeQueue} and {@link TermGpaRecalculator} call
+ * {@link #invalidate()} once their writes to academic records have committed.
+ */
+public class ClassRanking {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClassRanking.class);
+
+    // Cached results, dropped as a whole on every GPA change
+    private static final Map<Request, List<RankedStudent>> cache = new ConcurrentHashMap<>();
+    private static final AtomicLong generation = new AtomicLong();
+
+    // Higher values first; equal values by student ID so ties are listed in a stable order
+    private static final Comparator<RankedStudent> BEST_FIRST = Comparator
+            .comparingDouble(RankedStudent::getValue).reversed()
+            .thenComparingInt(RankedStudent::getStudentId);
+
+    /**
+     * The grade point average to rank by.
+     */
+    public enum Metric {
+        SGPA, CGPA
+    }
+
+    /**
+     * The students and term a ranking covers.
+     */
+    public static class Scope {
+
+        private final Integer programId;
+        private final Integer departmentId;
+        private final Integer academicYear;
+        private final Integer year;
+        private final Integer semester;
+
+        /**
+         * @param programId only students of this program, or null for all
+         * @param departmentId only students of this department, or null for
+         * all
+         * @param academicYear the academic year of the term, or null for no
+         * term
+         * @param year the year of study of the term, or null for no term
+         * @param semester the semester of the term, or null for no term
+         * @throws IllegalArgumentException if the term is only partly given
+         */
+        public Scope(Integer programId, Integer departmentId, Integer academicYear, Integer year, Integer semester) {
+            boolean anyTerm = academicYear != null || year != null || semester != null;
+            boolean fullTerm = academicYear != null && year != null && semester != null;
+            if (anyTerm && !fullTerm) {
+                throw new IllegalArgumentException("A term needs an academic year, a year and a semester.");
+            }
+            this.programId = programId;
+            this.departmentId = departmentId;
+            this.academicYear = academicYear;
+            this.year = year;
+            this.semester = semester;
+        }
+
+        private boolean hasTerm() {
+            return academicYear != null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Scope)) {
+                return false;
+            }
+            Scope other = (Scope) o;
+            return Objects.equals(programId, other.programId) && Objects.equals(departmentId, other.departmentId)
+                    && Objects.equals(academicYear, other.academicYear) && Objects.equals(year, other.year)
+                    && Objects.equals(semester, other.semester);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(programId, departmentId, academicYear, year, semester);
+        }
+    }
+
+    private final Connection connection;
+
+    /**
+     * Constructs a ClassRanking with a specified database connection.
+     *
+     * @param connection the database connection to be used for operations
+     * @throws IllegalArgumentException if the connection is null
+     */
+    public ClassRanking(Connection connection) {
+        if (connection == null) {
+            throw new IllegalArgumentException("Database connection cannot be null.");
+        }
+        this.connection = connection;
+    }
+
+    /**
+     * Ranks the top students of a scope. SGPA rankings need a term; CGPA
+     * rankings without a term cover every student with an academic record.
+     *
+     * @param scope the students and term to rank
+     * @param metric the grade point average to rank by
+     * @param limit the number of places; students tied with the last place
+     * are included as well
+     * @return the ranked students, best first
+     * @throws SQLException if a database access error occurs
+     * @throws IllegalArgumentException if the limit is not positive or an
+     * SGPA ranking has no term
+     */
+    public List<RankedStudent> getTopStudents(Scope scope, Metric metric, int limit) throws SQLException {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("The number of places must be positive.");
+        }
+        return rank(new Request(scope, metric, limit, null));
+    }
+
+    /**
+     * Draws up a dean's list: the students of a scope whose GPA is at least a
+     * threshold, optionally capped to the top places.
+     *
+     * @param scope the students and term to rank
+     * @param metric the grade point average to rank by
+     * @param minimum the lowest GPA that makes the list
+     * @param limit the number of places, or 0 for everyone above the
+     * threshold; students tied with the last place are included as well
+     * @return the ranked students, best first
+     * @throws SQLException if a database access error occurs
+     * @throws IllegalArgumentException if the limit is negative or an SGPA
+     * ranking has no term
+     */
+    public List<RankedStudent> getDeansList(Scope scope, Metric metric, double minimum, int limit) throws SQLException {
+        if (limit < 0) {
+            throw new IllegalArgumentException("The number of places cannot be negative.");
+        }
+        return rank(new Request(scope, metric, limit, minimum));
+    }
+
+    /**
+     * Drops every cached ranking. Called after academic records are written.
+     */
+    public static void invalidate() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    private List<RankedStudent> rank(Request request) throws SQLException {
+        if (request.metric == Metric.SGPA && !request.scope.hasTerm()) {
+            throw new IllegalArgumentException("An SGPA ranking needs a term.");
+        }
+        List<RankedStudent> cached = cache.get(request);
+        if (cached != null) {
+            return cached;
+        }
+
+        long start = System.currentTimeMillis();
+        long seen = generation.get();
+        TopK top = new TopK(request.limit);
+        int scanned = stream(request, top);
+        List<RankedStudent> ranking = Collections.unmodifiableList(describe(top.result()));
+
+        // Only cache if no GPA changed while the records were read
+        if (generation.get() == seen) {
+            cache.put(request, ranking);
+            if (generation.get() != seen) {
+                cache.remove(request);
+            }
+        }
+        logger.debug("Ranked {} of {} records by {} in {} ms", ranking.size(), scanned, request.metric,
+                System.currentTimeMillis() - start);
+        return ranking;
+    }
+
+    // Streams the records of the scope into the heap and returns how many were read
+    private int stream(Request request, TopK top) throws SQLException {
+        Scope scope = request.scope;
+        StringBuilder sql = new StringBuilder("SELECT sar.student_id, sar.")
+                .append(request.metric == Metric.SGPA ? "sgpa" : "cgpa")
+                .append(" FROM studentacademicrecord sar");
+        List<Object> params = new ArrayList<>();
+        if (scope.programId != null || scope.departmentId != null) {
+            sql.append(" JOIN student s ON sar.student_id = s.student_id");
+        }
+        List<String> conditions = new ArrayList<>();
+        if (scope.programId != null) {
+            conditions.add("s.program_id = ?");
+            params.add(scope.programId);
+        }
+        if (scope.departmentId != null) {
+            conditions.add("s.department_id = ?");
+            params.add(scope.departmentId);
+        }
+        if (scope.hasTerm()) {
+            conditions.add("sar.academic_year = ? AND sar.year = ? AND sar.semester = ?");
+            params.add(scope.academicYear);
+            params.add(scope.year);
+            params.add(scope.semester);
+        }
+        if (request.minimum != null) {
+            conditions.add("sar." + (request.metric == Metric.SGPA ? "sgpa" : "cgpa") + " >= ?");
+            params.add(request.minimum);
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        // Every record of a student carries the same CGPA; in primary key order the repeats are adjacent
+        boolean perStudent = !scope.hasTerm();
+        if (perStudent) {
+            sql.append(" ORDER BY sar.student_id");
+        }
+
+        int scanned = 0;
+        try (PreparedStatement ps = connection.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(Integer.MIN_VALUE); // Stream rows instead of buffering the whole result
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                int lastStudentId = -1;
+                while (rs.next()) {
+                    scanned++;
+                    int studentId = rs.getInt(1);
+                    if (perStudent && studentId == lastStudentId) {
+                        continue;
+                    }
+                    lastStudentId = studentId;
+                    top.offer(new RankedStudent(studentId, rs.getDouble(2)));
+                }
+            }
+        }
+        return scanned;
+    }
+
+    // Assigns ranks and fills in the Student ID No and name of the ranked students with one query
+    private List<RankedStudent> describe(List<RankedStudent> ranking) throws SQLException {
+        if (ranking.isEmpty()) {
+            return ranking;
+        }
+        String sql = "SELECT student_id, studentId_No, first_name, middle_name, last_name FROM student WHERE student_id IN ("
+                + String.join(", ", Collections.nCopies(ranking.size(), "?")) + ")";
+        Map<Integer, String[]> students = new HashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < ranking.size(); i++) {
+                ps.setInt(i + 1, ranking.get(i).getStudentId());
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String middleName = rs.getString("middle_name");
+                    students.put(rs.getInt("student_id"), new String[]{
+                        rs.getString("studentId_No"),
+                        rs.getString("first_name") + (middleName == null ? "" : " " + middleName) + " " + rs.getString("last_name")
+                    });
+                }
+            }
+        }
+
+        int rank = 0;
+        for (int i = 0; i < ranking.size(); i++) {
+            RankedStudent student = ranking.get(i);
+            if (i == 0 || student.value != ranking.get(i - 1).value) {
+                rank = i + 1;
+            }
+            student.rank = rank;
+            String[] details = students.get(student.studentId);
+            if (details != null) {
+                student.studentIdNo = details[0];
+                student.fullName = details[1];
+            }
+        }
+        return ranking;
+    }
+
+    /**
+     * Keeps the k best entries seen so far in a min-heap, plus every entry tied
+     * with the worst of them. With a limit of 0 every entry is kept.
+     */
+    static final class TopK {
+
+        private final int limit;
+        private final PriorityQueue<RankedStudent> heap;
+        private final List<RankedStudent> ties = new ArrayList<>(); // All equal to the value at the top of the heap
+
+        TopK(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(Math.max(1, limit), BEST_FIRST.reversed());
+        }
+
+        void offer(RankedStudent entry) {
+            if (limit == 0 || heap.size() < limit) {
+                heap.add(entry);
+                return;
+            }
+            double worst = heap.peek().value;
+            if (entry.value < worst) {
+                return;
+            }
+            if (entry.value == worst) {
+                ties.add(entry);
+                return;
+            }
+            RankedStudent dropped = heap.poll();
+            heap.add(entry);
+            if (heap.peek().value == dropped.value) {
+                ties.add(dropped);
+            } else {
+                ties.clear();
+            }
+        }
+
+        List<RankedStudent> result() {
+            List<RankedStudent> result = new ArrayList<>(heap.size() + ties.size());
+            result.addAll(heap);
+            result.addAll(ties);
+            result.sort(BEST_FIRST);
+            return result;
+        }
+    }
+
+    /**
+     * A cache key: the scope, metric, limit and threshold of a ranking.
+     */
+    private static final class Request {
+
+        private final Scope scope;
+        private final Metric metric;
+        private final int limit;
+        private final Double minimum;
+
+        private Request(Scope scope, Metric metric, int limit, Double minimum) {
+            this.scope = Objects.requireNonNull(scope);
+            this.metric = Objects.requireNonNull(metric);
+            this.limit = limit;
+            this.minimum = minimum;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Request)) {
+                return false;
+            }
+            Request other = (Request) o;
+            return scope.equals(other.scope) && metric == other.metric && limit == other.limit
+                    && Objects.equals(minimum, other.minimum);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scope, metric, limit, minimum);
+        }
+    }
+
+    /**
+     * One place in a ranking.
+     */
+    public static final class RankedStudent {
+
+        private final int studentId;
+        private final double value;
+        private int rank;
+        private String studentIdNo;
+        private String fullName;
+
+        RankedStudent(int studentId, double value) {
+            this.studentId = studentId;
+            this.value = value;
+        }
+
+        /**
+         * @return the rank, shared by tied students
+         */
+        public int getRank() {
+            return rank;
+        }
+
+        public int getStudentId() {
+            return studentId;
+        }
+
+        public String getStudentIdNo() {
+            return studentIdNo;
+        }
+
+        public String getFullName() {
+            return fullName;
+        }
+
+        /**
+         * @return the SGPA or CGPA the student was ranked by
+         */
+        public double getValue() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,461 @@
+package com.mycompany.stims.database;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Iterator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded pool of physical JDBC connections. Borrowed connections are handed
+ * out as proxies whose {@code close()} returns the physical connection to the
+ * pool instead of closing the socket. Idle connections are validated on
+ * borrow and evicted in the background once they exceed the idle timeout,
+ * while the pool keeps at least {@code minSize} connections open.
+ *
+ * Connections that are dropped without being closed are reclaimed once the
+ * borrowed proxy is garbage-collected, so long-lived screens that never close
+ * their connection cannot permanently starve the pool.
+ *
+ * When leak detection is enabled, every borrow records the borrowing thread
+ * and stack trace. Connections held longer than the leak threshold, or
+ * garbage-collected without being closed, are logged together with the stack
+ * that borrowed them.
+ */
+public class ConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    // How long a waiting borrower sleeps before checking for reclaimed connections
+    private static final long RECLAIM_POLL_MS = 250;
+
+    private final String url;
+    private final Properties connectionProperties = new Properties();
+    private final int minSize;
+    private final int maxSize;
+    private final long borrowTimeoutMs;
+    private final long idleTimeoutMs;
+    private final int validationTimeoutSeconds;
+
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+    private final AtomicInteger openCount = new AtomicInteger();
+    private final ReferenceQueue<Connection> abandoned = new ReferenceQueue<>();
+    private final Set<Lease> leases = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean shutdown;
+
+    private volatile boolean leakDetection;
+    private volatile long leakThresholdMs;
+    private final AtomicInteger peakActive = new AtomicInteger();
+    private final AtomicInteger leakedCount = new AtomicInteger();
+    private final AtomicInteger overdueCount = new AtomicInteger();
+
+    /**
+     * Creates a pool and pre-opens {@code minSize} connections. Connections
+     * are opened with {@code rewriteBatchedStatements=true} unless the URL sets
+     * it, so batched inserts and upserts reach MySQL as multi-row statements.
+     *
+     * @param url the JDBC URL of the database
+     * @param username the database user
+     * @param password the database password
+     * @param minSize the number of connections kept open while idle
+     * @param maxSize the maximum number of connections open at once
+     * @param borrowTimeoutMs how long a borrower waits for a free connection
+     * @param idleTimeoutMs how long a connection may sit idle before eviction
+     * @param validationTimeoutSeconds the timeout passed to
+     * {@link Connection#isValid(int)} when validating on borrow
+     * @param evictionIntervalMs how often the idle evictor runs
+     * @throws IllegalArgumentException if the sizes are inconsistent
+     */
+    public ConnectionPool(String url, String username, String password, int minSize, int maxSize,
+            long borrowTimeoutMs, long idleTimeoutMs, int validationTimeoutSeconds, long evictionIntervalMs) {
+        if (maxSize < 1 || minSize < 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("Pool sizes must satisfy 0 <= min <= max and max >= 1");
+        }
+        this.url = url;
+        if (username != null) {
+            connectionProperties.setProperty("user", username);
+        }
+        if (password != null) {
+            connectionProperties.setProperty("password", password);
+        }
+        // Sends batched writes as multi-row statements; a value given in the URL is kept
+        if (!url.contains("rewriteBatchedStatements")) {
+            connectionProperties.setProperty("rewriteBatchedStatements", "true");
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.permits = new Semaphore(maxSize, true);
+
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stims-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.evictor.scheduleWithFixedDelay(this::evictIdle, evictionIntervalMs, evictionIntervalMs, TimeUnit.MILLISECONDS);
+
+        fillToMinimum();
+    }
+
+    /**
+     * Turns on leak detection. From now on every borrow records its stack
+     * trace, and connections held longer than {@code thresholdMs} are reported
+     * once in the log.
+     *
+     * @param thresholdMs how long a connection may be held before it is
+     * reported as a suspected leak
+     */
+    public void enableLeakDetection(long thresholdMs) {
+        if (thresholdMs <= 0) {
+            throw new IllegalArgumentException("Leak threshold must be positive");
+        }
+        this.leakThresholdMs = thresholdMs;
+        if (!leakDetection) {
+            leakDetection = true;
+            long interval = Math.max(1000, thresholdMs / 2);
+            evictor.scheduleWithFixedDelay(this::reportOverdueLeases, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new physical connection if
+     * none is idle and the pool is below its maximum size.
+     *
+     * @return a pooled connection; closing it returns it to the pool
+     * @throws SQLException if no connection becomes available within the
+     * borrow timeout or a new connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (shutdown) {
+            throw new SQLException("Connection pool has been shut down.");
+        }
+        reclaimAbandoned();
+        acquirePermit();
+
+        try {
+            PooledConnection pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (isUsable(pooled)) {
+                    return lease(pooled);
+                }
+                discard(pooled);
+            }
+            return lease(open());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Closes every idle connection and stops the background evictor.
+     * Connections currently borrowed are closed when they are returned.
+     */
+    public void shutdown() {
+        shutdown = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+    }
+
+    /**
+     * @return the number of physical connections currently open
+     */
+    public int getOpenCount() {
+        return openCount.get();
+    }
+
+    /**
+     * @return the number of open connections sitting idle in the pool
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * @return the number of connections currently borrowed
+     */
+    public int getActiveCount() {
+        return maxSize - permits.availablePermits();
+    }
+
+    /**
+     * @return the highest number of connections borrowed at the same time
+     */
+    public int getPeakActiveCount() {
+        return peakActive.get();
+    }
+
+    /**
+     * @return the number of borrowed connections that were garbage-collected
+     * without being closed
+     */
+    public int getLeakedCount() {
+        return leakedCount.get();
+    }
+
+    /**
+     * @return the number of borrowed connections that were held past the leak
+     * threshold
+     */
+    public int getOverdueCount() {
+        return overdueCount.get();
+    }
+
+    // Waits for a free slot, reclaiming abandoned connections while waiting
+    private void acquirePermit() throws SQLException {
+        long deadline = System.currentTimeMillis() + borrowTimeoutMs;
+        try {
+            while (true) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    throw new SQLTransientConnectionException("Timed out after " + borrowTimeoutMs
+                            + " ms waiting for a database connection (" + getActiveCount() + "/" + maxSize + " in use).");
+                }
+                if (permits.tryAcquire(Math.min(remaining, RECLAIM_POLL_MS), TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+                reclaimAbandoned();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        Connection physical = DriverManager.getConnection(url, connectionProperties);
+        openCount.incrementAndGet();
+        logger.debug("Opened pooled connection ({} open)", openCount.get());
+        return new PooledConnection(physical);
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.lastReturned > idleTimeoutMs) {
+            return false;
+        }
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection lease(PooledConnection pooled) {
+        LeaseHandler handler = new LeaseHandler(pooled);
+        Connection proxy = (Connection) Proxy.newProxyInstance(
+                ConnectionPool.class.getClassLoader(), new Class<?>[]{Connection.class}, handler);
+        Throwable borrowSite = leakDetection ? new Throwable("Connection borrowed here") : null;
+        handler.lease = new Lease(proxy, pooled, abandoned, borrowSite);
+        leases.add(handler.lease);
+        peakActive.accumulateAndGet(getActiveCount(), Math::max);
+        if (logger.isTraceEnabled()) {
+            logger.trace("Borrowed {} on {} ({} active)", handler.lease.id, handler.lease.threadName, getActiveCount());
+        }
+        return proxy;
+    }
+
+    // Logs each borrowed connection held past the threshold, once per lease
+    private void reportOverdueLeases() {
+        long now = System.currentTimeMillis();
+        for (Lease lease : leases) {
+            long held = now - lease.borrowedAt;
+            if (held > leakThresholdMs && !lease.reported) {
+                lease.reported = true;
+                overdueCount.incrementAndGet();
+                logger.warn("Connection {} held for {} ms by thread {} without being closed (possible leak)",
+                        lease.id, held, lease.threadName, lease.borrowSite);
+            }
+        }
+    }
+
+    // Returns a borrowed connection to the idle deque, resetting its session state
+    private void release(PooledConnection pooled) {
+        try {
+            if (shutdown || pooled.physical.isClosed()) {
+                discard(pooled);
+                return;
+            }
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (pooled.physical.isReadOnly()) {
+                pooled.physical.setReadOnly(false);
+            }
+            pooled.physical.clearWarnings();
+            pooled.lastReturned = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } catch (SQLException e) {
+            logger.warn("Discarding pooled connection that could not be reset: {}", e.getMessage());
+            discard(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            logger.debug("Error closing pooled connection: {}", e.getMessage());
+        }
+        openCount.decrementAndGet();
+    }
+
+    // Returns connections whose borrowing proxy was garbage-collected unclosed
+    private void reclaimAbandoned() {
+        Lease lease;
+        while ((lease = (Lease) abandoned.poll()) != null) {
+            if (leases.remove(lease)) {
+                leakedCount.incrementAndGet();
+                logger.warn("Reclaimed connection {} borrowed by thread {} {} ms ago; it was garbage-collected without being closed",
+                        lease.id, lease.threadName, System.currentTimeMillis() - lease.borrowedAt, lease.borrowSite);
+                release(lease.pooled);
+            }
+        }
+    }
+
+    private void evictIdle() {
+        try {
+            reclaimAbandoned();
+            long now = System.currentTimeMillis();
+            Iterator<PooledConnection> iterator = idle.descendingIterator();
+            while (iterator.hasNext() && openCount.get() > minSize) {
+                PooledConnection pooled = iterator.next();
+                if (now - pooled.lastReturned > idleTimeoutMs && idle.remove(pooled)) {
+                    discard(pooled);
+                }
+            }
+            fillToMinimum();
+        } catch (RuntimeException e) {
+            logger.error("Connection pool eviction failed", e);
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!shutdown && openCount.get() < minSize && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = open();
+                pooled.lastReturned = System.currentTimeMillis();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                logger.warn("Could not pre-open pooled connection: {}", e.getMessage());
+                return;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private static final class PooledConnection {
+
+        private final Connection physical;
+        private volatile long lastReturned;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.lastReturned = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Tracks a borrowed proxy weakly so the physical connection can be
+     * reclaimed if the proxy is dropped without being closed.
+     */
+    private static final class Lease extends WeakReference<Connection> {
+
+        private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+        private final PooledConnection pooled;
+        private final int id = SEQUENCE.incrementAndGet();
+        private final long borrowedAt = System.currentTimeMillis();
+        private final String threadName = Thread.currentThread().getName();
+        private final Throwable borrowSite;
+        private volatile boolean reported;
+
+        private Lease(Connection proxy, PooledConnection pooled, ReferenceQueue<Connection> queue, Throwable borrowSite) {
+            super(proxy, queue);
+            this.pooled = pooled;
+            this.borrowSite = borrowSite;
+        }
+    }
+
+    /**
+     * Invocation handler behind every borrowed connection. Turns
+     * {@code close()} into a return to the pool and rejects use afterwards.
+     */
+    private final class LeaseHandler implements InvocationHandler {
+
+        private final PooledConnection pooled;
+        private Lease lease;
+        private boolean closed;
+
+        private LeaseHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    synchronized (this) {
+                        if (!closed) {
+                            closed = true;
+                            if (leases.remove(lease)) {
+                                lease.clear();
+                                if (logger.isTraceEnabled()) {
+                                    logger.trace("Returned {} after {} ms", lease.id, System.currentTimeMillis() - lease.borrowedAt);
+                                }
+                                release(pooled);
+                            }
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection@" + Integer.toHexString(System.identityHashCode(proxy));
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection has already been returned to the pool.");
+                    }
+                    try {
+                        return method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
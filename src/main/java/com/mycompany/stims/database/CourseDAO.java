@@ -5,6 +5,7 @@ import com.mycompany.stims.model.Course;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object (DAO) class for managing Course entities in the database.
@@ -14,6 +15,14 @@ public class CourseDAO {
 
     private Connection connection;
 
+    // Sort keys accepted by getCoursesPage, mapped to non-null column expressions
+    private static final Map<String, String> COURSE_SORT_COLUMNS = Map.of(
+            "courseCode", "course_code",
+            "courseName", "course_name",
+            "departmentId", "department_id");
+    private static final List<String> COURSE_SEARCH_PREDICATES = List.of(
+            "course_code LIKE ?", "course_name LIKE ?");
+
     /**
      * Constructs a CourseDAO with the specified database connection.
      *
@@ -101,26 +110,15 @@ public class CourseDAO {
     }
 
     /**
-     * Retrieves the name of a department by its ID.
+     * Retrieves the name of a department by its ID from the
+     * {@link ReferenceDataCache}.
      *
      * @param departmentId the ID of the department to retrieve the name for
      * @return the name of the department, or null if no department matches the
      * ID
-     * @throws RuntimeException if an error occurs while fetching the department
-     * name
      */
     public String getDepartmentNameById(int departmentId) {
-        String sql = "SELECT department_name FROM Department WHERE department_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, departmentId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getString("department_name");
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error fetching department name: " + e.getMessage(), e);
-        }
-        return null;
+        return ReferenceDataCache.getDepartmentName(departmentId);
     }
 
     /**
@@ -142,6 +140,24 @@ public class CourseDAO {
         return courses;
     }
 
+    /**
+     * Retrieves one page of courses. Sort keys: courseCode, courseName,
+     * departmentId; the filter matches the course code or name.
+     *
+     * @param request the page to retrieve
+     * @return the courses of the page and the request for the next page, or an
+     * empty page if an error occurs
+     */
+    public Page<Course> getCoursesPage(PageRequest request) {
+        try {
+            return KeysetPager.fetch(connection, "course", "course_id", COURSE_SORT_COLUMNS,
+                    COURSE_SEARCH_PREDICATES, request, this::mapResultSetToCourse);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving courses: " + e.getMessage());
+            return Page.empty();
+        }
+    }
+
     /**
      * Updates an existing course in the database.
      *
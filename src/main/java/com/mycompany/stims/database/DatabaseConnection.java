@@ -3,15 +3,14 @@ package com.mycompany.stims.database;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
 /**
  * The `DatabaseConnection` class provides functionality to establish a
  * connection to a database using configuration details loaded from a properties
- * file. It includes methods to load the configuration and retrieve a database
- * connection.
+ * file. Connections are served from a bounded {@link ConnectionPool}; closing a
+ * connection obtained here returns it to the pool.
  */
 public class DatabaseConnection {
 
@@ -19,15 +18,17 @@ public class DatabaseConnection {
     private static String URL;
     private static String USERNAME;
     private static String PASSWORD;
+    private static ConnectionPool pool;
 
     static {
         loadConfig();
     }
 
     /**
-     * Loads the database configuration (URL, username, and password) from the
-     * properties file specified by `CONFIG_FILE`. This method is automatically
-     * called when the class is loaded.
+     * Loads the database configuration (URL, username, password and pool
+     * settings) from the properties file specified by `CONFIG_FILE` and creates
+     * the connection pool. This method is automatically called when the class
+     * is loaded.
      *
      * @throws RuntimeException if the configuration file cannot be found or if
      * there is an error reading the file.
@@ -42,15 +43,42 @@ public class DatabaseConnection {
             URL = properties.getProperty("db.url");
             USERNAME = properties.getProperty("db.username");
             PASSWORD = properties.getProperty("db.password");
+            pool = new ConnectionPool(URL, USERNAME, PASSWORD,
+                    Integer.parseInt(properties.getProperty("db.pool.min_size", "2")),
+                    Integer.parseInt(properties.getProperty("db.pool.max_size", "10")),
+                    Long.parseLong(properties.getProperty("db.pool.borrow_timeout_ms", "5000")),
+                    Long.parseLong(properties.getProperty("db.pool.idle_timeout_ms", "300000")),
+                    Integer.parseInt(properties.getProperty("db.pool.validation_timeout_s", "2")),
+                    Long.parseLong(properties.getProperty("db.pool.eviction_interval_ms", "60000")));
+            if (Boolean.parseBoolean(properties.getProperty("db.pool.leak_detection", "false"))) {
+                pool.enableLeakDetection(Long.parseLong(properties.getProperty("db.pool.leak_threshold_ms", "30000")));
+            }
         } catch (IOException e) {
             throw new RuntimeException("Failed to load configuration file", e);
         }
     }
 
     /**
-     * Establishes and returns a connection to the database using the
-     * configuration details loaded from the properties file. If the connection
-     * fails, an error message is printed to the standard error stream.
+     * Borrows a connection from the pool, opening a new one if no idle
+     * connection is available. Callers should close the returned connection
+     * when done, typically with try-with-resources, so it can be reused;
+     * screens borrow one per operation rather than holding one open.
+     *
+     * @return a pooled connection; closing it returns it to the pool
+     * @throws SQLException if the database cannot be reached, or, as a
+     * {@link java.sql.SQLTransientConnectionException}, if every connection
+     * stays in use for the whole borrow timeout
+     */
+    public static Connection borrow() throws SQLException {
+        return pool.borrow();
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if no idle
+     * connection is available. If the connection fails, an error message is
+     * printed to the standard error stream. Callers should close the returned
+     * connection when done so it can be reused. Prefer {@link #borrow()}, which
+     * reports why no connection could be had.
      *
      * @return A {@link Connection} object representing the database connection,
      * or `null` if the connection could not be established.
@@ -58,8 +86,7 @@ public class DatabaseConnection {
     public static Connection getConnection() {
         Connection connection = null;
         try {
-            connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-            System.out.println("Database connection established successfully.");
+            connection = pool.borrow();
         } catch (SQLException e) {
             System.err.println("Failed to establish database connection.");
             System.err.println("SQL State: " + e.getSQLState());
@@ -68,4 +95,21 @@ public class DatabaseConnection {
         }
         return connection;
     }
+
+    /**
+     * Returns the pool behind {@link #getConnection()}, for reading its
+     * live, peak and leaked connection counts.
+     *
+     * @return the application's connection pool
+     */
+    public static ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Closes all pooled connections. Called when the application exits.
+     */
+    public static void shutdown() {
+        pool.shutdown();
+    }
 }
@@ -0,0 +1,465 @@
+package com.mycompany.stims.database;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps SGPA and CGPA up to date. Running totals of graded credits and
+ * quality points are stored per term in `studentacademicrecord` and per
+ * student in `studentgpatotals`, so a student's CGPA is read without
+ * rescanning their whole history. Only graded enrollments count: a course
+ * adds its credits once it has a grade, so enrolling does not lower a
+ * student's SGPA or CGPA while the course is still in progress.
+ *
+ * The totals are recalculated from `studentcourse`/`grade` in one scan of the
+ * student's history. Students whose grades change are rebuilt in the
+ * background by {@link GradeChangeQueue}.
+ * Once a write commits, the rankings cached by {@link ClassRanking} are
+ * dropped; when the caller owns the transaction, dropping them after its
+ * commit is up to the caller.
+ */
+public class GpaEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(GpaEngine.class);
+
+    /**
+     * The recognised letter grades, from highest to lowest.
+     */
+    public static final List<String> GRADES = List.of("A+", "A", "A-", "B+", "B", "B-", "C+", "C", "C-", "D", "F");
+
+    // Grade conversion table
+    private static final Map<String, Double> GRADE_POINTS;
+
+    static {
+        Map<String, Double> points = new HashMap<>();
+        points.put("A+", 4.00);
+        points.put("A", 4.00);
+        points.put("A-", 3.70);
+        points.put("B+", 3.50);
+        points.put("B", 3.00);
+        points.put("B-", 2.70);
+        points.put("C+", 2.50);
+        points.put("C", 2.00);
+        points.put("C-", 1.75);
+        points.put("D", 1.00);
+        points.put("F", 0.00);
+        GRADE_POINTS = Collections.unmodifiableMap(points);
+    }
+
+    private static final String CONTEXT_SQL = "SELECT sc.student_course_id, sc.student_id, sc.offering_id, co.academic_year, co.year, co.semester, "
+            + "c.credits, g.grade FROM studentcourse sc "
+            + "JOIN courseoffering co ON sc.offering_id = co.offering_id "
+            + "JOIN course c ON co.course_id = c.course_id "
+            + "LEFT JOIN grade g ON sc.student_course_id = g.student_course_id ";
+
+    // Locks the enrollment rows read, until the surrounding transaction ends
+    private static final String CONTEXT_LOCK = " FOR UPDATE OF sc";
+
+    private final Connection connection;
+
+    /**
+     * Constructs a GpaEngine with a specified database connection.
+     *
+     * @param connection the database connection to be used for operations
+     * @throws IllegalArgumentException if the connection is null
+     */
+    public GpaEngine(Connection connection) {
+        if (connection == null) {
+            throw new IllegalArgumentException("Database connection cannot be null.");
+        }
+        this.connection = connection;
+    }
+
+    /**
+     * Converts a letter grade to grade points. Missing or unknown grades count
+     * as 0.0.
+     *
+     * @param grade the letter grade, may be null
+     * @return the grade points for the grade
+     */
+    public static double getGradePoints(String grade) {
+        return grade == null ? 0.0 : GRADE_POINTS.getOrDefault(grade, 0.0);
+    }
+
+    /**
+     * Checks whether a letter grade is one of the recognised grades.
+     *
+     * @param grade the letter grade, may be null
+     * @return true if the grade has a grade point value
+     */
+    public static boolean isValidGrade(String grade) {
+        return grade != null && GRADE_POINTS.containsKey(grade);
+    }
+
+    /**
+     * Looks up the student, term, credits and current grade of an enrollment.
+     * Callers that change a grade should call this before the write so the
+     * old grade is known. Like the other lookups, it locks the enrollment
+     * until the transaction ends, so when the lookup and the write share a
+     * transaction, concurrent writers of the same enrollment take turns and
+     * the grade read is the one the write replaces.
+     *
+     * @param studentCourseId the ID of the student-course record
+     * @return the enrollment context, or null if the enrollment does not exist
+     * @throws SQLException if a database access error occurs
+     */
+    public GradeContext lookup(int studentCourseId) throws SQLException {
+        return lookup("WHERE sc.student_course_id = ?", studentCourseId);
+    }
+
+    /**
+     * Looks up the enrollment context of a grade by its grade ID.
+     *
+     * @param gradeId the ID of the grade
+     * @return the enrollment context, or null if the grade does not exist
+     * @throws SQLException if a database access error occurs
+     */
+    public GradeContext lookupByGradeId(int gradeId) throws SQLException {
+        return lookup("WHERE g.grade_id = ?", gradeId);
+    }
+
+    /**
+     * Looks up the enrollment context of several enrollments with one query.
+     * Callers that change grades should call this before the write so the old
+     * grades are known.
+     *
+     * @param studentCourseIds the IDs of the student-course records
+     * @return the enrollment contexts by student-course ID; enrollments that
+     * do not exist are left out
+     * @throws SQLException if a database access error occurs
+     */
+    public Map<Integer, GradeContext> lookup(Collection<Integer> studentCourseIds) throws SQLException {
+        Map<Integer, GradeContext> contexts = new HashMap<>();
+        if (studentCourseIds.isEmpty()) {
+            return contexts;
+        }
+        String sql = CONTEXT_SQL + "WHERE sc.student_course_id IN ("
+                + String.join(", ", Collections.nCopies(studentCourseIds.size(), "?")) + ")" + CONTEXT_LOCK;
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (int studentCourseId : studentCourseIds) {
+                ps.setInt(index++, studentCourseId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    GradeContext context = mapContext(rs);
+                    contexts.put(context.getStudentCourseId(), context);
+                }
+            }
+        }
+        return contexts;
+    }
+
+    private GradeContext lookup(String where, int id) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(CONTEXT_SQL + where + CONTEXT_LOCK)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return mapContext(rs);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static GradeContext mapContext(ResultSet rs) throws SQLException {
+        return new GradeContext(
+                rs.getInt("student_course_id"),
+                rs.getInt("student_id"),
+                rs.getInt("offering_id"),
+                rs.getInt("academic_year"),
+                rs.getInt("year"),
+                rs.getInt("semester"),
+                rs.getInt("credits"),
+                rs.getString("grade")
+        );
+    }
+
+    /**
+     * Recalculates a student's running totals from scratch and refreshes every
+     * existing term record. Also creates or updates the record for the given
+     * term if the student has courses in it.
+     *
+     * @param studentId the ID of the student
+     * @param academicYear the academic year of the term to write
+     * @param year the year of study of the term to write
+     * @param semester the semester of the term to write
+     * @return true if the given term has graded courses and its record was
+     * written
+     * @throws SQLException if a database access error occurs
+     */
+    public boolean recalculateStudent(int studentId, int academicYear, int year, int semester) throws SQLException {
+        int[] written = new int[1];
+        inTransaction(() -> written[0] = refresh(studentId, Collections.singleton(termKey(academicYear, year, semester))));
+        return written[0] > 0;
+    }
+
+    /**
+     * Recalculates a student's running totals from scratch and writes the
+     * record of every term the student has graded courses in, creating the
+     * records that are missing.
+     *
+     * @param studentId the ID of the student
+     * @throws SQLException if a database access error occurs
+     */
+    public void rebuildStudent(int studentId) throws SQLException {
+        inTransaction(() -> refresh(studentId, null));
+    }
+
+    /**
+     * Reads the stored cumulative totals of a student.
+     *
+     * @param studentId the ID of the student
+     * @return the CGPA from the running totals, or null if the student has no
+     * totals yet
+     * @throws SQLException if a database access error occurs
+     */
+    public Double getStoredCGPA(int studentId) throws SQLException {
+        String sql = "SELECT total_credits, quality_points FROM studentgpatotals WHERE student_id = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, studentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return gpa(rs.getDouble("quality_points"), rs.getInt("total_credits"));
+                }
+            }
+        }
+        return null;
+    }
+
+    // One scan of the student's history, aggregated per term; returns how many target terms were written.
+    // Null target keys stand for every term found.
+    private int refresh(int studentId, Set<Integer> targetKeys) throws SQLException {
+        String sql = "SELECT co.academic_year, co.year, co.semester, c.credits, g.grade FROM studentcourse sc "
+                + "LEFT JOIN grade g ON sc.student_course_id = g.student_course_id "
+                + "JOIN courseoffering co ON sc.offering_id = co.offering_id "
+                + "JOIN course c ON co.course_id = c.course_id "
+                + "WHERE sc.student_id = ?";
+
+        Map<Integer, TermTotals> terms = new LinkedHashMap<>();
+        int totalCredits = 0;
+        double totalQualityPoints = 0.0;
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, studentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int key = termKey(rs.getInt("academic_year"), rs.getInt("year"), rs.getInt("semester"));
+                    // The term is kept even without grades, so an existing record whose grades were removed is reset
+                    TermTotals term = terms.computeIfAbsent(key, k -> new TermTotals());
+                    String grade = rs.getString("grade");
+                    if (grade == null) {
+                        continue; // Not graded yet: counts towards neither credits nor quality points
+                    }
+                    int credits = rs.getInt("credits");
+                    double qualityPoints = credits * getGradePoints(grade);
+                    term.credits += credits;
+                    term.qualityPoints += qualityPoints;
+                    totalCredits += credits;
+                    totalQualityPoints += qualityPoints;
+                }
+            }
+        }
+        double cgpa = gpa(totalQualityPoints, totalCredits);
+
+        String totalsSql = "INSERT INTO studentgpatotals (student_id, total_credits, quality_points) VALUES (?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE total_credits = VALUES(total_credits), quality_points = VALUES(quality_points)";
+        try (PreparedStatement ps = connection.prepareStatement(totalsSql)) {
+            ps.setInt(1, studentId);
+            ps.setInt(2, totalCredits);
+            ps.setDouble(3, totalQualityPoints);
+            ps.executeUpdate();
+        }
+
+        String termSql = "UPDATE studentacademicrecord SET total_credits = ?, quality_points = ?, sgpa = ? "
+                + "WHERE student_id = ? AND academic_year = ? AND year = ? AND semester = ?";
+        try (PreparedStatement ps = connection.prepareStatement(termSql)) {
+            for (Map.Entry<Integer, TermTotals> entry : terms.entrySet()) {
+                int key = entry.getKey();
+                TermTotals term = entry.getValue();
+                ps.setInt(1, term.credits);
+                ps.setDouble(2, term.qualityPoints);
+                ps.setDouble(3, gpa(term.qualityPoints, term.credits));
+                ps.setInt(4, studentId);
+                ps.setInt(5, key / 100);
+                ps.setInt(6, key / 10 % 10);
+                ps.setInt(7, key % 10);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+
+        int written = 0;
+        try (PreparedStatement ps = connection.prepareStatement(StudentAcademicRecordsDAO.UPSERT_RECORD_SQL)) {
+            for (int targetKey : targetKeys == null ? terms.keySet() : targetKeys) {
+                TermTotals target = terms.get(targetKey);
+                if (target == null || target.credits <= 0) {
+                    continue;
+                }
+                StudentAcademicRecordsDAO.bindRecord(ps, studentId, targetKey / 100, targetKey / 10 % 10, targetKey % 10,
+                        target.credits, target.qualityPoints, gpa(target.qualityPoints, target.credits), cgpa);
+                ps.addBatch();
+                written++;
+            }
+            if (written > 0) {
+                ps.executeBatch();
+            }
+        }
+
+        String cgpaSql = "UPDATE studentacademicrecord SET cgpa = ? WHERE student_id = ?";
+        try (PreparedStatement ps = connection.prepareStatement(cgpaSql)) {
+            ps.setDouble(1, cgpa);
+            ps.setInt(2, studentId);
+            ps.executeUpdate();
+        }
+        logger.info("Recalculated GPA totals for studentId: {} across {} terms", studentId, terms.size());
+        return written;
+    }
+
+    /**
+     * Runs the work in a transaction unless the caller already has one open.
+     * DAOs use it to make a lookup, their write and the GPA update one unit.
+     * Cached rankings are dropped after this method's own commit; a caller
+     * with a transaction open calls {@link ClassRanking#invalidate()} after
+     * committing it, so no ranking is cached from uncommitted records.
+     *
+     * @param work the work to run
+     * @throws SQLException if a database access error occurs; the work is
+     * rolled back if the transaction is this method's own
+     */
+    void inTransaction(SqlWork work) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        if (!autoCommit) {
+            work.run();
+            return;
+        }
+        connection.setAutoCommit(false);
+        try {
+            work.run();
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        ClassRanking.invalidate();
+    }
+
+    /**
+     * Packs a term into a single int: academic year, year of study (1-9) and
+     * semester (1-3).
+     */
+    static int termKey(int academicYear, int year, int semester) {
+        return academicYear * 100 + year * 10 + semester;
+    }
+
+    /**
+     * Divides quality points by credits and rounds to 2 decimal places.
+     */
+    static double gpa(double qualityPoints, int credits) {
+        if (credits == 0) {
+            return 0.0;  // Avoid division by zero
+        }
+        return BigDecimal.valueOf(qualityPoints / credits).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+
+    /**
+     * A unit of database work that may throw SQLException.
+     */
+    interface SqlWork {
+
+        void run() throws SQLException;
+    }
+
+    /**
+     * Mutable per-term accumulator used while scanning a student's history.
+     */
+    private static final class TermTotals {
+
+        private int credits;
+        private double qualityPoints;
+    }
+
+    /**
+     * The student, offering, term and credits of one enrollment, plus the
+     * grade it held when it was looked up.
+     */
+    public static final class GradeContext {
+
+        private final int studentCourseId;
+        private final int studentId;
+        private final int offeringId;
+        private final int academicYear;
+        private final int year;
+        private final int semester;
+        private final int credits;
+        private final String grade;
+
+        /**
+         * @param studentCourseId the ID of the student-course record
+         * @param studentId the ID of the student
+         * @param offeringId the ID of the course offering
+         * @param academicYear the academic year of the offering
+         * @param year the year of study of the offering
+         * @param semester the semester of the offering
+         * @param credits the credits of the course
+         * @param grade the grade at lookup time, or null if ungraded
+         */
+        public GradeContext(int studentCourseId, int studentId, int offeringId, int academicYear, int year, int semester,
+                int credits, String grade) {
+            this.studentCourseId = studentCourseId;
+            this.studentId = studentId;
+            this.offeringId = offeringId;
+            this.academicYear = academicYear;
+            this.year = year;
+            this.semester = semester;
+            this.credits = credits;
+            this.grade = grade;
+        }
+
+        public int getStudentCourseId() {
+            return studentCourseId;
+        }
+
+        public int getStudentId() {
+            return studentId;
+        }
+
+        public int getOfferingId() {
+            return offeringId;
+        }
+
+        public int getAcademicYear() {
+            return academicYear;
+        }
+
+        public int getYear() {
+            return year;
+        }
+
+        public int getSemester() {
+            return semester;
+        }
+
+        public int getCredits() {
+            return credits;
+        }
+
+        public String getGrade() {
+            return grade;
+        }
+    }
+}
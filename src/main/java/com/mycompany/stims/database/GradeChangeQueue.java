@@ -0,0 +1,247 @@
+package com.mycompany.stims.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The `GradeChangeQueue` class keeps academic records in step with grade
+ * entry without slowing it down. A grade write records the students it
+ * affects in `gparepair`, in the write's own transaction, and signals the
+ * queue once it has committed. A background worker waits a short window for
+ * related writes, then rebuilds the SGPA and CGPA of every recorded student
+ * from their enrollments and grades through {@link GpaEngine}, committing once
+ * per batch of students.
+ *
+ * Because students are rebuilt from the source rows rather than by adding up
+ * changes, a student can be rebuilt any number of times, here or by a manual
+ * recalculation, and still end up with the same totals. Recorded students
+ * outlive a failed batch or a stopped application: they stay in `gparepair`
+ * until rebuilt, and are picked up again on a later pass or the next start.
+ */
+public class GradeChangeQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(GradeChangeQueue.class);
+
+    private static final long COALESCE_WINDOW_MS = 2000;
+    private static final long RECHECK_INTERVAL_MS = 60000;
+    private static final int STUDENTS_PER_BATCH = 100;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10000;
+
+    // Holds at most one wake-up; further signals before the worker runs are folded into it
+    private static final BlockingQueue<Boolean> signal = new ArrayBlockingQueue<>(1);
+    private static Thread worker;
+    private static volatile boolean running;
+
+    private GradeChangeQueue() {
+    }
+
+    /**
+     * Records students whose academic records must be rebuilt. Must run in the
+     * transaction of the write that affects them, so the students are recorded
+     * if and only if the write commits; call {@link #publish()} after the
+     * commit.
+     *
+     * @param connection the connection of the write's transaction
+     * @param studentIds the IDs of the students affected by the write
+     * @throws SQLException if a database access error occurs
+     */
+    static void markPending(Connection connection, Collection<Integer> studentIds) throws SQLException {
+        if (studentIds.isEmpty()) {
+            return;
+        }
+        // In ascending order, the same order the worker locks them in
+        try (PreparedStatement ps = connection.prepareStatement("INSERT IGNORE INTO gparepair (student_id) VALUES (?)")) {
+            for (int studentId : new TreeSet<>(studentIds)) {
+                ps.setInt(1, studentId);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Signals that a write recording students through {@link #markPending}
+     * has committed. The worker is started on first use.
+     */
+    public static void publish() {
+        ensureStarted();
+        signal.offer(Boolean.TRUE);
+    }
+
+    /**
+     * Starts the worker, which first rebuilds any students still recorded
+     * from an earlier run.
+     */
+    public static void start() {
+        ensureStarted();
+    }
+
+    /**
+     * Stops the worker after a last pass over the recorded students. Waits up
+     * to ten seconds; students not rebuilt by then stay recorded and are
+     * rebuilt on the next start.
+     */
+    public static void shutdown() {
+        Thread current;
+        synchronized (GradeChangeQueue.class) {
+            running = false;
+            current = worker;
+            worker = null;
+        }
+        if (current == null) {
+            return;
+        }
+        current.interrupt();
+        try {
+            current.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (current.isAlive()) {
+            logger.warn("Stopped before every recorded student was rebuilt; the rest are rebuilt on the next start");
+        }
+    }
+
+    private static synchronized void ensureStarted() {
+        if (worker != null) {
+            return;
+        }
+        running = true;
+        worker = new Thread(GradeChangeQueue::run, "grade-change-worker");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private static void run() {
+        // Students recorded before the worker started are rebuilt straight away
+        process();
+        while (running) {
+            try {
+                // Also rechecks now and then, for students whose write committed without a signal
+                if (signal.poll(RECHECK_INTERVAL_MS, TimeUnit.MILLISECONDS) != null) {
+                    // Give a teacher saving a whole class time to finish before rebuilding
+                    Thread.sleep(COALESCE_WINDOW_MS);
+                }
+            } catch (InterruptedException e) {
+                // Interrupted by shutdown: fall through for a last pass
+            }
+            signal.clear();
+            process();
+        }
+    }
+
+    // Rebuilds every recorded student, in batches; students that fail stay recorded for a later pass
+    private static void process() {
+        long start = System.currentTimeMillis();
+        int rebuilt = 0;
+        int failed = 0;
+        try (Connection connection = DatabaseConnection.borrow()) {
+            List<Integer> studentIds = readPending(connection);
+            if (studentIds.isEmpty()) {
+                return;
+            }
+            GpaEngine gpaEngine = new GpaEngine(connection);
+            int isolation = connection.getTransactionIsolation();
+            // Each rebuild reads the grades committed when it runs, not when its transaction began
+            connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+            connection.setAutoCommit(false);
+            try {
+                for (int from = 0; from < studentIds.size(); from += STUDENTS_PER_BATCH) {
+                    List<Integer> chunk = studentIds.subList(from, Math.min(from + STUDENTS_PER_BATCH, studentIds.size()));
+                    try {
+                        rebuilt += rebuild(connection, gpaEngine, chunk);
+                        connection.commit();
+                        ClassRanking.invalidate();
+                    } catch (SQLException e) {
+                        connection.rollback();
+                        logger.warn("Failed to rebuild academic records for {} students; retrying one at a time", chunk.size(), e);
+                        for (int studentId : chunk) {
+                            try {
+                                rebuilt += rebuild(connection, gpaEngine, Collections.singletonList(studentId));
+                                connection.commit();
+                                ClassRanking.invalidate();
+                            } catch (SQLException retryException) {
+                                connection.rollback();
+                                failed++;
+                                logger.error("Failed to rebuild academic records for studentId: {}; kept for a later pass",
+                                        studentId, retryException);
+                            }
+                        }
+                    }
+                }
+            } finally {
+                connection.setAutoCommit(true);
+                connection.setTransactionIsolation(isolation);
+            }
+        } catch (SQLException e) {
+            logger.error("Failed to rebuild academic records; recorded students are kept for a later pass", e);
+            return;
+        }
+        logger.info("Rebuilt academic records for {} students in {} ms ({} kept for a later pass)",
+                rebuilt, System.currentTimeMillis() - start, failed);
+    }
+
+    private static List<Integer> readPending(Connection connection) throws SQLException {
+        List<Integer> studentIds = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement("SELECT student_id FROM gparepair ORDER BY student_id");
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                studentIds.add(rs.getInt("student_id"));
+            }
+        }
+        return studentIds;
+    }
+
+    /**
+     * Rebuilds the students of a batch that are still recorded and removes
+     * their entries, in the caller's transaction. Their entries are locked
+     * first: a write that recorded one of them before the lock is waited for,
+     * so the rebuild reads its grades, and a write that records one after the
+     * lock waits for this transaction and records the student again.
+     *
+     * @return the number of students rebuilt
+     */
+    private static int rebuild(Connection connection, GpaEngine gpaEngine, List<Integer> studentIds) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(studentIds.size(), "?"));
+        List<Integer> locked = new ArrayList<>();
+        String lockSql = "SELECT student_id FROM gparepair WHERE student_id IN (" + placeholders + ") "
+                + "ORDER BY student_id FOR UPDATE";
+        try (PreparedStatement ps = connection.prepareStatement(lockSql)) {
+            for (int i = 0; i < studentIds.size(); i++) {
+                ps.setInt(i + 1, studentIds.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    locked.add(rs.getInt("student_id"));
+                }
+            }
+        }
+        if (locked.isEmpty()) {
+            return 0;
+        }
+        for (int studentId : locked) {
+            gpaEngine.rebuildStudent(studentId);
+        }
+        String deleteSql = "DELETE FROM gparepair WHERE student_id IN ("
+                + String.join(", ", Collections.nCopies(locked.size(), "?")) + ")";
+        try (PreparedStatement ps = connection.prepareStatement(deleteSql)) {
+            for (int i = 0; i < locked.size(); i++) {
+                ps.setInt(i + 1, locked.get(i));
+            }
+            ps.executeUpdate();
+        }
+        return locked.size();
+    }
+}
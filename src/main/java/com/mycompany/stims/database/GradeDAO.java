@@ -4,15 +4,32 @@ import com.mycompany.stims.model.Grade;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Data Access Object (DAO) class for managing Grade entities in the database.
- * Provides methods to perform CRUD operations on the Grade table.
+ * Provides methods to perform CRUD operations on the Grade table. Every grade
+ * write records its students for {@link GradeChangeQueue} in the same
+ * transaction, which rebuilds their SGPA and CGPA in the background once the
+ * write commits, and adds the grades it changed to the summary of the
+ * offering through {@link OfferingAnalyticsDAO} in the same transaction.
  */
 public class GradeDAO {
 
     private Connection connection;
+    private GpaEngine gpaEngine;
+    private OfferingAnalyticsDAO analytics;
+
+    // Sort keys accepted by getGradesPage, mapped to non-null column expressions
+    private static final Map<String, String> GRADE_SORT_COLUMNS = Map.of(
+            "studentCourseId", "student_course_id",
+            "grade", "grade");
+    private static final List<String> GRADE_SEARCH_PREDICATES = List.of("grade LIKE ?");
 
     /**
      * Constructs a GradeDAO with a specified database connection.
@@ -21,6 +38,10 @@ public class GradeDAO {
      */
     public GradeDAO(Connection connection) {
         this.connection = connection;
+        if (connection != null) {
+            this.gpaEngine = new GpaEngine(connection);
+            this.analytics = new OfferingAnalyticsDAO(connection);
+        }
     }
 
     /**
@@ -30,15 +51,55 @@ public class GradeDAO {
      */
     public void addGrade(Grade grade) {
         String sql = "INSERT INTO Grade (student_course_id, grade) VALUES (?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, grade.getStudentCourseId());
-            pstmt.setString(2, grade.getGrade());
-            pstmt.executeUpdate();
+        try {
+            writeGrades(List.of(grade.getStudentCourseId()), () -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setInt(1, grade.getStudentCourseId());
+                    pstmt.setString(2, grade.getGrade());
+                    pstmt.executeUpdate();
+                }
+            });
         } catch (SQLException e) {
             System.err.println("Error adding grade: " + e.getMessage());
         }
     }
 
+    /**
+     * Saves a grade in a single statement, inserting it or replacing the
+     * existing grade of the same enrollment. Unlike checking for an existing
+     * grade first, this cannot race with a concurrent edit.
+     *
+     * @param grade the Grade object containing the details to be saved
+     * @return true if the grade was saved
+     */
+    public boolean saveGrade(Grade grade) {
+        return saveGrades(List.of(grade));
+    }
+
+    /**
+     * Saves several grades as one batch inside a single transaction, inserting
+     * or replacing each enrollment's grade.
+     *
+     * @param grades the grades to save
+     * @return true if every grade was saved; on failure none are
+     */
+    public boolean saveGrades(List<Grade> grades) {
+        if (grades.isEmpty()) {
+            return true;
+        }
+        List<Integer> studentCourseIds = new ArrayList<>();
+        for (Grade grade : grades) {
+            studentCourseIds.add(grade.getStudentCourseId());
+        }
+        try {
+            writeGrades(studentCourseIds, () -> upsertGrades(grades));
+        } catch (SQLException e) {
+            System.err.println("Error saving grades: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Retrieves a grade from the database by its ID.
      *
@@ -105,13 +166,7 @@ public class GradeDAO {
         String sql = "SELECT * FROM Grade";
         try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                grades.add(new Grade(
-                        rs.getInt("grade_id"),
-                        rs.getInt("student_course_id"),
-                        rs.getString("grade"),
-                        rs.getTimestamp("created_at"),
-                        rs.getTimestamp("updated_at")
-                ));
+                grades.add(mapRowToGrade(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error retrieving grades: " + e.getMessage());
@@ -119,6 +174,24 @@ public class GradeDAO {
         return grades;
     }
 
+    /**
+     * Retrieves one page of grades. Sort keys: studentCourseId, grade; the
+     * filter matches the letter grade.
+     *
+     * @param request the page to retrieve
+     * @return the grades of the page and the request for the next page, or an
+     * empty page if an error occurs
+     */
+    public Page<Grade> getGradesPage(PageRequest request) {
+        try {
+            return KeysetPager.fetch(connection, "Grade", "grade_id", GRADE_SORT_COLUMNS,
+                    GRADE_SEARCH_PREDICATES, request, this::mapRowToGrade);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving grades: " + e.getMessage());
+            return Page.empty();
+        }
+    }
+
     /**
      * Updates an existing grade in the database.
      *
@@ -126,10 +199,14 @@ public class GradeDAO {
      */
     public void updateGrade(Grade grade) {
         String sql = "UPDATE Grade SET grade = ? WHERE student_course_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, grade.getGrade());
-            pstmt.setInt(2, grade.getStudentCourseId());
-            pstmt.executeUpdate();
+        try {
+            writeGrades(List.of(grade.getStudentCourseId()), () -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setString(1, grade.getGrade());
+                    pstmt.setInt(2, grade.getStudentCourseId());
+                    pstmt.executeUpdate();
+                }
+            });
             System.out.println("Grade updated successfully.");
         } catch (SQLException e) {
             System.err.println("Error updating grade: " + e.getMessage());
@@ -143,11 +220,266 @@ public class GradeDAO {
      */
     public void deleteGradeById(int gradeId) {
         String sql = "DELETE FROM Grade WHERE grade_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, gradeId);
-            pstmt.executeUpdate();
+        try {
+            // Find the enrollment first; it cannot be found from the grade once deleted
+            GpaEngine.GradeContext context = requireGpaEngine().lookupByGradeId(gradeId);
+            if (context == null) {
+                return;
+            }
+            writeGrades(List.of(context.getStudentCourseId()), () -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setInt(1, gradeId);
+                    pstmt.executeUpdate();
+                }
+            });
         } catch (SQLException e) {
             System.err.println("Error deleting grade: " + e.getMessage());
         }
     }
+
+    /**
+     * Saves the grades of a whole course roster at once. All enrollments of the
+     * course offering are resolved with one query; every valid row is then inserted or
+     * updated in a single batch inside one transaction. Rows that cannot be
+     * saved are reported instead of stopping the submission.
+     *
+     * @param offeringId the ID of the course offering the grades belong to
+     * @param courseName the name of the course, used in error messages
+     * @param submissions the grades to save, one per student
+     * @return the number of grades saved and the errors of rejected rows
+     */
+    public GradeBatchResult submitGrades(int offeringId, String courseName, List<GradeSubmission> submissions) {
+        GradeBatchResult result = new GradeBatchResult();
+        Map<String, GpaEngine.GradeContext> roster;
+        try {
+            roster = getRoster(offeringId);
+        } catch (SQLException e) {
+            System.err.println("Error resolving course roster: " + e.getMessage());
+            result.addError(0, "Failed to load the course roster: " + e.getMessage());
+            return result;
+        }
+
+        List<GradeSubmission> accepted = new ArrayList<>();
+        List<GpaEngine.GradeContext> contexts = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (GradeSubmission submission : submissions) {
+            String studentIdNo = submission.getStudentIdNo();
+            GpaEngine.GradeContext context = roster.get(studentIdNo);
+            if (studentIdNo == null || studentIdNo.isEmpty()) {
+                result.addError(submission.getRowNumber(), "Missing Student ID No.");
+            } else if (!GpaEngine.isValidGrade(submission.getGrade())) {
+                result.addError(submission.getRowNumber(), "Invalid grade '" + submission.getGrade() + "' for " + studentIdNo + ".");
+            } else if (context == null) {
+                result.addError(submission.getRowNumber(), studentIdNo + " is not enrolled in " + courseName + ".");
+            } else if (!seen.add(studentIdNo)) {
+                result.addError(submission.getRowNumber(), "Duplicate entry for " + studentIdNo + ".");
+            } else {
+                accepted.add(submission);
+                contexts.add(context);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return result;
+        }
+
+        List<Grade> grades = new ArrayList<>();
+        List<Integer> studentCourseIds = new ArrayList<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            grades.add(new Grade(contexts.get(i).getStudentCourseId(), accepted.get(i).getGrade()));
+            studentCourseIds.add(contexts.get(i).getStudentCourseId());
+        }
+        try {
+            writeGrades(studentCourseIds, () -> upsertGrades(grades));
+        } catch (SQLException e) {
+            System.err.println("Error submitting grades: " + e.getMessage());
+            for (GradeSubmission submission : accepted) {
+                result.addError(submission.getRowNumber(), "Not saved: " + e.getMessage());
+            }
+            return result;
+        }
+
+        result.savedCount = accepted.size();
+        return result;
+    }
+
+    /**
+     * Writes grades with one batched upsert on unique_student_course_grade.
+     *
+     * @param grades the grades to write
+     * @throws SQLException if a database access error occurs
+     */
+    private void upsertGrades(List<Grade> grades) throws SQLException {
+        String sql = "INSERT INTO Grade (student_course_id, grade) VALUES (?, ?) "
+                + "ON DUPLICATE KEY UPDATE grade = VALUES(grade)";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (Grade grade : grades) {
+                pstmt.setInt(1, grade.getStudentCourseId());
+                pstmt.setString(2, grade.getGrade());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Runs a grade write together with recording its students for
+     * {@link GradeChangeQueue} and the update of the offering summaries, in
+     * its own transaction unless the caller already has one open, then
+     * signals the queue. The grades of the enrollments are read before and
+     * after the write, so the summaries change by what the write actually
+     * did.
+     *
+     * @param studentCourseIds the enrollments whose grades are written
+     * @param write the write
+     * @throws SQLException if a database access error occurs
+     */
+    private void writeGrades(Collection<Integer> studentCourseIds, GpaEngine.SqlWork write) throws SQLException {
+        requireGpaEngine().inTransaction(() -> {
+            // Locks the enrollments, so no concurrent write changes their grades in between
+            Map<Integer, GpaEngine.GradeContext> before = gpaEngine.lookup(studentCourseIds);
+            write.run();
+            Map<Integer, GpaEngine.GradeContext> after = gpaEngine.lookup(studentCourseIds);
+
+            Set<Integer> studentIds = new HashSet<>();
+            OfferingAnalyticsDAO.Changes changes = new OfferingAnalyticsDAO.Changes();
+            for (GpaEngine.GradeContext context : before.values()) {
+                studentIds.add(context.getStudentId());
+                changes.addGrade(context.getOfferingId(), context.getGrade(), -1);
+                GpaEngine.GradeContext written = after.get(context.getStudentCourseId());
+                if (written != null) {
+                    changes.addGrade(written.getOfferingId(), written.getGrade(), 1);
+                }
+            }
+            GradeChangeQueue.markPending(connection, studentIds);
+            analytics.apply(changes);
+        });
+        GradeChangeQueue.publish();
+    }
+
+    /**
+     * Returns the GPA engine, which exists only if the DAO was given a
+     * connection.
+     *
+     * @return the GPA engine
+     * @throws SQLException if there is no database connection
+     */
+    private GpaEngine requireGpaEngine() throws SQLException {
+        if (gpaEngine == null) {
+            throw new SQLException("No database connection.");
+        }
+        return gpaEngine;
+    }
+
+    /**
+     * Loads every enrollment of a course offering, keyed by the student's ID
+     * number. Only one term is covered, so a student who took the course in
+     * another term is not matched. Should a student be enrolled in the offering
+     * more than once, the earliest enrollment is used.
+     *
+     * @param offeringId the ID of the course offering
+     * @return the enrollments of the offering
+     * @throws SQLException if a database access error occurs
+     */
+    private Map<String, GpaEngine.GradeContext> getRoster(int offeringId) throws SQLException {
+        String sql = "SELECT s.studentId_No, sc.student_course_id, sc.student_id, sc.offering_id, co.academic_year, co.year, co.semester, "
+                + "c.credits, g.grade FROM studentcourse sc "
+                + "JOIN student s ON sc.student_id = s.student_id "
+                + "JOIN courseoffering co ON sc.offering_id = co.offering_id "
+                + "JOIN course c ON co.course_id = c.course_id "
+                + "LEFT JOIN Grade g ON sc.student_course_id = g.student_course_id "
+                + "WHERE sc.offering_id = ? ORDER BY sc.student_course_id";
+        Map<String, GpaEngine.GradeContext> roster = new HashMap<>();
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, offeringId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    roster.putIfAbsent(rs.getString("studentId_No"), new GpaEngine.GradeContext(
+                            rs.getInt("student_course_id"),
+                            rs.getInt("student_id"),
+                            rs.getInt("offering_id"),
+                            rs.getInt("academic_year"),
+                            rs.getInt("year"),
+                            rs.getInt("semester"),
+                            rs.getInt("credits"),
+                            rs.getString("grade")
+                    ));
+                }
+            }
+        }
+        return roster;
+    }
+
+    /**
+     * Maps the current row of a result set to a Grade object.
+     *
+     * @param rs the result set positioned at a Grade row
+     * @return the mapped Grade object
+     * @throws SQLException if a database access error occurs
+     */
+    private Grade mapRowToGrade(ResultSet rs) throws SQLException {
+        return new Grade(
+                rs.getInt("grade_id"),
+                rs.getInt("student_course_id"),
+                rs.getString("grade"),
+                rs.getTimestamp("created_at"),
+                rs.getTimestamp("updated_at")
+        );
+    }
+
+    /**
+     * One row of a batch grade submission.
+     */
+    public static class GradeSubmission {
+
+        private final int rowNumber;
+        private final String studentIdNo;
+        private final String grade;
+
+        /**
+         * Constructs a GradeSubmission.
+         *
+         * @param rowNumber the row the entry came from, used in error messages
+         * @param studentIdNo the student's ID number
+         * @param grade the letter grade
+         */
+        public GradeSubmission(int rowNumber, String studentIdNo, String grade) {
+            this.rowNumber = rowNumber;
+            this.studentIdNo = studentIdNo;
+            this.grade = grade;
+        }
+
+        public int getRowNumber() {
+            return rowNumber;
+        }
+
+        public String getStudentIdNo() {
+            return studentIdNo;
+        }
+
+        public String getGrade() {
+            return grade;
+        }
+    }
+
+    /**
+     * The outcome of a batch grade submission: how many grades were saved and
+     * why the remaining rows were rejected.
+     */
+    public static class GradeBatchResult {
+
+        private int savedCount;
+        private final List<String> errors = new ArrayList<>();
+
+        private void addError(int rowNumber, String message) {
+            errors.add(rowNumber > 0 ? "Row " + rowNumber + ": " + message : message);
+        }
+
+        public int getSavedCount() {
+            return savedCount;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
 }
@@ -0,0 +1,263 @@
+package com.mycompany.stims.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The `IdAllocator` class hands out ID numbers and usernames from the
+ * `id_sequence` counter table. Each sequence is one row; a block of values is
+ * reserved with a single atomic UPDATE on a connection of its own that
+ * commits at once. The row lock is therefore held only for that statement,
+ * not for the caller's whole transaction, and several workstations can
+ * register users at the same time without being handed the same value.
+ * <p>
+ * A sequence that has no row yet is seeded from the values already in use, so
+ * numbering continues where the old count-based generation left off. Values
+ * reserved by a transaction that is later rolled back are not reused.
+ * <p>
+ * Usernames can also be chosen by hand, e.g. through Change Username, and
+ * such a name may lie ahead of its sequence. Reserved usernames are therefore
+ * checked against the table, and any already taken are skipped for the next
+ * values. A name chosen by hand between that check and the caller's insert
+ * still fails on the table's unique index; that window is accepted rather than
+ * locking the user table for the whole registration.
+ */
+public class IdAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdAllocator.class);
+
+    // Reserves a block and leaves its first value in LAST_INSERT_ID() for this connection
+    private static final String RESERVE_SQL = "UPDATE id_sequence SET next_value = LAST_INSERT_ID(next_value) + ? WHERE name = ?";
+    private static final String SEED_SQL = "INSERT IGNORE INTO id_sequence (name, next_value) VALUES (?, ?)";
+
+    private IdAllocator() {
+    }
+
+    /**
+     * Reserves consecutive ID numbers that share a prefix, such as
+     * {@code ID/UGR/25/}. The sequence is seeded from the highest number after
+     * the prefix already stored in the given column.
+     *
+     * @param prefix the prefix of the ID numbers
+     * @param count how many numbers to reserve
+     * @param table the table holding the ID numbers
+     * @param column the column holding the ID numbers
+     * @return the first reserved number; the block runs to first + count - 1
+     * @throws SQLException if a database access error occurs
+     */
+    public static int allocateNumbers(String prefix, int count, String table, String column) throws SQLException {
+        try (Connection connection = borrow()) {
+            return reserve(connection, prefix, count, numberSeed(prefix, table, column));
+        }
+    }
+
+    /**
+     * Allocates a username that is not yet taken in a table: the base itself
+     * the first time, then the base followed by 1, 2 and so on.
+     *
+     * @param base the preferred username, such as {@code first.last}
+     * @param table the table whose usernames must be unique
+     * @return the allocated username
+     * @throws SQLException if a database access error occurs
+     */
+    public static String allocateUsername(String base, String table) throws SQLException {
+        return allocateUsernames(List.of(base), table).get(0);
+    }
+
+    /**
+     * Allocates usernames for several people at once. People who share a
+     * preferred username get consecutive suffixes from one reservation, and
+     * all reservations run on one connection. Reserved usernames that are
+     * already taken in the table are replaced by further reservations.
+     *
+     * @param bases the preferred usernames, duplicates allowed
+     * @param table the table whose usernames must be unique
+     * @return the allocated usernames, in the same order
+     * @throws SQLException if a database access error occurs
+     */
+    public static List<String> allocateUsernames(List<String> bases, String table) throws SQLException {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        bases.forEach(base -> counts.merge(base, 1, Integer::sum));
+
+        Map<String, Iterator<String>> allocated = new HashMap<>();
+        try (Connection connection = borrow()) {
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                String base = entry.getKey();
+                List<String> free = new ArrayList<>();
+                while (free.size() < entry.getValue()) {
+                    int count = entry.getValue() - free.size();
+                    int first = reserve(connection, table + ":" + base, count, usernameSeed(base, table));
+                    List<String> candidates = new ArrayList<>(count);
+                    for (int suffix = first; suffix < first + count; suffix++) {
+                        candidates.add(username(base, suffix));
+                    }
+                    Set<String> taken = findTaken(connection, table, candidates);
+                    for (String candidate : candidates) {
+                        if (taken.contains(candidate.toLowerCase())) {
+                            logger.debug("Skipped username '{}', already taken in {}", candidate, table);
+                        } else {
+                            free.add(candidate);
+                        }
+                    }
+                }
+                allocated.put(base, free.iterator());
+            }
+        }
+
+        List<String> usernames = new ArrayList<>(bases.size());
+        for (String base : bases) {
+            usernames.add(allocated.get(base).next());
+        }
+        return usernames;
+    }
+
+    /**
+     * Returns the username with the given suffix: the base itself for 0,
+     * otherwise the base followed by the number.
+     *
+     * @param base the preferred username
+     * @param suffix the suffix, 0 for none
+     * @return the username
+     */
+    static String username(String base, int suffix) {
+        return suffix == 0 ? base : base + suffix;
+    }
+
+    /**
+     * Computes the first suffix of a username sequence from the usernames
+     * already stored: past the base itself and every base followed by digits.
+     * Other usernames that merely start with the base are ignored, and so are
+     * numbers too long to be a suffix.
+     *
+     * @param base the preferred username
+     * @param usernames the usernames starting with the base, in any case
+     * @return the first free suffix, 0 if the base itself is free
+     */
+    static int nextSuffix(String base, Iterable<String> usernames) {
+        int next = 0;
+        for (String username : usernames) {
+            String rest = username.substring(base.length());
+            if (rest.isEmpty()) {
+                next = Math.max(next, 1);
+            } else if (rest.chars().allMatch(Character::isDigit) && rest.length() < 10) {
+                next = Math.max(next, Integer.parseInt(rest) + 1);
+            }
+        }
+        return next;
+    }
+
+    // Returns which of the candidates are taken, lower-cased, as the unique index ignores case
+    private static Set<String> findTaken(Connection connection, String table, List<String> candidates) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(candidates.size(), "?"));
+        Set<String> taken = new HashSet<>();
+        try (PreparedStatement ps = connection.prepareStatement("SELECT username FROM " + table + " WHERE username IN (" + placeholders + ")")) {
+            for (int i = 0; i < candidates.size(); i++) {
+                ps.setString(i + 1, candidates.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    taken.add(rs.getString(1).toLowerCase());
+                }
+            }
+        }
+        return taken;
+    }
+
+    // Seeds a number sequence past the highest number already stored after the prefix
+    private static Seed numberSeed(String prefix, String table, String column) {
+        return connection -> {
+            String sql = "SELECT MAX(CAST(SUBSTRING(" + column + ", ?) AS UNSIGNED)) FROM " + table
+                    + " WHERE " + column + " LIKE ?";
+            try (PreparedStatement ps = connection.prepareStatement(sql)) {
+                ps.setInt(1, prefix.length() + 1);
+                ps.setString(2, escapeLike(prefix) + "%");
+                try (ResultSet rs = ps.executeQuery()) {
+                    return rs.next() ? rs.getInt(1) + 1 : 1;
+                }
+            }
+        };
+    }
+
+    // Seeds a username sequence past every existing base, base1, base2, ...; 0 stands for the bare base
+    private static Seed usernameSeed(String base, String table) {
+        return connection -> {
+            List<String> usernames = new ArrayList<>();
+            try (PreparedStatement ps = connection.prepareStatement("SELECT username FROM " + table + " WHERE username LIKE ?")) {
+                ps.setString(1, escapeLike(base) + "%");
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        usernames.add(rs.getString(1));
+                    }
+                }
+            }
+            return nextSuffix(base, usernames);
+        };
+    }
+
+    private static Connection borrow() throws SQLException {
+        Connection connection = DatabaseConnection.borrow();
+        connection.setAutoCommit(true);
+        return connection;
+    }
+
+    private static int reserve(Connection connection, String name, int count, Seed seed) throws SQLException {
+        if (count < 1) {
+            throw new IllegalArgumentException("Count must be positive.");
+        }
+        Integer first = tryReserve(connection, name, count);
+        if (first == null) {
+            // New sequence: seed it, racing writers are resolved by the primary key
+            int start = seed.firstValue(connection);
+            try (PreparedStatement ps = connection.prepareStatement(SEED_SQL)) {
+                ps.setString(1, name);
+                ps.setInt(2, start);
+                ps.executeUpdate();
+            }
+            logger.debug("Seeded sequence '{}' at {}", name, start);
+            first = tryReserve(connection, name, count);
+            if (first == null) {
+                throw new SQLException("Could not create sequence " + name);
+            }
+        }
+        return first;
+    }
+
+    private static Integer tryReserve(Connection connection, String name, int count) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(RESERVE_SQL)) {
+            ps.setInt(1, count);
+            ps.setString(2, name);
+            if (ps.executeUpdate() == 0) {
+                return null;
+            }
+        }
+        try (PreparedStatement ps = connection.prepareStatement("SELECT LAST_INSERT_ID()"); ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Computes the first value of a sequence from the data already stored.
+     */
+    private interface Seed {
+
+        int firstValue(Connection connection) throws SQLException;
+    }
+}
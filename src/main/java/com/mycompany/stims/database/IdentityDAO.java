@@ -0,0 +1,197 @@
+package com.mycompany.stims.database;
+
+import com.mycompany.stims.utils.BackgroundTasks;
+import com.mycompany.stims.utils.PasswordUtils;
+import com.mycompany.stims.utils.Principal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The `IdentityDAO` class authenticates a login against the teacher, admin and
+ * student tables at once. The matching accounts are found with a single query
+ * whose branches each use the unique username or email index. Usernames are
+ * only unique within a table, so a student and a teacher may share one; the
+ * password is checked against each match in turn until one accepts it. When
+ * nothing matches, one password verification is still run, so an unknown
+ * username costs the same as a wrong password and does not reveal which
+ * usernames exist. After a successful login, a hash whose bcrypt cost is
+ * outside the current policy is replaced in the background, so the login does
+ * not wait for a second hash.
+ */
+public class IdentityDAO {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdentityDAO.class);
+
+    /**
+     * Finds the accounts matching a username or email, teachers first, then
+     * admins, then students: the order in which each table was tried in turn
+     * before.
+     */
+    private static final String FIND_ACCOUNT_SQL = "SELECT kind, id, first_name, last_name, username, password_hash, department_id, role_id FROM ("
+            + "SELECT 1 AS priority, 'T' AS kind, teacher_id AS id, first_name, last_name, username, password_hash, department_id, 0 AS role_id FROM teacher WHERE username = ? "
+            + "UNION ALL SELECT 1, 'T', teacher_id, first_name, last_name, username, password_hash, department_id, 0 FROM teacher WHERE email = ? "
+            + "UNION ALL SELECT 2, 'A', admin_id, first_name, last_name, username, password_hash, 0, role_id FROM admin WHERE username = ? "
+            + "UNION ALL SELECT 2, 'A', admin_id, first_name, last_name, username, password_hash, 0, role_id FROM admin WHERE email = ? "
+            + "UNION ALL SELECT 3, 'S', student_id, first_name, last_name, username, password_hash, department_id, 0 FROM student WHERE username = ? "
+            + "UNION ALL SELECT 3, 'S', student_id, first_name, last_name, username, password_hash, department_id, 0 FROM student WHERE email = ?"
+            + ") accounts ORDER BY priority";
+
+    // Verified against when no account matches, so every attempt runs one bcrypt check
+    private static final String DUMMY_HASH = PasswordUtils.hashPassword("stims-no-such-account");
+
+    private final Connection connection;
+
+    /**
+     * Constructs an IdentityDAO with the specified database connection.
+     *
+     * @param connection the database connection
+     */
+    public IdentityDAO(Connection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Authenticates a user by email or username and password.
+     *
+     * @param emailOrUsername the email or username entered at login
+     * @param plainPassword the plain-text password entered at login
+     * @return the principal of the authenticated user, or null if no account
+     * matches, the password is wrong, or an admin account has an unknown role
+     * @throws RuntimeException if a database access error occurs
+     */
+    public Principal authenticate(String emailOrUsername, String plainPassword) {
+        List<Account> accounts = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(FIND_ACCOUNT_SQL)) {
+            for (int i = 1; i <= 6; i++) {
+                ps.setString(i, emailOrUsername);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                Set<String> seen = new HashSet<>();
+                while (rs.next()) {
+                    // An account matched by both its username and its email is checked once
+                    if (seen.add(rs.getString("kind") + rs.getInt("id"))) {
+                        accounts.add(new Account(rs.getString("password_hash"), mapRowToPrincipal(rs)));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error authenticating user: " + e.getMessage(), e);
+        }
+
+        if (accounts.isEmpty()) {
+            PasswordUtils.checkPassword(plainPassword, DUMMY_HASH);
+            return null;
+        }
+        for (Account account : accounts) {
+            if (account.passwordHash == null || !PasswordUtils.checkPassword(plainPassword, account.passwordHash)) {
+                continue;
+            }
+            if (account.principal == null) {
+                logger.warn("Login refused for '{}': the admin account has an unknown role", emailOrUsername);
+                return null;
+            }
+            if (PasswordUtils.needsRehash(account.passwordHash)) {
+                rehashLater(account.principal, account.passwordHash, plainPassword);
+            }
+            return account.principal;
+        }
+        return null;
+    }
+
+    /**
+     * Stores the password again at the current target cost on the background
+     * pool, with a connection of its own. A failure is only logged; the login
+     * has already succeeded and the upgrade is tried again on the next one.
+     */
+    private static void rehashLater(Principal principal, String storedHash, String plainPassword) {
+        BackgroundTasks.execute(() -> {
+            try (Connection connection = DatabaseConnection.borrow()) {
+                if (rehash(connection, principal, storedHash, plainPassword)) {
+                    logger.info("Upgraded the password hash of '{}' to bcrypt cost {}", principal.getUsername(), PasswordUtils.getTargetCost());
+                }
+            } catch (SQLException e) {
+                logger.warn("Could not upgrade the password hash of '{}'", principal.getUsername(), e);
+            }
+        });
+    }
+
+    /**
+     * Replaces a stored hash with one at the current target cost. The row is
+     * only updated if it still holds the hash that was verified, so a password
+     * changed in the meantime is not overwritten.
+     *
+     * @param connection the database connection
+     * @param principal the authenticated user
+     * @param storedHash the hash the password was verified against
+     * @param plainPassword the verified plain-text password
+     * @return true if the hash was replaced, false if it had changed
+     * @throws SQLException if a database access error occurs
+     */
+    private static boolean rehash(Connection connection, Principal principal, String storedHash, String plainPassword) throws SQLException {
+        String sql;
+        switch (principal.getRole()) {
+            case TEACHER:
+                sql = "UPDATE teacher SET password_hash = ? WHERE teacher_id = ? AND password_hash = ?";
+                break;
+            case STUDENT:
+                sql = "UPDATE student SET password_hash = ? WHERE student_id = ? AND password_hash = ?";
+                break;
+            default:
+                sql = "UPDATE admin SET password_hash = ? WHERE admin_id = ? AND password_hash = ?";
+                break;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, PasswordUtils.hashPassword(plainPassword));
+            ps.setInt(2, principal.getId());
+            ps.setString(3, storedHash);
+            return ps.executeUpdate() > 0;
+        }
+    }
+
+    private Principal mapRowToPrincipal(ResultSet rs) throws SQLException {
+        Principal.Role role;
+        switch (rs.getString("kind")) {
+            case "T":
+                role = Principal.Role.TEACHER;
+                break;
+            case "S":
+                role = Principal.Role.STUDENT;
+                break;
+            default:
+                int roleId = rs.getInt("role_id");
+                if (roleId == Principal.SUPER_ADMIN_ROLE_ID) {
+                    role = Principal.Role.SUPER_ADMIN;
+                } else if (roleId == Principal.ADMIN_ROLE_ID) {
+                    role = Principal.Role.ADMIN;
+                } else {
+                    return null;
+                }
+                break;
+        }
+        return Principal.of(rs.getInt("id"), role, rs.getInt("department_id"),
+                rs.getString("first_name"), rs.getString("last_name"), rs.getString("username"));
+    }
+
+    /**
+     * An account matching a login: its stored hash and the principal it
+     * signs in as, or null for an admin with an unknown role.
+     */
+    private static final class Account {
+
+        private final String passwordHash;
+        private final Principal principal;
+
+        private Account(String passwordHash, Principal principal) {
+            this.passwordHash = passwordHash;
+            this.principal = principal;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.mycompany.stims.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs keyset-paginated queries for the DAOs. Instead of an OFFSET, each page
+ * continues after the sort value and ID of the previous page's last row, so
+ * every page costs the same no matter how deep the user has scrolled. Sort
+ * keys and search predicates come from the calling DAO, never from user
+ * input, which keeps the generated SQL free of injected text.
+ */
+final class KeysetPager {
+
+    private KeysetPager() {
+    }
+
+    /**
+     * Maps the current row of a result set to an object.
+     *
+     * @param <T> the type of the object
+     */
+    interface RowMapper<T> {
+
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Fetches one page.
+     *
+     * @param connection the database connection
+     * @param table the table to read
+     * @param idColumn the table's unique integer ID column, used to break ties
+     * @param sortColumns the supported sort keys mapped to non-null column
+     * expressions
+     * @param searchPredicates predicates with a single LIKE parameter, OR-ed
+     * together when the request has a filter
+     * @param request the page to fetch
+     * @param mapper maps each row
+     * @return the page and the request for the page after it
+     * @throws SQLException if a database access error occurs
+     * @throws IllegalArgumentException if the sort key is not supported
+     */
+    static <T> Page<T> fetch(Connection connection, String table, String idColumn, Map<String, String> sortColumns,
+            List<String> searchPredicates, PageRequest request, RowMapper<T> mapper) throws SQLException {
+        String sortExpression = request.getSortKey() == null ? idColumn : sortColumns.get(request.getSortKey());
+        if (sortExpression == null) {
+            throw new IllegalArgumentException("Unsupported sort key: " + request.getSortKey());
+        }
+        String direction = request.isAscending() ? "ASC" : "DESC";
+        String comparison = request.isAscending() ? ">" : "<";
+
+        List<String> conditions = new ArrayList<>();
+        if (request.getFilter() != null) {
+            conditions.add("(" + String.join(" OR ", searchPredicates) + ")");
+        }
+        if (!request.isFirst()) {
+            conditions.add("(" + sortExpression + " " + comparison + " ? OR (" + sortExpression + " = ? AND "
+                    + idColumn + " " + comparison + " ?))");
+        }
+        String sql = "SELECT *, " + sortExpression + " AS sort_value FROM " + table
+                + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY " + sortExpression + " " + direction + ", " + idColumn + " " + direction
+                + " LIMIT ?";
+
+        List<T> items = new ArrayList<>();
+        Object lastSortValue = null;
+        int lastId = 0;
+        boolean more = false;
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (request.getFilter() != null) {
+                String pattern = "%" + request.getFilter().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+                for (int i = 0; i < searchPredicates.size(); i++) {
+                    ps.setString(index++, pattern);
+                }
+            }
+            if (!request.isFirst()) {
+                ps.setObject(index++, request.getAfterSortValue());
+                ps.setObject(index++, request.getAfterSortValue());
+                ps.setInt(index++, request.getAfterId());
+            }
+            // One extra row tells whether another page follows
+            ps.setInt(index, request.getPageSize() + 1);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (items.size() == request.getPageSize()) {
+                        more = true;
+                        break;
+                    }
+                    items.add(mapper.map(rs));
+                    lastSortValue = rs.getObject("sort_value");
+                    lastId = rs.getInt(idColumn);
+                }
+            }
+        }
+        return new Page<>(items, more ? request.after(lastSortValue, lastId) : null);
+    }
+}
@@ -0,0 +1,464 @@
+package com.mycompany.stims.database;
+
+import com.mycompany.stims.model.OfferingAnalytics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Maintains `offeringanalytics`, a materialized summary with one row per
+ * course offering: enrollment count, graded count, a count per letter grade,
+ * the total of their grade points and the teacher count. Reports read the
+ * summary instead of aggregating `studentcourse`, `grade` and `teachercourse`
+ * every time.
+ *
+ * {@link StudentCourseDAO}, {@link GradeDAO} and {@link TeacherCourseDAO}
+ * add what their writes change to the rows of the offerings they write to,
+ * with one relative update per offering inside the transaction of the write,
+ * so a failed update undoes the write too. Only the summary rows are locked,
+ * not every enrollment and grade of the offering, so writers to the same
+ * offering wait for each other's commit on its row instead of deadlocking.
+ * An offering without a row yet is refreshed with a single INSERT ... SELECT
+ * over just that offering. A full rebuild runs
+ * automatically the first time the summary is read if offerings with
+ * enrollments or teachers are missing from it, and administrators can start
+ * one from the Report Management screen after changing data outside the
+ * application. Rows of deleted offerings go with them through the foreign
+ * key.
+ */
+public class OfferingAnalyticsDAO {
+
+    private static final Logger logger = LoggerFactory.getLogger(OfferingAnalyticsDAO.class);
+
+    // One count column per letter grade, in the order of GpaEngine.GRADES
+    private static final List<String> GRADE_COLUMNS;
+    private static final String SUMMARY_COLUMNS;
+    private static final String REFRESH_SQL;
+    private static final String APPLY_SQL;
+    private static final String READ_COLUMNS;
+    private static final String SUM_COLUMNS;
+
+    static {
+        List<String> gradeColumns = new ArrayList<>();
+        StringBuilder gradeCounts = new StringBuilder();
+        StringBuilder gradePoints = new StringBuilder("CASE g.grade");
+        for (String grade : GpaEngine.GRADES) {
+            gradeColumns.add("count_" + grade.toLowerCase().replace("+", "_plus").replace("-", "_minus"));
+            // The grades are constants, so they are safe to inline
+            gradeCounts.append("COALESCE(SUM(g.grade = '").append(grade).append("'), 0), ");
+            gradePoints.append(" WHEN '").append(grade).append("' THEN ").append(GpaEngine.getGradePoints(grade));
+        }
+        gradePoints.append(" ELSE 0 END");
+        GRADE_COLUMNS = Collections.unmodifiableList(gradeColumns);
+
+        List<String> columns = new ArrayList<>(List.of("enrollment_count", "graded_count"));
+        columns.addAll(GRADE_COLUMNS);
+        columns.addAll(List.of("grade_point_total", "teacher_count"));
+        READ_COLUMNS = String.join(", ", columns);
+
+        List<String> sums = new ArrayList<>();
+        List<String> updates = new ArrayList<>();
+        List<String> increments = new ArrayList<>();
+        for (String column : columns) {
+            sums.add("SUM(oa." + column + ")");
+            updates.add(column + " = VALUES(" + column + ")");
+            increments.add(column + " = " + column + " + ?");
+        }
+        SUM_COLUMNS = String.join(", ", sums);
+        SUMMARY_COLUMNS = "offering_id, " + READ_COLUMNS;
+        APPLY_SQL = "UPDATE offeringanalytics SET " + String.join(", ", increments) + " WHERE offering_id = ?";
+
+        REFRESH_SQL = "INSERT INTO offeringanalytics (" + SUMMARY_COLUMNS + ") "
+                + "SELECT co.offering_id, COUNT(sc.student_course_id), COUNT(g.grade_id), "
+                + gradeCounts
+                + "COALESCE(SUM(" + gradePoints + "), 0), "
+                + "(SELECT COUNT(*) FROM teachercourse tc WHERE tc.offering_id = co.offering_id) "
+                + "FROM courseoffering co "
+                + "LEFT JOIN studentcourse sc ON co.offering_id = sc.offering_id "
+                + "LEFT JOIN grade g ON sc.student_course_id = g.student_course_id "
+                + "%s "
+                + "GROUP BY co.offering_id "
+                + "ON DUPLICATE KEY UPDATE " + String.join(", ", updates);
+    }
+
+    // Offerings with enrollments or teachers but no summary row, e.g. data from before the table existed
+    private static final String MISSING_SQL = "SELECT COUNT(*) FROM courseoffering co "
+            + "WHERE NOT EXISTS (SELECT 1 FROM offeringanalytics oa WHERE oa.offering_id = co.offering_id) "
+            + "AND (EXISTS (SELECT 1 FROM studentcourse sc WHERE sc.offering_id = co.offering_id) "
+            + "OR EXISTS (SELECT 1 FROM teachercourse tc WHERE tc.offering_id = co.offering_id))";
+
+    // Whether the summary has been checked for missing offerings since startup
+    private static volatile boolean verified;
+
+    private final Connection connection;
+
+    /**
+     * Constructs an OfferingAnalyticsDAO with a specified database connection.
+     *
+     * @param connection the database connection to be used for operations
+     * @throws IllegalArgumentException if the connection is null
+     */
+    public OfferingAnalyticsDAO(Connection connection) {
+        if (connection == null) {
+            throw new IllegalArgumentException("Database connection cannot be null.");
+        }
+        this.connection = connection;
+    }
+
+    /**
+     * Recomputes the summary rows of some offerings from their enrollments,
+     * grades and teachers.
+     *
+     * @param offeringIds the offerings to refresh
+     * @throws SQLException if a database access error occurs
+     */
+    public void refreshOfferings(Collection<Integer> offeringIds) throws SQLException {
+        Set<Integer> ids = new LinkedHashSet<>(offeringIds);
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return;
+        }
+        String sql = String.format(REFRESH_SQL, "WHERE co.offering_id IN (" + placeholders(ids.size()) + ")");
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Integer id : ids) {
+                ps.setInt(index++, id);
+            }
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Adds changes to the summary rows with one relative update per offering,
+     * in ascending offering order. Run it in the transaction of the write
+     * that made the changes. Offerings without a summary row yet are
+     * refreshed instead, from state that already includes the write.
+     *
+     * @param changes the changes to apply
+     * @throws SQLException if a database access error occurs
+     */
+    public void apply(Changes changes) throws SQLException {
+        List<Integer> missing = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(APPLY_SQL)) {
+            for (Map.Entry<Integer, double[]> entry : changes.byOffering.entrySet()) {
+                double[] deltas = entry.getValue();
+                if (Arrays.stream(deltas).allMatch(delta -> delta == 0)) {
+                    continue;
+                }
+                for (int i = 0; i < deltas.length; i++) {
+                    if (i == Changes.GRADE_POINT_TOTAL) {
+                        ps.setDouble(i + 1, deltas[i]);
+                    } else {
+                        ps.setInt(i + 1, (int) deltas[i]);
+                    }
+                }
+                ps.setInt(deltas.length + 1, entry.getKey());
+                if (ps.executeUpdate() == 0) {
+                    missing.add(entry.getKey());
+                }
+            }
+        }
+        refreshOfferings(missing);
+    }
+
+    /**
+     * Finds the offerings that some teacher assignments belong to, locking
+     * the assignments until the transaction ends.
+     *
+     * @param teacherCourseIds the teacher assignments
+     * @return the IDs of their offerings
+     * @throws SQLException if a database access error occurs
+     */
+    public Set<Integer> findOfferingsOfTeacherCourses(Collection<Integer> teacherCourseIds) throws SQLException {
+        return findOfferings("SELECT offering_id FROM teachercourse WHERE teacher_course_id IN (%s) FOR UPDATE", teacherCourseIds);
+    }
+
+    /**
+     * Recomputes the whole summary in one transaction.
+     *
+     * @throws SQLException if a database access error occurs
+     */
+    public void rebuild() throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM offeringanalytics");
+            int rows = stmt.executeUpdate(String.format(REFRESH_SQL, ""));
+            if (autoCommit) {
+                connection.commit();
+            }
+            logger.info("Rebuilt offering analytics ({} rows affected)", rows);
+        } catch (SQLException | RuntimeException e) {
+            if (autoCommit) {
+                connection.rollback();
+            }
+            throw e;
+        } finally {
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+        verified = true;
+    }
+
+    /**
+     * Retrieves the summary of one offering.
+     *
+     * @param offeringId the ID of the offering
+     * @return the summary, or null if the offering has no summary row
+     * @throws SQLException if a database access error occurs
+     */
+    public OfferingAnalytics getOfferingAnalytics(int offeringId) throws SQLException {
+        ensureBuilt();
+        String sql = "SELECT " + READ_COLUMNS + " FROM offeringanalytics WHERE offering_id = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, offeringId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapRow(rs, 1) : null;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the summaries of all offerings of one course, added together.
+     *
+     * @param courseCode the code of the course
+     * @return the summary, or null if no offering of the course has a summary
+     * row
+     * @throws SQLException if a database access error occurs
+     */
+    public OfferingAnalytics getCourseAnalytics(String courseCode) throws SQLException {
+        ensureBuilt();
+        String sql = "SELECT " + SUM_COLUMNS + " FROM offeringanalytics oa "
+                + "JOIN courseoffering co ON oa.offering_id = co.offering_id "
+                + "JOIN course c ON co.course_id = c.course_id "
+                + "WHERE c.course_code = ? "
+                + "HAVING COUNT(*) > 0";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, courseCode);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapRow(rs, 1) : null;
+            }
+        }
+    }
+
+    /**
+     * Retrieves the summaries of several offerings with a single query.
+     *
+     * @param offeringIds the IDs of the offerings
+     * @return the summaries by offering ID; offerings without a summary row
+     * are missing
+     * @throws SQLException if a database access error occurs
+     */
+    public Map<Integer, OfferingAnalytics> getOfferingAnalytics(Collection<Integer> offeringIds) throws SQLException {
+        Map<Integer, OfferingAnalytics> analytics = new HashMap<>();
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(offeringIds));
+        ids.remove(null);
+        if (ids.isEmpty()) {
+            return analytics;
+        }
+        ensureBuilt();
+        String sql = "SELECT offering_id, " + READ_COLUMNS + " FROM offeringanalytics "
+                + "WHERE offering_id IN (" + placeholders(ids.size()) + ")";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            for (int i = 0; i < ids.size(); i++) {
+                ps.setInt(i + 1, ids.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    analytics.put(rs.getInt(1), mapRow(rs, 2));
+                }
+            }
+        }
+        return analytics;
+    }
+
+    /**
+     * Retrieves the summaries of one course for each academic year it was
+     * offered in, each the sum of that year's offerings, with a single
+     * grouped query. Comparing them shows how successive cohorts did.
+     *
+     * @param courseCode the code of the course
+     * @return the summaries by academic year, earliest first
+     * @throws SQLException if a database access error occurs
+     */
+    public Map<Integer, OfferingAnalytics> getCourseAnalyticsByAcademicYear(String courseCode) throws SQLException {
+        ensureBuilt();
+        String sql = "SELECT co.academic_year, " + SUM_COLUMNS + " FROM offeringanalytics oa "
+                + "JOIN courseoffering co ON oa.offering_id = co.offering_id "
+                + "JOIN course c ON co.course_id = c.course_id "
+                + "WHERE c.course_code = ? "
+                + "GROUP BY co.academic_year";
+        Map<Integer, OfferingAnalytics> analytics = new TreeMap<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setString(1, courseCode);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    analytics.put(rs.getInt(1), mapRow(rs, 2));
+                }
+            }
+        }
+        return analytics;
+    }
+
+    /**
+     * Retrieves the summaries of every course, each the sum of the course's
+     * offerings, with a single grouped query.
+     *
+     * @return the summaries by course ID; courses without offerings are
+     * missing
+     * @throws SQLException if a database access error occurs
+     */
+    public Map<Integer, OfferingAnalytics> getAnalyticsByCourse() throws SQLException {
+        ensureBuilt();
+        String sql = "SELECT co.course_id, " + SUM_COLUMNS + " FROM offeringanalytics oa "
+                + "JOIN courseoffering co ON oa.offering_id = co.offering_id "
+                + "GROUP BY co.course_id";
+        Map<Integer, OfferingAnalytics> analytics = new HashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                analytics.put(rs.getInt(1), mapRow(rs, 2));
+            }
+        }
+        return analytics;
+    }
+
+    /**
+     * Rebuilds the summary once per run if offerings with enrollments or
+     * teachers are missing from it.
+     */
+    private void ensureBuilt() throws SQLException {
+        if (verified) {
+            return;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(MISSING_SQL); ResultSet rs = ps.executeQuery()) {
+            if (rs.next() && rs.getInt(1) > 0) {
+                logger.info("{} offerings are missing from the analytics summary; rebuilding", rs.getInt(1));
+                rebuild();
+            }
+        }
+        verified = true;
+    }
+
+    private Set<Integer> findOfferings(String sql, Collection<Integer> ids) throws SQLException {
+        Set<Integer> offeringIds = new LinkedHashSet<>();
+        List<Integer> keys = new ArrayList<>(new LinkedHashSet<>(ids));
+        keys.remove(null);
+        if (keys.isEmpty()) {
+            return offeringIds;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(String.format(sql, placeholders(keys.size())))) {
+            for (int i = 0; i < keys.size(); i++) {
+                ps.setInt(i + 1, keys.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    offeringIds.add(rs.getInt(1));
+                }
+            }
+        }
+        return offeringIds;
+    }
+
+    /**
+     * Maps the summary columns starting at a given position to an
+     * OfferingAnalytics object.
+     */
+    private static OfferingAnalytics mapRow(ResultSet rs, int first) throws SQLException {
+        int column = first;
+        int enrollmentCount = rs.getInt(column++);
+        int gradedCount = rs.getInt(column++);
+        int[] gradeCounts = new int[GRADE_COLUMNS.size()];
+        for (int i = 0; i < gradeCounts.length; i++) {
+            gradeCounts[i] = rs.getInt(column++);
+        }
+        double gradePointTotal = rs.getDouble(column++);
+        int teacherCount = rs.getInt(column);
+        return new OfferingAnalytics(enrollmentCount, gradedCount, gradeCounts, gradePointTotal, teacherCount);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    /**
+     * Changes that writes make to the summary rows, added up per offering so
+     * each row is updated once. The changes are kept in the order of the
+     * summary columns.
+     */
+    public static final class Changes {
+
+        private static final int ENROLLMENT_COUNT = 0;
+        private static final int GRADED_COUNT = 1;
+        private static final int FIRST_GRADE_COUNT = 2;
+        private static final int GRADE_POINT_TOTAL = FIRST_GRADE_COUNT + GpaEngine.GRADES.size();
+        private static final int TEACHER_COUNT = GRADE_POINT_TOTAL + 1;
+
+        private final Map<Integer, double[]> byOffering = new TreeMap<>();
+
+        /**
+         * Records enrollments added to (positive count) or removed from
+         * (negative count) an offering. Their grades are recorded separately.
+         *
+         * @param offeringId the ID of the offering
+         * @param count the number of enrollments added
+         */
+        public void addEnrollments(int offeringId, int count) {
+            deltas(offeringId)[ENROLLMENT_COUNT] += count;
+        }
+
+        /**
+         * Records a grade added to (sign 1) or removed from (sign -1) an
+         * offering. Changing a grade is the old grade removed and the new one
+         * added. Null grades are ignored.
+         *
+         * @param offeringId the ID of the offering
+         * @param grade the letter grade, may be null
+         * @param sign 1 when the grade was added, -1 when it was removed
+         */
+        public void addGrade(int offeringId, String grade, int sign) {
+            if (grade == null) {
+                return;
+            }
+            double[] deltas = deltas(offeringId);
+            deltas[GRADED_COUNT] += sign;
+            int index = GpaEngine.GRADES.indexOf(grade);
+            if (index >= 0) {
+                deltas[FIRST_GRADE_COUNT + index] += sign;
+                deltas[GRADE_POINT_TOTAL] += sign * GpaEngine.getGradePoints(grade);
+            }
+        }
+
+        /**
+         * Records teachers assigned to (positive count) or removed from
+         * (negative count) an offering.
+         *
+         * @param offeringId the ID of the offering
+         * @param count the number of teachers added
+         */
+        public void addTeachers(int offeringId, int count) {
+            deltas(offeringId)[TEACHER_COUNT] += count;
+        }
+
+        private double[] deltas(int offeringId) {
+            return byOffering.computeIfAbsent(offeringId, id -> new double[TEACHER_COUNT + 1]);
+        }
+    }
+}
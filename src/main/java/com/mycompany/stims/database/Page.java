@@ -0,0 +1,53 @@
+package com.mycompany.stims.database;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of rows returned by a keyset-paginated DAO method.
+ *
+ * @param <T> the type of the rows
+ */
+public final class Page<T> {
+
+    private final List<T> items;
+    private final PageRequest nextRequest;
+
+    Page(List<T> items, PageRequest nextRequest) {
+        this.items = Collections.unmodifiableList(items);
+        this.nextRequest = nextRequest;
+    }
+
+    /**
+     * Returns a page without rows or a following page, used when a query
+     * fails.
+     *
+     * @param <T> the type of the rows
+     * @return an empty page
+     */
+    public static <T> Page<T> empty() {
+        return new Page<>(Collections.emptyList(), null);
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Checks whether more rows follow this page.
+     *
+     * @return true if {@link #getNextRequest()} returns a request
+     */
+    public boolean hasNext() {
+        return nextRequest != null;
+    }
+
+    /**
+     * Returns the request for the following page.
+     *
+     * @return the next request, or null if this is the last page
+     */
+    public PageRequest getNextRequest() {
+        return nextRequest;
+    }
+}
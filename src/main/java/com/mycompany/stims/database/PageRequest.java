@@ -0,0 +1,97 @@
+package com.mycompany.stims.database;
+
+/**
+ * Describes one page of a keyset-paginated query: how many rows to return,
+ * which column to sort by, an optional search term, and the position of the
+ * last row of the previous page. Requests are immutable; the request for the
+ * following page is obtained from {@link Page#getNextRequest()}.
+ */
+public final class PageRequest {
+
+    private final int pageSize;
+    private final String sortKey;
+    private final boolean ascending;
+    private final String filter;
+    private final Object afterSortValue;
+    private final int afterId;
+    private final boolean first;
+
+    private PageRequest(int pageSize, String sortKey, boolean ascending, String filter,
+            Object afterSortValue, int afterId, boolean first) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        this.pageSize = pageSize;
+        this.sortKey = sortKey;
+        this.ascending = ascending;
+        this.filter = filter == null || filter.trim().isEmpty() ? null : filter.trim();
+        this.afterSortValue = afterSortValue;
+        this.afterId = afterId;
+        this.first = first;
+    }
+
+    /**
+     * Creates a request for the first page.
+     *
+     * @param pageSize the maximum number of rows per page
+     * @param sortKey the sort key, one of those supported by the DAO method;
+     * null sorts by ID
+     * @param ascending true to sort in ascending order
+     * @param filter a search term matched against the DAO's searchable
+     * columns, or null for all rows
+     * @return the request for the first page
+     */
+    public static PageRequest first(int pageSize, String sortKey, boolean ascending, String filter) {
+        return new PageRequest(pageSize, sortKey, ascending, filter, null, 0, true);
+    }
+
+    /**
+     * Creates a request for the first page sorted by ID in ascending order.
+     *
+     * @param pageSize the maximum number of rows per page
+     * @return the request for the first page
+     */
+    public static PageRequest first(int pageSize) {
+        return first(pageSize, null, true, null);
+    }
+
+    /**
+     * Creates the request for the page following the given row.
+     */
+    PageRequest after(Object sortValue, int id) {
+        return new PageRequest(pageSize, sortKey, ascending, filter, sortValue, id, false);
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    Object getAfterSortValue() {
+        return afterSortValue;
+    }
+
+    int getAfterId() {
+        return afterId;
+    }
+
+    /**
+     * Checks whether this request is for the first page.
+     *
+     * @return true if no rows precede this page
+     */
+    public boolean isFirst() {
+        return first;
+    }
+}
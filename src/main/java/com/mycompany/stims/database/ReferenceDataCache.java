@@ -0,0 +1,190 @@
+package com.mycompany.stims.database;
+
+import com.mycompany.stims.utils.Config;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The `ReferenceDataCache` class keeps the department, program and role
+ * names in memory so DAOs, reports and table cells can resolve an ID without
+ * a query. All three tables are loaded with one query on first use and
+ * reloaded once the configured time-to-live has passed, or on demand through
+ * {@link #refresh()}, which every DAO that writes one of the tables calls
+ * after the write. Departments and programs have no such DAO yet, so rows
+ * added to them directly in the database appear once the cache expires. The
+ * maps handed out are immutable snapshots.
+ */
+public class ReferenceDataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private static final long RETRY_DELAY_MS = 30000;
+
+    private static volatile Snapshot snapshot;
+
+    private ReferenceDataCache() {
+    }
+
+    /**
+     * Returns all departments, keyed by ID in ID order.
+     *
+     * @return an immutable map of department IDs to names
+     */
+    public static Map<Integer, String> getDepartments() {
+        return current().departments;
+    }
+
+    /**
+     * Returns all programs, keyed by ID in ID order.
+     *
+     * @return an immutable map of program IDs to names
+     */
+    public static Map<Integer, String> getPrograms() {
+        return current().programs;
+    }
+
+    /**
+     * Returns all roles, keyed by ID in ID order.
+     *
+     * @return an immutable map of role IDs to names
+     */
+    public static Map<Integer, String> getRoles() {
+        return current().roles;
+    }
+
+    /**
+     * Retrieves the name of a department.
+     *
+     * @param departmentId the ID of the department
+     * @return the department name, or null if not found
+     */
+    public static String getDepartmentName(int departmentId) {
+        return getDepartments().get(departmentId);
+    }
+
+    /**
+     * Retrieves the name of a program.
+     *
+     * @param programId the ID of the program
+     * @return the program name, or null if not found
+     */
+    public static String getProgramName(int programId) {
+        return getPrograms().get(programId);
+    }
+
+    /**
+     * Retrieves the name of a role.
+     *
+     * @param roleId the ID of the role
+     * @return the role name, or null if not found
+     */
+    public static String getRoleName(int roleId) {
+        return getRoles().get(roleId);
+    }
+
+    /**
+     * Reloads departments, programs and roles from the database. If the reload
+     * fails, for whatever reason, the previous data is kept and the reload is
+     * retried after 30 seconds.
+     */
+    public static synchronized void refresh() {
+        Snapshot loaded;
+        try {
+            loaded = load();
+        } catch (RuntimeException e) {
+            logger.error("Error loading reference data", e);
+            loaded = null;
+        }
+        if (loaded != null) {
+            snapshot = loaded;
+        } else {
+            Snapshot previous = snapshot != null ? snapshot : Snapshot.EMPTY;
+            snapshot = previous.withExpiry(System.currentTimeMillis() + RETRY_DELAY_MS);
+        }
+    }
+
+    private static Snapshot current() {
+        Snapshot data = snapshot;
+        if (data == null || data.isExpired()) {
+            synchronized (ReferenceDataCache.class) {
+                data = snapshot;
+                if (data == null || data.isExpired()) {
+                    refresh();
+                    data = snapshot;
+                }
+            }
+        }
+        return data;
+    }
+
+    private static Snapshot load() {
+        String sql = "SELECT 'D' AS kind, department_id AS id, department_name AS name FROM department "
+                + "UNION ALL SELECT 'P', program_id, program_name FROM program "
+                + "UNION ALL SELECT 'R', role_id, role_name FROM role "
+                + "ORDER BY kind, id";
+        Map<Integer, String> departments = new LinkedHashMap<>();
+        Map<Integer, String> programs = new LinkedHashMap<>();
+        Map<Integer, String> roles = new LinkedHashMap<>();
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            if (connection == null) {
+                logger.error("Unable to load reference data: no database connection");
+                return null;
+            }
+            try (PreparedStatement ps = connection.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    switch (rs.getString("kind")) {
+                        case "D":
+                            departments.put(rs.getInt("id"), rs.getString("name"));
+                            break;
+                        case "P":
+                            programs.put(rs.getInt("id"), rs.getString("name"));
+                            break;
+                        default:
+                            roles.put(rs.getInt("id"), rs.getString("name"));
+                            break;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error loading reference data", e);
+            return null;
+        }
+        logger.debug("Loaded {} departments, {} programs and {} roles", departments.size(), programs.size(), roles.size());
+        return new Snapshot(departments, programs, roles, System.currentTimeMillis() + Config.getReferenceDataTtlMillis());
+    }
+
+    /**
+     * An immutable copy of the reference tables with its expiry time.
+     */
+    private static final class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of(), 0);
+
+        private final Map<Integer, String> departments;
+        private final Map<Integer, String> programs;
+        private final Map<Integer, String> roles;
+        private final long expiresAt;
+
+        private Snapshot(Map<Integer, String> departments, Map<Integer, String> programs, Map<Integer, String> roles, long expiresAt) {
+            this.departments = Collections.unmodifiableMap(departments);
+            this.programs = Collections.unmodifiableMap(programs);
+            this.roles = Collections.unmodifiableMap(roles);
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+
+        private Snapshot withExpiry(long time) {
+            return new Snapshot(departments, programs, roles, time);
+        }
+    }
+}
@@ -34,6 +34,7 @@ public class RoleDAO {
             pstmt.setInt(1, role.getRoleId());
             pstmt.setString(2, role.getRoleName());
             pstmt.executeUpdate();
+            ReferenceDataCache.refresh(); // Show the new role without waiting for the cache to expire
         } catch (SQLException e) {
             System.err.println("Error adding role: " + e.getMessage());
         }
@@ -6,8 +6,6 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.List;
@@ -18,29 +16,22 @@ import java.util.ArrayList;
  * Data Access Object (DAO) class for managing student academic records in the
  * database. Provides methods to calculate Semester Grade Point Average (SGPA),
  * Cumulative Grade Point Average (CGPA), and update or retrieve academic
- * records for students.
+ * records for students. Record updates are delegated to {@link GpaEngine},
+ * which maintains running credit and quality-point totals.
  */
 public class StudentAcademicRecordsDAO {
 
     private static final Logger logger = LoggerFactory.getLogger(StudentAcademicRecordsDAO.class);
-    private final Connection connection;
 
-    // Grade conversion table
-    private static final Map<String, Double> GRADE_POINTS = new HashMap<>();
-
-    static {
-        GRADE_POINTS.put("A+", 4.00);
-        GRADE_POINTS.put("A", 4.00);
-        GRADE_POINTS.put("A-", 3.70);
-        GRADE_POINTS.put("B+", 3.50);
-        GRADE_POINTS.put("B", 3.00);
-        GRADE_POINTS.put("B-", 2.70);
-        GRADE_POINTS.put("C+", 2.50);
-        GRADE_POINTS.put("C", 2.00);
-        GRADE_POINTS.put("C-", 1.75);
-        GRADE_POINTS.put("D", 1.00);
-        GRADE_POINTS.put("F", 0.00);
-    }
+    // Relies on unique_semester_record (student_id, academic_year, year, semester)
+    static final String UPSERT_RECORD_SQL = "INSERT INTO studentacademicrecord "
+            + "(student_id, academic_year, year, semester, total_credits, quality_points, sgpa, cgpa) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE total_credits = VALUES(total_credits), quality_points = VALUES(quality_points), "
+            + "sgpa = VALUES(sgpa), cgpa = VALUES(cgpa)";
+
+    private final Connection connection;
+    private final GpaEngine gpaEngine;
 
     /**
      * Constructs a StudentAcademicRecordsDAO with a specified database
@@ -54,6 +45,7 @@ public class StudentAcademicRecordsDAO {
             throw new IllegalArgumentException("Database connection cannot be null.");
         }
         this.connection = connection;
+        this.gpaEngine = new GpaEngine(connection);
     }
 
     /**
@@ -92,9 +84,12 @@ public class StudentAcademicRecordsDAO {
             while (rs.next()) {
                 int credits = rs.getInt("credits");
                 String grade = rs.getString("grade");
+                if (grade == null) {
+                    continue; // Ungraded courses do not count until graded
+                }
 
-                // Treat missing or invalid grades as 0.0
-                double gradePoints = GRADE_POINTS.getOrDefault(grade, 0.0);
+                // Treat invalid grades as 0.0
+                double gradePoints = GpaEngine.getGradePoints(grade);
                 totalGradePoints += gradePoints * credits;
                 totalCredits += credits;
             }
@@ -109,13 +104,20 @@ public class StudentAcademicRecordsDAO {
     }
 
     /**
-     * Calculates the Cumulative Grade Point Average (CGPA) for a student.
+     * Calculates the Cumulative Grade Point Average (CGPA) for a student. The
+     * stored running totals are used when available; otherwise the student's
+     * full course history is scanned.
      *
      * @param studentId the ID of the student
      * @return the calculated CGPA, rounded to 2 decimal places
      * @throws SQLException if a database access error occurs
      */
     public double calculateCGPA(int studentId) throws SQLException {
+        Double storedCgpa = gpaEngine.getStoredCGPA(studentId);
+        if (storedCgpa != null) {
+            return storedCgpa;
+        }
+
         String sql = "SELECT c.credits, g.grade FROM studentcourse sc "
                 + "LEFT JOIN grade g ON sc.student_course_id = g.student_course_id "
                 + "JOIN courseoffering co ON sc.offering_id = co.offering_id "
@@ -133,9 +135,12 @@ public class StudentAcademicRecordsDAO {
             while (rs.next()) {
                 int credits = rs.getInt("credits");
                 String grade = rs.getString("grade");
+                if (grade == null) {
+                    continue; // Ungraded courses do not count until graded
+                }
 
-                // Treat missing or invalid grades as 0.0
-                double gradePoints = GRADE_POINTS.getOrDefault(grade, 0.0);
+                // Treat invalid grades as 0.0
+                double gradePoints = GpaEngine.getGradePoints(grade);
                 totalGradePoints += gradePoints * credits;
                 totalCredits += credits;
             }
@@ -150,7 +155,10 @@ public class StudentAcademicRecordsDAO {
     }
 
     /**
-     * Updates the student's academic record for a specific semester.
+     * Updates the student's academic record for a specific semester. The
+     * student's history is read once, the running totals are rebuilt, and the
+     * semester record is written with a single upsert together with the CGPA
+     * of every other semester.
      *
      * @param studentId the ID of the student
      * @param academicYear the academic year
@@ -163,123 +171,36 @@ public class StudentAcademicRecordsDAO {
         validateAcademicYear(academicYear);
         validateYear(year);
 
-        int totalCredits = getTotalCreditsForYearAndSemester(studentId, academicYear, year, semester);
-
-        // Skip if there are no courses (totalCredits = 0)
-        if (totalCredits == 0) {
-            logger.debug("No courses found for studentId: {}, academicYear: {}, year: {}, semester: {}. Skipping record update.",
-                    studentId, academicYear, year, semester);
-            return;
-        }
-
-        double sgpa = calculateSGPA(studentId, academicYear, year, semester);
-        double cgpa = calculateCGPA(studentId); // Calculate CGPA for the student
-
-        // Check if a record already exists
-        String checkSql = "SELECT COUNT(*) FROM studentacademicrecord WHERE student_id = ? AND academic_year = ? AND year = ? AND semester = ?";
-        try (PreparedStatement psCheck = connection.prepareStatement(checkSql)) {
-            psCheck.setInt(1, studentId);
-            psCheck.setInt(2, academicYear);
-            psCheck.setInt(3, year);
-            psCheck.setInt(4, semester);
-
-            ResultSet rs = psCheck.executeQuery();
-            if (rs.next() && rs.getInt(1) > 0) {
-                // Record already exists, update it
-                String updateSql = "UPDATE studentacademicrecord SET total_credits = ?, sgpa = ?, cgpa = ? "
-                        + "WHERE student_id = ? AND academic_year = ? AND year = ? AND semester = ?";
-                try (PreparedStatement psUpdate = connection.prepareStatement(updateSql)) {
-                    psUpdate.setInt(1, totalCredits);
-                    psUpdate.setDouble(2, sgpa);
-                    psUpdate.setDouble(3, cgpa);
-                    psUpdate.setInt(4, studentId);
-                    psUpdate.setInt(5, academicYear);
-                    psUpdate.setInt(6, year);
-                    psUpdate.setInt(7, semester);
-
-                    psUpdate.executeUpdate();
-                    logger.info("Updated academic record for studentId: {}, academicYear: {}, year: {}, semester: {}",
-                            studentId, academicYear, year, semester);
-                }
+        try {
+            if (gpaEngine.recalculateStudent(studentId, academicYear, year, semester)) {
+                logger.info("Updated academic record for studentId: {}, academicYear: {}, year: {}, semester: {}",
+                        studentId, academicYear, year, semester);
             } else {
-                // Record does not exist, insert a new one
-                String insertSql = "INSERT INTO studentacademicrecord (student_id, academic_year, year, semester, total_credits, sgpa, cgpa) "
-                        + "VALUES (?, ?, ?, ?, ?, ?, ?)";
-                try (PreparedStatement psInsert = connection.prepareStatement(insertSql)) {
-                    psInsert.setInt(1, studentId);
-                    psInsert.setInt(2, academicYear);
-                    psInsert.setInt(3, year);
-                    psInsert.setInt(4, semester);
-                    psInsert.setInt(5, totalCredits);
-                    psInsert.setDouble(6, sgpa);
-                    psInsert.setDouble(7, cgpa); // Insert CGPA
-
-                    psInsert.executeUpdate();
-                    logger.info("Inserted new academic record for studentId: {}, academicYear: {}, year: {}, semester: {}",
-                            studentId, academicYear, year, semester);
-                }
+                // Skip if there are no graded courses (totalCredits = 0)
+                logger.debug("No graded courses found for studentId: {}, academicYear: {}, year: {}, semester: {}. Skipping record update.",
+                        studentId, academicYear, year, semester);
             }
         } catch (SQLException e) {
             logger.error("Error updating academic record for studentId: {}", studentId, e);
             throw e;
         }
-
-        // Update CGPA for all semesters of the student
-        updateAllSemestersCGPA(studentId);
-    }
-
-    /**
-     * Updates the CGPA for all semesters of a student.
-     *
-     * @param studentId the ID of the student
-     * @throws SQLException if a database access error occurs
-     */
-    private void updateAllSemestersCGPA(int studentId) throws SQLException {
-        double cgpa = calculateCGPA(studentId); // Calculate the latest CGPA
-
-        // Update CGPA for all semesters of the student
-        String updateSql = "UPDATE studentacademicrecord SET cgpa = ? WHERE student_id = ?";
-        try (PreparedStatement psUpdate = connection.prepareStatement(updateSql)) {
-            psUpdate.setDouble(1, cgpa);
-            psUpdate.setInt(2, studentId);
-
-            int rowsAffected = psUpdate.executeUpdate();
-            logger.info("Updated CGPA for all semesters of studentId: {}. Rows affected: {}", studentId, rowsAffected);
-        }
     }
 
     /**
-     * Gets the total credits for a student in a specific academic year, year,
-     * and semester.
-     *
-     * @param studentId the ID of the student
-     * @param academicYear the academic year
-     * @param year the year of study (e.g., 1 for "Year 1")
-     * @param semester the semester (e.g., 1 for "Semester 1")
-     * @return the total credits for the specified academic year, year, and
-     * semester
-     * @throws SQLException if a database access error occurs
+     * Binds the parameters of {@link #UPSERT_RECORD_SQL}. Records are only
+     * written through {@link GpaEngine} and {@link TermGpaRecalculator}, which
+     * keep the running totals in step with them.
      */
-    private int getTotalCreditsForYearAndSemester(int studentId, int academicYear, int year, int semester) throws SQLException {
-        String sql = "SELECT SUM(c.credits) AS total_credits FROM studentcourse sc "
-                + "JOIN courseoffering co ON sc.offering_id = co.offering_id "
-                + "JOIN course c ON co.course_id = c.course_id "
-                + "WHERE sc.student_id = ? AND co.academic_year = ? AND co.year = ? AND co.semester = ?";
-
-        try (PreparedStatement ps = connection.prepareStatement(sql)) {
-            ps.setInt(1, studentId);
-            ps.setInt(2, academicYear);
-            ps.setInt(3, year);
-            ps.setInt(4, semester);
-
-            ResultSet rs = ps.executeQuery();
-
-            if (rs.next()) {
-                return rs.getInt("total_credits");
-            } else {
-                return 0;
-            }
-        }
+    static void bindRecord(PreparedStatement ps, int studentId, int academicYear, int year, int semester,
+            int totalCredits, double qualityPoints, double sgpa, double cgpa) throws SQLException {
+        ps.setInt(1, studentId);
+        ps.setInt(2, academicYear);
+        ps.setInt(3, year);
+        ps.setInt(4, semester);
+        ps.setInt(5, totalCredits);
+        ps.setDouble(6, qualityPoints);
+        ps.setDouble(7, sgpa);
+        ps.setDouble(8, cgpa);
     }
 
     /**
@@ -329,6 +250,7 @@ public class StudentAcademicRecordsDAO {
                         rs.getDouble("sgpa"),
                         rs.getDouble("cgpa")
                 );
+                record.setQualityPoints(rs.getDouble("quality_points"));
                 records.add(record);
             }
         }
@@ -4,18 +4,38 @@ import com.mycompany.stims.model.StudentCourse;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * The `StudentCourseDAO` class provides data access operations for the
  * `StudentCourse` entity. It allows for enrolling students in courses,
  * retrieving student-course records, updating enrollments, and deleting
  * enrollments. This class interacts with the database using a provided
- * `Connection` object.
+ * `Connection` object. A changed enrollment records its students for
+ * {@link GradeChangeQueue} in the same transaction as the write, and every
+ * write adds what it changed to the offering summary through
+ * {@link OfferingAnalyticsDAO} in that transaction too.
+ * Adding or removing an enrollment leaves GPA totals alone: only graded
+ * courses count towards them, new enrollments have no grade and graded ones
+ * cannot be deleted.
  */
 public class StudentCourseDAO {
 
     private Connection connection;
+    private GpaEngine gpaEngine;
+    private OfferingAnalyticsDAO analytics;
+
+    // Sort keys accepted by getStudentCoursesPage, mapped to non-null column expressions
+    private static final Map<String, String> STUDENT_COURSE_SORT_COLUMNS = Map.of(
+            "studentId", "student_id",
+            "offeringId", "offering_id",
+            "enrollmentDate", "enrollment_date");
+    private static final List<String> STUDENT_COURSE_SEARCH_PREDICATES = List.of(
+            "student_id IN (SELECT student_id FROM Student WHERE studentId_No LIKE ?)",
+            "CAST(offering_id AS CHAR) LIKE ?");
 
     /**
      * Constructs a `StudentCourseDAO` object with the specified database
@@ -26,6 +46,10 @@ public class StudentCourseDAO {
      */
     public StudentCourseDAO(Connection connection) {
         this.connection = connection;
+        if (connection != null) {
+            this.gpaEngine = new GpaEngine(connection);
+            this.analytics = new OfferingAnalyticsDAO(connection);
+        }
     }
 
     /**
@@ -36,16 +60,56 @@ public class StudentCourseDAO {
      * ID, offering ID, and enrollment date.
      */
     public void addStudentCourse(StudentCourse studentCourse) {
+        addStudentCourses(List.of(studentCourse));
+    }
+
+    /**
+     * Enrolls several students at once: the records are inserted as one batch
+     * inside a single transaction, together with one summary update per
+     * offering.
+     *
+     * @param studentCourses The `StudentCourse` objects to add; each receives
+     * its generated ID.
+     * @return `true` if every enrollment was added; on failure none are.
+     */
+    public boolean addStudentCourses(List<StudentCourse> studentCourses) {
+        if (studentCourses.isEmpty()) {
+            return true;
+        }
         String sql = "INSERT INTO StudentCourse (student_id, offering_id, enrollment_date) "
                 + "VALUES (?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, studentCourse.getStudentId());
-            pstmt.setInt(2, studentCourse.getOfferingId());
-            pstmt.setDate(3, studentCourse.getEnrollmentDate());
-            pstmt.executeUpdate();
+        try {
+            // The enrollments and the offering summaries are committed together
+            gpaEngine.inTransaction(() -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                    for (StudentCourse studentCourse : studentCourses) {
+                        pstmt.setInt(1, studentCourse.getStudentId());
+                        pstmt.setInt(2, studentCourse.getOfferingId());
+                        pstmt.setDate(3, studentCourse.getEnrollmentDate());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+
+                    try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                        for (StudentCourse studentCourse : studentCourses) {
+                            if (keys.next()) {
+                                studentCourse.setStudentCourseId(keys.getInt(1));
+                            }
+                        }
+                    }
+                }
+
+                OfferingAnalyticsDAO.Changes changes = new OfferingAnalyticsDAO.Changes();
+                for (StudentCourse studentCourse : studentCourses) {
+                    changes.addEnrollments(studentCourse.getOfferingId(), 1);
+                }
+                analytics.apply(changes);
+            });
         } catch (SQLException e) {
-            System.err.println("Error adding student course: " + e.getMessage());
+            System.err.println("Error adding student courses: " + e.getMessage());
+            return false;
         }
+        return true;
     }
 
     /**
@@ -88,14 +152,7 @@ public class StudentCourseDAO {
         String sql = "SELECT * FROM StudentCourse";
         try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                studentCourses.add(new StudentCourse(
-                        rs.getInt("student_course_id"),
-                        rs.getInt("student_id"),
-                        rs.getInt("offering_id"),
-                        rs.getDate("enrollment_date"),
-                        rs.getTimestamp("created_at"),
-                        rs.getTimestamp("updated_at")
-                ));
+                studentCourses.add(mapRowToStudentCourse(rs));
             }
         } catch (SQLException e) {
             System.err.println("Error retrieving student courses: " + e.getMessage());
@@ -103,6 +160,25 @@ public class StudentCourseDAO {
         return studentCourses;
     }
 
+    /**
+     * Retrieves one page of `StudentCourse` records. Sort keys: studentId,
+     * offeringId, enrollmentDate; the filter matches the student's ID number
+     * or the offering ID.
+     *
+     * @param request the page to retrieve
+     * @return the records of the page and the request for the next page, or an
+     * empty page if an error occurs
+     */
+    public Page<StudentCourse> getStudentCoursesPage(PageRequest request) {
+        try {
+            return KeysetPager.fetch(connection, "StudentCourse", "student_course_id", STUDENT_COURSE_SORT_COLUMNS,
+                    STUDENT_COURSE_SEARCH_PREDICATES, request, this::mapRowToStudentCourse);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving student courses: " + e.getMessage());
+            return Page.empty();
+        }
+    }
+
     /**
      * Updates an existing `StudentCourse` record in the database.
      *
@@ -112,15 +188,42 @@ public class StudentCourseDAO {
     public void updateStudentCourse(StudentCourse studentCourse) {
         String sql = "UPDATE StudentCourse SET student_id = ?, offering_id = ?, enrollment_date = ? "
                 + "WHERE student_course_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, studentCourse.getStudentId());
-            pstmt.setInt(2, studentCourse.getOfferingId());
-            pstmt.setDate(3, studentCourse.getEnrollmentDate());
-            pstmt.setInt(4, studentCourse.getStudentCourseId());
-            pstmt.executeUpdate();
+        try {
+            gpaEngine.inTransaction(() -> {
+                // Locks the enrollment, so the offering and grade read here are the ones the update replaces
+                GpaEngine.GradeContext before = gpaEngine.lookup(studentCourse.getStudentCourseId());
+                boolean updated;
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setInt(1, studentCourse.getStudentId());
+                    pstmt.setInt(2, studentCourse.getOfferingId());
+                    pstmt.setDate(3, studentCourse.getEnrollmentDate());
+                    pstmt.setInt(4, studentCourse.getStudentCourseId());
+                    updated = pstmt.executeUpdate() > 0;
+                }
+
+                // The enrollment and its grade may move to another offering
+                OfferingAnalyticsDAO.Changes changes = new OfferingAnalyticsDAO.Changes();
+                if (updated && before != null && before.getOfferingId() != studentCourse.getOfferingId()) {
+                    changes.addEnrollments(before.getOfferingId(), -1);
+                    changes.addGrade(before.getOfferingId(), before.getGrade(), -1);
+                    changes.addEnrollments(studentCourse.getOfferingId(), 1);
+                    changes.addGrade(studentCourse.getOfferingId(), before.getGrade(), 1);
+                }
+
+                // The enrollment may have moved term or student; both students are rebuilt after the commit
+                Set<Integer> studentIds = new HashSet<>();
+                studentIds.add(studentCourse.getStudentId());
+                if (before != null) {
+                    studentIds.add(before.getStudentId());
+                }
+                GradeChangeQueue.markPending(connection, studentIds);
+                analytics.apply(changes);
+            });
         } catch (SQLException e) {
             System.err.println("Error updating student course: " + e.getMessage());
+            return;
         }
+        GradeChangeQueue.publish();
     }
 
     /**
@@ -135,26 +238,59 @@ public class StudentCourseDAO {
         // Check if the student-course record has an associated grade
         String checkGradeSql = "SELECT COUNT(*) FROM grade WHERE student_course_id = ?";
         String deleteStudentCourseSql = "DELETE FROM studentcourse WHERE student_course_id = ?";
+        boolean[] deleted = new boolean[1];
 
-        try (PreparedStatement checkGradeStmt = connection.prepareStatement(checkGradeSql); PreparedStatement deleteStudentCourseStmt = connection.prepareStatement(deleteStudentCourseSql)) {
-
-            // Step 1: Check if the student-course record has an associated grade
-            checkGradeStmt.setInt(1, studentCourseId);
-            ResultSet gradeResult = checkGradeStmt.executeQuery();
-            if (gradeResult.next() && gradeResult.getInt(1) > 0) {
-                // Student-course record has an associated grade, so deletion is not allowed
-                return false;
-            }
+        try {
+            gpaEngine.inTransaction(() -> {
+                // Lock the enrollment first, so no grade can be added between the check and the delete
+                GpaEngine.GradeContext context = gpaEngine.lookup(studentCourseId);
 
-            // Step 2: If no associated grade, proceed with deletion
-            deleteStudentCourseStmt.setInt(1, studentCourseId);
-            int rowsDeleted = deleteStudentCourseStmt.executeUpdate();
+                // Step 1: Check if the student-course record has an associated grade
+                try (PreparedStatement checkGradeStmt = connection.prepareStatement(checkGradeSql)) {
+                    checkGradeStmt.setInt(1, studentCourseId);
+                    try (ResultSet gradeResult = checkGradeStmt.executeQuery()) {
+                        if (gradeResult.next() && gradeResult.getInt(1) > 0) {
+                            // Student-course record has an associated grade, so deletion is not allowed
+                            return;
+                        }
+                    }
+                }
 
-            // Return true if the deletion was successful
-            return rowsDeleted > 0;
+                // Step 2: If no associated grade, proceed with deletion
+                try (PreparedStatement deleteStudentCourseStmt = connection.prepareStatement(deleteStudentCourseSql)) {
+                    deleteStudentCourseStmt.setInt(1, studentCourseId);
+                    deleted[0] = deleteStudentCourseStmt.executeUpdate() > 0;
+                }
+                if (deleted[0] && context != null) {
+                    OfferingAnalyticsDAO.Changes changes = new OfferingAnalyticsDAO.Changes();
+                    changes.addEnrollments(context.getOfferingId(), -1);
+                    analytics.apply(changes);
+                }
+            });
         } catch (SQLException e) {
             System.err.println("Error deleting student course: " + e.getMessage());
             return false;
         }
+
+        // Return true if the deletion was successful
+        return deleted[0];
+    }
+
+    /**
+     * Maps the current row of a result set to a `StudentCourse` object.
+     *
+     * @param rs The result set positioned at a `StudentCourse` row.
+     * @return The mapped `StudentCourse` object.
+     * @throws SQLException If a database access error occurs.
+     */
+    private StudentCourse mapRowToStudentCourse(ResultSet rs) throws SQLException {
+        return new StudentCourse(
+                rs.getInt("student_course_id"),
+                rs.getInt("student_id"),
+                rs.getInt("offering_id"),
+                rs.getDate("enrollment_date"),
+                rs.getTimestamp("created_at"),
+                rs.getTimestamp("updated_at")
+        );
     }
 }
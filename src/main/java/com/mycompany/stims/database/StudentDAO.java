@@ -7,7 +7,13 @@ import java.security.SecureRandom;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  *
@@ -17,6 +23,18 @@ public class StudentDAO {
 
     private final Connection connection;
 
+    // Sort keys accepted by getStudentsPage, mapped to non-null column expressions
+    private static final Map<String, String> STUDENT_SORT_COLUMNS = Map.of(
+            "studentIdNo", "COALESCE(studentId_No, '')",
+            "firstName", "first_name",
+            "lastName", "last_name",
+            "enrollmentDate", "enrollment_date");
+    private static final List<String> STUDENT_SEARCH_PREDICATES = List.of(
+            "studentId_No LIKE ?", "first_name LIKE ?", "last_name LIKE ?");
+    private static final String INSERT_STUDENT_SQL = "INSERT INTO Student (studentId_No, username, password_hash, first_name, middle_name, last_name, email, phone_number, "
+            + "address, date_of_birth, program_id, department_id, sex, enrollment_date, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
     /**
      *
      * @param connection
@@ -27,6 +45,16 @@ public class StudentDAO {
 
     // Generate studentIdNo based on program type and year
     private String generateStudentIdNo(int programId) {
+        String prefix = getStudentIdNoPrefix(programId);
+        try {
+            return formatStudentIdNo(prefix, IdAllocator.allocateNumbers(prefix, 1, "Student", "studentId_No"));
+        } catch (SQLException e) {
+            throw new RuntimeException("Error generating student ID: " + e.getMessage(), e);
+        }
+    }
+
+    // Prefix of the ID numbers of a program's students admitted this year, e.g. ID/UGR/25/
+    private String getStudentIdNoPrefix(int programId) {
         String programName = getProgramNameById(programId);
         String prefix;
 
@@ -39,10 +67,11 @@ public class StudentDAO {
         }
 
         String yearSuffix = String.valueOf(LocalDate.now().getYear()).substring(2);
-        String fullPrefix = prefix + yearSuffix + "/";
-        int count = getCountOfStudentsWithProgram(fullPrefix);
+        return prefix + yearSuffix + "/";
+    }
 
-        return fullPrefix + String.format("%03d", count + 1);
+    private static String formatStudentIdNo(String prefix, int number) {
+        return prefix + String.format("%03d", number);
     }
 
     //Get program name from database
@@ -53,32 +82,11 @@ public class StudentDAO {
      * @return
      */
     public String getProgramNameById(int programId) {
-        String sql = "SELECT program_name FROM Program WHERE program_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, programId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getString("program_name");
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error fetching program name: " + e.getMessage(), e);
-        }
-        throw new IllegalArgumentException("Invalid program ID: " + programId);
-    }
-
-    //Counts the number of Students in that Program
-    private int getCountOfStudentsWithProgram(String prefix) {
-        String sql = "SELECT COUNT(*) AS count FROM Student WHERE studentId_No LIKE ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, prefix + "%");
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("count");
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error counting students: " + e.getMessage(), e);
+        String programName = ReferenceDataCache.getProgramName(programId);
+        if (programName == null) {
+            throw new IllegalArgumentException("Invalid program ID: " + programId);
         }
-        return 0;
+        return programName;
     }
 
     // Generate a unique username
@@ -88,30 +96,11 @@ public class StudentDAO {
         }
 
         String baseUsername = firstName.toLowerCase() + "." + lastName.toLowerCase();
-        String username = baseUsername;
-        int count = 1;
-
-        // Check if the username already exists
-        while (usernameExists(username)) {
-            username = baseUsername + count; // Append the counter
-            count++;
-        }
-        return username;
-    }
-
-    // Check if a username already exists
-    private boolean usernameExists(String username) {
-        String sql = "SELECT COUNT(*) AS count FROM Student WHERE username = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
-            }
+        try {
+            return IdAllocator.allocateUsername(baseUsername, "Student");
         } catch (SQLException e) {
-            throw new RuntimeException("Error checking username: " + e.getMessage(), e);
+            throw new RuntimeException("Error generating username: " + e.getMessage(), e);
         }
-        return false;
     }
 
     // Generate a temporary password
@@ -135,45 +124,132 @@ public class StudentDAO {
      * @return
      */
     public String addStudent(Student student) {
-        // Generate a username if not provided
-        if (student.getUsername() == null || student.getUsername().isEmpty()) {
-            String username = generateUsername(student.getFirstName(), student.getLastName());
-            student.setUsername(username);
-        }
-
         // Generate a temporary password
         String temporaryPassword = generateTemporaryPassword();
-        student.setPasswordHash(temporaryPassword);
 
         // Hash the temporary password
         String hashedPassword = PasswordUtils.hashPassword(temporaryPassword);
-        student.setPasswordHash(hashedPassword);
 
-        // Generate a student ID No
-        String studentIdNo = generateStudentIdNo(student.getProgramId());
+        try {
+            insertStudent(student, hashedPassword, generateStudentIdNo(student.getProgramId()));
+        } catch (SQLException e) {
+            throw new RuntimeException("Error adding student: " + e.getMessage(), e);
+        }
+
+        System.out.println("Temporary Password: " + temporaryPassword); // Log the temporary password
+        return temporaryPassword; // Return the temporary password
+    }
+
+    /**
+     * Adds many students at once, such as a whole intake. The temporary
+     * passwords are hashed in parallel, ID numbers and usernames are reserved
+     * in blocks, and the students are inserted with one batched statement in
+     * one transaction, so either all of them are added or none.
+     *
+     * @param students the students to add; their usernames, ID numbers and
+     * generated student IDs are filled in
+     * @return the temporary passwords, in the same order as the students
+     * @throws RuntimeException if a student could not be added
+     */
+    public List<String> addStudents(List<Student> students) {
+        List<String> temporaryPasswords = new ArrayList<>(students.size());
+        for (int i = 0; i < students.size(); i++) {
+            temporaryPasswords.add(generateTemporaryPassword());
+        }
+        List<String> hashedPasswords = PasswordUtils.hashPasswords(temporaryPasswords);
+        for (int i = 0; i < students.size(); i++) {
+            students.get(i).setPasswordHash(hashedPasswords.get(i));
+        }
+
+        try {
+            allocateStudentIdNos(students);
+            allocateUsernames(students);
+
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                insertStudents(students);
+                if (autoCommit) {
+                    connection.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (autoCommit) {
+                    connection.rollback();
+                }
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error adding students: " + e.getMessage(), e);
+        }
+        return temporaryPasswords;
+    }
+
+    // Reserve one block of ID numbers per prefix instead of one number per student
+    private void allocateStudentIdNos(List<Student> students) throws SQLException {
+        Map<String, List<Student>> byPrefix = new LinkedHashMap<>();
+        for (Student student : students) {
+            byPrefix.computeIfAbsent(getStudentIdNoPrefix(student.getProgramId()), prefix -> new ArrayList<>()).add(student);
+        }
+        for (Map.Entry<String, List<Student>> entry : byPrefix.entrySet()) {
+            int number = IdAllocator.allocateNumbers(entry.getKey(), entry.getValue().size(), "Student", "studentId_No");
+            for (Student student : entry.getValue()) {
+                student.setStudentIdNo(formatStudentIdNo(entry.getKey(), number++));
+            }
+        }
+    }
+
+    // Allocate the usernames of the students that have none with one reservation per distinct name
+    private void allocateUsernames(List<Student> students) throws SQLException {
+        List<Student> unnamed = new ArrayList<>();
+        List<String> bases = new ArrayList<>();
+        for (Student student : students) {
+            if (student.getUsername() == null || student.getUsername().isEmpty()) {
+                unnamed.add(student);
+                bases.add(student.getFirstName().toLowerCase() + "." + student.getLastName().toLowerCase());
+            }
+        }
+        if (unnamed.isEmpty()) {
+            return;
+        }
+        List<String> usernames = IdAllocator.allocateUsernames(bases, "Student");
+        for (int i = 0; i < unnamed.size(); i++) {
+            unnamed.get(i).setUsername(usernames.get(i));
+        }
+    }
+
+    // Insert students whose generated fields are filled in with one batched statement
+    private void insertStudents(List<Student> students) throws SQLException {
+        try (PreparedStatement pstmt = connection.prepareStatement(INSERT_STUDENT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (Student student : students) {
+                bindStudent(pstmt, student);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+
+            // Keys come back in insertion order
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                for (int i = 0; i < students.size() && keys.next(); i++) {
+                    students.get(i).setStudentId(keys.getInt(1));
+                }
+            }
+        }
+    }
+
+    // Fill in the generated fields of a student and insert it
+    private void insertStudent(Student student, String hashedPassword, String studentIdNo) throws SQLException {
+        // Generate a username if not provided
+        if (student.getUsername() == null || student.getUsername().isEmpty()) {
+            String username = generateUsername(student.getFirstName(), student.getLastName());
+            student.setUsername(username);
+        }
+        student.setPasswordHash(hashedPassword);
         student.setStudentIdNo(studentIdNo);
 
         // Insert the student into the database
-        String sql = "INSERT INTO Student (studentId_No, username, password_hash, first_name, middle_name, last_name, email, phone_number, "
-                + "address, date_of_birth, program_id, department_id, sex, enrollment_date, created_at, updated_at) "
-                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
-
-        try (PreparedStatement pstmt = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, student.getStudentIdNo());
-            pstmt.setString(2, student.getUsername());
-            pstmt.setString(3, student.getPasswordHash());
-            pstmt.setString(4, student.getFirstName());
-            pstmt.setString(5, student.getMiddleName());
-            pstmt.setString(6, student.getLastName());
-            pstmt.setString(7, student.getEmail());
-            pstmt.setString(8, student.getPhoneNumber());
-            pstmt.setString(9, student.getAddress());
-            pstmt.setDate(10, Date.valueOf(student.getDateOfBirth()));
-            pstmt.setInt(11, student.getProgramId());
-            pstmt.setInt(12, student.getDepartmentId());
-            pstmt.setString(13, student.getSex());
-            pstmt.setDate(14, Date.valueOf(student.getEnrollmentDate()));
-
+        try (PreparedStatement pstmt = connection.prepareStatement(INSERT_STUDENT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            bindStudent(pstmt, student);
             pstmt.executeUpdate();
 
             ResultSet keys = pstmt.getGeneratedKeys();
@@ -182,12 +258,56 @@ public class StudentDAO {
             }
 
             System.out.println("Student added successfully with StudentIdNo: " + studentIdNo);
-            System.out.println("Temporary Password: " + temporaryPassword); // Log the temporary password
+        }
+    }
+
+    // Set the parameters of INSERT_STUDENT_SQL
+    private void bindStudent(PreparedStatement pstmt, Student student) throws SQLException {
+        pstmt.setString(1, student.getStudentIdNo());
+        pstmt.setString(2, student.getUsername());
+        pstmt.setString(3, student.getPasswordHash());
+        pstmt.setString(4, student.getFirstName());
+        pstmt.setString(5, student.getMiddleName());
+        pstmt.setString(6, student.getLastName());
+        pstmt.setString(7, student.getEmail());
+        pstmt.setString(8, student.getPhoneNumber());
+        pstmt.setString(9, student.getAddress());
+        pstmt.setDate(10, Date.valueOf(student.getDateOfBirth()));
+        pstmt.setInt(11, student.getProgramId());
+        pstmt.setInt(12, student.getDepartmentId());
+        pstmt.setString(13, student.getSex());
+        pstmt.setDate(14, Date.valueOf(student.getEnrollmentDate()));
+    }
 
-            return temporaryPassword; // Return the temporary password
+    /**
+     * Finds which of the given email addresses already belong to a student,
+     * with one query.
+     *
+     * @param emails the email addresses to look up
+     * @return the addresses that are taken, in lower case
+     * @throws RuntimeException if a database access error occurs
+     */
+    public Set<String> findExistingEmails(Collection<String> emails) {
+        Set<String> existing = new HashSet<>();
+        if (emails.isEmpty()) {
+            return existing;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(emails.size(), "?"));
+        String sql = "SELECT email FROM Student WHERE email IN (" + placeholders + ")";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (String email : emails) {
+                pstmt.setString(index++, email);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString("email").toLowerCase());
+                }
+            }
         } catch (SQLException e) {
-            throw new RuntimeException("Error adding student: " + e.getMessage(), e);
+            throw new RuntimeException("Error checking emails: " + e.getMessage(), e);
         }
+        return existing;
     }
 
     // Retrieve a student by studentIdNo
@@ -211,6 +331,27 @@ public class StudentDAO {
         return null;
     }
 
+    /**
+     * Retrieves a student by their student ID.
+     *
+     * @param studentId the primary key of the student
+     * @return the student, or null if not found
+     */
+    public Student getStudentById(int studentId) {
+        String sql = "SELECT * FROM Student WHERE student_id = ?";
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            pstmt.setInt(1, studentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return buildStudentFromResultSet(rs);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error retrieving student: " + e.getMessage(), e);
+        }
+        return null;
+    }
+
     // Retrieve a student by EmailOrUsername
 
     /**
@@ -252,6 +393,25 @@ public class StudentDAO {
         return students;
     }
 
+    /**
+     * Retrieves one page of students. Sort keys: studentIdNo, firstName,
+     * lastName, enrollmentDate; the filter matches the student ID number,
+     * first name or last name.
+     *
+     * @param request the page to retrieve
+     * @return the students of the page and the request for the next page, or
+     * an empty page if an error occurs
+     */
+    public Page<Student> getStudentsPage(PageRequest request) {
+        try {
+            return KeysetPager.fetch(connection, "Student", "student_id", STUDENT_SORT_COLUMNS,
+                    STUDENT_SEARCH_PREDICATES, request, this::buildStudentFromResultSet);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving students: " + e.getMessage());
+            return Page.empty();
+        }
+    }
+
     // Retrieves Department Name by department_id
 
     /**
@@ -260,17 +420,7 @@ public class StudentDAO {
      * @return
      */
     public String getDepartmentNameById(int departmentId) {
-        String sql = "SELECT department_name FROM Department WHERE department_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, departmentId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getString("department_name");
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error fetching department name: " + e.getMessage(), e);
-        }
-        return null;
+        return ReferenceDataCache.getDepartmentName(departmentId);
     }
 
     // Update student details
@@ -326,7 +476,6 @@ public class StudentDAO {
             pstmt.setString(1, hashedPassword);
             pstmt.setString(2, studentIdNo);
             pstmt.executeUpdate();
-            System.out.println("Password updated successfully for student: " + studentIdNo);
         } catch (SQLException e) {
             throw new RuntimeException("Error updating password: " + e.getMessage(), e);
         }
@@ -0,0 +1,395 @@
+package com.mycompany.stims.database;
+
+import com.mycompany.stims.model.Student;
+import com.mycompany.stims.utils.StudentSheetReader;
+import com.mycompany.stims.utils.StudentSheetReader.Column;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Registers a whole intake of students from an admissions spreadsheet. Rows
+ * are streamed from the file and handled in chunks: each chunk is validated,
+ * its emails are checked against the database with one query, and the valid
+ * rows are added through {@link StudentDAO#addStudents(List)}, which reserves
+ * ID numbers and usernames in blocks, hashes the temporary passwords in
+ * parallel and inserts the chunk with one batched statement in one
+ * transaction. If a chunk is rejected by the database, its rows are retried
+ * one at a time so a single bad row does not cost the whole chunk. A row
+ * whose email was already registered from an earlier row of the file, or
+ * appears earlier in the same chunk, is rejected as a duplicate; a rejected
+ * row does not block a later chunk from registering its email.
+ * <p>
+ * Every row ends up in a CSV results file: registered rows with their new
+ * Student ID No, username and temporary password, rejected rows with the
+ * reason. The file holds credentials and should be handed out and deleted
+ * like the temporary password files.
+ */
+public class StudentRegistrationPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentRegistrationPipeline.class);
+
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final int MAX_USERNAME_BASE_LENGTH = 45; // username is varchar(50), leaving room for a suffix
+
+    private final int chunkSize;
+    private final StudentDAO studentDAO;
+
+    /**
+     * Receives progress updates while rows are registered.
+     */
+    public interface ProgressListener {
+
+        /**
+         * @param processed the number of rows handled so far
+         * @param registered the number of students registered so far
+         */
+        void onProgress(int processed, int registered);
+    }
+
+    /**
+     * Constructs a StudentRegistrationPipeline that commits every 500 rows.
+     *
+     * @param connection the database connection to be used for operations
+     */
+    public StudentRegistrationPipeline(Connection connection) {
+        this(connection, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a StudentRegistrationPipeline with a specified chunk size.
+     *
+     * @param connection the database connection to be used for operations
+     * @param chunkSize the number of rows inserted per transaction
+     * @throws IllegalArgumentException if the connection is null or the chunk
+     * size is not positive
+     */
+    public StudentRegistrationPipeline(Connection connection, int chunkSize) {
+        if (connection == null) {
+            throw new IllegalArgumentException("Database connection cannot be null.");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        this.chunkSize = chunkSize;
+        this.studentDAO = new StudentDAO(connection);
+    }
+
+    /**
+     * Registers every student in a spreadsheet and writes the results file.
+     * Chunks committed before a failure stay committed and are listed in the
+     * results file.
+     *
+     * @param input the admissions spreadsheet (.xlsx or .csv)
+     * @param resultsFile the CSV file to write the results to
+     * @param listener receives progress after each chunk, may be null
+     * @return the number of registered and rejected rows
+     * @throws IOException if the spreadsheet cannot be read or the results
+     * file cannot be written
+     */
+    public RegistrationResult register(File input, File resultsFile, ProgressListener listener) throws IOException {
+        long start = System.nanoTime();
+        RegistrationResult result = new RegistrationResult(resultsFile);
+        Lookup programs = new Lookup(ReferenceDataCache.getPrograms());
+        Lookup departments = new Lookup(ReferenceDataCache.getDepartments());
+        Set<String> emailsInFile = new HashSet<>();
+
+        try (BufferedWriter writer = Files.newBufferedWriter(resultsFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("Row,Status,Student ID No,Username,Temporary Password,First Name,Last Name,Email,Error");
+            writer.newLine();
+
+            List<StudentSheetReader.Row> chunk = new ArrayList<>(chunkSize);
+            try {
+                StudentSheetReader.read(input, row -> {
+                    chunk.add(row);
+                    if (chunk.size() == chunkSize) {
+                        processChunk(chunk, programs, departments, emailsInFile, writer, result, listener);
+                        chunk.clear();
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (!chunk.isEmpty()) {
+                processChunk(chunk, programs, departments, emailsInFile, writer, result, listener);
+            }
+        }
+
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        logger.info("Registered {} students ({} rows rejected) in {} ms, {} per minute",
+                result.registeredCount, result.rejectedCount, millis, result.registeredCount * 60_000L / millis);
+        return result;
+    }
+
+    private void processChunk(List<StudentSheetReader.Row> rows, Lookup programs, Lookup departments,
+            Set<String> emailsInFile, BufferedWriter writer, RegistrationResult result, ProgressListener listener) {
+        String[] lines = new String[rows.size()];
+        boolean[] registered = new boolean[rows.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<Student> students = new ArrayList<>();
+        Set<String> emailsInChunk = new HashSet<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            StudentSheetReader.Row row = rows.get(i);
+            String error = validate(row, programs, departments);
+            String email = row.get(Column.EMAIL).toLowerCase();
+            // emailsInFile only holds emails of rows already registered
+            if (error == null && (emailsInFile.contains(email) || !emailsInChunk.add(email))) {
+                error = "Duplicate email in the file.";
+            }
+            if (error != null) {
+                lines[i] = rejected(row, error);
+                continue;
+            }
+            positions.add(i);
+            students.add(toStudent(row, programs, departments));
+        }
+
+        // Emails registered earlier, checked with one query per chunk
+        Set<String> emails = new LinkedHashSet<>();
+        students.forEach(student -> emails.add(student.getEmail()));
+        Set<String> taken = studentDAO.findExistingEmails(emails);
+        List<Integer> acceptedPositions = new ArrayList<>();
+        List<Student> accepted = new ArrayList<>();
+        for (int k = 0; k < students.size(); k++) {
+            int i = positions.get(k);
+            if (taken.contains(students.get(k).getEmail().toLowerCase())) {
+                lines[i] = rejected(rows.get(i), "A student with this email is already registered.");
+            } else {
+                acceptedPositions.add(i);
+                accepted.add(students.get(k));
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            try {
+                List<String> passwords = studentDAO.addStudents(accepted);
+                for (int k = 0; k < accepted.size(); k++) {
+                    int i = acceptedPositions.get(k);
+                    lines[i] = registered(rows.get(i), accepted.get(k), passwords.get(k));
+                    registered[i] = true;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Chunk of {} students was rolled back, registering them one at a time", accepted.size(), e);
+                for (int k = 0; k < accepted.size(); k++) {
+                    int i = acceptedPositions.get(k);
+                    Student student = toStudent(rows.get(i), programs, departments);
+                    try {
+                        String password = studentDAO.addStudents(List.of(student)).get(0);
+                        lines[i] = registered(rows.get(i), student, password);
+                        registered[i] = true;
+                    } catch (RuntimeException rowError) {
+                        lines[i] = rejected(rows.get(i), rootMessage(rowError));
+                    }
+                }
+            }
+        }
+
+        try {
+            for (int i = 0; i < lines.length; i++) {
+                if (registered[i]) {
+                    emailsInFile.add(rows.get(i).get(Column.EMAIL).toLowerCase());
+                    result.registeredCount++;
+                } else {
+                    result.rejectedCount++;
+                }
+                writer.write(lines[i]);
+                writer.newLine();
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (listener != null) {
+            listener.onProgress(result.registeredCount + result.rejectedCount, result.registeredCount);
+        }
+    }
+
+    /**
+     * Checks one row against the rules of the registration form and the
+     * column sizes of the Student table.
+     *
+     * @return the reason the row is rejected, or null if it is valid
+     */
+    private String validate(StudentSheetReader.Row row, Lookup programs, Lookup departments) {
+        for (Column column : Column.values()) {
+            if (column.isRequired() && row.get(column).isEmpty()) {
+                return column.getLabel() + " is required.";
+            }
+        }
+        if (tooLong(row, Column.FIRST_NAME, 50) || tooLong(row, Column.MIDDLE_NAME, 50) || tooLong(row, Column.LAST_NAME, 50)) {
+            return "Names may be at most 50 characters.";
+        }
+        if (row.get(Column.FIRST_NAME).length() + row.get(Column.LAST_NAME).length() + 1 > MAX_USERNAME_BASE_LENGTH) {
+            return "First and last name are too long to form a username.";
+        }
+        if (tooLong(row, Column.EMAIL, 100) || !EMAIL_PATTERN.matcher(row.get(Column.EMAIL)).matches()) {
+            return "Invalid email '" + row.get(Column.EMAIL) + "'.";
+        }
+        if (tooLong(row, Column.PHONE_NUMBER, 15)) {
+            return "Phone Number may be at most 15 characters.";
+        }
+        if (tooLong(row, Column.ADDRESS, 255)) {
+            return "Address may be at most 255 characters.";
+        }
+        if (toSex(row.get(Column.SEX)) == null) {
+            return "Invalid sex '" + row.get(Column.SEX) + "', use M, F, Male or Female.";
+        }
+        LocalDate dateOfBirth = toDate(row.get(Column.DATE_OF_BIRTH));
+        LocalDate enrollmentDate = toDate(row.get(Column.ENROLLMENT_DATE));
+        if (dateOfBirth == null) {
+            return "Invalid Date of Birth '" + row.get(Column.DATE_OF_BIRTH) + "', use yyyy-MM-dd.";
+        }
+        if (enrollmentDate == null) {
+            return "Invalid Enrollment Date '" + row.get(Column.ENROLLMENT_DATE) + "', use yyyy-MM-dd.";
+        }
+        if (!dateOfBirth.isBefore(enrollmentDate)) {
+            return "Date of Birth must be before the Enrollment Date.";
+        }
+        if (programs.find(row.get(Column.PROGRAM)) == null) {
+            return "Unknown program '" + row.get(Column.PROGRAM) + "'.";
+        }
+        if (departments.find(row.get(Column.DEPARTMENT)) == null) {
+            return "Unknown department '" + row.get(Column.DEPARTMENT) + "'.";
+        }
+        return null;
+    }
+
+    private static boolean tooLong(StudentSheetReader.Row row, Column column, int maxLength) {
+        return row.get(column).length() > maxLength;
+    }
+
+    private Student toStudent(StudentSheetReader.Row row, Lookup programs, Lookup departments) {
+        String middleName = row.get(Column.MIDDLE_NAME);
+        return new Student(
+                row.get(Column.FIRST_NAME),
+                middleName.isEmpty() ? null : middleName,
+                row.get(Column.LAST_NAME),
+                row.get(Column.EMAIL),
+                row.get(Column.PHONE_NUMBER),
+                row.get(Column.ADDRESS),
+                toDate(row.get(Column.DATE_OF_BIRTH)),
+                programs.find(row.get(Column.PROGRAM)),
+                departments.find(row.get(Column.DEPARTMENT)),
+                toSex(row.get(Column.SEX)),
+                toDate(row.get(Column.ENROLLMENT_DATE))
+        );
+    }
+
+    private static String toSex(String value) {
+        switch (value.toUpperCase()) {
+            case "M":
+            case "MALE":
+                return "M";
+            case "F":
+            case "FEMALE":
+                return "F";
+            default:
+                return null;
+        }
+    }
+
+    private static LocalDate toDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String registered(StudentSheetReader.Row row, Student student, String temporaryPassword) {
+        return csv(String.valueOf(row.getRowNumber()), "Registered", student.getStudentIdNo(), student.getUsername(),
+                temporaryPassword, student.getFirstName(), student.getLastName(), student.getEmail(), "");
+    }
+
+    private static String rejected(StudentSheetReader.Row row, String error) {
+        return csv(String.valueOf(row.getRowNumber()), "Rejected", "", "", "",
+                row.get(Column.FIRST_NAME), row.get(Column.LAST_NAME), row.get(Column.EMAIL), error);
+    }
+
+    private static String csv(String... values) {
+        StringBuilder line = new StringBuilder();
+        for (String value : values) {
+            if (line.length() > 0) {
+                line.append(',');
+            }
+            String text = value == null ? "" : value;
+            if (text.contains(",") || text.contains("\"") || text.contains("\n")) {
+                line.append('"').append(text.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(text);
+            }
+        }
+        return line.toString();
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    /**
+     * Resolves a program or department given by name, ignoring case, or by ID.
+     */
+    private static class Lookup {
+
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        Lookup(Map<Integer, String> names) {
+            names.forEach((id, name) -> {
+                ids.put(name.toLowerCase(), id);
+                ids.put(String.valueOf(id), id);
+            });
+        }
+
+        Integer find(String value) {
+            return ids.get(value.toLowerCase());
+        }
+    }
+
+    /**
+     * The outcome of a bulk registration.
+     */
+    public static class RegistrationResult {
+
+        private final File resultsFile;
+        private int registeredCount;
+        private int rejectedCount;
+
+        private RegistrationResult(File resultsFile) {
+            this.resultsFile = resultsFile;
+        }
+
+        public File getResultsFile() {
+            return resultsFile;
+        }
+
+        public int getRegisteredCount() {
+            return registeredCount;
+        }
+
+        public int getRejectedCount() {
+            return rejectedCount;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.mycompany.stims.database;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Access Object (DAO) class for the PDF reports stored in
+ * `student_reports`. Report content is written and read as a stream, so a
+ * report is never copied into a byte array here; listings read only the
+ * metadata columns and never touch the content.
+ */
+public class StudentReportDAO {
+
+    private static final String INFO_COLUMNS = "report_id, student_id, report_name, created_at";
+
+    private final Connection connection;
+
+    /**
+     * Constructs a StudentReportDAO with a specified database connection.
+     *
+     * @param connection the database connection to be used for operations
+     * @throws IllegalArgumentException if the connection is null
+     */
+    public StudentReportDAO(Connection connection) {
+        if (connection == null) {
+            throw new IllegalArgumentException("Database connection cannot be null.");
+        }
+        this.connection = connection;
+    }
+
+    /**
+     * Stores a report, streaming its content to the database.
+     *
+     * @param studentId the ID of the student the report is about
+     * @param reportName the name of the report
+     * @param content the PDF content
+     * @param length the length of the content in bytes
+     * @return the ID of the stored report, or -1 if it was not returned
+     * @throws SQLException if a database access error occurs
+     */
+    public int saveReport(int studentId, String reportName, InputStream content, long length) throws SQLException {
+        String sql = "INSERT INTO student_reports (student_id, report_name, report_content) VALUES (?, ?, ?)";
+        try (PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            ps.setInt(1, studentId);
+            ps.setString(2, reportName);
+            ps.setBinaryStream(3, content, length);
+            ps.executeUpdate();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                return keys.next() ? keys.getInt(1) : -1;
+            }
+        }
+    }
+
+    /**
+     * Lists the reports of a student without reading their content.
+     *
+     * @param studentId the ID of the student
+     * @return the reports, newest first
+     * @throws SQLException if a database access error occurs
+     */
+    public List<ReportInfo> getReports(int studentId) throws SQLException {
+        String sql = "SELECT " + INFO_COLUMNS + " FROM student_reports WHERE student_id = ? ORDER BY report_id DESC";
+        List<ReportInfo> reports = new ArrayList<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, studentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    reports.add(mapRowToInfo(rs));
+                }
+            }
+        }
+        return reports;
+    }
+
+    /**
+     * Retrieves the newest report of a student without reading its content.
+     *
+     * @param studentId the ID of the student
+     * @return the report, or null if the student has none
+     * @throws SQLException if a database access error occurs
+     */
+    public ReportInfo getLatestReport(int studentId) throws SQLException {
+        String sql = "SELECT " + INFO_COLUMNS + " FROM student_reports WHERE student_id = ? ORDER BY report_id DESC LIMIT 1";
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            ps.setInt(1, studentId);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? mapRowToInfo(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Streams the content of a report to an output stream, e.g. a temporary
+     * file or a viewer.
+     *
+     * @param reportId the ID of the report
+     * @param out where to write the PDF content; not closed
+     * @return true if the report was found and copied
+     * @throws SQLException if a database access error occurs
+     * @throws IOException if writing to the output stream fails
+     */
+    public boolean copyContent(int reportId, OutputStream out) throws SQLException, IOException {
+        String sql = "SELECT report_content FROM student_reports WHERE report_id = ?";
+        try (PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(Integer.MIN_VALUE); // Stream the row instead of buffering the result
+            ps.setInt(1, reportId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+                try (InputStream content = rs.getBinaryStream(1)) {
+                    if (content == null) {
+                        return false;
+                    }
+                    content.transferTo(out);
+                }
+                return true;
+            }
+        }
+    }
+
+    private static ReportInfo mapRowToInfo(ResultSet rs) throws SQLException {
+        return new ReportInfo(
+                rs.getInt("report_id"),
+                rs.getInt("student_id"),
+                rs.getString("report_name"),
+                rs.getTimestamp("created_at")
+        );
+    }
+
+    /**
+     * The metadata of a stored report.
+     */
+    public static final class ReportInfo {
+
+        private final int reportId;
+        private final int studentId;
+        private final String reportName;
+        private final Timestamp createdAt;
+
+        /**
+         * Constructs a ReportInfo.
+         *
+         * @param reportId the ID of the report
+         * @param studentId the ID of the student the report is about
+         * @param reportName the name of the report
+         * @param createdAt when the report was stored
+         */
+        public ReportInfo(int reportId, int studentId, String reportName, Timestamp createdAt) {
+            this.reportId = reportId;
+            this.studentId = studentId;
+            this.reportName = reportName;
+            this.createdAt = createdAt;
+        }
+
+        public int getReportId() {
+            return reportId;
+        }
+
+        public int getStudentId() {
+            return studentId;
+        }
+
+        public String getReportName() {
+            return reportName;
+        }
+
+        public Timestamp getCreatedAt() {
+            return createdAt;
+        }
+    }
+}
@@ -5,15 +5,18 @@ import com.mycompany.stims.model.TeacherCourse;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Data Access Object (DAO) class for managing TeacherCourse entities in the
  * database. Provides methods to perform CRUD operations on the TeacherCourse
- * table.
+ * table. Assignment changes update the teacher count of the offering through
+ * {@link OfferingAnalyticsDAO} in the same transaction.
  */
 public class TeacherCourseDAO {
 
     private Connection connection;
+    private OfferingAnalyticsDAO analytics;
 
     /**
      * Constructs a TeacherCourseDAO with the specified database connection.
@@ -22,6 +25,9 @@ public class TeacherCourseDAO {
      */
     public TeacherCourseDAO(Connection connection) {
         this.connection = connection;
+        if (connection != null) {
+            this.analytics = new OfferingAnalyticsDAO(connection);
+        }
     }
 
     /**
@@ -33,12 +39,19 @@ public class TeacherCourseDAO {
     public void addTeacherCourse(TeacherCourse teacherCourse) {
         String sql = "INSERT INTO TeacherCourse (teacher_course_id, teacher_id, offering_id, assigned_date) "
                 + "VALUES (?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, teacherCourse.getTeacherCourseId());
-            pstmt.setInt(2, teacherCourse.getTeacherId());
-            pstmt.setInt(3, teacherCourse.getOfferingId());
-            pstmt.setDate(4, teacherCourse.getAssignedDate());
-            pstmt.executeUpdate();
+        try {
+            inTransaction(() -> {
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setInt(1, teacherCourse.getTeacherCourseId());
+                    pstmt.setInt(2, teacherCourse.getTeacherId());
+                    pstmt.setInt(3, teacherCourse.getOfferingId());
+                    pstmt.setDate(4, teacherCourse.getAssignedDate());
+                    pstmt.executeUpdate();
+                }
+                OfferingAnalyticsDAO.Changes changes = new OfferingAnalyticsDAO.Changes();
+                changes.addTeachers(teacherCourse.getOfferingId(), 1);
+                analytics.apply(changes);
+            });
         } catch (SQLException e) {
             System.err.println("Error adding teacher course: " + e.getMessage());
         }
@@ -103,12 +116,24 @@ public class TeacherCourseDAO {
     public void updateTeacherCourse(TeacherCourse teacherCourse) {
         String sql = "UPDATE TeacherCourse SET teacher_id = ?, offering_id = ?, assigned_date = ? "
                 + "WHERE teacher_course_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, teacherCourse.getTeacherId());
-            pstmt.setInt(2, teacherCourse.getOfferingId());
-            pstmt.setDate(3, teacherCourse.getAssignedDate());
-            pstmt.setInt(4, teacherCourse.getTeacherCourseId());
-            pstmt.executeUpdate();
+        try {
+            inTransaction(() -> {
+                // The assignment may move to another offering, which then gains the teacher the old one loses
+                Set<Integer> offeringIds = analytics.findOfferingsOfTeacherCourses(Set.of(teacherCourse.getTeacherCourseId()));
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setInt(1, teacherCourse.getTeacherId());
+                    pstmt.setInt(2, teacherCourse.getOfferingId());
+                    pstmt.setDate(3, teacherCourse.getAssignedDate());
+                    pstmt.setInt(4, teacherCourse.getTeacherCourseId());
+                    pstmt.executeUpdate();
+                }
+                OfferingAnalyticsDAO.Changes changes = new OfferingAnalyticsDAO.Changes();
+                for (int offeringId : offeringIds) {
+                    changes.addTeachers(offeringId, -1);
+                    changes.addTeachers(teacherCourse.getOfferingId(), 1);
+                }
+                analytics.apply(changes);
+            });
         } catch (SQLException e) {
             System.err.println("Error updating teacher course: " + e.getMessage());
         }
@@ -121,11 +146,51 @@ public class TeacherCourseDAO {
      */
     public void deleteTeacherCourse(int teacherCourseId) {
         String sql = "DELETE FROM TeacherCourse WHERE teacher_course_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, teacherCourseId);
-            pstmt.executeUpdate();
+        try {
+            inTransaction(() -> {
+                Set<Integer> offeringIds = analytics.findOfferingsOfTeacherCourses(Set.of(teacherCourseId));
+                try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+                    pstmt.setInt(1, teacherCourseId);
+                    pstmt.executeUpdate();
+                }
+                OfferingAnalyticsDAO.Changes changes = new OfferingAnalyticsDAO.Changes();
+                for (int offeringId : offeringIds) {
+                    changes.addTeachers(offeringId, -1);
+                }
+                analytics.apply(changes);
+            });
         } catch (SQLException e) {
             System.err.println("Error deleting teacher course: " + e.getMessage());
         }
     }
+
+    /**
+     * Runs an assignment write and the update of the offering summaries it
+     * touched in one transaction, unless the caller already has one open, so
+     * the summary never disagrees with the assignments.
+     *
+     * @param work the write and refresh to run
+     * @throws SQLException if a database access error occurs
+     */
+    private void inTransaction(GpaEngine.SqlWork work) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        if (autoCommit) {
+            connection.setAutoCommit(false);
+        }
+        try {
+            work.run();
+            if (autoCommit) {
+                connection.commit();
+            }
+        } catch (SQLException | RuntimeException e) {
+            if (autoCommit) {
+                connection.rollback();
+            }
+            throw e;
+        } finally {
+            if (autoCommit) {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
 }
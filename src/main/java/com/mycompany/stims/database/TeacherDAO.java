@@ -7,6 +7,7 @@ import java.security.SecureRandom;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The TeacherDAO class provides methods to interact with the Teacher table in
@@ -18,6 +19,14 @@ public class TeacherDAO {
 
     private Connection connection;
 
+    // Sort keys accepted by getTeachersPage, mapped to non-null column expressions
+    private static final Map<String, String> TEACHER_SORT_COLUMNS = Map.of(
+            "username", "username",
+            "firstName", "first_name",
+            "lastName", "last_name");
+    private static final List<String> TEACHER_SEARCH_PREDICATES = List.of(
+            "username LIKE ?", "first_name LIKE ?", "last_name LIKE ?");
+
     /**
      * Constructs a TeacherDAO object with a specified database connection.
      *
@@ -38,34 +47,11 @@ public class TeacherDAO {
      */
     private String generateUsername(String firstName, String lastName) {
         String baseUsername = firstName.toLowerCase() + "." + lastName.toLowerCase();
-        String username = baseUsername;
-        int count = 1;
-        // Check if the username already exists
-        while (usernameExists(username)) {
-            username = baseUsername + count;
-            count++;
-        }
-        return username;
-    }
-
-    /**
-     * Checks if a username already exists in the Teacher table.
-     *
-     * @param username the username to check
-     * @return true if the username exists, false otherwise
-     */
-    private boolean usernameExists(String username) {
-        String sql = "SELECT COUNT(*) AS count FROM Teacher WHERE username = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, username);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("count") > 0;
-            }
+        try {
+            return IdAllocator.allocateUsername(baseUsername, "Teacher");
         } catch (SQLException e) {
-            System.err.println("Error checking username: " + e.getMessage());
+            throw new RuntimeException("Error generating username: " + e.getMessage(), e);
         }
-        return false;
     }
 
     /**
@@ -174,17 +160,7 @@ public class TeacherDAO {
      * @return the name of the department, or null if not found
      */
     public String getDepartmentNameById(int departmentId) {
-        String sql = "SELECT department_name FROM Department WHERE department_id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setInt(1, departmentId);
-            ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return rs.getString("department_name");
-            }
-        } catch (SQLException e) {
-            throw new RuntimeException("Error fetching department name: " + e.getMessage(), e);
-        }
-        return null;
+        return ReferenceDataCache.getDepartmentName(departmentId);
     }
 
     /**
@@ -249,6 +225,24 @@ public class TeacherDAO {
         return teachers;
     }
 
+    /**
+     * Retrieves one page of teachers. Sort keys: username, firstName,
+     * lastName; the filter matches the username, first name or last name.
+     *
+     * @param request the page to retrieve
+     * @return the teachers of the page and the request for the next page, or
+     * an empty page if an error occurs
+     */
+    public Page<Teacher> getTeachersPage(PageRequest request) {
+        try {
+            return KeysetPager.fetch(connection, "Teacher", "teacher_id", TEACHER_SORT_COLUMNS,
+                    TEACHER_SEARCH_PREDICATES, request, this::mapRowToTeacher);
+        } catch (SQLException e) {
+            System.err.println("Error retrieving teachers: " + e.getMessage());
+            return Page.empty();
+        }
+    }
+
     /**
      * Updates the details of a teacher in the database.
      *
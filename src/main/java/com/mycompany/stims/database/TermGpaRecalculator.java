@@ -0,0 +1,205 @@
+package com.mycompany.stims.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Recalculates the academic records of every student enrolled in a term in one
+ * pass. All enrollments of the term's students are streamed with a single
+ * query and aggregated in memory; the semester records, running GPA totals
+ * and CGPAs are then written back with batched statements, one transaction
+ * per chunk of students.
+ */
+public class TermGpaRecalculator {
+
+    private static final Logger logger = LoggerFactory.getLogger(TermGpaRecalculator.class);
+
+    private static final int DEFAULT_CHUNK_SIZE = 500;
+
+    private final Connection connection;
+    private final int chunkSize;
+
+    /**
+     * Receives progress updates while records are written.
+     */
+    public interface ProgressListener {
+
+        /**
+         * @param processed the number of students written so far
+         * @param total the number of students in the term
+         */
+        void onProgress(int processed, int total);
+    }
+
+    /**
+     * Constructs a TermGpaRecalculator that commits every 500 students.
+     *
+     * @param connection the database connection to be used for operations
+     */
+    public TermGpaRecalculator(Connection connection) {
+        this(connection, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Constructs a TermGpaRecalculator with a specified chunk size.
+     *
+     * @param connection the database connection to be used for operations
+     * @param chunkSize the number of students written per transaction
+     * @throws IllegalArgumentException if the connection is null or the chunk
+     * size is not positive
+     */
+    public TermGpaRecalculator(Connection connection, int chunkSize) {
+        if (connection == null) {
+            throw new IllegalArgumentException("Database connection cannot be null.");
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        this.connection = connection;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Recalculates SGPA, CGPA and running totals for every student enrolled in
+     * the given term.
+     *
+     * @param academicYear the academic year
+     * @param year the year of study (e.g., 1 for "Year 1")
+     * @param semester the semester (e.g., 1 for "Semester 1")
+     * @param listener receives progress after each committed chunk, may be
+     * null
+     * @return the number of students whose records were written
+     * @throws SQLException if a database access error occurs; chunks committed
+     * before the failure are kept
+     */
+    public int recalculateTerm(int academicYear, int year, int semester, ProgressListener listener) throws SQLException {
+        long start = System.currentTimeMillis();
+        Map<Integer, StudentTotals> students = loadTerm(academicYear, year, semester);
+        long loaded = System.currentTimeMillis();
+        logger.info("Loaded {} students for academicYear: {}, year: {}, semester: {} in {} ms",
+                students.size(), academicYear, year, semester, loaded - start);
+
+        List<Map.Entry<Integer, StudentTotals>> entries = new ArrayList<>(students.entrySet());
+        int total = entries.size();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            for (int from = 0; from < total; from += chunkSize) {
+                List<Map.Entry<Integer, StudentTotals>> chunk = entries.subList(from, Math.min(from + chunkSize, total));
+                try {
+                    writeChunk(chunk, academicYear, year, semester);
+                    connection.commit();
+                    ClassRanking.invalidate();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+                if (listener != null) {
+                    listener.onProgress(from + chunk.size(), total);
+                }
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+
+        long elapsed = Math.max(1, System.currentTimeMillis() - start);
+        logger.info("Recalculated {} academic records in {} ms ({} students/s)", total, elapsed, total * 1000L / elapsed);
+        return total;
+    }
+
+    // Streams every enrollment of the term's students and aggregates term and cumulative totals
+    private Map<Integer, StudentTotals> loadTerm(int academicYear, int year, int semester) throws SQLException {
+        String sql = "SELECT sc.student_id, c.credits, g.grade, "
+                + "(co.academic_year = ? AND co.year = ? AND co.semester = ?) AS in_term "
+                + "FROM studentcourse sc "
+                + "JOIN courseoffering co ON sc.offering_id = co.offering_id "
+                + "JOIN course c ON co.course_id = c.course_id "
+                + "LEFT JOIN grade g ON sc.student_course_id = g.student_course_id "
+                + "WHERE sc.student_id IN (SELECT sc2.student_id FROM studentcourse sc2 "
+                + "JOIN courseoffering co2 ON sc2.offering_id = co2.offering_id "
+                + "WHERE co2.academic_year = ? AND co2.year = ? AND co2.semester = ?)";
+
+        Map<Integer, StudentTotals> students = new LinkedHashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(Integer.MIN_VALUE); // Stream rows instead of buffering the whole result
+            ps.setInt(1, academicYear);
+            ps.setInt(2, year);
+            ps.setInt(3, semester);
+            ps.setInt(4, academicYear);
+            ps.setInt(5, year);
+            ps.setInt(6, semester);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    StudentTotals totals = students.computeIfAbsent(rs.getInt("student_id"), id -> new StudentTotals());
+                    String grade = rs.getString("grade");
+                    if (grade == null) {
+                        continue; // Ungraded courses do not count until graded
+                    }
+                    int credits = rs.getInt("credits");
+                    double qualityPoints = credits * GpaEngine.getGradePoints(grade);
+                    totals.totalCredits += credits;
+                    totals.totalQualityPoints += qualityPoints;
+                    if (rs.getBoolean("in_term")) {
+                        totals.termCredits += credits;
+                        totals.termQualityPoints += qualityPoints;
+                    }
+                }
+            }
+        }
+        return students;
+    }
+
+    private void writeChunk(List<Map.Entry<Integer, StudentTotals>> chunk, int academicYear, int year, int semester) throws SQLException {
+        String totalsSql = "INSERT INTO studentgpatotals (student_id, total_credits, quality_points) VALUES (?, ?, ?) "
+                + "ON DUPLICATE KEY UPDATE total_credits = VALUES(total_credits), quality_points = VALUES(quality_points)";
+        String cgpaSql = "UPDATE studentacademicrecord SET cgpa = ? WHERE student_id = ?";
+
+        try (PreparedStatement recordStmt = connection.prepareStatement(StudentAcademicRecordsDAO.UPSERT_RECORD_SQL);
+                PreparedStatement totalsStmt = connection.prepareStatement(totalsSql);
+                PreparedStatement cgpaStmt = connection.prepareStatement(cgpaSql)) {
+            for (Map.Entry<Integer, StudentTotals> entry : chunk) {
+                int studentId = entry.getKey();
+                StudentTotals totals = entry.getValue();
+                double cgpa = GpaEngine.gpa(totals.totalQualityPoints, totals.totalCredits);
+
+                // Skip the semester record if the term has no graded courses carrying credits
+                if (totals.termCredits > 0) {
+                    StudentAcademicRecordsDAO.bindRecord(recordStmt, studentId, academicYear, year, semester, totals.termCredits,
+                            totals.termQualityPoints, GpaEngine.gpa(totals.termQualityPoints, totals.termCredits), cgpa);
+                    recordStmt.addBatch();
+                }
+
+                totalsStmt.setInt(1, studentId);
+                totalsStmt.setInt(2, totals.totalCredits);
+                totalsStmt.setDouble(3, totals.totalQualityPoints);
+                totalsStmt.addBatch();
+
+                cgpaStmt.setDouble(1, cgpa);
+                cgpaStmt.setInt(2, studentId);
+                cgpaStmt.addBatch();
+            }
+            recordStmt.executeBatch();
+            totalsStmt.executeBatch();
+            cgpaStmt.executeBatch();
+        }
+    }
+
+    /**
+     * Per-student accumulator for the term and the whole history.
+     */
+    private static final class StudentTotals {
+
+        private int termCredits;
+        private double termQualityPoints;
+        private int totalCredits;
+        private double totalQualityPoints;
+    }
+}
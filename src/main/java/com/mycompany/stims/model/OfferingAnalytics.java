@@ -0,0 +1,163 @@
+package com.mycompany.stims.model;
+
+import java.util.Collection;
+
+/**
+ * The `OfferingAnalytics` class holds the summary figures of a course
+ * offering, or of all offerings of a course added together: how many students
+ * are enrolled and graded, how many of each letter grade were given, the total
+ * of their grade points and how many teachers are assigned.
+ *
+ * Grade counts are indexed in the order of
+ * {@link com.mycompany.stims.database.GpaEngine#GRADES}. The counts form the
+ * grade distribution, from which percentile ranks and the median grade are
+ * read without looking at individual grades.
+ */
+public class OfferingAnalytics {
+
+    private final int enrollmentCount;
+    private final int gradedCount;
+    private final int[] gradeCounts;
+    private final double gradePointTotal;
+    private final int teacherCount;
+
+    /**
+     * Constructs a new `OfferingAnalytics` object.
+     *
+     * @param enrollmentCount The number of enrolled students.
+     * @param gradedCount The number of enrollments with a grade.
+     * @param gradeCounts The number of each letter grade, highest first.
+     * @param gradePointTotal The sum of the grade points of the letter grades.
+     * @param teacherCount The number of assigned teachers.
+     */
+    public OfferingAnalytics(int enrollmentCount, int gradedCount, int[] gradeCounts, double gradePointTotal, int teacherCount) {
+        this.enrollmentCount = enrollmentCount;
+        this.gradedCount = gradedCount;
+        this.gradeCounts = gradeCounts.clone();
+        this.gradePointTotal = gradePointTotal;
+        this.teacherCount = teacherCount;
+    }
+
+    public int getEnrollmentCount() {
+        return enrollmentCount;
+    }
+
+    /**
+     * @return the number of enrollments with a grade, including grades off
+     * the letter scale
+     */
+    public int getGradedCount() {
+        return gradedCount;
+    }
+
+    /**
+     * @return the number of each letter grade, highest first
+     */
+    public int[] getGradeCounts() {
+        return gradeCounts.clone();
+    }
+
+    /**
+     * @param index the position of the grade on the letter scale
+     * @return the number of students given that grade
+     */
+    public int getGradeCount(int index) {
+        return gradeCounts[index];
+    }
+
+    /**
+     * @return the number of letter grades given, which is what the mean grade
+     * point is taken over
+     */
+    public int getLetterGradeCount() {
+        int count = 0;
+        for (int gradeCount : gradeCounts) {
+            count += gradeCount;
+        }
+        return count;
+    }
+
+    public double getGradePointTotal() {
+        return gradePointTotal;
+    }
+
+    /**
+     * @return the mean grade point of the letter grades, or 0 if there are
+     * none
+     */
+    public double getMeanGradePoint() {
+        int count = getLetterGradeCount();
+        return count == 0 ? 0 : gradePointTotal / count;
+    }
+
+    public int getTeacherCount() {
+        return teacherCount;
+    }
+
+    /**
+     * Gives the percentile rank of a letter grade within this distribution:
+     * the share of letter grades below it plus half of those equal to it, so
+     * students with the same grade share the same rank.
+     *
+     * @param index the position of the grade on the letter scale
+     * @return the percentile rank from 0 to 100, or -1 if there are no
+     * letter grades
+     */
+    public double getPercentileRank(int index) {
+        int total = getLetterGradeCount();
+        if (total == 0) {
+            return -1;
+        }
+        int below = 0;
+        for (int i = index + 1; i < gradeCounts.length; i++) {
+            below += gradeCounts[i];
+        }
+        return 100.0 * (below + gradeCounts[index] / 2.0) / total;
+    }
+
+    /**
+     * @return the position on the letter scale of the median grade, or -1 if
+     * there are no letter grades
+     */
+    public int getMedianGradeIndex() {
+        int total = getLetterGradeCount();
+        int seen = 0;
+        for (int i = 0; i < gradeCounts.length; i++) {
+            seen += gradeCounts[i];
+            if (seen * 2 >= total && seen > 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds several summaries together, e.g. the offerings of one course.
+     *
+     * @param parts The summaries to add; must not be empty.
+     * @return The combined summary.
+     */
+    public static OfferingAnalytics combine(Collection<OfferingAnalytics> parts) {
+        int enrollmentCount = 0;
+        int gradedCount = 0;
+        int[] gradeCounts = null;
+        double gradePointTotal = 0;
+        int teacherCount = 0;
+        for (OfferingAnalytics part : parts) {
+            enrollmentCount += part.enrollmentCount;
+            gradedCount += part.gradedCount;
+            if (gradeCounts == null) {
+                gradeCounts = new int[part.gradeCounts.length];
+            }
+            for (int i = 0; i < gradeCounts.length; i++) {
+                gradeCounts[i] += part.gradeCounts[i];
+            }
+            gradePointTotal += part.gradePointTotal;
+            teacherCount += part.teacherCount;
+        }
+        if (gradeCounts == null) {
+            throw new IllegalArgumentException("No summaries to combine.");
+        }
+        return new OfferingAnalytics(enrollmentCount, gradedCount, gradeCounts, gradePointTotal, teacherCount);
+    }
+}
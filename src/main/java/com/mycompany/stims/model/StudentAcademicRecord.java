@@ -13,6 +13,7 @@ public class StudentAcademicRecord {
     private int year;              // Year (e.g., 1, 2, 3)
     private int semester;          // Semester (1 or 2)
     private int totalCredits;      // Total credits earned in the semester
+    private double qualityPoints;  // Sum of credits x grade points in the semester
     private double sgpa;           // Semester Grade Point Average
     private double cgpa;           // Cumulative Grade Point Average
 
@@ -159,6 +160,29 @@ public class StudentAcademicRecord {
         this.totalCredits = totalCredits;
     }
 
+    /**
+     * Gets the quality points earned in the semester (credits multiplied by
+     * grade points, summed over the semester's courses).
+     *
+     * @return the quality points
+     */
+    public double getQualityPoints() {
+        return qualityPoints;
+    }
+
+    /**
+     * Sets the quality points earned in the semester.
+     *
+     * @param qualityPoints the quality points to set
+     * @throws IllegalArgumentException if the quality points are negative
+     */
+    public void setQualityPoints(double qualityPoints) {
+        if (qualityPoints < 0.0) {
+            throw new IllegalArgumentException("Quality points cannot be negative.");
+        }
+        this.qualityPoints = qualityPoints;
+    }
+
     /**
      * Gets the semester GPA (SGPA).
      *
@@ -216,6 +240,7 @@ public class StudentAcademicRecord {
                 + ", year=" + year
                 + ", semester=" + semester
                 + ", totalCredits=" + totalCredits
+                + ", qualityPoints=" + qualityPoints
                 + ", sgpa=" + sgpa
                 + ", cgpa=" + cgpa
                 + '}';
@@ -0,0 +1,457 @@
+package com.mycompany.stims.report;
+
+import com.mycompany.stims.utils.FilePathUtils;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Generates report cards or transcripts for a whole cohort: every student with
+ * an academic record for a year and semester, optionally narrowed to one
+ * program or department.
+ * <p>
+ * The cohort is handled in chunks. The data of a chunk is prefetched with two
+ * set-based queries for all of its students at once instead of several
+ * queries per student: one for student details joined with academic records
+ * (only the term's record for report cards, every record for transcripts) and
+ * one for graded courses. The chunk's workbooks are then rendered in
+ * parallel, one per core. The next chunk is not fetched until the current one is written, so
+ * memory use is bounded by the chunk size and the number of cores rather than
+ * by the size of the cohort.
+ * <p>
+ * Every file is written atomically. Each finished student is appended to a
+ * journal in the report directory; if the job is interrupted, running it again
+ * for the same cohort skips the students in the journal whose files exist.
+ * The journal is deleted once a run completes without failures.
+ */
+public class BatchReportJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchReportJob.class);
+
+    private static final int DEFAULT_CHUNK_SIZE = 200;
+
+    private final Connection connection;
+    private final Kind kind;
+    private final Cohort cohort;
+    private final int chunkSize;
+    private final int threads;
+
+    /**
+     * The kind of document a job generates.
+     */
+    public enum Kind {
+        REPORT_CARDS("Report_Cards"),
+        TRANSCRIPTS("Transcripts");
+
+        private final String jobName;
+
+        Kind(String jobName) {
+            this.jobName = jobName;
+        }
+    }
+
+    /**
+     * The students a job generates documents for.
+     */
+    public static class Cohort {
+
+        private final int year;
+        private final int semester;
+        private final Integer programId;
+        private final Integer departmentId;
+
+        /**
+         * @param year the year of study
+         * @param semester the semester
+         * @param programId only students of this program, or null for all
+         * @param departmentId only students of this department, or null for
+         * all
+         */
+        public Cohort(int year, int semester, Integer programId, Integer departmentId) {
+            this.year = year;
+            this.semester = semester;
+            this.programId = programId;
+            this.departmentId = departmentId;
+        }
+
+        private String getName() {
+            return "Year-" + year + "_SEM-" + semester
+                    + (programId != null ? "_P-" + programId : "")
+                    + (departmentId != null ? "_D-" + departmentId : "");
+        }
+    }
+
+    /**
+     * Receives progress updates while documents are generated.
+     */
+    public interface ProgressListener {
+
+        /**
+         * @param processed the number of students handled so far
+         * @param total the number of students in the cohort
+         */
+        void onProgress(int processed, int total);
+    }
+
+    /**
+     * Constructs a BatchReportJob that renders on every available core.
+     *
+     * @param connection the database connection used to fetch the cohort
+     * @param kind the kind of document to generate
+     * @param cohort the students to generate documents for
+     * @throws IllegalArgumentException if the connection is null
+     */
+    public BatchReportJob(Connection connection, Kind kind, Cohort cohort) {
+        this(connection, kind, cohort, DEFAULT_CHUNK_SIZE, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a BatchReportJob with a specified chunk size and number of
+     * rendering threads.
+     *
+     * @param connection the database connection used to fetch the cohort
+     * @param kind the kind of document to generate
+     * @param cohort the students to generate documents for
+     * @param chunkSize the number of students prefetched at a time
+     * @param threads the number of workbooks rendered at a time
+     * @throws IllegalArgumentException if the connection is null or the chunk
+     * size or number of threads is not positive
+     */
+    public BatchReportJob(Connection connection, Kind kind, Cohort cohort, int chunkSize, int threads) {
+        if (connection == null) {
+            throw new IllegalArgumentException("Database connection cannot be null.");
+        }
+        if (chunkSize < 1 || threads < 1) {
+            throw new IllegalArgumentException("Chunk size and threads must be positive.");
+        }
+        this.connection = connection;
+        this.kind = kind;
+        this.cohort = cohort;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+    }
+
+    /**
+     * Generates the documents of every student in the cohort who has not been
+     * handled by an earlier, interrupted run. A student whose document fails
+     * is reported in the result and does not stop the job.
+     *
+     * @param listener receives progress after each chunk, may be null
+     * @return the number of generated, resumed and failed students
+     * @throws SQLException if the cohort cannot be fetched
+     * @throws IOException if the journal cannot be read or written
+     * @throws InterruptedException if the job is cancelled
+     */
+    public BatchResult run(ProgressListener listener) throws SQLException, IOException, InterruptedException {
+        long start = System.nanoTime();
+        Path journalPath = Paths.get(FilePathUtils.getBatchJournalFilePath(kind.jobName + "_" + cohort.getName()));
+        Set<String> journaled = readJournal(journalPath);
+
+        Map<Integer, String> students = fetchCohort();
+        BatchResult result = new BatchResult(students.size());
+        List<Integer> pending = new ArrayList<>();
+        for (Map.Entry<Integer, String> student : students.entrySet()) {
+            if (journaled.contains(student.getValue()) && Files.exists(Paths.get(outputPath(student.getValue())))) {
+                result.skippedCount++;
+            } else {
+                pending.add(student.getKey());
+            }
+        }
+        if (result.skippedCount > 0) {
+            logger.info("Resuming {} for {}: {} of {} students already done", kind, cohort.getName(), result.skippedCount, students.size());
+        }
+
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "batch-report-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(threads, factory);
+        try (BufferedWriter journal = Files.newBufferedWriter(journalPath, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (int from = 0; from < pending.size(); from += chunkSize) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException("Batch generation cancelled.");
+                }
+                List<Integer> chunk = pending.subList(from, Math.min(from + chunkSize, pending.size()));
+                processChunk(chunk, students, executor, journal, result);
+                if (listener != null) {
+                    listener.onProgress(result.skippedCount + result.generatedCount + result.failedCount, students.size());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        if (result.failedCount == 0) {
+            Files.deleteIfExists(journalPath);
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        logger.info("Generated {} {} for {} in {} ms ({} resumed, {} failed)",
+                result.generatedCount, kind, cohort.getName(), millis, result.skippedCount, result.failedCount);
+        return result;
+    }
+
+    private void processChunk(List<Integer> chunk, Map<Integer, String> students, ExecutorService executor,
+            BufferedWriter journal, BatchResult result) throws SQLException, IOException, InterruptedException {
+        Map<Integer, Callable<Void>> renders = kind == Kind.REPORT_CARDS
+                ? prepareReportCards(chunk, students, result)
+                : prepareTranscripts(chunk, students, result);
+
+        Map<Integer, Future<Void>> futures = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Callable<Void>> render : renders.entrySet()) {
+            futures.put(render.getKey(), executor.submit(render.getValue()));
+        }
+        for (Map.Entry<Integer, Future<Void>> future : futures.entrySet()) {
+            String studentIdNo = students.get(future.getKey());
+            try {
+                future.getValue().get();
+                journal.write(studentIdNo);
+                journal.newLine();
+                result.generatedCount++;
+            } catch (ExecutionException e) {
+                logger.warn("Could not generate {} for {}", kind, studentIdNo, e.getCause());
+                result.fail(studentIdNo, e.getCause().getMessage());
+            }
+        }
+        // Everything written in this chunk is recorded before the next one starts
+        journal.flush();
+    }
+
+    // Fetches the cohort's student IDs and Student ID Nos in Student ID No order
+    private Map<Integer, String> fetchCohort() throws SQLException {
+        String sql = "SELECT DISTINCT s.student_id, s.studentId_No FROM student s "
+                + "JOIN studentacademicrecord sar ON s.student_id = sar.student_id "
+                + "WHERE sar.year = ? AND sar.semester = ?"
+                + (cohort.programId != null ? " AND s.program_id = ?" : "")
+                + (cohort.departmentId != null ? " AND s.department_id = ?" : "")
+                + " ORDER BY s.studentId_No";
+        Map<Integer, String> students = new LinkedHashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement(sql)) {
+            int index = 1;
+            ps.setInt(index++, cohort.year);
+            ps.setInt(index++, cohort.semester);
+            if (cohort.programId != null) {
+                ps.setInt(index++, cohort.programId);
+            }
+            if (cohort.departmentId != null) {
+                ps.setInt(index, cohort.departmentId);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    students.put(rs.getInt("student_id"), rs.getString("studentId_No"));
+                }
+            }
+        }
+        return students;
+    }
+
+    private Map<Integer, Callable<Void>> prepareReportCards(List<Integer> chunk, Map<Integer, String> students,
+            BatchResult result) throws SQLException {
+        String ids = placeholders(chunk.size());
+        Map<Integer, Map<String, Object>> details = new HashMap<>();
+        String detailSql = "SELECT s.student_id, s.first_name, s.middle_name, s.last_name, s.studentId_No, p.program_name, "
+                + "d.department_name, sar.year, sar.semester, sar.sgpa "
+                + "FROM student s "
+                + "JOIN studentacademicrecord sar ON s.student_id = sar.student_id "
+                + "JOIN program p ON s.program_id = p.program_id "
+                + "JOIN department d ON s.department_id = d.department_id "
+                + "WHERE s.student_id IN (" + ids + ") AND sar.year = ? AND sar.semester = ?";
+        try (PreparedStatement ps = prepareForChunk(detailSql, chunk)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Map<String, Object> studentData = new HashMap<>();
+                    studentData.put("name", rs.getString("first_name") + " " + rs.getString("middle_name") + " " + rs.getString("last_name"));
+                    studentData.put("studentId_No", rs.getString("studentId_No"));
+                    studentData.put("program", rs.getString("program_name"));
+                    studentData.put("department", rs.getString("department_name"));
+                    studentData.put("year", rs.getInt("year"));
+                    studentData.put("semester", "Semester " + rs.getInt("semester"));
+                    studentData.put("sgpa", rs.getDouble("sgpa"));
+                    details.putIfAbsent(rs.getInt("student_id"), studentData);
+                }
+            }
+        }
+
+        Map<Integer, List<Object[]>> courses = new HashMap<>();
+        String courseSql = "SELECT sc.student_id, c.course_code, c.course_name, c.credits, g.grade "
+                + "FROM studentcourse sc "
+                + "JOIN courseoffering co ON sc.offering_id = co.offering_id "
+                + "JOIN course c ON co.course_id = c.course_id "
+                + "JOIN grade g ON sc.student_course_id = g.student_course_id "
+                + "WHERE sc.student_id IN (" + ids + ") AND co.year = ? AND co.semester = ? "
+                + "ORDER BY sc.student_id, sc.student_course_id";
+        try (PreparedStatement ps = prepareForChunk(courseSql, chunk)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    courses.computeIfAbsent(rs.getInt("student_id"), id -> new ArrayList<>()).add(new Object[]{
+                        rs.getString("course_code"),
+                        rs.getString("course_name"),
+                        rs.getInt("credits"),
+                        rs.getString("grade")
+                    });
+                }
+            }
+        }
+
+        Map<Integer, Callable<Void>> renders = new LinkedHashMap<>();
+        for (Integer studentId : chunk) {
+            String studentIdNo = students.get(studentId);
+            Map<String, Object> studentData = details.get(studentId);
+            List<Object[]> studentCourses = courses.get(studentId);
+            if (studentData == null) {
+                result.fail(studentIdNo, "No student data found.");
+            } else if (studentCourses == null) {
+                result.fail(studentIdNo, "No courses found.");
+            } else {
+                String path = outputPath(studentIdNo);
+                renders.put(studentId, () -> {
+                    ReportCardGenerator.writeReportCard(studentData, studentCourses, path);
+                    return null;
+                });
+            }
+        }
+        return renders;
+    }
+
+    private Map<Integer, Callable<Void>> prepareTranscripts(List<Integer> chunk, Map<Integer, String> students,
+            BatchResult result) throws SQLException {
+        Map<Integer, TranscriptData> transcripts = TranscriptLoader.load(connection, chunk);
+
+        Map<Integer, Callable<Void>> renders = new LinkedHashMap<>();
+        for (Integer studentId : chunk) {
+            String studentIdNo = students.get(studentId);
+            TranscriptData transcript = transcripts.get(studentId);
+            if (transcript == null) {
+                result.fail(studentIdNo, "Student not found.");
+            } else {
+                String path = outputPath(studentIdNo);
+                renders.put(studentId, () -> {
+                    Transcript_Generator.writeTranscript(transcript, path);
+                    return null;
+                });
+            }
+        }
+        return renders;
+    }
+
+    // Prepares a query on the chunk's students followed by the cohort's year and semester
+    private PreparedStatement prepareForChunk(String sql, List<Integer> chunk) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(sql);
+        try {
+            bindIds(ps, chunk);
+            ps.setInt(chunk.size() + 1, cohort.year);
+            ps.setInt(chunk.size() + 2, cohort.semester);
+            return ps;
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+    }
+
+    private static void bindIds(PreparedStatement ps, List<Integer> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            ps.setInt(i + 1, ids.get(i));
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private String outputPath(String studentIdNo) {
+        return kind == Kind.REPORT_CARDS
+                ? FilePathUtils.getReportCardFilePath(studentIdNo, cohort.year, cohort.semester)
+                : FilePathUtils.getTranscriptFilePath(studentIdNo);
+    }
+
+    private static Set<String> readJournal(Path journalPath) throws IOException {
+        if (!Files.exists(journalPath)) {
+            return Collections.emptySet();
+        }
+        // A line cut short by a crash matches no student, who is then generated again
+        return new HashSet<>(Files.readAllLines(journalPath, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The outcome of a batch run.
+     */
+    public static class BatchResult {
+
+        private final int totalCount;
+        private int generatedCount;
+        private int skippedCount;
+        private int failedCount;
+        private final List<String> errors = new ArrayList<>();
+
+        private BatchResult(int totalCount) {
+            this.totalCount = totalCount;
+        }
+
+        private void fail(String studentIdNo, String reason) {
+            failedCount++;
+            errors.add(studentIdNo + ": " + reason);
+        }
+
+        /**
+         * @return the number of students in the cohort
+         */
+        public int getTotalCount() {
+            return totalCount;
+        }
+
+        /**
+         * @return the number of documents generated by this run
+         */
+        public int getGeneratedCount() {
+            return generatedCount;
+        }
+
+        /**
+         * @return the number of students already done by an interrupted run
+         */
+        public int getSkippedCount() {
+            return skippedCount;
+        }
+
+        /**
+         * @return the number of students whose document could not be generated
+         */
+        public int getFailedCount() {
+            return failedCount;
+        }
+
+        /**
+         * @return the Student ID No and reason of each failure
+         */
+        public List<String> getErrors() {
+            return errors;
+        }
+    }
+}
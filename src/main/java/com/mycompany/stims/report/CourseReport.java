@@ -11,7 +11,11 @@ import com.itextpdf.layout.Document;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
 import com.mycompany.stims.database.DatabaseConnection;
+import com.mycompany.stims.database.GpaEngine;
+import com.mycompany.stims.database.OfferingAnalyticsDAO;
+import com.mycompany.stims.database.ReferenceDataCache;
 import com.mycompany.stims.model.Course;
+import com.mycompany.stims.model.OfferingAnalytics;
 import com.mycompany.stims.utils.FilePathUtils;
 import com.mycompany.stims.utils.Config;
 
@@ -20,9 +24,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -55,9 +57,10 @@ public class CourseReport {
         FilePathUtils.ensureDirectoryExists(Config.getCourseReportDirectory());
         String filePath = FilePathUtils.getCourseReportFilePath(courseCode, currentDate);
 
-        // Calculate student statistics
-        int studentCount = getEnrollmentCount(courseCode);
-        double avgGrade = calculateAverageGrade(courseCode);
+        // Read student statistics from the offering summary
+        OfferingAnalytics analytics = getCourseAnalytics(courseCode);
+        int studentCount = analytics == null ? 0 : analytics.getEnrollmentCount();
+        boolean graded = analytics != null && analytics.getLetterGradeCount() > 0;
 
         // Generate the PDF report
         try (PdfWriter writer = new PdfWriter(filePath); PdfDocument pdfDoc = new PdfDocument(writer); Document document = new Document(pdfDoc)) {
@@ -117,12 +120,66 @@ public class CourseReport {
             studentStatsTable.addCell(new Cell().add(new Paragraph(String.valueOf(studentCount))));
 
             studentStatsTable.addCell(new Cell().add(new Paragraph("Average Grade").setBold()));
-            studentStatsTable.addCell(new Cell().add(new Paragraph(avgGrade == 0 ? "N/A" : String.format("%.2f", avgGrade))));
+            studentStatsTable.addCell(new Cell().add(new Paragraph(graded ? String.format("%.2f", analytics.getMeanGradePoint()) : "N/A")));
 
             document.add(studentStatsTable);
 
             document.add(new Paragraph(" ").setMarginBottom(20)); // Spacer
 
+            // Add grade distribution section
+            if (graded) {
+                document.add(new Paragraph("GRADE DISTRIBUTION")
+                        .setBold()
+                        .setFontSize(18)
+                        .setFontColor(ColorConstants.DARK_GRAY)
+                        .setMarginBottom(10));
+
+                Table distributionTable = new Table(UnitValue.createPercentArray(new float[]{3, 3, 3, 3}))
+                        .useAllAvailableWidth();
+                for (String header : new String[]{"Grade", "Students", "Share", "Percentile Rank"}) {
+                    distributionTable.addHeaderCell(new Cell().add(new Paragraph(header).setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
+                }
+                int letterGradeCount = analytics.getLetterGradeCount();
+                for (int i = 0; i < GpaEngine.GRADES.size(); i++) {
+                    int count = analytics.getGradeCount(i);
+                    distributionTable.addCell(new Cell().add(new Paragraph(GpaEngine.GRADES.get(i))));
+                    distributionTable.addCell(new Cell().add(new Paragraph(String.valueOf(count))));
+                    distributionTable.addCell(new Cell().add(new Paragraph(String.format("%.1f%%", 100.0 * count / letterGradeCount))));
+                    distributionTable.addCell(new Cell().add(new Paragraph(count == 0 ? "-" : String.format("%.1f", analytics.getPercentileRank(i)))));
+                }
+                document.add(distributionTable);
+
+                document.add(new Paragraph(" ").setMarginBottom(20)); // Spacer
+            }
+
+            // Add cohort comparison section, one row per academic year the course was offered in
+            Map<Integer, OfferingAnalytics> cohorts = getCohortAnalytics(courseCode);
+            if (!cohorts.isEmpty()) {
+                document.add(new Paragraph("COHORT COMPARISON")
+                        .setBold()
+                        .setFontSize(18)
+                        .setFontColor(ColorConstants.DARK_GRAY)
+                        .setMarginBottom(10));
+
+                Table cohortTable = new Table(UnitValue.createPercentArray(new float[]{3, 2, 2, 3, 2}))
+                        .useAllAvailableWidth();
+                for (String header : new String[]{"Academic Year", "Enrolled", "Graded", "Average Grade Point", "Median Grade"}) {
+                    cohortTable.addHeaderCell(new Cell().add(new Paragraph(header).setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
+                }
+                for (Map.Entry<Integer, OfferingAnalytics> cohort : cohorts.entrySet()) {
+                    OfferingAnalytics figures = cohort.getValue();
+                    int median = figures.getMedianGradeIndex();
+                    cohortTable.addCell(new Cell().add(new Paragraph(String.valueOf(cohort.getKey()))));
+                    cohortTable.addCell(new Cell().add(new Paragraph(String.valueOf(figures.getEnrollmentCount()))));
+                    cohortTable.addCell(new Cell().add(new Paragraph(String.valueOf(figures.getGradedCount()))));
+                    cohortTable.addCell(new Cell().add(new Paragraph(median < 0 ? "N/A" : String.format("%.2f", figures.getMeanGradePoint()))));
+                    cohortTable.addCell(new Cell().add(new Paragraph(median < 0 ? "N/A" : GpaEngine.GRADES.get(median))));
+                }
+                document.add(cohortTable);
+
+                document.add(new Paragraph(" ").setMarginBottom(20)); // Spacer
+            }
+
             // Add a footer section
             Paragraph footer = new Paragraph("Report generated on " + java.time.LocalDate.now() + " by STIMS")
                     .setTextAlignment(TextAlignment.RIGHT)
@@ -135,55 +192,6 @@ public class CourseReport {
         }
     }
 
-    /**
-     * Calculates the average grade for a specific course.
-     *
-     * @param courseCode The code of the course for which the average grade is
-     * calculated.
-     * @return The average grade as a double. Returns 0.0 if no grades are
-     * found.
-     */
-    private static double calculateAverageGrade(String courseCode) {
-        String query = "SELECT g.grade FROM grade g "
-                + "JOIN studentcourse sc ON g.student_course_id = sc.student_course_id "
-                + "JOIN courseoffering co ON sc.offering_id = co.offering_id "
-                + "JOIN course c ON co.course_id = c.course_id "
-                + "WHERE c.course_code = ?";
-        Map<String, Double> gradePointMap = new HashMap<>();
-        gradePointMap.put("A+", 4.0);
-        gradePointMap.put("A", 4.0);
-        gradePointMap.put("A-", 3.7);
-        gradePointMap.put("B+", 3.5);
-        gradePointMap.put("B", 3.0);
-        gradePointMap.put("B-", 2.7);
-        gradePointMap.put("C+", 2.5);
-        gradePointMap.put("C", 2.0);
-        gradePointMap.put("D", 1.0);
-        gradePointMap.put("F", 0.0);
-
-        double totalGradePoints = 0;
-        int gradeCount = 0;
-
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setString(1, courseCode);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    String grade = rs.getString("grade");
-                    Double gradePoint = gradePointMap.get(grade);
-                    if (gradePoint != null) {
-                        totalGradePoints += gradePoint;
-                        gradeCount++;
-                    }
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error calculating average grade: " + e.getMessage());
-        }
-
-        return gradeCount > 0 ? totalGradePoints / gradeCount : 0.0; // Return the average or 0 if no grades
-    }
-
     /**
      * Fetches course details from the database.
      *
@@ -197,7 +205,7 @@ public class CourseReport {
                 + "FROM course c "
                 + "JOIN department d ON c.department_id = d.department_id "
                 + "WHERE c.course_code = ?";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.borrow(); PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setString(1, courseCode);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -222,148 +230,116 @@ public class CourseReport {
     }
 
     /**
-     * Generates a PDF report for all courses.
+     * Generates a PDF report for all courses. Courses are streamed from the
+     * database and written to the PDF as they are read, so memory use does not
+     * grow with the number of courses. The file is written atomically, so a
+     * failure part way through leaves no partial report behind.
+     *
+     * @throws IOException if the courses cannot be read or the report cannot
+     * be written
      */
-    public static void generateAllCoursesReport() {
-        List<Course> courses = getAllCoursesFromDb();
+    public static void generateAllCoursesReport() throws IOException {
         // Generate file name based on course code and current date
         String currentDate = java.time.LocalDate.now().toString();  // Get current date in YYYY-MM-DD format
 
         // Use FilePathUtils to get the file path
         FilePathUtils.ensureDirectoryExists(Config.getAllCoursesDirectory());
         String filePath = FilePathUtils.getAllCoursesReportFilePath(currentDate);
+        String query = "SELECT course_code, course_name, course_description, credits, course_level, department_id "
+                + "FROM course ORDER BY course_code";
 
         // Debug: Print the file path
         System.out.println("Attempting to save report to: " + filePath);
 
-        try (PdfWriter writer = new PdfWriter(filePath); PdfDocument pdfDoc = new PdfDocument(writer); Document document = new Document(pdfDoc)) {
-
-            // Adding report title
-            document.add(new Paragraph("ALL COURSES REPORT")
-                    .setBold()
-                    .setFontSize(24)
-                    .setFontColor(ColorConstants.BLUE)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(20));
-
-            // Create a table for course details
-            Table table = new Table(UnitValue.createPercentArray(new float[]{2, 3, 4, 2, 2, 3})).useAllAvailableWidth();
-
-            // Add table headers with styling
-            table.addHeaderCell(new Cell().add(new Paragraph("Course Code").setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
-            table.addHeaderCell(new Cell().add(new Paragraph("Course Name").setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
-            table.addHeaderCell(new Cell().add(new Paragraph("Description").setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
-            table.addHeaderCell(new Cell().add(new Paragraph("Credits").setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
-            table.addHeaderCell(new Cell().add(new Paragraph("Course Level").setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
-            table.addHeaderCell(new Cell().add(new Paragraph("Department").setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
-
-            // Add course data to the table
-            for (Course course : courses) {
-                table.addCell(new Cell().add(new Paragraph(course.getCourseCode())));
-                table.addCell(new Cell().add(new Paragraph(course.getCourseName())));
-                table.addCell(new Cell().add(new Paragraph(course.getCourseDescription())));
-                table.addCell(new Cell().add(new Paragraph(String.valueOf(course.getCredits()))));
-                table.addCell(new Cell().add(new Paragraph(String.valueOf(course.getCourseLevel()))));
-                table.addCell(new Cell().add(new Paragraph(getDepartmentName(course.getDepartmentId()))));
+        int[] rowCount = new int[1];
+        FilePathUtils.writeAtomically(filePath, out -> {
+            try (PdfWriter writer = new PdfWriter(out); PdfDocument pdfDoc = new PdfDocument(writer); Document document = new Document(pdfDoc)) {
+                rowCount[0] = writeAllCourses(document, query);
             }
-
-            // Add the table to the document
-            document.add(table);
-
-            // Add a footer section
-            Paragraph footer = new Paragraph("Report generated on " + java.time.LocalDate.now() + " by STIMS")
-                    .setTextAlignment(TextAlignment.RIGHT)
-                    .setFontSize(10)
-                    .setFontColor(ColorConstants.GRAY)
-                    .setMarginTop(20);
-            document.add(footer);
-
-            System.out.println("All courses report generated successfully: " + filePath);
-        } catch (IOException e) {
-            System.err.println("Error generating report: " + e.getMessage());
-            e.printStackTrace(); // Print the full stack trace for debugging
-        }
+        });
+        System.out.println("All courses report generated successfully: " + filePath + " (" + rowCount[0] + " courses)");
     }
 
     /**
-     * Fetches all courses from the database.
+     * Writes the content of the all courses report.
      *
-     * @return A list of Course objects containing details of all courses.
+     * @param document the PDF document to write to
+     * @param query the query that lists the courses
+     * @return the number of courses written
+     * @throws IOException if the courses cannot be read
      */
-    private static List<Course> getAllCoursesFromDb() {
-        List<Course> courses = new ArrayList<>();
-        String query = "SELECT c.course_code, c.course_name, c.course_description, c.credits, "
-                + "c.course_level, c.year, c.semester, c.department_id, d.department_name "
-                + "FROM course c "
-                + "JOIN department d ON c.department_id = d.department_id";
-
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(query); ResultSet rs = stmt.executeQuery()) {
-
+    private static int writeAllCourses(Document document, String query) throws IOException {
+        // Adding report title
+        document.add(new Paragraph("ALL COURSES REPORT")
+                .setBold()
+                .setFontSize(24)
+                .setFontColor(ColorConstants.BLUE)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginBottom(20));
+
+        // Create a table for course details with styled headers
+        LargeTableWriter table = new LargeTableWriter(document, new float[]{2, 3, 4, 2, 2, 3},
+                "Course Code", "Course Name", "Description", "Credits", "Course Level", "Department");
+
+        // Add course data to the table as it is read
+        try (Connection conn = DatabaseConnection.borrow(); PreparedStatement stmt = LargeTableWriter.prepareStreaming(conn, query); ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                Course course = new Course(
+                table.addRow(
+                        rs.getString("course_code"),
                         rs.getString("course_name"),
                         rs.getString("course_description"),
-                        rs.getInt("credits"),
-                        rs.getInt("course_level"),
-                        rs.getInt("year"),
-                        rs.getInt("semester"),
-                        rs.getInt("department_id")
-                );
-                course.setCourseCode(rs.getString("course_code"));
-                courses.add(course);
+                        String.valueOf(rs.getInt("credits")),
+                        String.valueOf(rs.getInt("course_level")),
+                        getDepartmentName(rs.getInt("department_id")));
             }
         } catch (SQLException e) {
-            System.err.println("Error fetching all courses: " + e.getMessage());
+            // Abandon the report rather than save a list that stops part way
+            throw new IOException("Error fetching all courses: " + e.getMessage(), e);
         }
-        return courses;
+        table.complete();
+
+        // Add a footer section
+        Paragraph footer = new Paragraph("Report generated on " + java.time.LocalDate.now() + " by STIMS")
+                .setTextAlignment(TextAlignment.RIGHT)
+                .setFontSize(10)
+                .setFontColor(ColorConstants.GRAY)
+                .setMarginTop(20);
+        document.add(footer);
+        return table.getRowCount();
     }
 
     /**
-     * Gets the number of students enrolled in a specific course.
+     * Gets the summary figures of a specific course, all of its offerings
+     * added together.
      *
      * @param courseCode The code of the course.
-     * @return The number of students enrolled in the course.
+     * @return The summary, or null if the course has no offerings or the
+     * summary could not be read.
      */
-    private static int getEnrollmentCount(String courseCode) {
-        String query = "SELECT COUNT(*) FROM studentcourse sc "
-                + "JOIN courseoffering co ON sc.offering_id = co.offering_id "
-                + "JOIN course c ON co.course_id = c.course_id "
-                + "WHERE c.course_code = ?";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, courseCode);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
-                }
-            }
+    private static OfferingAnalytics getCourseAnalytics(String courseCode) {
+        try (Connection conn = DatabaseConnection.borrow()) {
+            return new OfferingAnalyticsDAO(conn).getCourseAnalytics(courseCode);
         } catch (SQLException e) {
-            System.err.println("Error fetching enrollment count: " + e.getMessage());
+            System.err.println("Error fetching course analytics: " + e.getMessage());
         }
-        return 0;
+        return null;
     }
 
     /**
-     * Gets the number of teachers assigned to a specific course.
+     * Gets the summary figures of a specific course for each academic year it
+     * was offered in.
      *
      * @param courseCode The code of the course.
-     * @return The number of teachers assigned to the course.
+     * @return The summaries by academic year, earliest first; empty if they
+     * could not be read.
      */
-    private static int getTeacherCount(String courseCode) {
-        String query = "SELECT COUNT(*) FROM teachercourse tc "
-                + "JOIN courseoffering co ON tc.offering_id = co.offering_id "
-                + "JOIN course c ON co.course_id = c.course_id "
-                + "WHERE c.course_code = ?";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, courseCode);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getInt(1);
-                }
-            }
+    private static Map<Integer, OfferingAnalytics> getCohortAnalytics(String courseCode) {
+        try (Connection conn = DatabaseConnection.borrow()) {
+            return new OfferingAnalyticsDAO(conn).getCourseAnalyticsByAcademicYear(courseCode);
         } catch (SQLException e) {
-            System.err.println("Error fetching teacher count: " + e.getMessage());
+            System.err.println("Error fetching cohort analytics: " + e.getMessage());
         }
-        return 0;
+        return Collections.emptyMap();
     }
 
     /**
@@ -372,19 +348,9 @@ public class CourseReport {
      * @param departmentId The ID of the department.
      * @return The name of the department, or "N/A" if not found.
      */
-    private static String getDepartmentName(int departmentId) {
-        String query = "SELECT department_name FROM department WHERE department_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, departmentId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("department_name");
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error fetching department name: " + e.getMessage());
-        }
-        return "N/A";
+    static String getDepartmentName(int departmentId) {
+        String name = ReferenceDataCache.getDepartmentName(departmentId);
+        return name != null ? name : "N/A";
     }
 
     /**
@@ -392,7 +358,13 @@ public class CourseReport {
      */
     public static void generateCourseStatistics() {
         // Calculate course statistics
-        CourseStatistics stats = calculateCourseStatistics();
+        CourseStatistics stats;
+        try (Connection conn = DatabaseConnection.borrow()) {
+            stats = CourseStatisticsEngine.compute(conn);
+        } catch (SQLException e) {
+            System.err.println("Error calculating course statistics: " + e.getMessage());
+            return;
+        }
 
         // Generate file name based on current date
         String currentDate = java.time.LocalDate.now().toString();
@@ -413,6 +385,7 @@ public class CourseReport {
             // Add general statistics
             document.add(new Paragraph("Total Courses: " + stats.getTotalCourses()));
             document.add(new Paragraph("Average Credits: " + stats.getAverageCredits()));
+            document.add(new Paragraph("Average Grade Point: " + String.format("%.2f", stats.getAverageGradePoint())));
             document.add(new Paragraph("Most Popular Course (By Enrollment): " + stats.getMostPopularCourseByEnrollment()));
             document.add(new Paragraph("Department with Most Courses: " + stats.getDepartmentWithMostCourses()));
 
@@ -439,7 +412,7 @@ public class CourseReport {
             // Add course enrollments
             document.add(new Paragraph(" ")); // Space between sections
             document.add(new Paragraph("Course Enrollment Summary:"));
-            Table enrollmentTable = new Table(3);
+            Table enrollmentTable = new Table(5);
 
             // Add header cells with background color
             enrollmentTable.addCell(new Cell().add(new Paragraph("Course Code"))
@@ -448,12 +421,19 @@ public class CourseReport {
                     .setBackgroundColor(ColorConstants.LIGHT_GRAY));
             enrollmentTable.addCell(new Cell().add(new Paragraph("Enrollment Count"))
                     .setBackgroundColor(ColorConstants.LIGHT_GRAY));
+            enrollmentTable.addCell(new Cell().add(new Paragraph("Teachers"))
+                    .setBackgroundColor(ColorConstants.LIGHT_GRAY));
+            enrollmentTable.addCell(new Cell().add(new Paragraph("Average Grade Point"))
+                    .setBackgroundColor(ColorConstants.LIGHT_GRAY));
 
             // Add data rows
             for (Map.Entry<String, Integer> entry : stats.getCourseEnrollmentCount().entrySet()) {
                 enrollmentTable.addCell(entry.getKey());
                 enrollmentTable.addCell(stats.getCourseNames().get(entry.getKey()));
                 enrollmentTable.addCell(entry.getValue().toString());
+                enrollmentTable.addCell(stats.getCourseTeacherCount().get(entry.getKey()).toString());
+                Double averageGradePoint = stats.getCourseAverageGradePoint().get(entry.getKey());
+                enrollmentTable.addCell(averageGradePoint != null ? String.format("%.2f", averageGradePoint) : "N/A");
             }
 
             document.add(enrollmentTable);
@@ -470,125 +450,4 @@ public class CourseReport {
             System.err.println("Error generating statistics report: " + e.getMessage());
         }
     }
-
-    /**
-     * Calculates statistics for all courses.
-     *
-     * @return A CourseStatistics object containing the calculated statistics.
-     */
-    private static CourseStatistics calculateCourseStatistics() {
-        List<Course> courses = getAllCoursesFromDb();
-        int totalCourses = courses.size();
-        double totalCredits = 0;
-        Map<String, Integer> departmentCourseCount = new HashMap<>();
-        Map<String, Integer> courseEnrollmentCount = new HashMap<>();
-        Map<String, String> courseNames = new HashMap<>();
-        Map<String, Integer> courseTeacherCount = new HashMap<>();
-
-        String mostPopularCourseCode = "";
-        int maxEnrollment = 0;
-        String departmentWithMostCourses = "";
-        int maxCoursesInDept = 0;
-
-        for (Course course : courses) {
-            totalCredits += course.getCredits();
-
-            // Department-wise course count
-            String departmentName = getDepartmentName(course.getDepartmentId());
-            departmentCourseCount.put(departmentName, departmentCourseCount.getOrDefault(departmentName, 0) + 1);
-
-            // Course names
-            courseNames.put(course.getCourseCode(), course.getCourseName());
-
-            // Enrollment count for each course
-            int enrollmentCount = getEnrollmentCount(course.getCourseCode());
-            courseEnrollmentCount.put(course.getCourseCode(), enrollmentCount);
-            if (enrollmentCount > maxEnrollment) {
-                mostPopularCourseCode = course.getCourseCode();
-                maxEnrollment = enrollmentCount;
-            }
-
-            // Teacher count for each course
-            int teacherCount = getTeacherCount(course.getCourseCode());
-            courseTeacherCount.put(course.getCourseCode(), teacherCount);
-        }
-
-        // Determine department with most courses
-        for (Map.Entry<String, Integer> entry : departmentCourseCount.entrySet()) {
-            if (entry.getValue() > maxCoursesInDept) {
-                departmentWithMostCourses = entry.getKey();
-                maxCoursesInDept = entry.getValue();
-            }
-        }
-
-        // Calculate average credits
-        double averageCredits = totalCourses == 0 ? 0 : totalCredits / totalCourses;
-
-        return new CourseStatistics(
-                totalCourses, averageCredits, departmentCourseCount,
-                courseEnrollmentCount, courseNames, courseTeacherCount,
-                mostPopularCourseCode, departmentWithMostCourses
-        );
-    }
-
-    /**
-     * Inner class to hold course statistics data.
-     */
-    private static class CourseStatistics {
-
-        private final int totalCourses;
-        private final double averageCredits;
-        private final Map<String, Integer> departmentCourseCount;
-        private final Map<String, Integer> courseEnrollmentCount;
-        private final Map<String, String> courseNames;
-        private final Map<String, Integer> courseTeacherCount;
-        private final String mostPopularCourseByEnrollment;
-        private final String departmentWithMostCourses;
-
-        public CourseStatistics(int totalCourses, double averageCredits, Map<String, Integer> departmentCourseCount,
-                Map<String, Integer> courseEnrollmentCount, Map<String, String> courseNames,
-                Map<String, Integer> courseTeacherCount, String mostPopularCourseByEnrollment,
-                String departmentWithMostCourses) {
-            this.totalCourses = totalCourses;
-            this.averageCredits = averageCredits;
-            this.departmentCourseCount = departmentCourseCount;
-            this.courseEnrollmentCount = courseEnrollmentCount;
-            this.courseNames = courseNames;
-            this.courseTeacherCount = courseTeacherCount;
-            this.mostPopularCourseByEnrollment = mostPopularCourseByEnrollment;
-            this.departmentWithMostCourses = departmentWithMostCourses;
-        }
-
-        public int getTotalCourses() {
-            return totalCourses;
-        }
-
-        public double getAverageCredits() {
-            return averageCredits;
-        }
-
-        public Map<String, Integer> getDepartmentCourseCount() {
-            return departmentCourseCount;
-        }
-
-        public Map<String, Integer> getCourseEnrollmentCount() {
-            return courseEnrollmentCount;
-        }
-
-        public Map<String, String> getCourseNames() {
-            return courseNames;
-        }
-
-        public Map<String, Integer> getCourseTeacherCount() {
-            return courseTeacherCount;
-        }
-
-        public String getMostPopularCourseByEnrollment() {
-            return mostPopularCourseByEnrollment;
-        }
-
-        public String getDepartmentWithMostCourses() {
-            return departmentWithMostCourses;
-        }
-    }
 }
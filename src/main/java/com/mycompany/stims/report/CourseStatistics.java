@@ -0,0 +1,85 @@
+package com.mycompany.stims.report;
+
+import java.util.Map;
+
+/**
+ * Holds the statistics shown on the course statistics report. Per-course
+ * figures are keyed by course code.
+ */
+class CourseStatistics {
+
+    private final int totalCourses;
+    private final double averageCredits;
+    private final Map<String, Integer> departmentCourseCount;
+    private final Map<String, Integer> courseEnrollmentCount;
+    private final Map<String, String> courseNames;
+    private final Map<String, Integer> courseTeacherCount;
+    private final Map<String, Double> courseAverageGradePoint;
+    private final double averageGradePoint;
+    private final String mostPopularCourseByEnrollment;
+    private final String departmentWithMostCourses;
+
+    public CourseStatistics(int totalCourses, double averageCredits, Map<String, Integer> departmentCourseCount,
+            Map<String, Integer> courseEnrollmentCount, Map<String, String> courseNames,
+            Map<String, Integer> courseTeacherCount, Map<String, Double> courseAverageGradePoint,
+            double averageGradePoint, String mostPopularCourseByEnrollment, String departmentWithMostCourses) {
+        this.totalCourses = totalCourses;
+        this.averageCredits = averageCredits;
+        this.departmentCourseCount = departmentCourseCount;
+        this.courseEnrollmentCount = courseEnrollmentCount;
+        this.courseNames = courseNames;
+        this.courseTeacherCount = courseTeacherCount;
+        this.courseAverageGradePoint = courseAverageGradePoint;
+        this.averageGradePoint = averageGradePoint;
+        this.mostPopularCourseByEnrollment = mostPopularCourseByEnrollment;
+        this.departmentWithMostCourses = departmentWithMostCourses;
+    }
+
+    public int getTotalCourses() {
+        return totalCourses;
+    }
+
+    public double getAverageCredits() {
+        return averageCredits;
+    }
+
+    public Map<String, Integer> getDepartmentCourseCount() {
+        return departmentCourseCount;
+    }
+
+    public Map<String, Integer> getCourseEnrollmentCount() {
+        return courseEnrollmentCount;
+    }
+
+    public Map<String, String> getCourseNames() {
+        return courseNames;
+    }
+
+    public Map<String, Integer> getCourseTeacherCount() {
+        return courseTeacherCount;
+    }
+
+    /**
+     * @return the mean grade point of each course; courses without grades
+     * are missing
+     */
+    public Map<String, Double> getCourseAverageGradePoint() {
+        return courseAverageGradePoint;
+    }
+
+    /**
+     * @return the mean grade point over every grade given, 0 if there are
+     * none
+     */
+    public double getAverageGradePoint() {
+        return averageGradePoint;
+    }
+
+    public String getMostPopularCourseByEnrollment() {
+        return mostPopularCourseByEnrollment;
+    }
+
+    public String getDepartmentWithMostCourses() {
+        return departmentWithMostCourses;
+    }
+}
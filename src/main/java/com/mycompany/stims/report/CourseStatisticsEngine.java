@@ -0,0 +1,99 @@
+package com.mycompany.stims.report;
+
+import com.mycompany.stims.database.OfferingAnalyticsDAO;
+import com.mycompany.stims.database.ReferenceDataCache;
+import com.mycompany.stims.model.OfferingAnalytics;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Computes the course statistics with two queries however many courses there
+ * are: one for the courses themselves and one grouped read of the offering
+ * summary maintained by {@link OfferingAnalyticsDAO} for their enrollment,
+ * teacher and grade figures. Department names come from
+ * {@link ReferenceDataCache}.
+ */
+final class CourseStatisticsEngine {
+
+    private static final String COURSE_SQL = "SELECT c.course_id, c.course_code, c.course_name, c.credits, c.department_id "
+            + "FROM course c "
+            + "JOIN department d ON c.department_id = d.department_id "
+            + "ORDER BY c.course_code";
+
+    private CourseStatisticsEngine() {
+    }
+
+    /**
+     * Calculates statistics for all courses.
+     *
+     * @param connection the database connection
+     * @return the statistics
+     * @throws SQLException if a database access error occurs
+     */
+    static CourseStatistics compute(Connection connection) throws SQLException {
+        Map<Integer, String> courseCodes = new LinkedHashMap<>();
+        Map<String, String> courseNames = new HashMap<>();
+        Map<String, Integer> departmentCourseCount = new TreeMap<>();
+        double totalCredits = 0;
+        try (PreparedStatement ps = connection.prepareStatement(COURSE_SQL); ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String courseCode = rs.getString("course_code");
+                courseCodes.put(rs.getInt("course_id"), courseCode);
+                courseNames.put(courseCode, rs.getString("course_name"));
+                totalCredits += rs.getInt("credits");
+                departmentCourseCount.merge(CourseReport.getDepartmentName(rs.getInt("department_id")), 1, Integer::sum);
+            }
+        }
+
+        Map<Integer, OfferingAnalytics> analytics = new OfferingAnalyticsDAO(connection).getAnalyticsByCourse();
+
+        // Per-course figures, in course code order
+        Map<String, Integer> courseEnrollmentCount = new LinkedHashMap<>();
+        Map<String, Integer> courseTeacherCount = new LinkedHashMap<>();
+        Map<String, Double> courseAverageGradePoint = new LinkedHashMap<>();
+        String mostPopularCourseCode = "";
+        int maxEnrollment = 0;
+        double totalGradePoints = 0;
+        long gradeCount = 0;
+        for (Map.Entry<Integer, String> course : courseCodes.entrySet()) {
+            String courseCode = course.getValue();
+            OfferingAnalytics summary = analytics.get(course.getKey());
+            int enrollmentCount = summary == null ? 0 : summary.getEnrollmentCount();
+            courseEnrollmentCount.put(courseCode, enrollmentCount);
+            if (enrollmentCount > maxEnrollment) {
+                mostPopularCourseCode = courseCode;
+                maxEnrollment = enrollmentCount;
+            }
+            courseTeacherCount.put(courseCode, summary == null ? 0 : summary.getTeacherCount());
+            // Grades off the letter scale (such as incomplete) do not count towards averages
+            if (summary != null && summary.getLetterGradeCount() > 0) {
+                courseAverageGradePoint.put(courseCode, summary.getMeanGradePoint());
+                totalGradePoints += summary.getGradePointTotal();
+                gradeCount += summary.getLetterGradeCount();
+            }
+        }
+
+        // Determine department with most courses
+        String departmentWithMostCourses = "";
+        int maxCoursesInDept = 0;
+        for (Map.Entry<String, Integer> entry : departmentCourseCount.entrySet()) {
+            if (entry.getValue() > maxCoursesInDept) {
+                departmentWithMostCourses = entry.getKey();
+                maxCoursesInDept = entry.getValue();
+            }
+        }
+
+        int totalCourses = courseCodes.size();
+        return new CourseStatistics(
+                totalCourses, totalCourses == 0 ? 0 : totalCredits / totalCourses, departmentCourseCount,
+                courseEnrollmentCount, courseNames, courseTeacherCount, courseAverageGradePoint,
+                gradeCount == 0 ? 0 : totalGradePoints / gradeCount, mostPopularCourseCode, departmentWithMostCourses
+        );
+    }
+}
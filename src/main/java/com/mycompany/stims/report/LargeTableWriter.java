@@ -0,0 +1,93 @@
+package com.mycompany.stims.report;
+
+import com.itextpdf.kernel.colors.ColorConstants;
+import com.itextpdf.layout.Document;
+import com.itextpdf.layout.element.Cell;
+import com.itextpdf.layout.element.Paragraph;
+import com.itextpdf.layout.element.Table;
+import com.itextpdf.layout.properties.UnitValue;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes a table of any length to a PDF document using iText's large-table
+ * support. The table is added to the document before its rows; every
+ * {@value #FLUSH_ROWS} rows the completed rows are laid out and written to
+ * the {@code PdfWriter}, so only the rows since the last flush are held in
+ * memory. The header row is repeated on every page.
+ * <p>
+ * Paired with {@link #prepareStreaming(Connection, String)}, whose result set
+ * is read from the server row by row, a report's memory use stays flat
+ * however many rows it has.
+ */
+class LargeTableWriter {
+
+    static final int FLUSH_ROWS = 200; // Rows laid out and written per flush
+
+    private final Table table;
+    private int rowCount;
+
+    /**
+     * Creates the table and adds it to the document.
+     *
+     * @param document the document to write the table to
+     * @param columnWidths the relative widths of the columns
+     * @param headers the header of each column
+     */
+    LargeTableWriter(Document document, float[] columnWidths, String... headers) {
+        table = new Table(UnitValue.createPercentArray(columnWidths), true).useAllAvailableWidth();
+        for (String header : headers) {
+            table.addHeaderCell(new Cell().add(new Paragraph(header).setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
+        }
+        document.add(table);
+    }
+
+    /**
+     * Adds one row to the table, flushing the completed rows every
+     * {@value #FLUSH_ROWS} rows.
+     *
+     * @param values the text of each cell; null is written as an empty cell
+     */
+    void addRow(String... values) {
+        for (String value : values) {
+            table.addCell(new Cell().add(new Paragraph(value != null ? value : "")));
+        }
+        if (++rowCount % FLUSH_ROWS == 0) {
+            table.flush();
+        }
+    }
+
+    /**
+     * @return the number of rows added so far
+     */
+    int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Writes the remaining rows and closes the table. Must be called before
+     * anything else is added to the document.
+     */
+    void complete() {
+        table.complete();
+    }
+
+    /**
+     * Prepares a forward-only, read-only query whose rows are streamed from
+     * the server one at a time instead of being buffered in full, which is
+     * how MySQL Connector/J limits the fetch size. No other statement may be
+     * run on the connection until the result set is closed.
+     *
+     * @param connection the connection to run the query on
+     * @param sql the query
+     * @return the prepared statement
+     * @throws SQLException if a database access error occurs
+     */
+    static PreparedStatement prepareStreaming(Connection connection, String sql) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        statement.setFetchSize(Integer.MIN_VALUE);
+        return statement;
+    }
+}
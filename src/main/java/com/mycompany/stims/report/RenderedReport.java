@@ -0,0 +1,56 @@
+package com.mycompany.stims.report;
+
+import java.time.LocalDate;
+
+/**
+ * A report that has been rendered to PDF once, ready to be handed to any
+ * number of {@link ReportSink}s.
+ */
+public final class RenderedReport {
+
+    private final int studentId;        // Primary key of the student the report is about
+    private final String studentIdNo;   // Student ID No, used in file names
+    private final String reportName;    // Name stored with the report, e.g. Student_Report_2025-03-01.pdf
+    private final LocalDate date;       // Date the report was generated
+    private final byte[] content;       // The PDF
+
+    /**
+     * Constructs a RenderedReport.
+     *
+     * @param studentId the ID of the student
+     * @param studentIdNo the Student ID No of the student
+     * @param reportName the name of the report
+     * @param date the date the report was generated
+     * @param content the PDF content
+     */
+    public RenderedReport(int studentId, String studentIdNo, String reportName, LocalDate date, byte[] content) {
+        this.studentId = studentId;
+        this.studentIdNo = studentIdNo;
+        this.reportName = reportName;
+        this.date = date;
+        this.content = content;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public String getStudentIdNo() {
+        return studentIdNo;
+    }
+
+    public String getReportName() {
+        return reportName;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * @return the PDF content; shared, not copied, so it must not be modified
+     */
+    public byte[] getContent() {
+        return content;
+    }
+}
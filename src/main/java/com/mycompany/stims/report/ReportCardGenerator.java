@@ -3,7 +3,6 @@ package com.mycompany.stims.report;
 import com.mycompany.stims.database.DatabaseConnection;
 import com.mycompany.stims.utils.FilePathUtils;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -47,7 +46,7 @@ public class ReportCardGenerator {
                 + "WHERE s.studentId_No = ? AND sar.year = ? AND sar.semester = ? "
                 + "LIMIT 1";
 
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement pstmt = conn.prepareStatement(studentQuery)) {
+        try (Connection conn = DatabaseConnection.borrow(); PreparedStatement pstmt = conn.prepareStatement(studentQuery)) {
 
             pstmt.setString(1, studentIdNo);
             pstmt.setInt(2, year);
@@ -91,7 +90,7 @@ public class ReportCardGenerator {
                 + "WHERE sc.student_id = (SELECT student_id FROM student WHERE studentId_No = ?) "
                 + "AND co.year = ? AND co.semester = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement pstmt = conn.prepareStatement(courseQuery)) {
+        try (Connection conn = DatabaseConnection.borrow(); PreparedStatement pstmt = conn.prepareStatement(courseQuery)) {
 
             pstmt.setString(1, studentIdNo);
             pstmt.setInt(2, year);
@@ -123,31 +122,19 @@ public class ReportCardGenerator {
      */
     public static boolean generateReportCard(String studentIdNo, int year, int semester) {
         String outputPath = FilePathUtils.getReportCardFilePath(studentIdNo, year, semester);
-        String templatePath = FilePathUtils.getReportCardTemplatePath();
 
-        try (FileInputStream file = new FileInputStream(templatePath); Workbook workbook = new XSSFWorkbook(file)) {
-
-            // Access the first sheet
-            Sheet sheet = workbook.getSheetAt(0);
-
-            // Fetch student data and populate the sheet
+        try {
+            // Fetch student data and the courses and grades for the specific semester
             Map<String, Object> studentData = fetchStudentData(studentIdNo, year, semester);
             if (studentData == null || studentData.isEmpty()) {
                 throw new SQLException("No student data found for the provided details.");
             }
-            populateStudentDetails(sheet, studentData);
-
-            // Fetch and populate courses and grades for the specific semester
             List<Object[]> courses = fetchStudentCourses(studentIdNo, year, semester);
             if (courses == null || courses.isEmpty()) {
                 throw new SQLException("No courses found for the provided details.");
             }
-            populateCourses(sheet, courses);
 
-            // Save the updated Excel report card
-            try (FileOutputStream outFile = new FileOutputStream(outputPath)) {
-                workbook.write(outFile);
-            }
+            writeReportCard(studentData, courses, outputPath);
 
             System.out.println("Excel Report Card generated successfully!");
             return true;
@@ -164,6 +151,33 @@ public class ReportCardGenerator {
         }
     }
 
+    /**
+     * Fills the report card template with a student's details and courses and
+     * saves it. The file is written atomically, so it is never left half
+     * written. Does not touch the database, so report cards for different
+     * students can be written in parallel.
+     *
+     * @param studentData the student details, as returned by
+     * {@link #fetchStudentData(String, int, int)}
+     * @param courses the courses and grades, as returned by
+     * {@link #fetchStudentCourses(String, int, int)}
+     * @param outputPath the file to write the report card to
+     * @throws IOException if the template cannot be read or the report card
+     * cannot be written
+     */
+    static void writeReportCard(Map<String, Object> studentData, List<Object[]> courses, String outputPath) throws IOException {
+        try (FileInputStream file = new FileInputStream(FilePathUtils.getReportCardTemplatePath()); Workbook workbook = new XSSFWorkbook(file)) {
+
+            // Access the first sheet and populate it
+            Sheet sheet = workbook.getSheetAt(0);
+            populateStudentDetails(sheet, studentData);
+            populateCourses(sheet, courses);
+
+            // Save the updated Excel report card
+            FilePathUtils.writeAtomically(outputPath, workbook::write);
+        }
+    }
+
     /**
      * Populates student details into the Excel sheet.
      *
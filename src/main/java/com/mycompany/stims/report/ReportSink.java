@@ -0,0 +1,22 @@
+package com.mycompany.stims.report;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * A destination for a rendered report, such as a file or the
+ * `student_reports` table. A report is rendered once and its bytes are handed
+ * to each sink in turn.
+ */
+@FunctionalInterface
+public interface ReportSink {
+
+    /**
+     * Writes a rendered report to this sink.
+     *
+     * @param report the rendered report
+     * @throws IOException if the report cannot be written to a file
+     * @throws SQLException if the report cannot be stored in the database
+     */
+    void write(RenderedReport report) throws IOException, SQLException;
+}
@@ -10,11 +10,17 @@ import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.properties.TextAlignment;
 import com.itextpdf.layout.properties.UnitValue;
 import com.mycompany.stims.database.DatabaseConnection;
+import com.mycompany.stims.database.ReferenceDataCache;
+import com.mycompany.stims.database.StudentReportDAO;
 import com.mycompany.stims.model.Student;
+import com.mycompany.stims.utils.Config;
 import com.mycompany.stims.utils.FilePathUtils;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -33,10 +39,25 @@ import java.util.Map;
  */
 public class StudentReport {
 
+    /**
+     * Writes a report to the file named by
+     * {@link FilePathUtils#getStudentReportFilePath(String, String)}.
+     */
+    public static final ReportSink FILE_SINK = report -> Files.write(
+            Paths.get(FilePathUtils.getStudentReportFilePath(report.getStudentIdNo(), report.getDate().toString())),
+            report.getContent());
+
+    /**
+     * Stores a report in the `student_reports` table.
+     */
+    public static final ReportSink DATABASE_SINK = report
+            -> saveReportToDatabase(report.getStudentId(), report.getReportName(), report.getContent());
+
     /**
      * Generates a PDF report for a specific student based on their student ID
-     * number. The report includes student details, enrolled courses, and a
-     * footer with the generation date.
+     * number and writes it to the sinks named in the configuration (by
+     * default a file and the database). The report includes student details,
+     * enrolled courses, and a footer with the generation date.
      *
      * @param studentIdNo The student ID number for which the report is
      * generated.
@@ -45,22 +66,69 @@ public class StudentReport {
      * found.
      */
     public static void generateStudentReport(String studentIdNo) throws IOException {
+        generateStudentReport(studentIdNo, getConfiguredSinks());
+    }
+
+    /**
+     * Generates a PDF report for a specific student and writes it to the given
+     * sinks. The document is rendered once; every sink receives the same
+     * bytes. A sink that fails does not stop the others, but its failure is
+     * reported once all sinks have been tried.
+     *
+     * @param studentIdNo The student ID number for which the report is
+     * generated.
+     * @param sinks The sinks to write the report to, in order.
+     * @return The rendered report.
+     * @throws IOException If an I/O error occurs during PDF generation, or if
+     * any sink failed; the first failure is the cause and any others are
+     * suppressed.
+     * @throws IllegalArgumentException If the student with the given ID is not
+     * found.
+     */
+    public static RenderedReport generateStudentReport(String studentIdNo, List<ReportSink> sinks) throws IOException {
         Student student = getStudentFromDb(studentIdNo);
         if (student == null) {
             throw new IllegalArgumentException("Student with ID " + studentIdNo + " not found.");
         }
-        String currentDate = LocalDate.now().toString();  // Get current date in YYYY-MM-DD format
-
-        // Use FilePathUtils to get the dynamic file path
-        String filePath = FilePathUtils.getStudentReportFilePath(studentIdNo, currentDate);
-
-        if (student == null) {
-            System.out.println("Student not found.");
-            return;
+        LocalDate currentDate = LocalDate.now();
+
+        // Render the PDF once
+        byte[] pdfContent = renderStudentReport(student, currentDate);
+        RenderedReport report = new RenderedReport(student.getStudentId(), student.getStudentIdNo(),
+                "Student_Report_" + currentDate + ".pdf", currentDate, pdfContent);
+
+        // Hand the same bytes to every sink
+        List<Exception> failures = new ArrayList<>();
+        for (ReportSink sink : sinks) {
+            try {
+                sink.write(report);
+            } catch (IOException | SQLException e) {
+                System.err.println("Error saving report: " + e.getMessage());
+                failures.add(e);
+            }
         }
+        if (!failures.isEmpty()) {
+            IOException failure = new IOException("The report could not be saved to " + failures.size() + " of "
+                    + sinks.size() + " destinations: " + failures.get(0).getMessage(), failures.get(0));
+            failures.subList(1, failures.size()).forEach(failure::addSuppressed);
+            throw failure;
+        }
+        System.out.println("Report generated and saved successfully.");
+        return report;
+    }
 
+    /**
+     * Renders the report of a student to PDF.
+     *
+     * @param student The student the report is about.
+     * @param currentDate The date printed in the footer.
+     * @return The PDF content.
+     * @throws IOException If an I/O error occurs during PDF generation.
+     */
+    private static byte[] renderStudentReport(Student student, LocalDate currentDate) throws IOException {
         // Create a ByteArrayOutputStream to hold the PDF content
-        try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream(); PdfWriter writer = new PdfWriter(outputStream); PdfDocument pdfDoc = new PdfDocument(writer); Document document = new Document(pdfDoc)) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (PdfWriter writer = new PdfWriter(outputStream); PdfDocument pdfDoc = new PdfDocument(writer); Document document = new Document(pdfDoc)) {
 
             // Adding report header
             document.add(new Paragraph("STUDENT REPORT")
@@ -74,7 +142,7 @@ public class StudentReport {
             addStudentDetails(document, student);
 
             // Fetch courses classified by academic_year, year, and semester
-            Map<String, List<Map<String, String>>> classifiedCourses = getClassifiedCoursesForStudent(studentIdNo);
+            Map<String, List<Map<String, String>>> classifiedCourses = getClassifiedCoursesForStudent(student.getStudentIdNo());
 
             if (!classifiedCourses.isEmpty()) {
                 document.add(new Paragraph("Courses Enrolled:")
@@ -114,88 +182,42 @@ public class StudentReport {
             }
 
             // Add a footer section
-            Paragraph footer = new Paragraph("Report generated on " + LocalDate.now() + " by STIMS")
+            Paragraph footer = new Paragraph("Report generated on " + currentDate + " by STIMS")
                     .setTextAlignment(TextAlignment.RIGHT)
                     .setFontSize(10)
                     .setFontColor(ColorConstants.GRAY)
                     .setMarginTop(20);
             document.add(footer);
+        }
+        return outputStream.toByteArray();
+    }
 
-            // Finalize the PDF document
-            document.close();
-
-            // Convert the PDF content to a byte array
-            byte[] pdfContent = outputStream.toByteArray();
-
-            // Save the report to the database
-            saveReportToDatabase(student.getStudentId(), "Student_Report_" + LocalDate.now() + ".pdf", pdfContent);
-
-            // Save the report to a file
-            try (PdfWriter fileWriter = new PdfWriter(filePath); PdfDocument filePdfDoc = new PdfDocument(fileWriter); Document fileDocument = new Document(filePdfDoc)) {
-
-                // Add report content (header, student details, courses, footer)
-                fileDocument.add(new Paragraph("STUDENT REPORT")
-                        .setBold()
-                        .setFontSize(24)
-                        .setFontColor(ColorConstants.BLUE)
-                        .setTextAlignment(TextAlignment.CENTER)
-                        .setMarginBottom(20));
-
-                addStudentDetails(fileDocument, student);
-
-                // Add courses and other content
-                if (!classifiedCourses.isEmpty()) {
-                    fileDocument.add(new Paragraph("Courses Enrolled:")
-                            .setBold()
-                            .setFontSize(18)
-                            .setFontColor(ColorConstants.DARK_GRAY)
-                            .setMarginTop(20)
-                            .setMarginBottom(10));
-
-                    for (Map.Entry<String, List<Map<String, String>>> entry : classifiedCourses.entrySet()) {
-                        String classification = entry.getKey();
-                        List<Map<String, String>> courses = entry.getValue();
-
-                        fileDocument.add(new Paragraph(classification)
-                                .setBold()
-                                .setFontSize(16)
-                                .setFontColor(ColorConstants.BLACK)
-                                .setMarginTop(15)
-                                .setMarginBottom(10));
-
-                        Table courseTable = new Table(UnitValue.createPercentArray(new float[]{4, 3, 3})).useAllAvailableWidth();
-                        courseTable.addCell(new Cell().add(new Paragraph("Course Name").setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
-                        courseTable.addCell(new Cell().add(new Paragraph("Enrollment Date").setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
-                        courseTable.addCell(new Cell().add(new Paragraph("Status").setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
-
-                        for (Map<String, String> course : courses) {
-                            courseTable.addCell(new Cell().add(new Paragraph(course.get("course_name"))));
-                            courseTable.addCell(new Cell().add(new Paragraph(course.get("enrollment_date"))));
-                            courseTable.addCell(new Cell().add(new Paragraph(course.get("status"))));
-                        }
-
-                        fileDocument.add(courseTable);
-                        fileDocument.add(new Paragraph(" ").setMarginBottom(10)); // Add space between classifications
-                    }
-                }
-
-                // Add a footer section
-                Paragraph fileFooter = new Paragraph("Report generated on " + LocalDate.now() + " by STIMS")
-                        .setTextAlignment(TextAlignment.RIGHT)
-                        .setFontSize(10)
-                        .setFontColor(ColorConstants.GRAY)
-                        .setMarginTop(20);
-                fileDocument.add(fileFooter);
+    /**
+     * Returns the sinks named in the `report.student_report_sinks` setting.
+     *
+     * @return the configured sinks, in the order they are named
+     */
+    private static List<ReportSink> getConfiguredSinks() {
+        List<ReportSink> sinks = new ArrayList<>();
+        for (String name : Config.getStudentReportSinks()) {
+            switch (name) {
+                case "file":
+                    sinks.add(FILE_SINK);
+                    break;
+                case "database":
+                    sinks.add(DATABASE_SINK);
+                    break;
+                default:
+                    System.err.println("Unknown report sink: " + name);
+                    break;
             }
-
-            System.out.println("Report generated and saved to the database and file successfully.");
-        } catch (IOException | SQLException e) {
-            System.err.println("Error generating or saving report: " + e.getMessage());
         }
+        return sinks;
     }
 
     /**
-     * Saves the PDF report to the database.
+     * Saves the PDF report to the database. The rendered bytes are streamed
+     * to the driver as they are, without another copy.
      *
      * @param studentId The ID of the student.
      * @param reportName The name of the report.
@@ -203,15 +225,8 @@ public class StudentReport {
      * @throws SQLException If there is an error executing the SQL query.
      */
     private static void saveReportToDatabase(int studentId, String reportName, byte[] pdfContent) throws SQLException {
-        String query = "INSERT INTO student_reports (student_id, report_name, report_content) VALUES (?, ?, ?)";
-
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setInt(1, studentId);
-            stmt.setString(2, reportName);
-            stmt.setBytes(3, pdfContent);
-
-            stmt.executeUpdate();
+        try (Connection conn = DatabaseConnection.borrow()) {
+            new StudentReportDAO(conn).saveReport(studentId, reportName, new ByteArrayInputStream(pdfContent), pdfContent.length);
         }
     }
 
@@ -233,7 +248,7 @@ public class StudentReport {
                 + "JOIN student s ON sc.student_id = s.student_id "
                 + "WHERE s.studentId_No = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.borrow(); PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setString(1, studentIdNo);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -272,7 +287,7 @@ public class StudentReport {
                 + "LEFT JOIN program p ON s.program_id = p.program_id "
                 + "LEFT JOIN department d ON s.department_id = d.department_id "
                 + "WHERE s.studentId_No = ?";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
+        try (Connection conn = DatabaseConnection.borrow(); PreparedStatement stmt = conn.prepareStatement(query)) {
 
             stmt.setString(1, studentIdNo);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -347,19 +362,8 @@ public class StudentReport {
      * @return The program name, or "N/A" if the program is not found.
      */
     private static String getProgramName(int programId) {
-        String query = "SELECT program_name FROM program WHERE program_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setInt(1, programId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("program_name");
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error fetching program name: " + e.getMessage());
-        }
-        return "N/A";
+        String name = ReferenceDataCache.getProgramName(programId);
+        return name != null ? name : "N/A";
     }
 
     /**
@@ -369,113 +373,84 @@ public class StudentReport {
      * @return The department name, or "N/A" if the department is not found.
      */
     private static String getDepartmentName(int departmentId) {
-        String query = "SELECT department_name FROM department WHERE department_id = ?";
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(query)) {
-
-            stmt.setInt(1, departmentId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getString("department_name");
-                }
-            }
-        } catch (SQLException e) {
-            System.err.println("Error fetching department name: " + e.getMessage());
-        }
-        return "N/A";
+        String name = ReferenceDataCache.getDepartmentName(departmentId);
+        return name != null ? name : "N/A";
     }
 
     /**
      * Generates a PDF report for all students in the database. The report
      * includes a table with student ID, name, sex, program, and department.
+     * Students are streamed from the database and written to the PDF as they
+     * are read, so memory use does not grow with the number of students. The
+     * file is written atomically, so a failure part way through leaves no
+     * partial report behind.
+     *
+     * @throws IOException if the students cannot be read or the report cannot
+     * be written
      */
-    public static void generateAllStudentsReport() {
-        List<Student> students = getAllStudentsFromDb();
+    public static void generateAllStudentsReport() throws IOException {
         String currentDate = LocalDate.now().toString();  // Get current date in YYYY-MM-DD format
 
         // Use FilePathUtils to get the dynamic file path
         String filePath = FilePathUtils.getAllStudentsReportFilePath(currentDate);
+        String query = "SELECT studentId_No, first_name, middle_name, last_name, sex, program_id, department_id "
+                + "FROM student ORDER BY studentId_No";
 
         // Create a PDF document
-        try (PdfWriter writer = new PdfWriter(filePath); PdfDocument pdfDoc = new PdfDocument(writer); Document document = new Document(pdfDoc)) {
-
-            // Adding report title
-            document.add(new Paragraph("ALL STUDENTS REPORT")
-                    .setBold()
-                    .setFontSize(24)
-                    .setFontColor(ColorConstants.BLUE)
-                    .setTextAlignment(TextAlignment.CENTER)
-                    .setMarginBottom(20));
-
-            // Adding table header
-            Table table = new Table(UnitValue.createPercentArray(new float[]{3, 4, 2, 3, 3})).useAllAvailableWidth();
-            table.addCell(new Cell().add(new Paragraph("Student ID").setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
-            table.addCell(new Cell().add(new Paragraph("Name").setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
-            table.addCell(new Cell().add(new Paragraph("Sex").setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
-            table.addCell(new Cell().add(new Paragraph("Program").setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
-            table.addCell(new Cell().add(new Paragraph("Department").setBold()).setBackgroundColor(ColorConstants.LIGHT_GRAY));
-
-            // Adding each student's details to the table
-            for (Student student : students) {
-                table.addCell(new Cell().add(new Paragraph(student.getStudentIdNo())));
-                table.addCell(new Cell().add(new Paragraph(student.getFirstName() + " " + (student.getMiddleName() != null ? student.getMiddleName() + " " : "") + student.getLastName())));
-                table.addCell(new Cell().add(new Paragraph(student.getSex())));
-                table.addCell(new Cell().add(new Paragraph(getProgramName(student.getProgramId()))));
-                table.addCell(new Cell().add(new Paragraph(getDepartmentName(student.getDepartmentId()))));
+        int[] rowCount = new int[1];
+        FilePathUtils.writeAtomically(filePath, out -> {
+            try (PdfWriter writer = new PdfWriter(out); PdfDocument pdfDoc = new PdfDocument(writer); Document document = new Document(pdfDoc)) {
+                rowCount[0] = writeAllStudents(document, query);
             }
-
-            document.add(table);
-
-            // Add a footer section
-            Paragraph footer = new Paragraph("Report generated on " + LocalDate.now() + " by STIMS")
-                    .setTextAlignment(TextAlignment.RIGHT)
-                    .setFontSize(10)
-                    .setFontColor(ColorConstants.GRAY)
-                    .setMarginTop(20);
-            document.add(footer);
-
-            System.out.println("All students report generated successfully: " + filePath);
-        } catch (IOException e) {
-            System.err.println("Error generating report: " + e.getMessage());
-        }
+        });
+        System.out.println("All students report generated successfully: " + filePath + " (" + rowCount[0] + " students)");
     }
 
     /**
-     * Fetches all students from the database.
+     * Writes the content of the all students report.
      *
-     * @return A list of `Student` objects containing details of all students.
+     * @param document the PDF document to write to
+     * @param query the query that lists the students
+     * @return the number of students written
+     * @throws IOException if the students cannot be read
      */
-    private static List<Student> getAllStudentsFromDb() {
-        List<Student> students = new ArrayList<>();
-        String query = "SELECT * FROM student"; // Adjust table name if necessary
-
-        try (Connection conn = DatabaseConnection.getConnection(); PreparedStatement stmt = conn.prepareStatement(query); ResultSet rs = stmt.executeQuery()) {
-
+    private static int writeAllStudents(Document document, String query) throws IOException {
+        // Adding report title
+        document.add(new Paragraph("ALL STUDENTS REPORT")
+                .setBold()
+                .setFontSize(24)
+                .setFontColor(ColorConstants.BLUE)
+                .setTextAlignment(TextAlignment.CENTER)
+                .setMarginBottom(20));
+
+        // Adding table header
+        LargeTableWriter table = new LargeTableWriter(document, new float[]{3, 4, 2, 3, 3},
+                "Student ID", "Name", "Sex", "Program", "Department");
+
+        // Adding each student's details to the table as it is read
+        try (Connection conn = DatabaseConnection.borrow(); PreparedStatement stmt = LargeTableWriter.prepareStreaming(conn, query); ResultSet rs = stmt.executeQuery()) {
             while (rs.next()) {
-                Student student = new Student(
-                        rs.getInt("student_id"),
+                String middleName = rs.getString("middle_name");
+                table.addRow(
                         rs.getString("studentId_No"),
-                        rs.getString("username"),
-                        rs.getString("password_hash"),
-                        rs.getString("first_name"),
-                        rs.getString("middle_name"),
-                        rs.getString("last_name"),
-                        rs.getString("email"),
-                        rs.getString("phone_number"),
-                        rs.getString("address"),
-                        rs.getDate("date_of_birth") != null ? rs.getDate("date_of_birth").toLocalDate() : null,
-                        rs.getInt("program_id"),
-                        rs.getInt("department_id"),
+                        rs.getString("first_name") + " " + (middleName != null ? middleName + " " : "") + rs.getString("last_name"),
                         rs.getString("sex"),
-                        rs.getDate("enrollment_date").toLocalDate(),
-                        rs.getTimestamp("created_at") != null ? rs.getTimestamp("created_at").toLocalDateTime() : null,
-                        rs.getTimestamp("updated_at") != null ? rs.getTimestamp("updated_at").toLocalDateTime() : null
-                );
-
-                students.add(student);
+                        getProgramName(rs.getInt("program_id")),
+                        getDepartmentName(rs.getInt("department_id")));
             }
         } catch (SQLException e) {
-            System.err.println("Error fetching all students: " + e.getMessage());
+            // Abandon the report rather than save a list that stops part way
+            throw new IOException("Error fetching all students: " + e.getMessage(), e);
         }
-        return students; // Return the list of students
+        table.complete();
+
+        // Add a footer section
+        Paragraph footer = new Paragraph("Report generated on " + LocalDate.now() + " by STIMS")
+                .setTextAlignment(TextAlignment.RIGHT)
+                .setFontSize(10)
+                .setFontColor(ColorConstants.GRAY)
+                .setMarginTop(20);
+        document.add(footer);
+        return table.getRowCount();
     }
 }
@@ -0,0 +1,106 @@
+package com.mycompany.stims.report;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * The contents of one student's transcript: the basic details shown on the
+ * first sheet and the semester records shown on the second, in order of year
+ * and semester. It is filled in from the database by {@link TranscriptLoader}
+ * and written to the template by
+ * {@link Transcript_Generator#writeTranscript(TranscriptData, String)}.
+ */
+final class TranscriptData {
+
+    private final String[] details;
+    private final Map<Integer, Semester> semesters = new TreeMap<>();
+    private double cgpa;
+
+    /**
+     * @param details the name, date of birth, sex, Student ID No, program,
+     * department, enrollment date and graduation date, in that order
+     */
+    TranscriptData(String[] details) {
+        this.details = details;
+    }
+
+    String[] getDetails() {
+        return details;
+    }
+
+    /**
+     * Adds a semester the student has an academic record for. A second
+     * record for the same semester is ignored.
+     *
+     * @param year the year of study
+     * @param semester the semester
+     * @param sgpa the semester GPA
+     */
+    void addSemester(int year, int semester, double sgpa) {
+        semesters.putIfAbsent(key(year, semester), new Semester("Year " + year + " - Sem " + semester, sgpa));
+    }
+
+    /**
+     * Adds a graded course to a semester. Courses of a semester that was not
+     * added with {@link #addSemester(int, int, double)} are ignored.
+     *
+     * @param year the year of study
+     * @param semester the semester
+     * @param course the course code, name, credits, grade and academic year
+     */
+    void addCourse(int year, int semester, String[] course) {
+        Semester record = semesters.get(key(year, semester));
+        if (record != null) {
+            record.courses.add(course);
+        }
+    }
+
+    /**
+     * @return the semesters in order of year and semester
+     */
+    Collection<Semester> getSemesters() {
+        return semesters.values();
+    }
+
+    double getCgpa() {
+        return cgpa;
+    }
+
+    void setCgpa(double cgpa) {
+        this.cgpa = cgpa;
+    }
+
+    private static int key(int year, int semester) {
+        return year * 10 + semester;
+    }
+
+    /**
+     * One semester of a transcript.
+     */
+    static final class Semester {
+
+        private final String label;
+        private final double sgpa;
+        private final List<String[]> courses = new ArrayList<>();
+
+        private Semester(String label, double sgpa) {
+            this.label = label;
+            this.sgpa = sgpa;
+        }
+
+        String getLabel() {
+            return label;
+        }
+
+        double getSgpa() {
+            return sgpa;
+        }
+
+        List<String[]> getCourses() {
+            return courses;
+        }
+    }
+}
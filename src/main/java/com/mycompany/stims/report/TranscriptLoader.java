@@ -0,0 +1,132 @@
+package com.mycompany.stims.report;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads transcripts from the database in two queries however many terms a
+ * student has: one for the student's details joined with all of their
+ * academic records, and one for all of their graded courses. The same two
+ * queries load a single student or a whole chunk of a cohort.
+ */
+final class TranscriptLoader {
+
+    // The latest record comes first for each student, so its CGPA is the current one
+    private static final String RECORD_SQL = "SELECT s.student_id, s.first_name, s.middle_name, s.last_name, s.date_of_birth, s.sex, "
+            + "s.studentId_No, p.program_name, d.department_name, s.enrollment_date, s.graduation_date, "
+            + "sar.year, sar.semester, sar.sgpa, sar.cgpa "
+            + "FROM student s "
+            + "JOIN program p ON s.program_id = p.program_id "
+            + "JOIN department d ON s.department_id = d.department_id "
+            + "LEFT JOIN studentacademicrecord sar ON s.student_id = sar.student_id "
+            + "WHERE %s "
+            + "ORDER BY s.student_id, sar.academic_year DESC, sar.semester DESC";
+    private static final String COURSE_SQL = "SELECT sc.student_id, co.year, co.semester, c.course_code, c.course_name, c.credits, "
+            + "g.grade, co.academic_year "
+            + "FROM studentcourse sc "
+            + "JOIN courseoffering co ON sc.offering_id = co.offering_id "
+            + "JOIN course c ON co.course_id = c.course_id "
+            + "JOIN grade g ON sc.student_course_id = g.student_course_id "
+            + "WHERE sc.student_id IN (%s) "
+            + "ORDER BY sc.student_id, co.year, co.semester, sc.student_course_id";
+
+    private TranscriptLoader() {
+    }
+
+    /**
+     * Loads the transcript of one student.
+     *
+     * @param connection the database connection
+     * @param studentIdNo the Student ID No of the student
+     * @return the transcript, or null if there is no such student
+     * @throws SQLException if a database access error occurs
+     */
+    static TranscriptData load(Connection connection, String studentIdNo) throws SQLException {
+        Map<Integer, TranscriptData> transcripts = load(connection, "s.studentId_No = ?", List.of(studentIdNo));
+        return transcripts.isEmpty() ? null : transcripts.values().iterator().next();
+    }
+
+    /**
+     * Loads the transcripts of several students.
+     *
+     * @param connection the database connection
+     * @param studentIds the IDs of the students
+     * @return the transcripts by student ID; students that do not exist are
+     * missing
+     * @throws SQLException if a database access error occurs
+     */
+    static Map<Integer, TranscriptData> load(Connection connection, List<Integer> studentIds) throws SQLException {
+        if (studentIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return load(connection, "s.student_id IN (" + placeholders(studentIds.size()) + ")", studentIds);
+    }
+
+    private static Map<Integer, TranscriptData> load(Connection connection, String condition, List<?> params) throws SQLException {
+        Map<Integer, TranscriptData> transcripts = new LinkedHashMap<>();
+        try (PreparedStatement ps = connection.prepareStatement(String.format(RECORD_SQL, condition))) {
+            bind(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int studentId = rs.getInt("student_id");
+                    TranscriptData transcript = transcripts.get(studentId);
+                    if (transcript == null) {
+                        transcript = new TranscriptData(new String[]{
+                            rs.getString("first_name") + " " + rs.getString("middle_name") + " " + rs.getString("last_name"),
+                            rs.getString("date_of_birth"),
+                            rs.getString("sex"),
+                            rs.getString("studentId_No"),
+                            rs.getString("program_name"),
+                            rs.getString("department_name"),
+                            rs.getString("enrollment_date"),
+                            rs.getString("graduation_date")
+                        });
+                        transcript.setCgpa(rs.getDouble("cgpa")); // 0 if the student has no records
+                        transcripts.put(studentId, transcript);
+                    }
+                    int year = rs.getInt("year");
+                    if (!rs.wasNull()) {
+                        transcript.addSemester(year, rs.getInt("semester"), rs.getDouble("sgpa"));
+                    }
+                }
+            }
+        }
+        if (transcripts.isEmpty()) {
+            return transcripts;
+        }
+
+        List<Integer> found = new ArrayList<>(transcripts.keySet());
+        try (PreparedStatement ps = connection.prepareStatement(String.format(COURSE_SQL, placeholders(found.size())))) {
+            bind(ps, found);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    transcripts.get(rs.getInt("student_id")).addCourse(rs.getInt("year"), rs.getInt("semester"), new String[]{
+                        rs.getString("course_code"),
+                        rs.getString("course_name"),
+                        rs.getString("credits"),
+                        rs.getString("grade"),
+                        rs.getString("academic_year").substring(0, 4) // Extract year part
+                    });
+                }
+            }
+        }
+        return transcripts;
+    }
+
+    private static void bind(PreparedStatement ps, List<?> params) throws SQLException {
+        for (int i = 0; i < params.size(); i++) {
+            ps.setObject(i + 1, params.get(i));
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+}
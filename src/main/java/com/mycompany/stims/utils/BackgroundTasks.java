@@ -0,0 +1,229 @@
+package com.mycompany.stims.utils;
+
+import java.net.URL;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javafx.concurrent.Task;
+import javafx.concurrent.Worker;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Cursor;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.layout.StackPane;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The `BackgroundTasks` class runs controller work (database queries, password
+ * checks, FXML loading) off the JavaFX application thread so the window stays
+ * responsive. Work is executed by a small bounded pool of daemon threads;
+ * callbacks are delivered on the JavaFX application thread. Every method
+ * returns the {@link Task}, which the caller can cancel; a cancelled task
+ * never calls its success or failure callback.
+ */
+public class BackgroundTasks {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundTasks.class);
+
+    private static final int THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private static final ExecutorService executor = createExecutor();
+
+    private BackgroundTasks() {
+    }
+
+    private static ExecutorService createExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "ui-worker-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(THREADS, THREADS, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), factory);
+    }
+
+    /**
+     * Runs a task on the background pool.
+     *
+     * @param <T> the result type of the task
+     * @param task the task to run; its handlers are called on the JavaFX
+     * application thread
+     * @return the task, for cancellation
+     */
+    public static <T> Task<T> submit(Task<T> task) {
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Runs work on the background pool without a result or callbacks, such as
+     * warming up a cache.
+     *
+     * @param work the work to run
+     */
+    public static void execute(Runnable work) {
+        executor.execute(work);
+    }
+
+    /**
+     * Runs work on the background pool and hands its result to a callback on
+     * the JavaFX application thread.
+     *
+     * @param <T> the result type of the work
+     * @param work the work to run in the background
+     * @param onSuccess called with the result if the work completes
+     * @param onFailure called with the exception if the work fails
+     * @return the task, for cancellation
+     */
+    public static <T> Task<T> run(Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        return run(null, work, onSuccess, onFailure);
+    }
+
+    /**
+     * Runs work on the background pool while a node is shown as busy: the node
+     * is disabled and the wait cursor is shown over its scene until the work
+     * completes, fails or is cancelled.
+     *
+     * @param <T> the result type of the work
+     * @param busyNode the node to disable while the work runs, or null
+     * @param work the work to run in the background
+     * @param onSuccess called with the result if the work completes
+     * @param onFailure called with the exception if the work fails
+     * @return the task, for cancellation
+     */
+    public static <T> Task<T> run(Node busyNode, Callable<T> work, Consumer<T> onSuccess, Consumer<Throwable> onFailure) {
+        Task<T> task = new Task<>() {
+            @Override
+            protected T call() throws Exception {
+                return work.call();
+            }
+        };
+        task.setOnSucceeded(event -> onSuccess.accept(task.getValue()));
+        task.setOnFailed(event -> {
+            logger.error("Background task failed", task.getException());
+            onFailure.accept(task.getException());
+        });
+        if (busyNode != null) {
+            showBusy(busyNode, task);
+        }
+        return submit(task);
+    }
+
+    /**
+     * Loads an FXML view on the background pool, including the data its
+     * controller loads in {@code initialize}, and hands the root node to a
+     * callback on the JavaFX application thread. A progress indicator is shown
+     * in the container until the view is ready.
+     * <p>
+     * JavaFX only allows dialogs and windows to be created on the application
+     * thread, so a controller must not open them directly from
+     * {@code initialize}; one that does fails to load, and the failure is
+     * reported to {@code onFailure} like any other.
+     *
+     * @param location the FXML file
+     * @param container the container showing the progress indicator, or null
+     * @param onLoaded called with the root node of the view
+     * @param onFailure called with the exception if the view cannot be loaded
+     * @return the task, for cancellation
+     */
+    public static Task<Parent> loadFXML(URL location, StackPane container, Consumer<Parent> onLoaded, Consumer<Throwable> onFailure) {
+        Task<Parent> task = new Task<>() {
+            @Override
+            protected Parent call() throws Exception {
+                return new FXMLLoader(location).load();
+            }
+        };
+        task.setOnSucceeded(event -> onLoaded.accept(task.getValue()));
+        task.setOnFailed(event -> {
+            logger.error("Error loading {}", location, task.getException());
+            onFailure.accept(task.getException());
+        });
+        if (container != null) {
+            showProgress(container, task);
+        }
+        return submit(task);
+    }
+
+    /**
+     * Disables a node and shows the wait cursor over its scene until the task
+     * has finished.
+     *
+     * @param node the node to disable
+     * @param task the task to watch
+     */
+    public static void showBusy(Node node, Task<?> task) {
+        node.setDisable(true);
+        Scene scene = node.getScene();
+        Cursor previous = scene != null ? scene.getCursor() : null;
+        if (scene != null) {
+            scene.setCursor(Cursor.WAIT);
+        }
+        whenDone(task, () -> {
+            node.setDisable(false);
+            if (scene != null) {
+                scene.setCursor(previous);
+            }
+        });
+    }
+
+    /**
+     * Shows a progress indicator on top of a container until the task has
+     * finished. The indicator follows the task's progress, and spins while the
+     * progress is unknown.
+     *
+     * @param container the container to show the indicator in
+     * @param task the task to watch
+     */
+    public static void showProgress(StackPane container, Task<?> task) {
+        ProgressIndicator indicator = new ProgressIndicator();
+        indicator.setMaxSize(60, 60);
+        indicator.progressProperty().bind(task.progressProperty());
+        container.getChildren().add(indicator);
+        whenDone(task, () -> container.getChildren().remove(indicator));
+    }
+
+    private static void whenDone(Task<?> task, Runnable action) {
+        task.stateProperty().addListener((observable, oldState, newState) -> {
+            if (newState == Worker.State.SUCCEEDED || newState == Worker.State.FAILED
+                    || newState == Worker.State.CANCELLED) {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Cancels a task if it has not finished yet.
+     *
+     * @param task the task to cancel, or null
+     */
+    public static void cancel(Task<?> task) {
+        if (task != null && !task.isDone()) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * Stops the background pool, interrupting running work after a short
+     * grace period. Called when the application exits.
+     */
+    public static void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.mycompany.stims.utils;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 /**
@@ -119,6 +121,19 @@ public class Config {
                 .replace("${report.directory}", getReportDirectory());
     }
 
+    /**
+     * Retrieves the directory for the results files of bulk student
+     * registrations.
+     *
+     * @return the registration results directory path, with placeholders
+     * replaced by system properties
+     */
+    public static String getRegistrationResultsDirectory() {
+        String directory = properties.getProperty("report.registration_directory", "${report.directory}Registrations/");
+        return directory.replace("${user.home}", System.getProperty("user.home"))
+                .replace("${report.directory}", getReportDirectory());
+    }
+
     /**
      * Retrieves the file path for the report card template.
      *
@@ -140,4 +155,87 @@ public class Config {
         String templatePath = properties.getProperty("template.transcript");
         return templatePath.replace("${user.home}", System.getProperty("user.home"));
     }
+
+    /**
+     * Retrieves how long department, program and role names are cached before
+     * they are reloaded from the database.
+     *
+     * @return the cache time-to-live in milliseconds, 10 minutes if not set
+     */
+    public static long getReferenceDataTtlMillis() {
+        return Long.parseLong(properties.getProperty("refdata.ttl_ms", "600000"));
+    }
+
+    /**
+     * Retrieves the fixed bcrypt cost for new password hashes.
+     *
+     * @return the configured cost, 12 if not set, or 0 to calibrate the cost
+     * at startup
+     */
+    public static int getBcryptCost() {
+        return Integer.parseInt(properties.getProperty("password.bcrypt_cost", "12"));
+    }
+
+    /**
+     * Retrieves the lowest bcrypt cost allowed for password hashes.
+     *
+     * @return the minimum cost, 10 if not set
+     */
+    public static int getBcryptMinCost() {
+        return Integer.parseInt(properties.getProperty("password.bcrypt_min_cost", "10"));
+    }
+
+    /**
+     * Retrieves the highest bcrypt cost allowed for password hashes.
+     *
+     * @return the maximum cost, 14 if not set
+     */
+    public static int getBcryptMaxCost() {
+        return Integer.parseInt(properties.getProperty("password.bcrypt_max_cost", "14"));
+    }
+
+    /**
+     * Retrieves how long one password hash may take when the bcrypt cost is
+     * calibrated.
+     *
+     * @return the latency budget in milliseconds, 250 if not set
+     */
+    public static long getBcryptBudgetMillis() {
+        return Long.parseLong(properties.getProperty("password.hash_budget_ms", "250"));
+    }
+
+    /**
+     * Retrieves how many rows of a bulk student registration are inserted per
+     * transaction.
+     *
+     * @return the chunk size, 500 if not set
+     */
+    public static int getRegistrationChunkSize() {
+        return Integer.parseInt(properties.getProperty("registration.chunk_size", "500"));
+    }
+
+    /**
+     * Retrieves where a generated student report is written: {@code file},
+     * {@code database} or both, separated by commas.
+     *
+     * @return the sink names in lower case, file and database if not set
+     */
+    public static List<String> getStudentReportSinks() {
+        List<String> sinks = new ArrayList<>();
+        for (String name : properties.getProperty("report.student_report_sinks", "file,database").split(",")) {
+            if (!name.isBlank()) {
+                sinks.add(name.trim().toLowerCase());
+            }
+        }
+        return sinks;
+    }
+
+    /**
+     * Retrieves the lowest SGPA that puts a student on a term's dean's list.
+     *
+     * @return the minimum SGPA, 3.5 if not set
+     */
+    public static double getDeansListMinimumGpa() {
+        return Double.parseDouble(properties.getProperty("ranking.deans_list_min_gpa", "3.5"));
+    }
 }
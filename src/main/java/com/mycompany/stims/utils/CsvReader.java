@@ -0,0 +1,88 @@
+package com.mycompany.stims.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The CsvReader class splits comma-separated text into rows of cells, as
+ * written by Excel: fields may be quoted, a doubled quote inside a quoted
+ * field stands for one quote, and a quoted field may span lines. A byte order
+ * mark at the start of the text is dropped. Cells are returned as written,
+ * without trimming.
+ */
+final class CsvReader {
+
+    private CsvReader() {
+    }
+
+    /**
+     * Receives the rows of a CSV file in file order.
+     */
+    interface RowHandler {
+
+        /**
+         * Called once for every row, including blank ones.
+         *
+         * @param rowNumber the line on which the row starts, counting from 1
+         * @param cells the cells of the row; a blank row has one empty cell
+         * @throws IOException to stop reading
+         */
+        void row(int rowNumber, List<String> cells) throws IOException;
+    }
+
+    /**
+     * Reads every row from a reader and hands it to a handler.
+     *
+     * @param reader the CSV text
+     * @param handler receives each row
+     * @throws IOException if reading fails or the handler stops
+     */
+    static void read(BufferedReader reader, RowHandler handler) throws IOException {
+        String line;
+        int rowNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            rowNumber++;
+            if (rowNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1); // Byte order mark written by Excel
+            }
+            List<String> cells = new ArrayList<>();
+            StringBuilder cell = new StringBuilder();
+            boolean quoted = false;
+            int startRow = rowNumber;
+            while (true) {
+                for (int i = 0; i < line.length(); i++) {
+                    char c = line.charAt(i);
+                    if (quoted) {
+                        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            cell.append('"');
+                            i++;
+                        } else if (c == '"') {
+                            quoted = false;
+                        } else {
+                            cell.append(c);
+                        }
+                    } else if (c == '"') {
+                        quoted = true;
+                    } else if (c == ',') {
+                        cells.add(cell.toString());
+                        cell.setLength(0);
+                    } else {
+                        cell.append(c);
+                    }
+                }
+                // A quoted field may span lines
+                String next = quoted ? reader.readLine() : null;
+                if (next == null) {
+                    break;
+                }
+                rowNumber++;
+                cell.append('\n');
+                line = next;
+            }
+            cells.add(cell.toString());
+            handler.row(startRow, cells);
+        }
+    }
+}
@@ -1,6 +1,13 @@
 package com.mycompany.stims.utils;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 /**
  * The FilePathUtils class provides utility methods for managing file paths and
@@ -18,6 +25,7 @@ public class FilePathUtils {
     private static final String STUDENT_REPORT_DIRECTORY = Config.getStudentReportDirectory();
     private static final String ALL_STUDENTS_REPORT_DIRECTORY = Config.getAllStudentsReportDirectory();
     private static final String TRANSCRIPT_DIRECTORY = Config.getTranscriptDirectory();
+    private static final String REGISTRATION_DIRECTORY = Config.getRegistrationResultsDirectory();
 
     /**
      * Ensures that the specified directory exists. If the directory does not
@@ -124,6 +132,65 @@ public class FilePathUtils {
         return TRANSCRIPT_DIRECTORY + sanitizedStudentId + "_Transcript.xlsx";
     }
 
+    /**
+     * Generates the file path for the results of a bulk student registration.
+     *
+     * @param timestamp the time of the registration to include in the file
+     * name
+     * @return the file path for the registration results
+     */
+    public static String getRegistrationResultsFilePath(String timestamp) {
+        ensureDirectoryExists(REGISTRATION_DIRECTORY);
+        return REGISTRATION_DIRECTORY + "Student Registration_" + timestamp + ".csv";
+    }
+
+    /**
+     * Generates the file path of the journal a batch report job keeps so an
+     * interrupted run can resume where it stopped.
+     *
+     * @param jobName the name of the job, unique per kind of report and cohort
+     * @return the file path for the journal
+     */
+    public static String getBatchJournalFilePath(String jobName) {
+        ensureDirectoryExists(REPORT_DIRECTORY);
+        return REPORT_DIRECTORY + "." + jobName + ".journal";
+    }
+
+    /**
+     * Writes the content of a file to a temporary file next to it and then
+     * moves it into place, so the file is either absent, the old version or
+     * complete, never half written, even if the application stops mid-write.
+     *
+     * @param filePath the file to write
+     * @param content writes the content to the stream it is given
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeAtomically(String filePath, ContentWriter content) throws IOException {
+        Path target = Paths.get(filePath);
+        Path temp = target.resolveSibling(target.getFileName() + ".part");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            content.write(out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Writes the content of a file for
+     * {@link #writeAtomically(String, ContentWriter)}.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+
+        void write(OutputStream out) throws IOException;
+    }
+
     /**
      * Retrieves the file path for the Report Card template.
      *
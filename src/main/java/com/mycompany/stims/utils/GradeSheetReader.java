@@ -0,0 +1,79 @@
+package com.mycompany.stims.utils;
+
+import com.mycompany.stims.database.GpaEngine;
+import com.mycompany.stims.database.GradeDAO.GradeSubmission;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+
+/**
+ * The GradeSheetReader class reads a course roster's grades from a
+ * spreadsheet. The first column holds the Student ID No and the second the
+ * letter grade; an optional header row is skipped. Excel workbooks (.xlsx,
+ * .xls) and comma-separated files (.csv) are supported.
+ */
+public class GradeSheetReader {
+
+    /**
+     * Reads the grade rows of a spreadsheet. Blank rows are ignored; every
+     * other row is returned with its row number so problems can be reported
+     * against the file.
+     *
+     * @param file the spreadsheet to read
+     * @return the grade rows in file order
+     * @throws IOException if the file cannot be read or is not a spreadsheet
+     */
+    public static List<GradeSubmission> read(File file) throws IOException {
+        if (file.getName().toLowerCase().endsWith(".csv")) {
+            return readCsv(file);
+        }
+        return readWorkbook(file);
+    }
+
+    private static List<GradeSubmission> readWorkbook(File file) throws IOException {
+        List<GradeSubmission> submissions = new ArrayList<>();
+        DataFormatter formatter = new DataFormatter();
+        try (Workbook workbook = WorkbookFactory.create(file, null, true)) {
+            Sheet sheet = workbook.getSheetAt(0);
+            for (Row row : sheet) {
+                // Numeric IDs are read as displayed rather than as 1234.0
+                String studentIdNo = formatter.formatCellValue(row.getCell(0)).trim();
+                String grade = formatter.formatCellValue(row.getCell(1)).trim();
+                addRow(submissions, row.getRowNum() + 1, studentIdNo, grade);
+            }
+        }
+        return submissions;
+    }
+
+    private static List<GradeSubmission> readCsv(File file) throws IOException {
+        List<GradeSubmission> submissions = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            CsvReader.read(reader, (rowNumber, cells) -> {
+                String studentIdNo = cells.get(0).trim();
+                String grade = cells.size() > 1 ? cells.get(1).trim() : "";
+                addRow(submissions, rowNumber, studentIdNo, grade);
+            });
+        }
+        return submissions;
+    }
+
+    private static void addRow(List<GradeSubmission> submissions, int rowNumber, String studentIdNo, String grade) {
+        if (studentIdNo.isEmpty() && grade.isEmpty()) {
+            return;
+        }
+        // A first row without a recognised grade is taken to be the header
+        if (submissions.isEmpty() && rowNumber == 1 && !GpaEngine.isValidGrade(grade.toUpperCase())) {
+            return;
+        }
+        submissions.add(new GradeSubmission(rowNumber, studentIdNo, grade.toUpperCase()));
+    }
+}
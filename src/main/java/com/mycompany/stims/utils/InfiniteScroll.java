@@ -0,0 +1,117 @@
+package com.mycompany.stims.utils;
+
+import java.util.function.BooleanSupplier;
+import javafx.application.Platform;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.Control;
+import javafx.scene.control.ScrollBar;
+
+/**
+ * The InfiniteScroll class loads more rows into a ListView or TableView as the
+ * user scrolls towards the bottom, so large tables can be fetched one page at
+ * a time instead of all at once.
+ */
+public class InfiniteScroll {
+
+    // Fraction of the scroll range at which the next page is requested
+    private static final double THRESHOLD = 0.9;
+
+    /**
+     * Calls the given action whenever the view's vertical scroll bar passes 90%
+     * of its range. The action is expected to append the next page, if any.
+     * Pages are also requested while the rows do not fill the view, since the
+     * view then has no scroll bar to pass.
+     *
+     * @param view the ListView or TableView to watch
+     * @param loadMore the action that loads the next page; returns true if it
+     * appended rows, false if there were none left to load
+     */
+    public static void install(Control view, BooleanSupplier loadMore) {
+        // The scroll bars only exist once the view's skin has been created
+        if (view.getSkin() != null) {
+            attach(view, loadMore);
+        } else {
+            view.skinProperty().addListener((observable, oldSkin, newSkin) -> {
+                if (oldSkin == null && newSkin != null) {
+                    attach(view, loadMore);
+                }
+            });
+        }
+    }
+
+    private static void attach(Control view, BooleanSupplier loadMore) {
+        for (Node node : view.lookupAll(".scroll-bar")) {
+            if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                new Loader(view, (ScrollBar) node, loadMore).start();
+            }
+        }
+    }
+
+    /**
+     * Requests pages for one scroll bar, at most one at a time.
+     */
+    private static final class Loader {
+
+        private final Control view;
+        private final ScrollBar scrollBar;
+        private final BooleanSupplier loadMore;
+        // Set while a page is being appended, as appending moves the scroll bar
+        private boolean loading;
+
+        Loader(Control view, ScrollBar scrollBar, BooleanSupplier loadMore) {
+            this.view = view;
+            this.scrollBar = scrollBar;
+            this.loadMore = loadMore;
+        }
+
+        void start() {
+            scrollBar.valueProperty().addListener((observable, oldValue, newValue) -> {
+                if (newValue.doubleValue() >= scrollBar.getMax() * THRESHOLD) {
+                    load();
+                }
+            });
+            // The view hides the scroll bar while all rows fit, e.g. after
+            // a reload to a short first page or when the view grows
+            scrollBar.visibleProperty().addListener((observable, wasVisible, isVisible) -> {
+                if (!isVisible) {
+                    fillLater();
+                }
+            });
+            view.heightProperty().addListener((observable, oldHeight, newHeight) -> fillLater());
+            fillLater();
+        }
+
+        private void load() {
+            if (loading) {
+                return;
+            }
+            loading = true;
+            boolean appended;
+            try {
+                appended = loadMore.getAsBoolean();
+            } finally {
+                loading = false;
+            }
+            if (appended) {
+                fillLater();
+            }
+        }
+
+        /**
+         * Loads another page once the view has laid out the current rows, if
+         * they still do not fill it.
+         */
+        private void fillLater() {
+            Platform.runLater(() -> {
+                // Lay out now so the scroll bar reflects the appended rows
+                view.applyCss();
+                view.layout();
+                // A view that is not shown yet has no rows to fill
+                if (view.getHeight() > 0 && !scrollBar.isVisible()) {
+                    load();
+                }
+            });
+        }
+    }
+}
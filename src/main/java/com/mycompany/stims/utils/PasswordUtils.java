@@ -1,22 +1,91 @@
 package com.mycompany.stims.utils;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.mindrot.jbcrypt.BCrypt;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The PasswordUtils class provides utility methods for hashing and verifying
  * passwords using the BCrypt hashing algorithm.
+ * <p>
+ * New hashes use a target cost (log2 of the number of rounds). The target is
+ * either fixed in the configuration or calibrated once, on first use, to the
+ * highest cost whose hash still fits the configured latency budget on this
+ * machine. Stored hashes whose cost is outside the policy are reported by
+ * {@link #needsRehash(String)} so they can be upgraded after a successful
+ * login.
  */
 public class PasswordUtils {
 
+    private static final Logger logger = LoggerFactory.getLogger(PasswordUtils.class);
+
+    private static final int CALIBRATION_ROUNDS = 3; // Timed hashes per calibration; the fastest is used
+
+    private static volatile int targetCost;
+
     /**
-     * Hashes a plain text password using BCrypt.
+     * Hashes a plain text password using BCrypt at the target cost.
      *
      * @param plainPassword the plain text password to hash
      * @return the hashed password
      */
     public static String hashPassword(String plainPassword) {
         // Generate the salt and hash the password
-        return BCrypt.hashpw(plainPassword, BCrypt.gensalt());
+        return BCrypt.hashpw(plainPassword, BCrypt.gensalt(getTargetCost()));
+    }
+
+    /**
+     * Hashes many passwords at once on a pool with one thread per processor,
+     * for bulk account creation.
+     *
+     * @param plainPasswords the plain text passwords to hash
+     * @return the hashed passwords, in the same order
+     */
+    public static List<String> hashPasswords(List<String> plainPasswords) {
+        if (plainPasswords.size() < 2) {
+            List<String> hashes = new ArrayList<>();
+            plainPasswords.forEach(password -> hashes.add(hashPassword(password)));
+            return hashes;
+        }
+
+        String[] salts = new String[plainPasswords.size()];
+        int cost = getTargetCost();
+        for (int i = 0; i < salts.length; i++) {
+            salts[i] = BCrypt.gensalt(cost);
+        }
+
+        int threads = Math.min(plainPasswords.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "password-hasher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < salts.length; i++) {
+                String password = plainPasswords.get(i);
+                String salt = salts[i];
+                futures.add(pool.submit(() -> BCrypt.hashpw(password, salt)));
+            }
+            List<String> hashes = new ArrayList<>(futures.size());
+            for (Future<String> future : futures) {
+                hashes.add(future.get());
+            }
+            return hashes;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error hashing passwords: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
     }
 
     /**
@@ -31,4 +100,89 @@ public class PasswordUtils {
         // Compare the plain password with the stored hash
         return BCrypt.checkpw(plainPassword, hashedPassword);
     }
+
+    /**
+     * Checks whether a stored hash should be replaced: its cost is below the
+     * target, above the configured maximum, or cannot be read.
+     *
+     * @param hashedPassword the stored hashed password
+     * @return true if the password should be hashed again
+     */
+    public static boolean needsRehash(String hashedPassword) {
+        int cost = getCost(hashedPassword);
+        return cost < getTargetCost() || cost > Config.getBcryptMaxCost();
+    }
+
+    /**
+     * Returns the cost of a BCrypt hash.
+     *
+     * @param hashedPassword a hash such as {@code $2a$10$...}
+     * @return the cost, or -1 if the hash is not a BCrypt hash
+     */
+    public static int getCost(String hashedPassword) {
+        if (hashedPassword == null || hashedPassword.length() < 7 || hashedPassword.charAt(0) != '$') {
+            return -1;
+        }
+        int start = hashedPassword.indexOf('$', 1) + 1;
+        int end = hashedPassword.indexOf('$', start);
+        try {
+            return Integer.parseInt(hashedPassword.substring(start, end));
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Returns the cost used for new hashes, calibrating it on the first call
+     * unless a fixed cost is configured.
+     *
+     * @return the target cost
+     */
+    public static int getTargetCost() {
+        int cost = targetCost;
+        if (cost == 0) {
+            synchronized (PasswordUtils.class) {
+                cost = targetCost;
+                if (cost == 0) {
+                    int configured = Config.getBcryptCost();
+                    cost = configured > 0 ? clamp(configured) : calibrate(Config.getBcryptBudgetMillis());
+                    targetCost = cost;
+                }
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * Finds the highest cost whose hash takes no longer than the budget. One
+     * hash at the minimum cost is timed and the time doubled for each step up,
+     * as each step doubles the work.
+     *
+     * @param budgetMillis the time one hash may take
+     * @return the calibrated cost, within the configured minimum and maximum
+     */
+    private static int calibrate(long budgetMillis) {
+        int minCost = Config.getBcryptMinCost();
+        String salt = BCrypt.gensalt(minCost);
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_ROUNDS; i++) {
+            long start = System.nanoTime();
+            BCrypt.hashpw("calibration", salt);
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+
+        int cost = minCost;
+        double millis = fastest / 1_000_000.0;
+        while (cost < Config.getBcryptMaxCost() && millis * 2 <= budgetMillis) {
+            cost++;
+            millis *= 2;
+        }
+        logger.info("Calibrated bcrypt cost {} (~{} ms per hash, budget {} ms); set password.bcrypt_cost={} to keep it",
+                cost, Math.round(millis), budgetMillis, cost);
+        return cost;
+    }
+
+    private static int clamp(int cost) {
+        return Math.max(Config.getBcryptMinCost(), Math.min(Config.getBcryptMaxCost(), cost));
+    }
 }
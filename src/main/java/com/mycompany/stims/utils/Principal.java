@@ -0,0 +1,133 @@
+package com.mycompany.stims.utils;
+
+import com.mycompany.stims.model.Admin;
+import com.mycompany.stims.model.Student;
+import com.mycompany.stims.model.Teacher;
+
+/**
+ * The `Principal` class describes the user who is logged in: the numeric
+ * primary key of their student, teacher or admin row, their role, their
+ * department and the name shown in the UI. It is resolved once at login and
+ * kept in the {@link Session}, so screens can query by ID without looking the
+ * user up again by email or username.
+ */
+public final class Principal {
+
+    /**
+     * The kinds of user that can log in.
+     */
+    public enum Role {
+        STUDENT, TEACHER, ADMIN, SUPER_ADMIN
+    }
+
+    public static final int SUPER_ADMIN_ROLE_ID = 1; // role_id of the Super Admin role
+    public static final int ADMIN_ROLE_ID = 2;       // role_id of the regular Admin role
+
+    private final int id;               // student_id, teacher_id or admin_id
+    private final Role role;            // Kind of user
+    private final int departmentId;     // Department of a student or teacher; 0 for admins
+    private final String displayName;   // First and last name
+    private final String username;      // Username used to log in
+
+    private Principal(int id, Role role, int departmentId, String displayName, String username) {
+        this.id = id;
+        this.role = role;
+        this.departmentId = departmentId;
+        this.displayName = displayName;
+        this.username = username;
+    }
+
+    /**
+     * Creates a principal from its parts.
+     *
+     * @param id the student, teacher or admin ID
+     * @param role the kind of user
+     * @param departmentId the department of a student or teacher, 0 for admins
+     * @param firstName the first name
+     * @param lastName the last name
+     * @param username the username
+     * @return the principal
+     */
+    public static Principal of(int id, Role role, int departmentId, String firstName, String lastName, String username) {
+        return new Principal(id, role, departmentId, displayName(firstName, lastName), username);
+    }
+
+    /**
+     * Creates the principal for a logged-in student.
+     *
+     * @param student the authenticated student
+     * @return the principal
+     */
+    public static Principal of(Student student) {
+        return new Principal(student.getStudentId(), Role.STUDENT, student.getDepartmentId(),
+                displayName(student.getFirstName(), student.getLastName()), student.getUsername());
+    }
+
+    /**
+     * Creates the principal for a logged-in teacher.
+     *
+     * @param teacher the authenticated teacher
+     * @return the principal
+     */
+    public static Principal of(Teacher teacher) {
+        return new Principal(teacher.getTeacherId(), Role.TEACHER, teacher.getDepartmentId(),
+                displayName(teacher.getFirstName(), teacher.getLastName()), teacher.getUsername());
+    }
+
+    /**
+     * Creates the principal for a logged-in admin. Admins with the Super Admin
+     * role get {@link Role#SUPER_ADMIN}.
+     *
+     * @param admin the authenticated admin
+     * @return the principal
+     */
+    public static Principal of(Admin admin) {
+        Role role = admin.getRoleId() == SUPER_ADMIN_ROLE_ID ? Role.SUPER_ADMIN : Role.ADMIN;
+        return new Principal(admin.getAdminId(), role, 0,
+                displayName(admin.getFirstName(), admin.getLastName()), admin.getUsername());
+    }
+
+    private static String displayName(String firstName, String lastName) {
+        return ((firstName == null ? "" : firstName) + " " + (lastName == null ? "" : lastName)).trim();
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Role getRole() {
+        return role;
+    }
+
+    public int getDepartmentId() {
+        return departmentId;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Checks whether this principal is an admin of either kind.
+     *
+     * @return true for admins and super admins
+     */
+    public boolean isAdmin() {
+        return role == Role.ADMIN || role == Role.SUPER_ADMIN;
+    }
+
+    @Override
+    public String toString() {
+        return "Principal{"
+                + "id=" + id
+                + ", role=" + role
+                + ", departmentId=" + departmentId
+                + ", displayName='" + displayName + '\''
+                + ", username='" + username + '\''
+                + '}';
+    }
+}
@@ -2,81 +2,72 @@ package com.mycompany.stims.utils;
 
 /**
  * The `Session` class manages user session information for the system. It
- * provides static methods to set, retrieve, and clear session data for
- * administrators, students, and teachers. This class is used to track the
- * currently logged-in users.
+ * holds the {@link Principal} of the currently logged-in administrator,
+ * student or teacher, resolved once at login, and provides static methods to
+ * set, retrieve, and clear it. Screens use the numeric ID of the principal
+ * instead of looking the user up again by email or username.
  */
 public class Session {
 
-    private static String loggedInAdminEmailOrUsername;
-    private static String loggedInStudentEmailOrUsername;
-    private static String loggedInTeacherEmailOrUsername;
+    private static volatile Principal principal;
 
     /**
-     * Returns the email or username of the currently logged-in administrator.
+     * Returns the currently logged-in user.
      *
-     * @return The email or username of the logged-in administrator, or `null`
-     * if no administrator is logged in.
+     * @return The principal of the logged-in user, or `null` if nobody is
+     * logged in.
      */
-    public static String getLoggedInAdminEmailOrUsername() {
-        return loggedInAdminEmailOrUsername;
+    public static Principal getPrincipal() {
+        return principal;
     }
 
     /**
-     * Sets the email or username of the currently logged-in administrator.
+     * Sets the currently logged-in user, replacing any previous one.
      *
-     * @param emailOrUsername The email or username of the administrator.
+     * @param loggedIn The principal of the logged-in user.
      */
-    public static void setLoggedInAdminEmailOrUsername(String emailOrUsername) {
-        loggedInAdminEmailOrUsername = emailOrUsername;
+    public static void setPrincipal(Principal loggedIn) {
+        principal = loggedIn;
     }
 
     /**
-     * Returns the email or username of the currently logged-in student.
+     * Returns the admin ID of the currently logged-in administrator.
      *
-     * @return The email or username of the logged-in student, or `null` if no
-     * student is logged in.
+     * @return The admin ID, or -1 if no administrator is logged in.
      */
-    public static String getLoggedInStudentEmailOrUsername() {
-        return loggedInStudentEmailOrUsername;
+    public static int getLoggedInAdminId() {
+        Principal current = principal;
+        return current != null && current.isAdmin() ? current.getId() : -1;
     }
 
     /**
-     * Sets the email or username of the currently logged-in student.
+     * Returns the student ID of the currently logged-in student.
      *
-     * @param emailOrUsername The email or username of the student.
+     * @return The student ID, or -1 if no student is logged in.
      */
-    public static void setLoggedInStudentEmailOrUsername(String emailOrUsername) {
-        loggedInStudentEmailOrUsername = emailOrUsername;
+    public static int getLoggedInStudentId() {
+        return idOf(Principal.Role.STUDENT);
     }
 
     /**
-     * Returns the email or username of the currently logged-in teacher.
+     * Returns the teacher ID of the currently logged-in teacher.
      *
-     * @return The email or username of the logged-in teacher, or `null` if no
-     * teacher is logged in.
+     * @return The teacher ID, or -1 if no teacher is logged in.
      */
-    public static String getLoggedInTeacherEmailOrUsername() {
-        return loggedInTeacherEmailOrUsername;
+    public static int getLoggedInTeacherId() {
+        return idOf(Principal.Role.TEACHER);
     }
 
-    /**
-     * Sets the email or username of the currently logged-in teacher.
-     *
-     * @param emailOrUsername The email or username of the teacher.
-     */
-    public static void setLoggedInTeacherEmailOrUsername(String emailOrUsername) {
-        loggedInTeacherEmailOrUsername = emailOrUsername;
+    private static int idOf(Principal.Role role) {
+        Principal current = principal;
+        return current != null && current.getRole() == role ? current.getId() : -1;
     }
 
     /**
-     * Clears all session data, effectively logging out all users
-     * (administrators, students, and teachers). This method sets all session
-     * fields to `null`.
+     * Clears all session data, effectively logging out the current user. This
+     * method sets the principal to `null`.
      */
     public static void clear() {
-        loggedInTeacherEmailOrUsername = null;
-        loggedInAdminEmailOrUsername = null;
-        loggedInStudentEmailOrUsername = null;
+        principal = null;
     }
 }
@@ -0,0 +1,284 @@
+package com.mycompany.stims.utils;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * The StudentSheetReader class reads student records from an admissions
+ * spreadsheet, one row at a time, so files with thousands of students are
+ * never held in memory. The first non-blank row is the header; columns are
+ * matched by name, in any order, ignoring case, spaces and underscores (see
+ * {@link Column}). Excel workbooks (.xlsx) are read with the streaming SAX
+ * parser and comma-separated files (.csv) line by line. Dates are returned as
+ * yyyy-MM-dd for Excel date cells and as written for text.
+ */
+public class StudentSheetReader {
+
+    /**
+     * The columns of an admissions spreadsheet.
+     */
+    public enum Column {
+        FIRST_NAME("First Name", true, "firstname"),
+        MIDDLE_NAME("Middle Name", false, "middlename"),
+        LAST_NAME("Last Name", true, "lastname"),
+        SEX("Sex", true, "sex", "gender"),
+        EMAIL("Email", true, "email", "emailaddress"),
+        PHONE_NUMBER("Phone Number", true, "phonenumber", "phone"),
+        ADDRESS("Address", true, "address"),
+        DATE_OF_BIRTH("Date of Birth", true, "dateofbirth", "dob"),
+        PROGRAM("Program", true, "program"),
+        DEPARTMENT("Department", true, "department"),
+        ENROLLMENT_DATE("Enrollment Date", true, "enrollmentdate");
+
+        private final String label;
+        private final boolean required;
+        private final String[] names;
+
+        Column(String label, boolean required, String... names) {
+            this.label = label;
+            this.required = required;
+            this.names = names;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public boolean isRequired() {
+            return required;
+        }
+
+        private static Column forHeader(String header) {
+            String normalized = header.toLowerCase().replaceAll("[^a-z]", "");
+            for (Column column : values()) {
+                for (String name : column.names) {
+                    if (name.equals(normalized)) {
+                        return column;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * One student row of the spreadsheet.
+     */
+    public static class Row {
+
+        private final int rowNumber;
+        private final Map<Column, String> values;
+
+        private Row(int rowNumber, Map<Column, String> values) {
+            this.rowNumber = rowNumber;
+            this.values = values;
+        }
+
+        /**
+         * @return the row number in the file, starting at 1, for error
+         * messages
+         */
+        public int getRowNumber() {
+            return rowNumber;
+        }
+
+        /**
+         * @param column the column to read
+         * @return the trimmed cell value, empty if the cell is blank
+         */
+        public String get(Column column) {
+            return values.getOrDefault(column, "");
+        }
+    }
+
+    /**
+     * Reads the student rows of a spreadsheet and hands each one to a
+     * consumer as soon as it has been read. Blank rows are skipped.
+     *
+     * @param file the spreadsheet to read
+     * @param consumer receives each student row in file order
+     * @throws IOException if the file cannot be read, is not a spreadsheet or
+     * lacks a required column
+     */
+    public static void read(File file, Consumer<Row> consumer) throws IOException {
+        String name = file.getName().toLowerCase();
+        if (name.endsWith(".csv")) {
+            readCsv(file, consumer);
+        } else if (name.endsWith(".xlsx")) {
+            readWorkbook(file, consumer);
+        } else {
+            throw new IOException("Unsupported file type: " + file.getName() + ". Use an .xlsx or .csv file.");
+        }
+    }
+
+    private static void readWorkbook(File file, Consumer<Row> consumer) throws IOException {
+        RowCollector collector = new RowCollector(consumer);
+        try (OPCPackage pkg = OPCPackage.open(file, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IOException("The workbook has no sheets.");
+            }
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null,
+                    new ReadOnlySharedStringsTable(pkg), new SheetHandler(collector), new IsoDateFormatter(), false));
+            try (InputStream sheet = sheets.next()) {
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Not a valid Excel workbook: " + e.getMessage(), e);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        collector.finish();
+    }
+
+    private static void readCsv(File file, Consumer<Row> consumer) throws IOException {
+        RowCollector collector = new RowCollector(consumer);
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            CsvReader.read(reader, (rowNumber, cells) -> {
+                for (int i = 0; i < cells.size(); i++) {
+                    collector.cell(i, cells.get(i));
+                }
+                collector.endRow(rowNumber);
+            });
+        }
+        collector.finish();
+    }
+
+    /**
+     * Turns the cells of each row into a {@link Row}, using the first
+     * non-blank row as the header.
+     */
+    private static class RowCollector {
+
+        private final Consumer<Row> consumer;
+        private final List<String> cells = new ArrayList<>();
+        private Column[] columns;
+
+        RowCollector(Consumer<Row> consumer) {
+            this.consumer = consumer;
+        }
+
+        void cell(int columnIndex, String value) {
+            while (cells.size() <= columnIndex) {
+                cells.add("");
+            }
+            cells.set(columnIndex, value == null ? "" : value.trim());
+        }
+
+        void endRow(int rowNumber) throws IOException {
+            boolean blank = cells.stream().allMatch(String::isEmpty);
+            if (!blank) {
+                if (columns == null) {
+                    readHeader();
+                } else {
+                    Map<Column, String> values = new EnumMap<>(Column.class);
+                    for (int i = 0; i < cells.size() && i < columns.length; i++) {
+                        if (columns[i] != null && !cells.get(i).isEmpty()) {
+                            values.put(columns[i], cells.get(i));
+                        }
+                    }
+                    consumer.accept(new Row(rowNumber, values));
+                }
+            }
+            cells.clear();
+        }
+
+        private void readHeader() throws IOException {
+            columns = new Column[cells.size()];
+            List<Column> found = new ArrayList<>();
+            for (int i = 0; i < cells.size(); i++) {
+                columns[i] = Column.forHeader(cells.get(i));
+                if (columns[i] != null) {
+                    found.add(columns[i]);
+                }
+            }
+            List<String> missing = new ArrayList<>();
+            for (Column column : Column.values()) {
+                if (column.isRequired() && !found.contains(column)) {
+                    missing.add(column.getLabel());
+                }
+            }
+            if (!missing.isEmpty()) {
+                throw new IOException("The header row is missing the columns: " + String.join(", ", missing) + ".");
+            }
+        }
+
+        void finish() throws IOException {
+            if (columns == null) {
+                throw new IOException("The file is empty.");
+            }
+        }
+    }
+
+    /**
+     * Receives the cells of the worksheet from the streaming parser.
+     */
+    private static class SheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowCollector collector;
+
+        SheetHandler(RowCollector collector) {
+            this.collector = collector;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            try {
+                collector.endRow(rowNum + 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            collector.cell(new CellReference(cellReference).getCol(), formattedValue);
+        }
+    }
+
+    /**
+     * Formats date cells as yyyy-MM-dd whatever their display format, so dates
+     * do not depend on the locale the sheet was written in.
+     */
+    private static class IsoDateFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.mycompany.stims.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the bounded heap behind {@link ClassRanking}.
+ */
+class ClassRankingTest {
+
+    @Test
+    void keepsTheBestEntriesBestFirst() {
+        List<ClassRanking.RankedStudent> result = topK(3, 2.0, 3.9, 1.5, 3.1, 2.7, 3.5);
+
+        assertEquals(List.of(3.9, 3.5, 3.1), values(result));
+    }
+
+    @Test
+    void includesEveryEntryTiedWithTheLastPlace() {
+        List<ClassRanking.RankedStudent> result = topK(2, 3.0, 4.0, 3.0, 2.0, 3.0);
+
+        assertEquals(List.of(4.0, 3.0, 3.0, 3.0), values(result));
+    }
+
+    @Test
+    void dropsTiesOnceABetterEntryPushesThemOut() {
+        List<ClassRanking.RankedStudent> result = topK(2, 3.0, 3.0, 3.0, 3.5, 3.8);
+
+        assertEquals(List.of(3.8, 3.5), values(result));
+    }
+
+    @Test
+    void listsTiedEntriesByStudentId() {
+        TopKInput input = new TopKInput();
+        input.add(7, 3.0);
+        input.add(2, 3.0);
+        input.add(5, 3.0);
+
+        List<ClassRanking.RankedStudent> result = input.run(1);
+
+        assertEquals(List.of(2, 5, 7), ids(result));
+    }
+
+    @Test
+    void limitZeroKeepsEveryEntry() {
+        List<ClassRanking.RankedStudent> result = topK(0, 2.0, 3.9, 1.5, 3.9);
+
+        assertEquals(List.of(3.9, 3.9, 2.0, 1.5), values(result));
+    }
+
+    @Test
+    void limitAboveTheNumberOfEntriesKeepsEveryEntry() {
+        List<ClassRanking.RankedStudent> result = topK(10, 2.0, 3.9, 1.5);
+
+        assertEquals(List.of(3.9, 2.0, 1.5), values(result));
+    }
+
+    @Test
+    void noEntriesGiveAnEmptyResult() {
+        assertTrue(topK(5).isEmpty());
+    }
+
+    @Test
+    void matchesSortingEverything() {
+        Random random = new Random(42);
+        TopKInput input = new TopKInput();
+        for (int studentId = 1; studentId <= 5000; studentId++) {
+            // Few distinct values, so there are many ties
+            input.add(studentId, random.nextInt(41) / 10.0);
+        }
+
+        for (int limit : new int[]{1, 10, 100, 4999}) {
+            List<ClassRanking.RankedStudent> all = input.run(0);
+            double cutoff = all.get(limit - 1).getValue();
+            List<ClassRanking.RankedStudent> expected = new ArrayList<>();
+            for (ClassRanking.RankedStudent student : all) {
+                if (student.getValue() >= cutoff) {
+                    expected.add(student);
+                }
+            }
+
+            assertEquals(ids(expected), ids(input.run(limit)), "limit " + limit);
+        }
+    }
+
+    private static List<ClassRanking.RankedStudent> topK(int limit, double... values) {
+        TopKInput input = new TopKInput();
+        for (int i = 0; i < values.length; i++) {
+            input.add(i + 1, values[i]);
+        }
+        return input.run(limit);
+    }
+
+    private static List<Double> values(List<ClassRanking.RankedStudent> ranking) {
+        List<Double> values = new ArrayList<>();
+        ranking.forEach(student -> values.add(student.getValue()));
+        return values;
+    }
+
+    private static List<Integer> ids(List<ClassRanking.RankedStudent> ranking) {
+        List<Integer> ids = new ArrayList<>();
+        ranking.forEach(student -> ids.add(student.getStudentId()));
+        return ids;
+    }
+
+    /**
+     * Entries offered to a fresh heap in insertion order.
+     */
+    private static final class TopKInput {
+
+        private final List<ClassRanking.RankedStudent> entries = new ArrayList<>();
+
+        void add(int studentId, double value) {
+            entries.add(new ClassRanking.RankedStudent(studentId, value));
+        }
+
+        List<ClassRanking.RankedStudent> run(int limit) {
+            ClassRanking.TopK top = new ClassRanking.TopK(limit);
+            entries.forEach(top::offer);
+            List<ClassRanking.RankedStudent> result = top.result();
+            // result() sorts best first; check that independently of its comparator
+            List<ClassRanking.RankedStudent> sorted = new ArrayList<>(result);
+            sorted.sort(Comparator.comparingDouble(ClassRanking.RankedStudent::getValue).reversed()
+                    .thenComparingInt(ClassRanking.RankedStudent::getStudentId));
+            assertEquals(ids(sorted), ids(result));
+            return result;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.mycompany.stims.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Properties;
+import java.util.logging.Logger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests borrowing from {@link ConnectionPool} against an in-memory driver
+ * whose connections do nothing.
+ */
+class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:stims-test:pool";
+    private static final FakeDriver driver = new FakeDriver();
+
+    private ConnectionPool pool;
+
+    @BeforeAll
+    static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(driver);
+    }
+
+    @AfterAll
+    static void deregisterDriver() throws SQLException {
+        DriverManager.deregisterDriver(driver);
+    }
+
+    @AfterEach
+    void shutdownPool() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void reusesAClosedConnection() throws SQLException {
+        pool = newPool(1, 1000);
+
+        pool.borrow().close();
+        try (Connection connection = pool.borrow()) {
+            assertNotNull(connection);
+        }
+
+        assertEquals(1, pool.getOpenCount());
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    @Test
+    void timesOutWhenEveryConnectionIsBorrowed() throws SQLException {
+        pool = newPool(1, 100);
+
+        try (Connection held = pool.borrow()) {
+            assertThrows(SQLTransientConnectionException.class, pool::borrow);
+        }
+    }
+
+    @Test
+    void reclaimsAConnectionDroppedWithoutClosing() throws SQLException {
+        pool = newPool(1, 100);
+        borrowAndDrop();
+
+        Connection connection = null;
+        for (int attempt = 0; attempt < 50 && connection == null; attempt++) {
+            System.gc();
+            try {
+                connection = pool.borrow();
+            } catch (SQLTransientConnectionException e) {
+                // Not collected yet; try again
+            }
+        }
+
+        assertNotNull(connection, "the dropped connection was never reclaimed");
+        assertEquals(1, pool.getLeakedCount());
+        assertEquals(1, pool.getOpenCount());
+        connection.close();
+    }
+
+    // Kept in its own method so no local variable keeps the connection reachable
+    private void borrowAndDrop() throws SQLException {
+        pool.borrow();
+    }
+
+    private static ConnectionPool newPool(int maxSize, long borrowTimeoutMs) {
+        return new ConnectionPool(URL, "user", "secret", 0, maxSize, borrowTimeoutMs, 60_000, 1, 60_000);
+    }
+
+    /**
+     * Accepts {@code jdbc:stims-test:} URLs and hands out connections that
+     * report themselves open, valid and in auto-commit mode.
+     */
+    private static final class FakeDriver implements Driver {
+
+        @Override
+        public Connection connect(String url, Properties info) {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            return (Connection) Proxy.newProxyInstance(ConnectionPoolTest.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "isValid":
+                            case "getAutoCommit":
+                                return true;
+                            case "isClosed":
+                            case "isReadOnly":
+                                return false;
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            default:
+                                return null;
+                        }
+                    });
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url.startsWith("jdbc:stims-test:");
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
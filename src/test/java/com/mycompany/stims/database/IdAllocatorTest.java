@@ -0,0 +1,56 @@
+package com.mycompany.stims.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests how {@link IdAllocator} seeds username sequences from the usernames
+ * already stored.
+ */
+class IdAllocatorTest {
+
+    @Test
+    void startsWithTheBareBaseWhenNothingIsTaken() {
+        assertEquals(0, IdAllocator.nextSuffix("abebe.kebede", List.of()));
+    }
+
+    @Test
+    void continuesAfterTheBareBase() {
+        assertEquals(1, IdAllocator.nextSuffix("abebe.kebede", List.of("abebe.kebede")));
+    }
+
+    @Test
+    void continuesAfterTheHighestSuffix() {
+        List<String> usernames = List.of("abebe.kebede", "abebe.kebede2", "abebe.kebede7", "abebe.kebede3");
+
+        assertEquals(8, IdAllocator.nextSuffix("abebe.kebede", usernames));
+    }
+
+    @Test
+    void ignoresUsernamesThatOnlyStartWithTheBase() {
+        List<String> usernames = List.of("abebe.kebedech", "abebe.kebede.2", "abebe.kebede2a");
+
+        assertEquals(0, IdAllocator.nextSuffix("abebe.kebede", usernames));
+    }
+
+    @Test
+    void ignoresNumbersTooLongToBeASuffix() {
+        List<String> usernames = List.of("abebe.kebede4", "abebe.kebede20250101123");
+
+        assertEquals(5, IdAllocator.nextSuffix("abebe.kebede", usernames));
+    }
+
+    @Test
+    void matchesUsernamesInAnyCase() {
+        // LIKE ignores case, so the table may return the base in another case
+        assertEquals(3, IdAllocator.nextSuffix("abebe.kebede", List.of("Abebe.Kebede2")));
+    }
+
+    @Test
+    void leavesTheBareBaseUnsuffixed() {
+        assertEquals("abebe.kebede", IdAllocator.username("abebe.kebede", 0));
+        assertEquals("abebe.kebede4", IdAllocator.username("abebe.kebede", 4));
+    }
+}
@@ -0,0 +1,96 @@
+package com.mycompany.stims.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the percentile ranks and median read from the grade distribution of
+ * {@link OfferingAnalytics}.
+ */
+class OfferingAnalyticsTest {
+
+    @Test
+    void ranksAGradeByTheGradesBelowItAndHalfOfItsTies() {
+        OfferingAnalytics analytics = analytics(2, 1, 1);
+
+        assertEquals(75.0, analytics.getPercentileRank(0), 1e-9);
+        assertEquals(37.5, analytics.getPercentileRank(1), 1e-9);
+        assertEquals(12.5, analytics.getPercentileRank(2), 1e-9);
+    }
+
+    @Test
+    void ranksTheOnlyGradeGivenAtTheFiftiethPercentile() {
+        assertEquals(50.0, analytics(0, 3, 0).getPercentileRank(1), 1e-9);
+    }
+
+    @Test
+    void ranksAGradeNobodyGotBetweenItsNeighbours() {
+        OfferingAnalytics analytics = analytics(1, 0, 1);
+
+        assertEquals(50.0, analytics.getPercentileRank(1), 1e-9);
+    }
+
+    @Test
+    void averagesFiftyOverEveryStudent() {
+        int[] counts = {3, 0, 5, 2, 7, 1};
+        OfferingAnalytics analytics = analytics(counts);
+
+        double sum = 0;
+        for (int i = 0; i < counts.length; i++) {
+            sum += counts[i] * analytics.getPercentileRank(i);
+        }
+
+        assertEquals(50.0, sum / analytics.getLetterGradeCount(), 1e-9);
+    }
+
+    @Test
+    void findsTheMiddleGrade() {
+        assertEquals(1, analytics(1, 1, 1).getMedianGradeIndex());
+        assertEquals(1, analytics(0, 2, 0, 1).getMedianGradeIndex());
+    }
+
+    @Test
+    void takesTheHigherOfTwoMiddleGrades() {
+        assertEquals(0, analytics(1, 0, 0, 1).getMedianGradeIndex());
+        assertEquals(1, analytics(1, 1, 1, 1).getMedianGradeIndex());
+    }
+
+    @Test
+    void skipsGradesNobodyGot() {
+        assertEquals(2, analytics(0, 0, 5).getMedianGradeIndex());
+    }
+
+    @Test
+    void reportsNoRankOrMedianWithoutLetterGrades() {
+        OfferingAnalytics analytics = analytics(0, 0, 0);
+
+        assertEquals(-1, analytics.getPercentileRank(1), 1e-9);
+        assertEquals(-1, analytics.getMedianGradeIndex());
+    }
+
+    @Test
+    void combinesOfferingsByAddingTheirCounts() {
+        OfferingAnalytics first = new OfferingAnalytics(4, 3, new int[]{1, 2, 0}, 10.0, 1);
+        OfferingAnalytics second = new OfferingAnalytics(2, 2, new int[]{0, 1, 1}, 5.0, 2);
+
+        OfferingAnalytics combined = OfferingAnalytics.combine(List.of(first, second));
+
+        assertEquals(6, combined.getEnrollmentCount());
+        assertEquals(5, combined.getGradedCount());
+        assertArrayEquals(new int[]{1, 3, 1}, combined.getGradeCounts());
+        assertEquals(15.0, combined.getGradePointTotal(), 1e-9);
+        assertEquals(3, combined.getTeacherCount());
+        assertEquals(1, combined.getMedianGradeIndex());
+    }
+
+    private static OfferingAnalytics analytics(int... gradeCounts) {
+        int count = 0;
+        for (int gradeCount : gradeCounts) {
+            count += gradeCount;
+        }
+        return new OfferingAnalytics(count, count, gradeCounts, 0, 1);
+    }
+}
@@ -0,0 +1,69 @@
+package com.mycompany.stims.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the quote-aware CSV parsing shared by the spreadsheet readers.
+ */
+class CsvReaderTest {
+
+    @Test
+    void splitsPlainCellsOnCommas() throws IOException {
+        assertEquals(List.of(List.of("a", "b", "c"), List.of("1", "", "3")), rows("a,b,c\n1,,3\n"));
+    }
+
+    @Test
+    void keepsCommasInsideQuotedCells() throws IOException {
+        assertEquals(List.of(List.of("Addis Ababa, Bole", "B+")), rows("\"Addis Ababa, Bole\",B+\n"));
+    }
+
+    @Test
+    void turnsDoubledQuotesIntoOneQuote() throws IOException {
+        assertEquals(List.of(List.of("say \"hi\"", "x")), rows("\"say \"\"hi\"\"\",x\n"));
+    }
+
+    @Test
+    void joinsQuotedCellsThatSpanLines() throws IOException {
+        List<Integer> rowNumbers = new ArrayList<>();
+        List<List<String>> rows = new ArrayList<>();
+        CsvReader.read(reader("a,\"line one\nline two\",b\nc,d\n"), (rowNumber, cells) -> {
+            rowNumbers.add(rowNumber);
+            rows.add(cells);
+        });
+
+        assertEquals(List.of(List.of("a", "line one\nline two", "b"), List.of("c", "d")), rows);
+        assertEquals(List.of(1, 3), rowNumbers);
+    }
+
+    @Test
+    void dropsTheByteOrderMark() throws IOException {
+        assertEquals(List.of(List.of("Student ID No", "Grade")), rows("\uFEFFStudent ID No,Grade\n"));
+    }
+
+    @Test
+    void reportsBlankLinesAsOneEmptyCell() throws IOException {
+        assertEquals(List.of(List.of("a"), List.of(""), List.of("b")), rows("a\n\nb\n"));
+    }
+
+    @Test
+    void leavesSpacesAroundCells() throws IOException {
+        assertEquals(List.of(List.of(" a ", " b")), rows(" a , b\n"));
+    }
+
+    private static List<List<String>> rows(String csv) throws IOException {
+        List<List<String>> rows = new ArrayList<>();
+        CsvReader.read(reader(csv), (rowNumber, cells) -> rows.add(cells));
+        return rows;
+    }
+
+    private static BufferedReader reader(String csv) {
+        return new BufferedReader(new StringReader(csv));
+    }
+}
@@ -0,0 +1,70 @@
+package com.mycompany.stims.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.mycompany.stims.database.GradeDAO.GradeSubmission;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests reading grade rows from CSV files.
+ */
+class GradeSheetReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void skipsTheHeaderRow() throws IOException {
+        List<GradeSubmission> rows = read("Student ID No,Grade\nSTU001,A\nSTU002,b+\n");
+
+        assertEquals(List.of("2 STU001 A", "3 STU002 B+"), describe(rows));
+    }
+
+    @Test
+    void readsAFirstRowWithAGradeAsData() throws IOException {
+        List<GradeSubmission> rows = read("STU001,A-\nSTU002,C\n");
+
+        assertEquals(List.of("1 STU001 A-", "2 STU002 C"), describe(rows));
+    }
+
+    @Test
+    void readsQuotedCellsWithCommasAndSpaces() throws IOException {
+        List<GradeSubmission> rows = read("\uFEFF\"Student ID No\",\"Grade, letter\"\n\" STU001 \",\"A\"\n");
+
+        assertEquals(List.of("2 STU001 A"), describe(rows));
+    }
+
+    @Test
+    void reportsRowsByTheLineTheyStartOn() throws IOException {
+        List<GradeSubmission> rows = read("Student ID No,Grade,Comment\nSTU001,A,\"two\nlines\"\nSTU002,B\n");
+
+        assertEquals(List.of("2 STU001 A", "4 STU002 B"), describe(rows));
+    }
+
+    @Test
+    void ignoresBlankRowsAndKeepsRowsWithoutAGrade() throws IOException {
+        List<GradeSubmission> rows = read("Student ID No,Grade\n\n,\nSTU001\n");
+
+        assertEquals(List.of("4 STU001 "), describe(rows));
+    }
+
+    private List<GradeSubmission> read(String csv) throws IOException {
+        File file = dir.resolve("grades.csv").toFile();
+        Files.writeString(file.toPath(), csv, StandardCharsets.UTF_8);
+        return GradeSheetReader.read(file);
+    }
+
+    private static List<String> describe(List<GradeSubmission> rows) {
+        List<String> described = new ArrayList<>();
+        rows.forEach(row -> described.add(row.getRowNumber() + " " + row.getStudentIdNo() + " " + row.getGrade()));
+        return described;
+    }
+}